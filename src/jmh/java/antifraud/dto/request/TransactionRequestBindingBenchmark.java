@@ -0,0 +1,77 @@
+package antifraud.dto.request;
+
+import antifraud.config.JacksonConfig;
+import antifraud.dto.response.TransactionResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binding transaction requests and responses reflectively (with {@code @JsonFormat} on the date) against
+ * the streaming (de)serializers registered by {@link JacksonConfig}. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionRequestBindingBenchmark {
+
+    private static final byte[] REQUEST = """
+            {"amount": 150, "ip": "192.168.1.1", "number": "4000008449433403", "region": "EAP", "date": "2024-01-01T10:00:00"}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final TransactionResponseDTO response = new TransactionResponseDTO("MANUAL_PROCESSING", "amount");
+
+    private ObjectReader reflectiveReader;
+    private ObjectWriter reflectiveWriter;
+    private ObjectReader streamingReader;
+    private ObjectWriter streamingWriter;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper reflective = new ObjectMapper().registerModule(new JavaTimeModule());
+        reflectiveReader = reflective.readerFor(TransactionRequestDTO.class);
+        reflectiveWriter = reflective.writerFor(TransactionResponseDTO.class);
+
+        ObjectMapper streaming = new JacksonConfig().objectMapper();
+        streamingReader = streaming.readerFor(TransactionRequestDTO.class);
+        streamingWriter = streaming.writerFor(TransactionResponseDTO.class);
+    }
+
+    @Benchmark
+    public TransactionRequestDTO readReflective() throws IOException {
+        return reflectiveReader.readValue(REQUEST);
+    }
+
+    @Benchmark
+    public TransactionRequestDTO readStreaming() throws IOException {
+        return streamingReader.readValue(REQUEST);
+    }
+
+    @Benchmark
+    public byte[] writeReflective() throws IOException {
+        return reflectiveWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeStreaming() throws IOException {
+        return streamingWriter.writeValueAsBytes(response);
+    }
+}
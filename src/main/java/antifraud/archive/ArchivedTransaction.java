@@ -0,0 +1,67 @@
+package antifraud.archive;
+
+import antifraud.enums.RegionNames;
+import antifraud.enums.TransactionType;
+import antifraud.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static antifraud.utils.IpAddressParser.parseIpv4;
+
+/**
+ * A transaction row as stored in an archive segment, with every column in its compact typed form.
+ *
+ * @param ip       the IPv4 address packed into an int
+ * @param feedback the feedback given for the transaction, or {@code null} if there was none
+ */
+public record ArchivedTransaction(long id, long amount, int ip, long number, RegionNames region,
+                                  long epochSecond, TransactionType result, TransactionType feedback) {
+
+    /**
+     * Only closed transactions, which have a result and feedback and so can no longer change, are archived, and
+     * only those with an IPv4 address fit the segment columns.
+     */
+    public static boolean isArchivable(Transaction transaction) {
+        return transaction.getResult() != null && transaction.getFeedback() != null
+                && parseIpv4(transaction.getIp()) != -1L;
+    }
+
+    public static ArchivedTransaction of(Transaction transaction) {
+        long packedIp = parseIpv4(transaction.getIp());
+        if (packedIp == -1L) {
+            throw new IllegalArgumentException("Only IPv4 transactions can be archived: " + transaction.getId());
+        }
+
+        return new ArchivedTransaction(
+                transaction.getId(),
+                transaction.getAmount(),
+                (int) packedIp,
+                Long.parseLong(transaction.getNumber()),
+                RegionNames.valueOf(transaction.getRegion()),
+                transaction.getDate().toEpochSecond(ZoneOffset.UTC),
+                TransactionType.valueOf(transaction.getResult()),
+                transaction.getFeedback() == null ? null : TransactionType.valueOf(transaction.getFeedback()));
+    }
+
+    public String ipAddress() {
+        return (ip >>> 24) + "." + ((ip >>> 16) & 0xFF) + "." + ((ip >>> 8) & 0xFF) + "." + (ip & 0xFF);
+    }
+
+    public String cardNumber() {
+        String digits = Long.toString(number);
+        return digits.length() >= 16 ? digits : "0".repeat(16 - digits.length()) + digits;
+    }
+
+    public LocalDateTime date() {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public Transaction toTransaction() {
+        Transaction transaction = new Transaction(amount, ipAddress(), cardNumber(), region.name(), date());
+        transaction.setId(id);
+        transaction.setResult(result.name());
+        transaction.setFeedback(feedback == null ? null : feedback.name());
+        return transaction;
+    }
+}
@@ -0,0 +1,18 @@
+package antifraud.archive;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Per-segment summary used to skip segments that cannot match a card or date range.
+ */
+public record SegmentFooter(int rowCount, long minEpochSecond, long maxEpochSecond, long minCard, long maxCard) {
+
+    public boolean mayContainCard(long number) {
+        return number >= minCard && number <= maxCard;
+    }
+
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return from.toEpochSecond(ZoneOffset.UTC) <= maxEpochSecond && to.toEpochSecond(ZoneOffset.UTC) >= minEpochSecond;
+    }
+}
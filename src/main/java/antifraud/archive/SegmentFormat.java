@@ -0,0 +1,28 @@
+package antifraud.archive;
+
+/**
+ * On-disk layout of an archived transaction segment.
+ * <p>
+ * A segment starts with {@link #MAGIC} and {@link #VERSION}, followed by one section per column in
+ * {@link Column} order. Rows are sorted by card number and date, so the fixed-width {@code NUMBER}
+ * column can be binary searched in place. Varint columns are split into blocks of {@link #BLOCK_SIZE}
+ * rows whose offsets are kept in the footer, which lets a reader start decoding at any block.
+ * The file ends with the footer offset and the magic number again.
+ */
+final class SegmentFormat {
+
+    static final int MAGIC = 0x41465347; // "AFSG"
+    static final byte VERSION = 1;
+    static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES;
+    static final int TRAILER_BYTES = Long.BYTES + Integer.BYTES;
+    static final int BLOCK_SIZE = 128;
+
+    enum Column {
+        NUMBER, IP, REGION, RESULT, FEEDBACK, ID, AMOUNT, DATE;
+
+        static final Column[] BLOCKED = {ID, AMOUNT, DATE};
+    }
+
+    private SegmentFormat() {
+    }
+}
@@ -0,0 +1,174 @@
+package antifraud.archive;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Read access to all archive segments in the configured directory.
+ * Segments are immutable, so their readers are opened once and kept mapped. The directory is listed on first use
+ * only; segments written afterwards are added by the archiver through {@link #addSegment(Path)}.
+ */
+@Component
+public class TransactionArchive {
+
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    // Ordered by file name, which is the segment's first transaction id; replaced, never mutated
+    private volatile List<TransactionSegmentReader> readers;
+
+    public TransactionArchive(@Value("${archive.directory:../archive}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    public Path newSegmentPath(long firstTransactionId) throws IOException {
+        Files.createDirectories(directory);
+        return directory.resolve(String.format("transactions-%019d%s", firstTransactionId, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Makes a newly written segment visible to lookups. A segment rewritten at a path that is already registered
+     * replaces the old reader, which is then closed; its mapping stays valid for lookups still running on it.
+     */
+    public synchronized void addSegment(Path path) {
+        List<TransactionSegmentReader> updated = new ArrayList<>(readers());
+        List<TransactionSegmentReader> replaced = updated.stream()
+                .filter(reader -> reader.getPath().equals(path))
+                .toList();
+        updated.removeAll(replaced);
+        updated.add(open(path));
+        updated.sort(Comparator.comparing(reader -> reader.getPath().getFileName().toString()));
+        readers = List.copyOf(updated);
+
+        for (TransactionSegmentReader reader : replaced) {
+            try {
+                reader.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    public long count() {
+        long count = 0;
+        for (TransactionSegmentReader reader : readers()) {
+            count += reader.getFooter().rowCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns up to {@code limit} archived transactions starting at {@code offset}, ordered by segment and by id
+     * within a segment. Segments before the offset are skipped using their footer row counts, and only the rows on
+     * the page are decoded.
+     */
+    public List<ArchivedTransaction> list(long offset, int limit) {
+        List<ArchivedTransaction> page = new ArrayList<>();
+        long skip = offset;
+        for (TransactionSegmentReader reader : readers()) {
+            if (page.size() >= limit) {
+                break;
+            }
+
+            int rows = reader.getFooter().rowCount();
+            if (skip >= rows) {
+                skip -= rows;
+                continue;
+            }
+
+            int from = (int) skip;
+            reader.scanById(from, from + limit - page.size(), page::add);
+            skip = 0;
+        }
+        return page;
+    }
+
+    public Optional<ArchivedTransaction> findById(long id) {
+        for (TransactionSegmentReader reader : readers()) {
+            ArchivedTransaction transaction = reader.findById(id);
+            if (transaction != null) {
+                return Optional.of(transaction);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<ArchivedTransaction> findByNumber(String number) {
+        long card = Long.parseLong(number);
+        List<ArchivedTransaction> matches = new ArrayList<>();
+        for (TransactionSegmentReader reader : readers()) {
+            matches.addAll(reader.findByNumber(card));
+        }
+        return matches;
+    }
+
+    public void scan(LocalDateTime from, LocalDateTime to, Consumer<ArchivedTransaction> consumer) {
+        for (TransactionSegmentReader reader : readers()) {
+            if (reader.getFooter().overlaps(from, to)) {
+                reader.scan(transaction -> {
+                    LocalDateTime date = transaction.date();
+                    if (!date.isBefore(from) && !date.isAfter(to)) {
+                        consumer.accept(transaction);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (readers != null) {
+            for (TransactionSegmentReader reader : readers) {
+                reader.close();
+            }
+        }
+        readers = List.of();
+    }
+
+    private List<TransactionSegmentReader> readers() {
+        List<TransactionSegmentReader> current = readers;
+        return current != null ? current : load();
+    }
+
+    private synchronized List<TransactionSegmentReader> load() {
+        if (readers != null) {
+            return readers;
+        }
+        if (!Files.isDirectory(directory)) {
+            readers = List.of();
+            return readers;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            readers = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .map(this::open)
+                    .toList();
+            return readers;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private TransactionSegmentReader open(Path path) {
+        try {
+            return TransactionSegmentReader.open(path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
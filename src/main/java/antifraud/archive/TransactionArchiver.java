@@ -0,0 +1,84 @@
+package antifraud.archive;
+
+import antifraud.model.Transaction;
+import antifraud.repo.TransactionRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves closed transactions (older than the retention period and with feedback) out of the row store into archive
+ * segments. Each chunk is written to disk before its rows are deleted, so a crash can at worst leave rows in both
+ * places. {@code TransactionService} reads history and feedback through the archive as well, so archived
+ * transactions stay visible.
+ */
+@Service
+public class TransactionArchiver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionArchiver.class);
+
+    private final TransactionRepo transactionRepo;
+    private final TransactionSegmentWriter segmentWriter;
+    private final TransactionArchive transactionArchive;
+    private final int retentionDays;
+    private final int segmentRows;
+
+    public TransactionArchiver(TransactionRepo transactionRepo, TransactionSegmentWriter segmentWriter,
+                               TransactionArchive transactionArchive,
+                               @Value("${archive.retention-days:365}") int retentionDays,
+                               @Value("${archive.segment-rows:100000}") int segmentRows) {
+        this.transactionRepo = transactionRepo;
+        this.segmentWriter = segmentWriter;
+        this.transactionArchive = transactionArchive;
+        this.retentionDays = retentionDays;
+        this.segmentRows = segmentRows;
+    }
+
+    @Scheduled(cron = "${archive.cron:0 0 3 * * *}")
+    public void archiveClosedTransactions() {
+        int archived = archiveBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (archived > 0) {
+            LOGGER.info("Archived {} closed transactions", archived);
+        }
+    }
+
+    public int archiveBefore(LocalDateTime cutoff) {
+        int archived = 0;
+        long lastId = 0;
+
+        while (true) {
+            List<Transaction> chunk = transactionRepo
+                    .findAllByDateLessThanAndIdGreaterThanOrderByIdAsc(cutoff, lastId, PageRequest.of(0, segmentRows));
+            if (chunk.isEmpty()) {
+                return archived;
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+
+            List<Transaction> archivable = chunk.stream().filter(ArchivedTransaction::isArchivable).toList();
+            if (!archivable.isEmpty()) {
+                writeSegment(archivable);
+                transactionRepo.deleteAllByIdInBatch(archivable.stream().map(Transaction::getId).toList());
+                archived += archivable.size();
+            }
+        }
+    }
+
+    private void writeSegment(List<Transaction> transactions) {
+        try {
+            Path path = transactionArchive.newSegmentPath(transactions.get(0).getId());
+            segmentWriter.write(transactions, path);
+            transactionArchive.addSegment(path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write archive segment", ex);
+        }
+    }
+}
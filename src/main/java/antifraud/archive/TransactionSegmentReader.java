@@ -0,0 +1,244 @@
+package antifraud.archive;
+
+import antifraud.archive.SegmentFormat.Column;
+import antifraud.enums.RegionNames;
+import antifraud.enums.TransactionType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Memory-mapped, read-only view over a segment written by {@link TransactionSegmentWriter}.
+ * <p>
+ * Fixed-width columns are read with absolute gets straight from the mapping; varint columns are
+ * decoded starting at the nearest block boundary. Instances are safe for concurrent readers.
+ */
+public class TransactionSegmentReader implements Closeable {
+
+    private static final RegionNames[] REGIONS = RegionNames.values();
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final SegmentFooter footer;
+    private final int blockSize;
+    private final int[] columnOffsets;
+    private final int[][] blockOffsets;
+    // Row numbers in id order; rows themselves are stored in card order
+    private final int[] rowsById;
+    private final long minId;
+    private final long maxId;
+
+    private TransactionSegmentReader(Path path, FileChannel channel, ByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+
+        int size = buffer.limit();
+        if (size < SegmentFormat.HEADER_BYTES + SegmentFormat.TRAILER_BYTES
+                || buffer.getInt(0) != SegmentFormat.MAGIC
+                || buffer.getInt(size - Integer.BYTES) != SegmentFormat.MAGIC) {
+            throw new IllegalStateException("Not an archive segment: " + path);
+        }
+        if (buffer.get(Integer.BYTES) != SegmentFormat.VERSION) {
+            throw new IllegalStateException("Unsupported archive segment version in " + path);
+        }
+
+        ByteBuffer tail = buffer.duplicate();
+        tail.position((int) buffer.getLong(size - SegmentFormat.TRAILER_BYTES));
+        int rowCount = tail.getInt();
+        this.blockSize = tail.getInt();
+        this.footer = new SegmentFooter(rowCount, tail.getLong(), tail.getLong(), tail.getLong(), tail.getLong());
+
+        this.columnOffsets = new int[Column.values().length];
+        for (int i = 0; i < columnOffsets.length; i++) {
+            columnOffsets[i] = (int) tail.getLong();
+        }
+
+        int blockCount = tail.getInt();
+        this.blockOffsets = new int[Column.BLOCKED.length][blockCount];
+        for (int[] offsets : blockOffsets) {
+            for (int i = 0; i < blockCount; i++) {
+                offsets[i] = tail.getInt();
+            }
+        }
+
+        // Rows are in card order, so the id range and id order take one pass over the id column
+        long[] ids = new long[rowCount];
+        int[] row = {0};
+        scanIds(id -> {
+            ids[row[0]++] = id;
+            return true;
+        });
+        this.rowsById = IntStream.range(0, rowCount)
+                .boxed()
+                .sorted(Comparator.comparingLong(index -> ids[index]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.minId = rowCount == 0 ? Long.MAX_VALUE : ids[rowsById[0]];
+        this.maxId = rowCount == 0 ? Long.MIN_VALUE : ids[rowsById[rowCount - 1]];
+    }
+
+    public static TransactionSegmentReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new TransactionSegmentReader(path, channel, buffer);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public SegmentFooter getFooter() {
+        return footer;
+    }
+
+    /**
+     * Decodes every row of the segment in card number order.
+     */
+    public void scan(Consumer<ArchivedTransaction> consumer) {
+        decodeRange(0, footer.rowCount(), consumer);
+    }
+
+    /**
+     * Decodes the rows ranked {@code from} (inclusive) to {@code to} (exclusive) by id, in id order.
+     * Each row is decoded from the start of its block, so a page costs at most a block per row.
+     */
+    public void scanById(int from, int to, Consumer<ArchivedTransaction> consumer) {
+        for (int rank = Math.max(from, 0); rank < Math.min(to, footer.rowCount()); rank++) {
+            int row = rowsById[rank];
+            decodeRange(row, row + 1, consumer);
+        }
+    }
+
+    /**
+     * Returns all rows for the given card, located by binary search over the sorted card column.
+     */
+    public List<ArchivedTransaction> findByNumber(long number) {
+        List<ArchivedTransaction> matches = new ArrayList<>();
+        if (!footer.mayContainCard(number)) {
+            return matches;
+        }
+
+        int low = 0;
+        int high = footer.rowCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (numberAt(mid) < number) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        int end = low;
+        while (end < footer.rowCount() && numberAt(end) == number) {
+            end++;
+        }
+
+        decodeRange(low, end, matches::add);
+        return matches;
+    }
+
+    /**
+     * Returns the row with the given id, or {@code null}; only the id column is decoded while searching.
+     */
+    public ArchivedTransaction findById(long id) {
+        if (id < minId || id > maxId) {
+            return null;
+        }
+
+        int row = scanIds(candidate -> candidate != id);
+        if (row < 0) {
+            return null;
+        }
+
+        ArchivedTransaction[] found = new ArchivedTransaction[1];
+        decodeRange(row, row + 1, transaction -> found[0] = transaction);
+        return found[0];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void decodeRange(int from, int to, Consumer<ArchivedTransaction> consumer) {
+        if (from >= to) {
+            return;
+        }
+
+        int block = from / blockSize;
+        ByteBuffer ids = blockCursor(0, block);
+        ByteBuffer amounts = blockCursor(1, block);
+        ByteBuffer dates = blockCursor(2, block);
+
+        long id = 0;
+        long amount = 0;
+        for (int row = block * blockSize; row < to; row++) {
+            if (row % blockSize == 0) {
+                id = 0;
+                amount = 0;
+            }
+            id += VarInts.readZigZag(ids);
+            amount += VarInts.readZigZag(amounts);
+            long epochSecond = footer.minEpochSecond() + VarInts.readVarLong(dates);
+
+            if (row >= from) {
+                int feedback = buffer.get(columnOffsets[Column.FEEDBACK.ordinal()] + row);
+                consumer.accept(new ArchivedTransaction(
+                        id,
+                        amount,
+                        buffer.getInt(columnOffsets[Column.IP.ordinal()] + row * Integer.BYTES),
+                        numberAt(row),
+                        REGIONS[buffer.get(columnOffsets[Column.REGION.ordinal()] + row)],
+                        epochSecond,
+                        TYPES[buffer.get(columnOffsets[Column.RESULT.ordinal()] + row)],
+                        feedback == 0 ? null : TYPES[feedback - 1]));
+            }
+        }
+    }
+
+    // Feeds ids in row order to the visitor until it returns false; returns that row, or -1 if it never did
+    private int scanIds(LongPredicate visitor) {
+        ByteBuffer ids = null;
+        long id = 0;
+        for (int row = 0; row < footer.rowCount(); row++) {
+            if (row % blockSize == 0) {
+                ids = blockCursor(0, row / blockSize);
+                id = 0;
+            }
+            id += VarInts.readZigZag(ids);
+            if (!visitor.test(id)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private long numberAt(int row) {
+        return buffer.getLong(columnOffsets[Column.NUMBER.ordinal()] + row * Long.BYTES);
+    }
+
+    private ByteBuffer blockCursor(int blockedColumn, int block) {
+        ByteBuffer cursor = buffer.duplicate();
+        cursor.position(columnOffsets[Column.BLOCKED[blockedColumn].ordinal()] + blockOffsets[blockedColumn][block]);
+        return cursor;
+    }
+}
@@ -0,0 +1,146 @@
+package antifraud.archive;
+
+import antifraud.archive.SegmentFormat.Column;
+import antifraud.model.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+
+import static antifraud.archive.SegmentFormat.BLOCK_SIZE;
+
+/**
+ * Writes closed transactions into an immutable columnar segment file.
+ * <p>
+ * Amounts and ids are delta + zigzag varint encoded within each block, dates are stored as varint
+ * offsets from the segment's earliest date, IPs as packed ints, card numbers as longs and enum
+ * columns as single-byte ordinals. The file is written next to its target and moved into place,
+ * so readers never observe a partially written segment.
+ */
+@Component
+public class TransactionSegmentWriter {
+
+    private static final Comparator<ArchivedTransaction> ROW_ORDER = Comparator
+            .comparingLong(ArchivedTransaction::number)
+            .thenComparingLong(ArchivedTransaction::epochSecond)
+            .thenComparingLong(ArchivedTransaction::id);
+
+    public SegmentFooter write(List<Transaction> transactions, Path target) throws IOException {
+        if (transactions.isEmpty()) {
+            throw new IllegalArgumentException("Cannot write an empty archive segment");
+        }
+
+        List<ArchivedTransaction> rows = transactions.stream()
+                .map(ArchivedTransaction::of)
+                .sorted(ROW_ORDER)
+                .toList();
+        int rowCount = rows.size();
+        int blockCount = (rowCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        long minEpoch = Long.MAX_VALUE;
+        long maxEpoch = Long.MIN_VALUE;
+        for (ArchivedTransaction row : rows) {
+            minEpoch = Math.min(minEpoch, row.epochSecond());
+            maxEpoch = Math.max(maxEpoch, row.epochSecond());
+        }
+
+        ColumnBuffer[] columns = new ColumnBuffer[Column.values().length];
+        columns[Column.NUMBER.ordinal()] = new ColumnBuffer(rowCount * Long.BYTES);
+        columns[Column.IP.ordinal()] = new ColumnBuffer(rowCount * Integer.BYTES);
+        columns[Column.REGION.ordinal()] = new ColumnBuffer(rowCount);
+        columns[Column.RESULT.ordinal()] = new ColumnBuffer(rowCount);
+        columns[Column.FEEDBACK.ordinal()] = new ColumnBuffer(rowCount);
+        columns[Column.ID.ordinal()] = new ColumnBuffer(rowCount * 2);
+        columns[Column.AMOUNT.ordinal()] = new ColumnBuffer(rowCount * 2);
+        columns[Column.DATE.ordinal()] = new ColumnBuffer(rowCount * 3);
+        int[][] blockOffsets = new int[Column.BLOCKED.length][blockCount];
+
+        long previousId = 0;
+        long previousAmount = 0;
+        for (int row = 0; row < rowCount; row++) {
+            ArchivedTransaction transaction = rows.get(row);
+            if (row % BLOCK_SIZE == 0) {
+                int block = row / BLOCK_SIZE;
+                for (int i = 0; i < Column.BLOCKED.length; i++) {
+                    blockOffsets[i][block] = columns[Column.BLOCKED[i].ordinal()].size();
+                }
+                previousId = 0;
+                previousAmount = 0;
+            }
+
+            columns[Column.NUMBER.ordinal()].putLong(transaction.number());
+            columns[Column.IP.ordinal()].putInt(transaction.ip());
+            columns[Column.REGION.ordinal()].putByte(transaction.region().ordinal());
+            columns[Column.RESULT.ordinal()].putByte(transaction.result().ordinal());
+            columns[Column.FEEDBACK.ordinal()].putByte(transaction.feedback() == null ? 0 : transaction.feedback().ordinal() + 1);
+            columns[Column.ID.ordinal()].putZigZag(transaction.id() - previousId);
+            columns[Column.AMOUNT.ordinal()].putZigZag(transaction.amount() - previousAmount);
+            columns[Column.DATE.ordinal()].putVarLong(transaction.epochSecond() - minEpoch);
+
+            previousId = transaction.id();
+            previousAmount = transaction.amount();
+        }
+
+        SegmentFooter footer = new SegmentFooter(rowCount, minEpoch, maxEpoch,
+                rows.get(0).number(), rows.get(rowCount - 1).number());
+        writeFile(target, columns, blockOffsets, footer);
+        return footer;
+    }
+
+    private void writeFile(Path target, ColumnBuffer[] columns, int[][] blockOffsets, SegmentFooter footer) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ColumnBuffer header = new ColumnBuffer(SegmentFormat.HEADER_BYTES);
+            header.putInt(SegmentFormat.MAGIC);
+            header.putByte(SegmentFormat.VERSION);
+            long position = writeFully(channel, header.asByteBuffer());
+
+            long[] columnOffsets = new long[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                columnOffsets[i] = position;
+                position += writeFully(channel, columns[i].asByteBuffer());
+            }
+
+            int blockCount = blockOffsets[0].length;
+            ColumnBuffer tail = new ColumnBuffer(128 + blockCount * Column.BLOCKED.length * Integer.BYTES);
+            tail.putInt(footer.rowCount());
+            tail.putInt(BLOCK_SIZE);
+            tail.putLong(footer.minEpochSecond());
+            tail.putLong(footer.maxEpochSecond());
+            tail.putLong(footer.minCard());
+            tail.putLong(footer.maxCard());
+            for (long offset : columnOffsets) {
+                tail.putLong(offset);
+            }
+            tail.putInt(blockCount);
+            for (int[] offsets : blockOffsets) {
+                for (int offset : offsets) {
+                    tail.putInt(offset);
+                }
+            }
+            tail.putLong(position);
+            tail.putInt(SegmentFormat.MAGIC);
+            writeFully(channel, tail.asByteBuffer());
+            channel.force(true);
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private long writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+}
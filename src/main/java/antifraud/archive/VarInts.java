@@ -0,0 +1,36 @@
+package antifraud.archive;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 varint and zigzag helpers shared by the segment writer and reader.
+ */
+final class VarInts {
+
+    private VarInts() {
+    }
+
+    static long encodeZigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in archive segment");
+    }
+
+    static long readZigZag(ByteBuffer buffer) {
+        return decodeZigZag(readVarLong(buffer));
+    }
+}
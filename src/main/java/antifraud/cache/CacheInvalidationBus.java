@@ -0,0 +1,78 @@
+package antifraud.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Broadcasts cache invalidations to the other nodes over a Redis pub/sub channel and dispatches
+ * the ones received from other nodes to local handlers. Messages sent by this node are ignored.
+ * <p>
+ * Invalidation is best effort: if Redis is unreachable the failure is logged and remote nodes
+ * catch up once their local entries expire.
+ */
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationBus.class);
+    private static final char SEPARATOR = '\u001F';
+    private static final String CLEAR = "\u0000";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<CacheInvalidationHandler> handlers = new CopyOnWriteArrayList<>();
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void register(CacheInvalidationHandler handler) {
+        handlers.add(handler);
+    }
+
+    /**
+     * Tells the other nodes to drop {@code key} from their local copy of {@code cacheName},
+     * or to clear it entirely when {@code key} is {@code null}.
+     */
+    public void publish(String cacheName, Object key) {
+        String payload = nodeId + SEPARATOR + cacheName + SEPARATOR + (key == null ? CLEAR : String.valueOf(key));
+        try {
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Could not broadcast invalidation of cache {}: {}", cacheName, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = payload.indexOf(SEPARATOR);
+        int second = payload.indexOf(SEPARATOR, first + 1);
+        if (first < 0 || second < 0 || payload.startsWith(nodeId + SEPARATOR)) {
+            return;
+        }
+
+        String cacheName = payload.substring(first + 1, second);
+        String key = payload.substring(second + 1);
+        for (CacheInvalidationHandler handler : handlers) {
+            handler.onRemoteInvalidation(cacheName, CLEAR.equals(key) ? null : key);
+        }
+    }
+
+    @FunctionalInterface
+    public interface CacheInvalidationHandler {
+
+        /**
+         * @param key the string form of the evicted key, or {@code null} if the whole cache was cleared
+         */
+        void onRemoteInvalidation(String cacheName, String key);
+    }
+}
@@ -0,0 +1,29 @@
+package antifraud.cache;
+
+import java.util.function.Function;
+
+/**
+ * Reloads entries of one cache from their source of truth. Registering a loader enables refresh-ahead for that
+ * cache: entries past their {@code refresh-after} age are reloaded in the background while the current value is
+ * still being served.
+ */
+public interface CacheLoader {
+
+    String cacheName();
+
+    Object load(Object key) throws Exception;
+
+    static CacheLoader of(String cacheName, Function<Object, ?> loader) {
+        return new CacheLoader() {
+            @Override
+            public String cacheName() {
+                return cacheName;
+            }
+
+            @Override
+            public Object load(Object key) {
+                return loader.apply(key);
+            }
+        };
+    }
+}
@@ -0,0 +1,299 @@
+package antifraud.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A cache backed by a bounded in-process Caffeine cache (L1) in front of a shared Redis cache (L2).
+ * <p>
+ * Reads are served from L1 when possible and fall back to L2, populating L1 on the way.
+ * Writes and evictions go to both tiers and are broadcast so that other nodes drop their L1 copy.
+ * <p>
+ * Concurrent misses for the same key share a single load. When the cache has a {@link CacheLoader}, entries older
+ * than {@code refreshAfter} are reloaded in the background while the current value keeps being served, and an
+ * expired entry is still returned for up to {@code staleIfError} if reloading it fails.
+ * <p>
+ * A load never overwrites a write or eviction that happened while it ran: its result is returned to the caller but
+ * not stored, so a blocklist change is never undone by a slower read of the old value.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Entry> local;
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheLoader loader;
+    private final Executor refreshExecutor;
+    private final LongSupplier ticker;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final long staleIfErrorNanos;
+    private final Map<Object, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    // Bumped before every write and eviction, so a load can tell whether its result was superseded while it ran
+    private final AtomicLong modifications = new AtomicLong();
+
+    /**
+     * @param local  the L1 store; it must retain entries for at least {@code localTtl + staleIfError}
+     * @param loader reloads entries for refresh-ahead, or {@code null} to only expire them
+     */
+    public TwoTierCache(String name, TwoTierCacheProperties.Spec spec,
+                        com.github.benmanes.caffeine.cache.Cache<Object, Entry> local, Cache remote,
+                        CacheInvalidationBus invalidationBus, CacheLoader loader, Executor refreshExecutor,
+                        LongSupplier ticker) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.loader = loader;
+        this.refreshExecutor = refreshExecutor;
+        this.ticker = ticker;
+        this.ttlNanos = spec.getLocalTtl().toNanos();
+        this.refreshAfterNanos = loader != null && spec.getRefreshAfter() != null
+                ? spec.getRefreshAfter().toNanos() : Long.MAX_VALUE;
+        this.staleIfErrorNanos = spec.getStaleIfError() != null ? spec.getStaleIfError().toNanos() : 0L;
+    }
+
+    /**
+     * How long the L1 store has to keep entries so expired ones are still available as a fallback.
+     */
+    public static Duration retention(TwoTierCacheProperties.Spec spec) {
+        Duration staleIfError = spec.getStaleIfError() != null ? spec.getStaleIfError() : Duration.ZERO;
+        return spec.getLocalTtl().plus(staleIfError);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entry entry = local.getIfPresent(key);
+        if (entry != null) {
+            long age = ticker.getAsLong() - entry.loadedAt();
+            if (age < ttlNanos) {
+                refreshIfDue(key, entry, age);
+                return entry.value();
+            }
+        }
+
+        long seen = modifications.get();
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+
+        Entry loaded = storeLoaded(key, wrapper.get(), seen, false);
+        return loaded.value();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = local.getIfPresent(key);
+        if (entry == null) {
+            return (T) fromStoreValue(loadCoalesced(key, () -> loadThroughRemote(key, valueLoader)).value());
+        }
+
+        long age = ticker.getAsLong() - entry.loadedAt();
+        if (age < ttlNanos) {
+            refreshIfDue(key, entry, age);
+            return (T) fromStoreValue(entry.value());
+        }
+
+        try {
+            return (T) fromStoreValue(loadCoalesced(key, () -> loadThroughRemote(key, valueLoader)).value());
+        } catch (RuntimeException ex) {
+            if (age - ttlNanos >= staleIfErrorNanos) {
+                throw ex;
+            }
+
+            LOGGER.warn("Serving stale entry of cache {} after reload failed: {}", name, ex.getMessage());
+            return (T) fromStoreValue(entry.value());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        modifications.incrementAndGet();
+        remote.put(key, value);
+        store(key, value);
+        invalidationBus.publish(name, key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        modifications.incrementAndGet();
+        remote.evict(key);
+        local.invalidate(key);
+        invalidationBus.publish(name, key);
+    }
+
+    @Override
+    public void clear() {
+        modifications.incrementAndGet();
+        remote.clear();
+        local.invalidateAll();
+        invalidationBus.publish(name, null);
+    }
+
+    /**
+     * Drops local entries after another node changed them; L2 has already been updated by that node.
+     */
+    void evictLocal(String key) {
+        modifications.incrementAndGet();
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.asMap().keySet().removeIf(candidate -> key.equals(String.valueOf(candidate)));
+        }
+    }
+
+    /**
+     * Runs {@code load} unless a load for the same key is already in progress, in which case its result is shared.
+     */
+    private Entry loadCoalesced(Object key, Callable<Entry> load) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            Entry entry = load.call();
+            mine.complete(entry);
+            return entry;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } catch (Exception ex) {
+            ValueRetrievalException wrapped = new ValueRetrievalException(key, load, ex);
+            mine.completeExceptionally(wrapped);
+            throw wrapped;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Entry loadThroughRemote(Object key, Callable<?> valueLoader) {
+        long seen = modifications.get();
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null) {
+            return storeLoaded(key, wrapper.get(), seen, false);
+        }
+
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+
+        return storeLoaded(key, value, seen, true);
+    }
+
+    private void refreshIfDue(Object key, Entry current, long age) {
+        if (age < refreshAfterNanos || !refreshing.add(key)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loadCoalesced(key, () -> {
+                        long seen = modifications.get();
+                        Object value = loader.load(key);
+                        Entry refreshed = new Entry(toStoreValue(value), ticker.getAsLong());
+                        // Skip the write if the entry was evicted or replaced while loading
+                        if (local.asMap().replace(key, current, refreshed)) {
+                            remote.put(key, value);
+                            if (modifications.get() != seen) {
+                                remote.evict(key);
+                                local.asMap().remove(key, refreshed);
+                            }
+                        }
+                        return refreshed;
+                    });
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Refresh of cache {} failed, keeping current entry: {}", name, ex.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Refresh is an optimisation; the entry is reloaded on expiry instead
+            refreshing.remove(key);
+        }
+    }
+
+    private Entry store(Object key, Object value) {
+        Entry entry = new Entry(toStoreValue(value), ticker.getAsLong());
+        local.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Stores a loaded value in L1, and first in L2 when {@code toRemote}, unless the key was written or evicted
+     * since {@code seen}. Each write is checked again after it is made: a concurrent eviction bumps the counter
+     * before touching the tiers, so it either removes the write itself or is seen here and the write is undone.
+     */
+    private Entry storeLoaded(Object key, Object value, long seen, boolean toRemote) {
+        Entry entry = new Entry(toStoreValue(value), ticker.getAsLong());
+        if (modifications.get() != seen) {
+            return entry;
+        }
+
+        if (toRemote) {
+            remote.put(key, value);
+            if (modifications.get() != seen) {
+                remote.evict(key);
+                return entry;
+            }
+        }
+        local.put(key, entry);
+        if (modifications.get() != seen) {
+            local.asMap().remove(key, entry);
+        }
+        return entry;
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * A stored value with the {@link System#nanoTime()} reading taken when it was loaded.
+     */
+    public record Entry(Object value, long loadedAt) {
+    }
+}
@@ -0,0 +1,86 @@
+package antifraud.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableConfigurationProperties(TwoTierCacheProperties.class)
+public class TwoTierCacheConfig {
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate, TwoTierCacheProperties properties) {
+        return new CacheInvalidationBus(redisTemplate, properties.getInvalidationChannel());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheInvalidationBus invalidationBus,
+                                                                            TwoTierCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+
+    // Evictions are deferred until the surrounding transaction commits, so a concurrent reader cannot
+    // repopulate a cache with rows that are about to change
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, TwoTierCacheProperties properties,
+                                     CacheInvalidationBus invalidationBus, ObjectProvider<CacheLoader> loaders,
+                                     @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor) {
+        return new TransactionAwareCacheManagerProxy(new TwoTierCacheManager(properties,
+                redisCacheManager(connectionFactory, properties), invalidationBus, loaders.orderedStream().toList(), cacheRefreshExecutor));
+    }
+
+    // Refreshes are best effort, so when the queue is full they are dropped and the entry simply expires
+    @Bean(name = "cacheRefreshExecutor")
+    public Executor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("CacheRefresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, TwoTierCacheProperties properties) {
+        Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
+        properties.getSpecs().keySet().forEach(name ->
+                perCache.put(name, redisCacheConfiguration(properties.specFor(name))));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(redisCacheConfiguration(properties.getDefaults()))
+                .withInitialCacheConfigurations(perCache)
+                .build();
+        redisCacheManager.initializeCaches();
+        return redisCacheManager;
+    }
+
+    private RedisCacheConfiguration redisCacheConfiguration(TwoTierCacheProperties.Spec spec) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(spec.getRemoteTtl())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+    }
+}
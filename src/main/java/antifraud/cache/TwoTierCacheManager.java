@@ -0,0 +1,68 @@
+package antifraud.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates a {@link TwoTierCache} per cache name on first use, sized from {@link TwoTierCacheProperties}
+ * and refreshed by the {@link CacheLoader} registered for that name, if any.
+ */
+public class TwoTierCacheManager implements CacheManager, CacheInvalidationBus.CacheInvalidationHandler {
+
+    private final TwoTierCacheProperties properties;
+    private final RedisCacheManager redisCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<String, CacheLoader> loaders;
+    private final Executor refreshExecutor;
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(TwoTierCacheProperties properties, RedisCacheManager redisCacheManager,
+                               CacheInvalidationBus invalidationBus, List<CacheLoader> loaders,
+                               Executor refreshExecutor) {
+        this.properties = properties;
+        this.redisCacheManager = redisCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.loaders = loaders.stream().collect(Collectors.toMap(CacheLoader::cacheName, Function.identity()));
+        this.refreshExecutor = refreshExecutor;
+        invalidationBus.register(this);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void onRemoteInvalidation(String cacheName, String key) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    private TwoTierCache createCache(String name) {
+        TwoTierCacheProperties.Spec spec = properties.specFor(name);
+        com.github.benmanes.caffeine.cache.Cache<Object, TwoTierCache.Entry> local = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(TwoTierCache.retention(spec))
+                .build();
+        return new TwoTierCache(name, spec, local, redisCacheManager.getCache(name), invalidationBus,
+                loaders.get(name), refreshExecutor, System::nanoTime);
+    }
+}
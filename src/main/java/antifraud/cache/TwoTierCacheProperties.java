@@ -0,0 +1,61 @@
+package antifraud.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounds for the local (L1) and Redis (L2) tiers, with optional overrides per cache name.
+ * Any value left unset in a per-cache spec falls back to {@link #getDefaults()}.
+ * <p>
+ * {@code refreshAfter} is the age at which a local entry is reloaded in the background (only for caches with a
+ * {@link CacheLoader}); {@code staleIfError} is how long past {@code localTtl} an entry may still be served when
+ * reloading it fails.
+ */
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class TwoTierCacheProperties {
+
+    private String invalidationChannel = "antifraud:cache-invalidation";
+    private Spec defaults = new Spec(10_000L, Duration.ofSeconds(30), Duration.ofMinutes(10), null, Duration.ZERO);
+    private Map<String, Spec> specs = new HashMap<>();
+
+    public Spec specFor(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        if (spec == null) {
+            return defaults;
+        }
+
+        return new Spec(
+                spec.getMaximumSize() != null ? spec.getMaximumSize() : defaults.getMaximumSize(),
+                spec.getLocalTtl() != null ? spec.getLocalTtl() : defaults.getLocalTtl(),
+                spec.getRemoteTtl() != null ? spec.getRemoteTtl() : defaults.getRemoteTtl(),
+                spec.getRefreshAfter() != null ? spec.getRefreshAfter() : defaults.getRefreshAfter(),
+                spec.getStaleIfError() != null ? spec.getStaleIfError() : defaults.getStaleIfError());
+    }
+
+    @Data
+    public static class Spec {
+
+        private Long maximumSize;
+        private Duration localTtl;
+        private Duration remoteTtl;
+        private Duration refreshAfter;
+        private Duration staleIfError;
+
+        public Spec() {
+        }
+
+        public Spec(Long maximumSize, Duration localTtl, Duration remoteTtl, Duration refreshAfter,
+                    Duration staleIfError) {
+            this.maximumSize = maximumSize;
+            this.localTtl = localTtl;
+            this.remoteTtl = remoteTtl;
+            this.refreshAfter = refreshAfter;
+            this.staleIfError = staleIfError;
+        }
+    }
+}
@@ -1,23 +1,89 @@
 package antifraud.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
 
+/**
+ * The executor behind the {@code @Async} event listeners. {@code async.executor.mode} decides what happens
+ * when a burst outgrows it; see {@link AsyncExecutorProperties.Mode}. None of the modes throw at the caller.
+ */
 @Configuration
+@EnableConfigurationProperties(AsyncExecutorProperties.class)
 public class AsyncConfig {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncConfig.class);
+    private static final String THREAD_NAME_PREFIX = "AsyncExecutor-";
+
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(AsyncExecutorProperties properties, MeterRegistry meterRegistry) {
+        InstrumentedTaskDecorator decorator = new InstrumentedTaskDecorator(meterRegistry, "taskExecutor");
+        AsyncExecutorProperties.Mode mode = properties.getMode();
+
+        if (mode == AsyncExecutorProperties.Mode.VIRTUAL) {
+            if (Runtime.version().feature() >= 21) {
+                return virtualThreadExecutor(properties, decorator);
+            }
+            LOGGER.warn("Virtual threads need Java 21, running on {}; using a caller-runs pool instead", Runtime.version());
+            mode = AsyncExecutorProperties.Mode.CALLER_RUNS;
+        }
+
+        return platformExecutor(properties, decorator, mode);
+    }
+
+    static Executor virtualThreadExecutor(AsyncExecutorProperties properties, InstrumentedTaskDecorator decorator) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(THREAD_NAME_PREFIX);
+        executor.setVirtualThreads(true);
+        // Beyond the limit submitters wait for a slot, which is the backpressure for this mode
+        executor.setConcurrencyLimit(properties.getMaxConcurrency());
+        executor.setTaskDecorator(decorator);
+        return executor;
+    }
+
+    static ThreadPoolTaskExecutor platformExecutor(AsyncExecutorProperties properties, InstrumentedTaskDecorator decorator,
+                                                   AsyncExecutorProperties.Mode mode) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(10); // base number of maintained threads
-        executor.setMaxPoolSize(20); // maximum number of threads
-        executor.setQueueCapacity(50); // waiting tasks queue capacity
-        executor.setThreadNamePrefix("AsyncExecutor-"); // prefix of every thread name
+        executor.setCorePoolSize(properties.getCorePoolSize()); // base number of maintained threads
+        executor.setMaxPoolSize(properties.getMaxPoolSize()); // maximum number of threads
+        executor.setQueueCapacity(properties.getQueueCapacity()); // waiting tasks queue capacity
+        executor.setThreadNamePrefix(THREAD_NAME_PREFIX); // prefix of every thread name
+        executor.setTaskDecorator(decorator);
+        executor.setRejectedExecutionHandler(mode == AsyncExecutorProperties.Mode.DROP_OLDEST
+                ? dropOldest(decorator) : callerRuns(decorator));
         executor.initialize();
         return executor;
     }
+
+    private static RejectedExecutionHandler callerRuns(InstrumentedTaskDecorator decorator) {
+        return (task, pool) -> {
+            if (!pool.isShutdown()) {
+                decorator.recordCallerRuns();
+                task.run();
+            }
+        };
+    }
+
+    private static RejectedExecutionHandler dropOldest(InstrumentedTaskDecorator decorator) {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                return;
+            }
+            Runnable oldest = pool.getQueue().poll();
+            if (oldest != null) {
+                decorator.recordDropped(oldest);
+            }
+            // The task is already decorated, and pool.execute would decorate and count it a second time
+            if (!pool.getQueue().offer(task)) {
+                decorator.recordDropped(task);
+            }
+        };
+    }
 }
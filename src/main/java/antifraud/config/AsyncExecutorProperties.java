@@ -0,0 +1,24 @@
+package antifraud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "async.executor")
+public class AsyncExecutorProperties {
+
+    public enum Mode {
+        // A new virtual thread per task, at most maxConcurrency at once; needs Java 21
+        VIRTUAL,
+        // Bounded platform pool; when full the submitting thread runs the task itself
+        CALLER_RUNS,
+        // Bounded platform pool; when full the oldest queued task is discarded and counted
+        DROP_OLDEST
+    }
+
+    private Mode mode = Mode.CALLER_RUNS;
+    private int corePoolSize = 10;
+    private int maxPoolSize = 20;
+    private int queueCapacity = 500;
+    private int maxConcurrency = 1000;
+}
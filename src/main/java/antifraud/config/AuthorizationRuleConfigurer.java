@@ -21,7 +21,8 @@ public class AuthorizationRuleConfigurer {
 
     private void configurePublicEndpoints(AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry auth) {
         auth.requestMatchers(HttpMethod.POST, "/api/auth/user").permitAll();
-        auth.requestMatchers("/actuator/health").permitAll();
+        auth.requestMatchers(HttpMethod.POST, "/api/auth/token").permitAll();
+        auth.requestMatchers("/actuator/health", "/actuator/health/**").permitAll();
         auth.requestMatchers("/actuator/shutdown").permitAll();
         auth.requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll();
     }
@@ -41,6 +42,8 @@ public class AuthorizationRuleConfigurer {
     private void configureSupportEndpoints(AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry auth) {
         auth.requestMatchers("/api/antifraud/suspicious-ip/**").hasRole(RoleNames.SUPPORT.name());
         auth.requestMatchers("/api/antifraud/stolencard/**").hasRole(RoleNames.SUPPORT.name());
+        auth.requestMatchers("/api/antifraud/rules/**").hasRole(RoleNames.SUPPORT.name());
+        auth.requestMatchers(HttpMethod.GET, "/api/antifraud/graph/**").hasRole(RoleNames.SUPPORT.name());
         auth.requestMatchers(HttpMethod.GET, "/api/antifraud/history/**").hasRole(RoleNames.SUPPORT.name());
         auth.requestMatchers(HttpMethod.PUT, "/api/antifraud/transaction").hasRole(RoleNames.SUPPORT.name());
     }
@@ -0,0 +1,35 @@
+package antifraud.config;
+
+import antifraud.cache.CacheLoader;
+import antifraud.dto.response.UserResponseDTO;
+import antifraud.repo.AppUserRepo;
+import antifraud.repo.StolenCardRepo;
+import antifraud.repo.SuspiciousIpRepo;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.stream.Collectors;
+
+/**
+ * Background reloaders for the cached lists, mirroring the {@code @Cacheable} methods that fill them on a miss.
+ */
+@Configuration
+public class CacheLoaderConfig {
+
+    @Bean
+    public CacheLoader suspiciousIpsLoader(SuspiciousIpRepo suspiciousIpRepo) {
+        return CacheLoader.of("suspiciousIps", key -> suspiciousIpRepo.findAllByOrderByIdAsc());
+    }
+
+    @Bean
+    public CacheLoader stolenCardsLoader(StolenCardRepo stolenCardRepo) {
+        return CacheLoader.of("stolenCards", key -> stolenCardRepo.findAllByOrderByIdAsc());
+    }
+
+    @Bean
+    public CacheLoader usersLoader(AppUserRepo appUserRepo) {
+        return CacheLoader.of("users", key -> appUserRepo.findAllByOrderByIdAsc().stream()
+                .map(UserResponseDTO::new)
+                .collect(Collectors.toList()));
+    }
+}
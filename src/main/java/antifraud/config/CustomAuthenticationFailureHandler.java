@@ -1,13 +1,11 @@
 package antifraud.config;
 
-import antifraud.exception.NotFoundException;
 import antifraud.logging.events.authentication.BruteForceAttemptEvent;
 import antifraud.logging.events.authentication.FailedLoginEvent;
 import antifraud.logging.events.user.UserLockedStatusChangeEvent;
 import antifraud.model.AppUser;
-import antifraud.model.FailedLoginAttempt;
 import antifraud.repo.AppUserRepo;
-import antifraud.repo.FailedLoginAttemptRepo;
+import antifraud.security.LoginAttemptTracker;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -21,12 +19,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class CustomAuthenticationFailureHandler implements AuthenticationFailureHandler {
 
-    private final FailedLoginAttemptRepo failedLoginAttemptRepo;
+    private final LoginAttemptTracker loginAttemptTracker;
     private final ApplicationEventPublisher eventPublisher;
     private final AppUserRepo appUserRepo;
 
@@ -37,28 +37,44 @@ public class CustomAuthenticationFailureHandler implements AuthenticationFailure
     @Transactional(isolation = Isolation.REPEATABLE_READ)
     public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
                                         AuthenticationException exception) throws IOException {
-        // Save the failed login attempt
-        String username = request.getParameter("username");
-        AppUser user = appUserRepo.findByUsername(username).orElseThrow(() -> new NotFoundException("User not found"));
-        failedLoginAttemptRepo.save(new FailedLoginAttempt(username));
+        String username = Objects.toString(request.getParameter("username"), "");
+        if (recordFailure(username, request.getRemoteAddr())) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "User blocked due to too many failed login attempts");
+        } else {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid credentials");
+        }
+    }
+
+    /**
+     * Counts a failed login for {@code username} and locks the user once the threshold is reached.
+     * Shared with the token endpoint, which has no servlet response to write to.
+     *
+     * @return {@code true} if this failure locked the user
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public boolean recordFailure(String username, String ipAddress) {
+        // Count the failed login attempt within the sliding window
+        int failedAttemptsCount = loginAttemptTracker.recordFailure(username);
 
         // Log failed login
-        String ipAddress = request.getRemoteAddr();
         eventPublisher.publishEvent(new FailedLoginEvent(username, ipAddress, LocalDateTime.now()));
 
-        int failedAttemptsCount = failedLoginAttemptRepo.countByUsername(username);
+        // The user is only loaded once the threshold is reached; unknown usernames are never locked
+        Optional<AppUser> user = failedAttemptsCount >= failedLoginThreshold
+                ? appUserRepo.findByUsername(username)
+                : Optional.empty();
 
         // If failed attempts exceed threshold, block user
-        if (failedAttemptsCount >= failedLoginThreshold) {
-            user.setLocked(true);
-            appUserRepo.save(user);
+        if (user.isEmpty()) {
+            return false;
+        }
 
-            eventPublisher.publishEvent(new BruteForceAttemptEvent(username, ipAddress, LocalDateTime.now()));
-            eventPublisher.publishEvent(new UserLockedStatusChangeEvent(username, true));
+        user.get().setLocked(true);
+        appUserRepo.save(user.get());
+        loginAttemptTracker.reset(username);
 
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "User blocked due to too many failed login attempts");
-        } else {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid credentials");
-        }
+        eventPublisher.publishEvent(new BruteForceAttemptEvent(username, ipAddress, LocalDateTime.now()));
+        eventPublisher.publishEvent(new UserLockedStatusChangeEvent(username, true));
+        return true;
     }
 }
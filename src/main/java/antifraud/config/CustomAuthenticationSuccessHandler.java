@@ -1,9 +1,7 @@
 package antifraud.config;
 
-import antifraud.exception.NotFoundException;
 import antifraud.logging.events.authentication.SuccessfulLoginEvent;
-import antifraud.repo.AppUserRepo;
-import antifraud.repo.FailedLoginAttemptRepo;
+import antifraud.security.LoginAttemptTracker;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -11,8 +9,6 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -20,21 +16,23 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class CustomAuthenticationSuccessHandler implements AuthenticationSuccessHandler {
 
-    private final AppUserRepo appUserRepo;
-    private final FailedLoginAttemptRepo failedLoginAttemptRepo;
+    private final LoginAttemptTracker loginAttemptTracker;
     private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
                                         Authentication authentication) {
+        recordSuccess(authentication.getName(), request.getRemoteAddr());
+    }
+
+    /**
+     * Clears the failed login count for {@code username}. Shared with the token endpoint.
+     */
+    public void recordSuccess(String username, String ipAddress) {
         // Reset failed attempts counter
-        String username = authentication.getName();
-        appUserRepo.findByUsername(username).orElseThrow(() -> new NotFoundException("User not found"));
-        failedLoginAttemptRepo.deleteByUsername(username);
+        loginAttemptTracker.reset(username);
 
         // Log successful login
-        String ipAddress = request.getRemoteAddr();
         eventPublisher.publishEvent(new SuccessfulLoginEvent(username, ipAddress, LocalDateTime.now()));
     }
 }
@@ -0,0 +1,97 @@
+package antifraud.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the async executor the same way whatever its mode: how many tasks wait and run, how long they wait
+ * before starting and how long they run, and how many were rejected.
+ */
+public class InstrumentedTaskDecorator implements TaskDecorator {
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer runTimer;
+    private final Counter callerRuns;
+    private final Counter dropped;
+
+    public InstrumentedTaskDecorator(MeterRegistry registry, String name) {
+        Gauge.builder("async.executor.queued", queued, AtomicInteger::get).tag("name", name).register(registry);
+        Gauge.builder("async.executor.active", active, AtomicInteger::get).tag("name", name).register(registry);
+        this.waitTimer = Timer.builder("async.executor.wait").tag("name", name)
+                .description("Time tasks spend queued before they start").register(registry);
+        this.runTimer = Timer.builder("async.executor.run").tag("name", name)
+                .description("Time tasks spend running").register(registry);
+        this.callerRuns = Counter.builder("async.executor.rejected").tag("name", name).tag("action", "caller-runs")
+                .register(registry);
+        this.dropped = Counter.builder("async.executor.rejected").tag("name", name).tag("action", "dropped")
+                .register(registry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        queued.incrementAndGet();
+        return new InstrumentedTask(runnable, System.nanoTime());
+    }
+
+    void recordCallerRuns() {
+        callerRuns.increment();
+    }
+
+    /**
+     * Accounts for a task that was removed from the queue and will never run.
+     */
+    void recordDropped(Runnable task) {
+        dropped.increment();
+        if (task instanceof InstrumentedTask instrumented) {
+            instrumented.discard();
+        }
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    private final class InstrumentedTask implements Runnable {
+
+        private final Runnable delegate;
+        private final long submittedAt;
+        private final AtomicBoolean dequeued = new AtomicBoolean();
+
+        private InstrumentedTask(Runnable delegate, long submittedAt) {
+            this.delegate = delegate;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public void run() {
+            if (!dequeued.compareAndSet(false, true)) {
+                return;
+            }
+            queued.decrementAndGet();
+            long startedAt = System.nanoTime();
+            waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                delegate.run();
+            } finally {
+                active.decrementAndGet();
+                runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void discard() {
+            if (dequeued.compareAndSet(false, true)) {
+                queued.decrementAndGet();
+            }
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package antifraud.config;
 
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.dto.request.TransactionRequestDeserializer;
+import antifraud.dto.response.TransactionResponseDTO;
+import antifraud.dto.response.TransactionResponseSerializer;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,6 +23,16 @@ public class JacksonConfig {
         mapper.registerModule(new JavaTimeModule());
         mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss"));
         mapper.findAndRegisterModules(); // Registers other necessary modules automatically
+        mapper.registerModule(transactionModule());
         return mapper;
     }
+
+    /**
+     * Streaming (de)serializers for the transaction endpoints, which bind far more requests than any other.
+     */
+    public static Module transactionModule() {
+        return new SimpleModule("transactions")
+                .addDeserializer(TransactionRequestDTO.class, new TransactionRequestDeserializer())
+                .addSerializer(TransactionResponseDTO.class, new TransactionResponseSerializer());
+    }
 }
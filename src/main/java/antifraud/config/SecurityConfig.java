@@ -1,6 +1,13 @@
 package antifraud.config;
 
+import antifraud.ratelimit.RateLimitFilter;
+import antifraud.ratelimit.RateLimitProperties;
+import antifraud.security.CachedCredentialsFilter;
+import antifraud.security.CredentialStuffingFilter;
+import antifraud.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,15 +20,21 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final AuthorizationRuleConfigurer authorizationRuleConfigurer;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, CustomAuthenticationFilter customAuthenticationFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, CustomAuthenticationFilter customAuthenticationFilter,
+                                                   CachedCredentialsFilter cachedCredentialsFilter,
+                                                   JwtAuthenticationFilter jwtAuthenticationFilter,
+                                                   CredentialStuffingFilter credentialStuffingFilter,
+                                                   RateLimitFilter rateLimitFilter) throws Exception {
         http
                 .httpBasic(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
@@ -29,11 +42,46 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorizationRuleConfigurer::configureAuthorizationRules)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
+        // Blocked IPs are turned away before any of the authentication filters run
+        http.addFilterBefore(credentialStuffingFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(customAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(jwtAuthenticationFilter, BasicAuthenticationFilter.class);
+        http.addFilterBefore(cachedCredentialsFilter, BasicAuthenticationFilter.class);
+        // Rate limits are keyed by principal, so they are applied once authentication has run
+        http.addFilterAfter(rateLimitFilter, BasicAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // The filters below only run inside the security chain, not as standalone servlet filters
+    @Bean
+    public FilterRegistrationBean<CachedCredentialsFilter> cachedCredentialsFilterRegistration(CachedCredentialsFilter filter) {
+        FilterRegistrationBean<CachedCredentialsFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<CredentialStuffingFilter> credentialStuffingFilterRegistration(CredentialStuffingFilter filter) {
+        FilterRegistrationBean<CredentialStuffingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -3,6 +3,7 @@ package antifraud.config;
 import antifraud.model.AppUser;
 import antifraud.model.AppUserAdapter;
 import antifraud.repo.AppUserRepo;
+import antifraud.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,12 +15,17 @@ import org.springframework.stereotype.Service;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final AppUserRepo appUserRepo;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return principalCache.get(username, this::loadSnapshot);
+    }
+
+    private AppUserAdapter loadSnapshot(String username) {
         AppUser appUser = appUserRepo.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(username));
 
-        return new AppUserAdapter(appUser);
+        return AppUserAdapter.snapshotOf(appUser);
     }
 }
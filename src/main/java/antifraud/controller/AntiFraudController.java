@@ -50,7 +50,7 @@ public class AntiFraudController {
                     content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = SuspiciousIp.class))))
     })
     public ResponseEntity<List<SuspiciousIp>> getSuspiciousIps() {
-        return antiFraudService.getSuspiciousIps();
+        return ResponseEntity.ok(antiFraudService.getSuspiciousIps());
     }
 
     @DeleteMapping("/api/antifraud/suspicious-ip/{ip}")
@@ -85,7 +85,7 @@ public class AntiFraudController {
                     content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = StolenCard.class))))
     })
     public ResponseEntity<List<StolenCard>> getStolenCards() {
-        return antiFraudService.getStolenCards();
+        return ResponseEntity.ok(antiFraudService.getStolenCards());
     }
 
     @DeleteMapping("/api/antifraud/stolencard/{number}")
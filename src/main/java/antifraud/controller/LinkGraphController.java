@@ -0,0 +1,35 @@
+package antifraud.controller;
+
+import antifraud.dto.response.LinkComponentResponseDTO;
+import antifraud.service.LinkGraphService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "LinkGraphController", description = "APIs for inspecting cards linked through shared IPs.")
+public class LinkGraphController {
+
+    private final LinkGraphService linkGraphService;
+
+    @GetMapping("/api/antifraud/graph/component/{number}")
+    @Operation(summary = "Get Card Component", description = "Retrieves the cards and IPs connected to a card through shared IPs.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Connected component of the card",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LinkComponentResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid card number format"),
+            @ApiResponse(responseCode = "404", description = "Card has no links")
+    })
+    public ResponseEntity<LinkComponentResponseDTO> getComponent(
+            @PathVariable @Parameter(description = "Card number to get the component for", required = true, example = "4000008449433403") String number) {
+        return linkGraphService.getComponent(number);
+    }
+}
@@ -0,0 +1,58 @@
+package antifraud.controller;
+
+import antifraud.dto.request.RuleDryRunRequestDTO;
+import antifraud.dto.response.RuleDryRunResponseDTO;
+import antifraud.dto.response.RuleSetResponseDTO;
+import antifraud.service.RuleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "RuleController", description = "APIs for inspecting, testing and reloading scoring rules.")
+public class RuleController {
+
+    private final RuleService ruleService;
+
+    @GetMapping("/api/antifraud/rules")
+    @Operation(summary = "Get Active Rules", description = "Returns the version, source and names of the active rules.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Active rule set",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = RuleSetResponseDTO.class)))
+    })
+    public ResponseEntity<RuleSetResponseDTO> getRules() {
+        return ruleService.getRules();
+    }
+
+    @PostMapping("/api/antifraud/rules/reload")
+    @Operation(summary = "Reload Rules", description = "Recompiles the rule file and activates it if it compiles.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Rules reloaded",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = RuleSetResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "No rule file configured or the file does not compile")
+    })
+    public ResponseEntity<RuleSetResponseDTO> reloadRules() {
+        return ruleService.reloadRules();
+    }
+
+    @PostMapping("/api/antifraud/rules/dry-run")
+    @Operation(summary = "Dry-Run Rules", description = "Compiles a rule definition and optionally evaluates it against a transaction, without activating it.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Compilation errors, or the rules and those that fired",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = RuleDryRunResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Missing definition or invalid transaction")
+    })
+    public ResponseEntity<RuleDryRunResponseDTO> dryRun(
+            @Valid @RequestBody @Parameter(description = "Rule definition and optional transaction", required = true) RuleDryRunRequestDTO requestDTO) {
+        return ruleService.dryRun(requestDTO);
+    }
+}
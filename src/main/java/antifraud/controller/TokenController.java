@@ -0,0 +1,42 @@
+package antifraud.controller;
+
+import antifraud.dto.request.TokenRequestDTO;
+import antifraud.dto.response.TokenResponseDTO;
+import antifraud.service.TokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "TokenController", description = "APIs for exchanging credentials for access tokens.")
+public class TokenController {
+
+    private final TokenService tokenService;
+
+    @PostMapping("/api/auth/token")
+    @Operation(summary = "Issue Access Token", description = "Exchanges a username and password for a short-lived bearer token.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Token issued successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TokenResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Missing username or password"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials or locked user"),
+            @ApiResponse(responseCode = "429", description = "IP address blocked after too many failed logins")
+    })
+    public ResponseEntity<TokenResponseDTO> issueToken(
+            @Valid @RequestBody @Parameter(description = "User credentials", required = true) TokenRequestDTO tokenRequest,
+            HttpServletRequest request) {
+        return tokenService.issueToken(tokenRequest, request.getRemoteAddr());
+    }
+}
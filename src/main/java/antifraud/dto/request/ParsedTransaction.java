@@ -0,0 +1,58 @@
+package antifraud.dto.request;
+
+import antifraud.enums.RegionNames;
+import antifraud.model.Transaction;
+import antifraud.utils.CardNumbers;
+import antifraud.utils.IpAddressParser;
+import antifraud.utils.PackedIp;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The canonical form of a {@link TransactionRequestDTO}. It is parsed once, when the request is bound, and then
+ * shared by validation, the review rules and the saved entity so that none of them re-interprets the request strings.
+ * <p>
+ * Parsing only checks the format of each field; rules such as the Luhn checksum are left to validation.
+ *
+ * @param cardNumber  the 16-digit card number
+ * @param region      the region, whose ordinal is also its persisted form
+ * @param epochSecond the transaction date as UTC epoch seconds
+ */
+public record ParsedTransaction(long amount, long cardNumber, PackedIp ip, RegionNames region, long epochSecond) {
+
+    /**
+     * @return the parsed request, or {@code null} if any of its fields is missing or malformed
+     */
+    public static ParsedTransaction of(TransactionRequestDTO dto) {
+        return of(dto.getAmount(), dto.getNumber(), dto.getIp(), dto.getRegion(), dto.getDate());
+    }
+
+    /**
+     * @return the parsed form of a saved transaction, or {@code null} if any of its fields is missing or malformed
+     */
+    public static ParsedTransaction of(Transaction transaction) {
+        return of(transaction.getAmount(), transaction.getNumber(), transaction.getIp(), transaction.getRegion(),
+                transaction.getDate());
+    }
+
+    private static ParsedTransaction of(long amount, String number, String ipAddress, String regionName,
+                                        LocalDateTime date) {
+        long cardNumber = CardNumbers.parse(number);
+        PackedIp ip = IpAddressParser.parse(ipAddress);
+        RegionNames region = RegionNames.fromName(regionName);
+        if (cardNumber < 0 || ip == null || region == null || date == null) {
+            return null;
+        }
+
+        return new ParsedTransaction(amount, cardNumber, ip, region, date.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public int bin() {
+        return CardNumbers.bin(cardNumber);
+    }
+
+    public LocalDateTime date() {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
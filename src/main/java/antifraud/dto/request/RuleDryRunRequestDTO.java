@@ -0,0 +1,16 @@
+package antifraud.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RuleDryRunRequestDTO {
+
+    @NotBlank
+    private String definition;
+
+    // Optional; when present the compiled rules are evaluated against it
+    @Valid
+    private TransactionRequestDTO transaction;
+}
@@ -0,0 +1,14 @@
+package antifraud.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class TokenRequestDTO {
+
+    @NotBlank
+    private String username;
+
+    @NotBlank
+    private String password;
+}
@@ -1,46 +1,93 @@
 package antifraud.dto.request;
 
 import antifraud.model.Transaction;
-import antifraud.validation.annotation.ValidCardNumber;
-import antifraud.validation.annotation.ValidIp;
-import antifraud.validation.annotation.ValidRegion;
+import antifraud.utils.CardNumbers;
+import antifraud.validation.annotation.ValidTransaction;
 import com.fasterxml.jackson.annotation.JsonFormat;
-import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
+// All fields are checked in a single pass by @ValidTransaction, which also parses the request
 @Data
+@ValidTransaction
 public class TransactionRequestDTO {
 
-    @Min(value = 1)
     private long amount;
 
-    @NotBlank
-    @ValidIp
     private String ip;
 
-    @NotBlank
-    @ValidCardNumber
     private String number;
 
-    @NotBlank
-    @ValidRegion
     private String region;
 
-    @NotNull
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime date;
 
+    // Parsed once, when the request is bound, and shared by validation, the review rules and persistence; reset
+    // whenever a field changes
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private ParsedTransaction parsed;
+
+    public void setAmount(long amount) {
+        this.amount = amount;
+        this.parsed = null;
+    }
+
+    public void setIp(String ip) {
+        this.ip = ip;
+        this.parsed = null;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+        this.parsed = null;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+        this.parsed = null;
+    }
+
+    public void setDate(LocalDateTime date) {
+        this.date = date;
+        this.parsed = null;
+    }
+
+    // Called by TransactionRequestDeserializer once every field is bound
+    void setParsed(ParsedTransaction parsed) {
+        this.parsed = parsed;
+    }
+
+    /**
+     * @return the parsed request, or {@code null} if any field is missing or malformed
+     */
+    @JsonIgnore
+    public ParsedTransaction getParsed() {
+        if (parsed == null) {
+            parsed = ParsedTransaction.of(this);
+        }
+        return parsed;
+    }
+
+    /**
+     * The entity to save, in the canonical form the review rules saw rather than the request text.
+     */
     public Transaction getTransaction() {
-        Transaction transaction = new Transaction();
-        transaction.setAmount(amount);
-        transaction.setIp(ip);
-        transaction.setNumber(number);
-        transaction.setRegion(region);
-        transaction.setDate(date);
-        return transaction;
+        ParsedTransaction parsed = getParsed();
+        if (parsed == null) {
+            return new Transaction(amount, ip, number, region, date);
+        }
+        return new Transaction(parsed.amount(), parsed.ip().toString(), CardNumbers.format(parsed.cardNumber()),
+                parsed.region().name(), date);
     }
 }
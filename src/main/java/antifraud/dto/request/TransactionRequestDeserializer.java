@@ -0,0 +1,127 @@
+package antifraud.dto.request;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Binds a {@link TransactionRequestDTO} straight from the token stream instead of through bean introspection.
+ * <p>
+ * Unknown fields fail as soon as they are read, and the {@code yyyy-MM-dd'T'HH:mm:ss} date is read from the
+ * parser's own character buffer rather than through a {@code DateTimeFormatter}. The {@link ParsedTransaction} is
+ * built here as well, so validation, the review rules and persistence all share it.
+ */
+public class TransactionRequestDeserializer extends StdDeserializer<TransactionRequestDTO> {
+
+    private static final List<Object> FIELDS = List.of("amount", "ip", "number", "region", "date");
+    private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
+    private static final int DATE_LENGTH = 19;
+
+    public TransactionRequestDeserializer() {
+        super(TransactionRequestDTO.class);
+    }
+
+    @Override
+    public TransactionRequestDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (TransactionRequestDTO) ctxt.handleUnexpectedToken(TransactionRequestDTO.class, p);
+        }
+
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "amount" -> dto.setAmount(_parseLongPrimitive(p, ctxt));
+                case "ip" -> dto.setIp(readString(p, ctxt));
+                case "number" -> dto.setNumber(readString(p, ctxt));
+                case "region" -> dto.setRegion(readString(p, ctxt));
+                case "date" -> dto.setDate(readDate(p, ctxt));
+                default -> throw UnrecognizedPropertyException.from(p, TransactionRequestDTO.class, field, FIELDS);
+            }
+        }
+
+        if (token != JsonToken.END_OBJECT) {
+            return (TransactionRequestDTO) ctxt.handleUnexpectedToken(TransactionRequestDTO.class, p);
+        }
+        dto.setParsed(ParsedTransaction.of(dto));
+        return dto;
+    }
+
+    private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return (String) ctxt.handleUnexpectedToken(String.class, p);
+    }
+
+    private static LocalDateTime readDate(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+        }
+
+        LocalDateTime date = parseDate(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        if (date == null) {
+            throw ctxt.weirdStringException(p.getText(), LocalDateTime.class, "expected format " + DATE_FORMAT);
+        }
+        return date;
+    }
+
+    /**
+     * @return the date, or {@code null} if the characters are not a valid {@code yyyy-MM-dd'T'HH:mm:ss} date
+     */
+    static LocalDateTime parseDate(char[] chars, int offset, int length) {
+        if (length != DATE_LENGTH
+                || chars[offset + 4] != '-' || chars[offset + 7] != '-' || chars[offset + 10] != 'T'
+                || chars[offset + 13] != ':' || chars[offset + 16] != ':') {
+            return null;
+        }
+
+        int year = digits(chars, offset, 4);
+        int month = digits(chars, offset + 5, 2);
+        int day = digits(chars, offset + 8, 2);
+        int hour = digits(chars, offset + 11, 2);
+        int minute = digits(chars, offset + 14, 2);
+        int second = digits(chars, offset + 17, 2);
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    // Returns the value of count decimal digits, or -1 if any of them is not a digit
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
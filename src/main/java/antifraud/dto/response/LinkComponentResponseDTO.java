@@ -0,0 +1,22 @@
+package antifraud.dto.response;
+
+import antifraud.graph.LinkGraph;
+import antifraud.utils.CardNumbers;
+import antifraud.utils.PackedIp;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LinkComponentResponseDTO {
+
+    private List<String> cards;
+    private List<String> ips;
+    private int prohibitedCards;
+
+    public LinkComponentResponseDTO(LinkGraph.LinkComponent component) {
+        this.cards = component.cards().stream().sorted().map(CardNumbers::format).toList();
+        this.ips = component.ips().stream().map(PackedIp::toString).sorted().toList();
+        this.prohibitedCards = component.prohibitedCards();
+    }
+}
@@ -0,0 +1,17 @@
+package antifraud.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RuleDryRunResponseDTO {
+
+    private boolean valid;
+    private List<String> errors;
+    private List<String> rules;
+    private List<String> fired;
+    private String result;
+}
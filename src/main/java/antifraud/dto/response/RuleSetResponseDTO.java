@@ -0,0 +1,20 @@
+package antifraud.dto.response;
+
+import antifraud.rules.CompiledRuleSet;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RuleSetResponseDTO {
+
+    private long version;
+    private String source;
+    private List<String> rules;
+
+    public RuleSetResponseDTO(CompiledRuleSet ruleSet) {
+        this.version = ruleSet.version();
+        this.source = ruleSet.source();
+        this.rules = ruleSet.names();
+    }
+}
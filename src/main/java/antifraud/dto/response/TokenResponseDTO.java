@@ -0,0 +1,17 @@
+package antifraud.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenResponseDTO {
+
+    private String accessToken;
+    private String tokenType;
+    private long expiresIn;
+
+    public static TokenResponseDTO bearer(String accessToken, long expiresInSeconds) {
+        return new TokenResponseDTO(accessToken, "Bearer", expiresInSeconds);
+    }
+}
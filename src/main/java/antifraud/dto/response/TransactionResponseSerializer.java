@@ -0,0 +1,31 @@
+package antifraud.dto.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link TransactionResponseDTO} directly to the generator, with field names encoded once up front.
+ */
+public class TransactionResponseSerializer extends StdSerializer<TransactionResponseDTO> {
+
+    private static final SerializedString RESULT = new SerializedString("result");
+    private static final SerializedString INFO = new SerializedString("info");
+
+    public TransactionResponseSerializer() {
+        super(TransactionResponseDTO.class);
+    }
+
+    @Override
+    public void serialize(TransactionResponseDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName(RESULT);
+        gen.writeString(value.getResult());
+        gen.writeFieldName(INFO);
+        gen.writeString(value.getInfo());
+        gen.writeEndObject();
+    }
+}
@@ -2,8 +2,10 @@ package antifraud.dto.response;
 
 import antifraud.model.AppUser;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class UserResponseDTO {
 
     private String username;
@@ -1,6 +1,21 @@
 package antifraud.enums;
 
+// Ordinals are persisted, new regions must be appended
 public enum RegionNames {
 
-    EAP, ECA, HIC, LAC, MENA, SA, SSA
+    EAP, ECA, HIC, LAC, MENA, SA, SSA;
+
+    private static final RegionNames[] VALUES = values();
+
+    /**
+     * Like {@link #valueOf(String)}, but returns {@code null} for an unknown name instead of throwing.
+     */
+    public static RegionNames fromName(String name) {
+        for (RegionNames region : VALUES) {
+            if (region.name().equals(name)) {
+                return region;
+            }
+        }
+        return null;
+    }
 }
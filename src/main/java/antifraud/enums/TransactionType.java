@@ -1,5 +1,6 @@
 package antifraud.enums;
 
+// Ordinals are persisted, new types must be appended
 public enum TransactionType {
 
     ALLOWED, MANUAL_PROCESSING, PROHIBITED
@@ -0,0 +1,241 @@
+package antifraud.graph;
+
+import antifraud.utils.LongLongMap;
+import antifraud.utils.PackedIp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A union-find over card and IP nodes. Node data lives in parallel primitive arrays indexed by node id; the id maps
+ * only translate card numbers and IPs into those ids. Per-component totals are kept at the component's root, and
+ * the members of each component form a circular list through {@code next}, so listing one never scans the forest.
+ * <p>
+ * Not thread-safe; {@link LinkGraph} guards it.
+ */
+final class LinkForest {
+
+    private final LongLongMap cardNodes;
+    private final Map<PackedIp, Integer> ipNodes;
+    // Card-IP edge ((long) card node << 32 | ip node) to the epoch second it was last seen
+    private final LongLongMap edges;
+
+    private int[] parent;
+    private int[] next;
+    private int[] size;
+    private int[] cards;
+    private int[] prohibited;
+    // Card number of a card node, -1 for IP nodes
+    private long[] cardNumbers;
+    private PackedIp[] ips;
+    private boolean[] prohibitedCards;
+    private int nodes;
+
+    LinkForest(int expectedNodes) {
+        int capacity = Math.max(16, expectedNodes);
+        cardNodes = new LongLongMap(capacity);
+        ipNodes = new HashMap<>(capacity);
+        edges = new LongLongMap(capacity);
+        parent = new int[capacity];
+        next = new int[capacity];
+        size = new int[capacity];
+        cards = new int[capacity];
+        prohibited = new int[capacity];
+        cardNumbers = new long[capacity];
+        ips = new PackedIp[capacity];
+        prohibitedCards = new boolean[capacity];
+    }
+
+    /**
+     * Links a card to an IP, or refreshes the link if it already exists.
+     */
+    void link(long cardNumber, PackedIp ip, boolean prohibitedCard, long epochSecond) {
+        int card = cardNode(cardNumber);
+        int ipNode = ipNode(ip);
+
+        long edge = (long) card << 32 | ipNode;
+        edges.put(edge, Math.max(epochSecond, edges.get(edge, Long.MIN_VALUE)));
+
+        if (prohibitedCard) {
+            markProhibited(card);
+        }
+        union(card, ipNode);
+    }
+
+    /**
+     * Marks a card prohibited; does nothing if the card has no links.
+     */
+    void markProhibited(long cardNumber) {
+        int card = (int) cardNodes.get(cardNumber, -1);
+        if (card >= 0) {
+            markProhibited(card);
+        }
+    }
+
+    /**
+     * @return the root of the card's component, or -1 if the card has no links
+     */
+    int findCard(long cardNumber) {
+        int card = (int) cardNodes.get(cardNumber, -1);
+        return card < 0 ? -1 : find(card);
+    }
+
+    /**
+     * @return the root of the IP's component, or -1 if the IP has no links
+     */
+    int findIp(PackedIp ip) {
+        Integer node = ipNodes.get(ip);
+        return node == null ? -1 : find(node);
+    }
+
+    boolean isProhibitedCard(long cardNumber) {
+        int card = (int) cardNodes.get(cardNumber, -1);
+        return card >= 0 && prohibitedCards[card];
+    }
+
+    int size(int root) {
+        return size[root];
+    }
+
+    int cards(int root) {
+        return cards[root];
+    }
+
+    int prohibited(int root) {
+        return prohibited[root];
+    }
+
+    int nodes() {
+        return nodes;
+    }
+
+    int edges() {
+        return edges.size();
+    }
+
+    long cardNumber(int node) {
+        return cardNumbers[node];
+    }
+
+    PackedIp ip(int node) {
+        return ips[node];
+    }
+
+    /**
+     * The next member of the node's component; following it from any member visits the whole component once.
+     */
+    int next(int node) {
+        return next[node];
+    }
+
+    int find(int node) {
+        while (parent[node] != node) {
+            // Path halving keeps trees flat without a second pass
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    /**
+     * Copies what {@link #withoutEdgesBefore(Snapshot, long)} needs, with array copies only, so the caller can hold
+     * its lock for this and rebuild from the copy without it.
+     */
+    Snapshot snapshot() {
+        return new Snapshot(edges.copy(), Arrays.copyOf(cardNumbers, nodes), Arrays.copyOf(ips, nodes),
+                Arrays.copyOf(prohibitedCards, nodes));
+    }
+
+    /**
+     * Builds a new forest from the edges in {@code snapshot} seen after {@code cutoff}, dropping expired edges and
+     * the nodes left without any.
+     */
+    static LinkForest withoutEdgesBefore(Snapshot snapshot, long cutoff) {
+        LongLongMap edges = snapshot.edges();
+        LinkForest rebuilt = new LinkForest(snapshot.cardNumbers().length);
+        for (int slot = 0; slot < edges.capacity(); slot++) {
+            long edge = edges.keyAt(slot);
+            long seen = edges.valueAt(slot);
+            if (edge >= 0 && seen > cutoff) {
+                int card = (int) (edge >>> 32);
+                rebuilt.link(snapshot.cardNumbers()[card], snapshot.ips()[(int) edge],
+                        snapshot.prohibitedCards()[card], seen);
+            }
+        }
+        return rebuilt;
+    }
+
+    private void markProhibited(int card) {
+        if (!prohibitedCards[card]) {
+            prohibitedCards[card] = true;
+            prohibited[find(card)]++;
+        }
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        // Swapping the successors of the two roots splices their member lists into one
+        int successor = next[rootA];
+        next[rootA] = next[rootB];
+        next[rootB] = successor;
+        size[rootA] += size[rootB];
+        cards[rootA] += cards[rootB];
+        prohibited[rootA] += prohibited[rootB];
+    }
+
+    private int cardNode(long cardNumber) {
+        int card = (int) cardNodes.get(cardNumber, -1);
+        if (card < 0) {
+            card = addNode(cardNumber, null);
+            cards[card] = 1;
+            cardNodes.put(cardNumber, card);
+        }
+        return card;
+    }
+
+    private int ipNode(PackedIp ip) {
+        Integer node = ipNodes.get(ip);
+        if (node == null) {
+            node = addNode(-1, ip);
+            ipNodes.put(ip, node);
+        }
+        return node;
+    }
+
+    private int addNode(long cardNumber, PackedIp ip) {
+        if (nodes == parent.length) {
+            int capacity = parent.length * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            next = Arrays.copyOf(next, capacity);
+            size = Arrays.copyOf(size, capacity);
+            cards = Arrays.copyOf(cards, capacity);
+            prohibited = Arrays.copyOf(prohibited, capacity);
+            cardNumbers = Arrays.copyOf(cardNumbers, capacity);
+            ips = Arrays.copyOf(ips, capacity);
+            prohibitedCards = Arrays.copyOf(prohibitedCards, capacity);
+        }
+
+        int node = nodes++;
+        parent[node] = node;
+        next[node] = node;
+        size[node] = 1;
+        cardNumbers[node] = cardNumber;
+        ips[node] = ip;
+        return node;
+    }
+
+    record Snapshot(LongLongMap edges, long[] cardNumbers, PackedIp[] ips, boolean[] prohibitedCards) {
+    }
+}
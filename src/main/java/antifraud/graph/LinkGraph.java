@@ -0,0 +1,190 @@
+package antifraud.graph;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.TransactionType;
+import antifraud.utils.AfterCommit;
+import antifraud.utils.PackedIp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Links cards to the IPs they were used from and keeps the connected components, so that rings of cards sharing
+ * a few IPs are visible on every transaction. Linking and looking up a transaction take near-constant time; links
+ * age out through a periodic rebuild, because a union-find cannot split components. The rebuild works on a copy,
+ * so scoring only waits for the copy and for the links made meanwhile to be replayed.
+ * <p>
+ * A card counts as prohibited only on evidence from outside the graph: a stolen-card or suspicious-IP list hit, or
+ * PROHIBITED feedback. The graph's own verdicts are never fed back, so one flagged ring cannot grow by itself.
+ * <p>
+ * Like the velocity counters, the graph is local to this instance and starts empty.
+ */
+@Component
+@EnableConfigurationProperties(LinkGraphProperties.class)
+public class LinkGraph {
+
+    private static final String REASON = "link-graph";
+
+    private final LinkGraphProperties properties;
+    private final long edgeTtlSeconds;
+    private final Clock clock;
+    private final Object rebuildLock = new Object();
+    private LinkForest forest;
+    // Changes made while a rebuild runs, replayed onto the rebuilt forest; null when no rebuild is running
+    private List<Consumer<LinkForest>> pendingChanges;
+
+    @Autowired
+    public LinkGraph(LinkGraphProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    LinkGraph(LinkGraphProperties properties, Clock clock) {
+        if (properties.getMaxProhibitedRatio() < 0 || properties.getMaxProhibitedRatio() > 1) {
+            throw new IllegalStateException("graph.max-prohibited-ratio must be between 0 and 1");
+        }
+        if (properties.getSizeAction() == TransactionType.ALLOWED || properties.getRatioAction() == TransactionType.ALLOWED) {
+            throw new IllegalStateException("graph actions must be MANUAL_PROCESSING or PROHIBITED");
+        }
+
+        this.properties = properties;
+        this.clock = clock;
+        this.edgeTtlSeconds = properties.getEdgeTtl().toSeconds();
+        this.forest = new LinkForest(properties.getInitialCapacity());
+    }
+
+    /**
+     * Flags the transaction if the component it would join is too large or has too many prohibited cards. The
+     * transaction's own card and IP are counted as if already linked.
+     */
+    public synchronized TransactionType evaluate(ParsedTransaction transaction, List<String> reasons,
+                                                 TransactionType currentType) {
+        int cardRoot = forest.findCard(transaction.cardNumber());
+        int ipRoot = forest.findIp(transaction.ip());
+
+        int cards = cardRoot < 0 ? 1 : forest.cards(cardRoot);
+        int prohibited = cardRoot < 0 ? 0 : forest.prohibited(cardRoot);
+        if (ipRoot >= 0 && ipRoot != cardRoot) {
+            cards += forest.cards(ipRoot);
+            prohibited += forest.prohibited(ipRoot);
+        }
+
+        TransactionType action = null;
+        if (cards >= properties.getMinCardsForRatio()
+                && prohibited > properties.getMaxProhibitedRatio() * cards) {
+            action = properties.getRatioAction();
+        }
+        if (properties.getMaxCards() > 0 && cards > properties.getMaxCards() && action != TransactionType.PROHIBITED) {
+            action = properties.getSizeAction();
+        }
+        if (action == null) {
+            return currentType;
+        }
+
+        reasons.add(REASON);
+        if (action == TransactionType.PROHIBITED) {
+            return TransactionType.PROHIBITED;
+        }
+        return currentType == TransactionType.ALLOWED ? TransactionType.MANUAL_PROCESSING : currentType;
+    }
+
+    /**
+     * Links a saved transaction's card and IP, once the surrounding database transaction has committed.
+     *
+     * @param listed whether the card or IP is on the stolen-card or suspicious-IP list, which marks the card prohibited
+     */
+    public void record(ParsedTransaction transaction, boolean listed) {
+        AfterCommit.run(() -> apply(transaction, listed));
+    }
+
+    /**
+     * Marks a card prohibited after PROHIBITED feedback, once the surrounding database transaction has committed.
+     */
+    public void recordProhibited(long cardNumber) {
+        AfterCommit.run(() -> applyProhibited(cardNumber));
+    }
+
+    /**
+     * @return the component of {@code cardNumber}, or {@code null} if the card has no links
+     */
+    public synchronized LinkComponent component(long cardNumber) {
+        int root = forest.findCard(cardNumber);
+        if (root < 0) {
+            return null;
+        }
+
+        List<Long> cards = new ArrayList<>(forest.cards(root));
+        List<PackedIp> ips = new ArrayList<>(forest.size(root) - forest.cards(root));
+        int node = root;
+        do {
+            if (forest.ip(node) == null) {
+                cards.add(forest.cardNumber(node));
+            } else {
+                ips.add(forest.ip(node));
+            }
+            node = forest.next(node);
+        } while (node != root);
+        return new LinkComponent(cards, ips, forest.prohibited(root));
+    }
+
+    public synchronized int nodeCount() {
+        return forest.nodes();
+    }
+
+    public synchronized int edgeCount() {
+        return forest.edges();
+    }
+
+    @Scheduled(fixedDelayString = "${graph.rebuild-interval:3600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            LinkForest.Snapshot snapshot;
+            long cutoff;
+            synchronized (this) {
+                if (forest.edges() == 0) {
+                    return;
+                }
+                snapshot = forest.snapshot();
+                cutoff = clock.instant().getEpochSecond() - edgeTtlSeconds;
+                pendingChanges = new ArrayList<>();
+            }
+
+            LinkForest rebuilt = LinkForest.withoutEdgesBefore(snapshot, cutoff);
+            synchronized (this) {
+                pendingChanges.forEach(change -> change.accept(rebuilt));
+                pendingChanges = null;
+                forest = rebuilt;
+            }
+        }
+    }
+
+    synchronized void apply(ParsedTransaction transaction, boolean listed) {
+        // The date comes from the client; one from the future is taken as now, so its links expire like any other
+        long seen = Math.min(transaction.epochSecond(), clock.instant().getEpochSecond());
+        change(target -> target.link(transaction.cardNumber(), transaction.ip(), listed, seen));
+    }
+
+    synchronized void applyProhibited(long cardNumber) {
+        change(target -> target.markProhibited(cardNumber));
+    }
+
+    private void change(Consumer<LinkForest> change) {
+        change.accept(forest);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    /**
+     * A connected component of the graph.
+     *
+     * @param prohibitedCards how many of its cards had a prohibited transaction
+     */
+    public record LinkComponent(List<Long> cards, List<PackedIp> ips, int prohibitedCards) {
+    }
+}
@@ -0,0 +1,23 @@
+package antifraud.graph;
+
+import antifraud.enums.TransactionType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "graph")
+public class LinkGraphProperties {
+
+    // Card-IP links not seen for this long are dropped on the next rebuild
+    private Duration edgeTtl = Duration.ofDays(7);
+    // Components with more cards than this are flagged; 0 disables the check
+    private int maxCards = 10;
+    private TransactionType sizeAction = TransactionType.MANUAL_PROCESSING;
+    // Components whose share of prohibited cards exceeds this are flagged, once they have minCardsForRatio cards
+    private double maxProhibitedRatio = 0.5;
+    private int minCardsForRatio = 3;
+    private TransactionType ratioAction = TransactionType.PROHIBITED;
+    private int initialCapacity = 1024;
+}
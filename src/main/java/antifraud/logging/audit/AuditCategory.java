@@ -0,0 +1,15 @@
+package antifraud.logging.audit;
+
+import java.util.Locale;
+
+public enum AuditCategory {
+
+    TRANSACTION, FEEDBACK, BLOCKLIST, AUTHENTICATION;
+
+    /**
+     * Records of each category go to their own logger, so levels and appenders can be set per category.
+     */
+    public String loggerName() {
+        return "audit." + name().toLowerCase(Locale.ROOT);
+    }
+}
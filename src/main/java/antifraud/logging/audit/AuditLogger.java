@@ -0,0 +1,57 @@
+package antifraud.logging.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Entry point for audit records. Callers attach key/value pairs to the returned builder and finish with
+ * {@code log(action)}:
+ * <pre>{@code
+ * auditLogger.at(AuditCategory.BLOCKLIST, Level.WARN)
+ *         .addKeyValue("ip", Masked.ip(ip))
+ *         .log("suspicious-ip.added");
+ * }</pre>
+ * When the category's logger is disabled for the level, or the record is sampled out, the shared no-op builder
+ * is returned and nothing is formatted. Masked values are only masked if the appender actually renders them.
+ */
+@Component
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditLogger {
+
+    private final Logger[] loggers;
+    private final double[] sampleRates;
+
+    public AuditLogger(AuditProperties properties) {
+        AuditCategory[] categories = AuditCategory.values();
+        this.loggers = new Logger[categories.length];
+        this.sampleRates = new double[categories.length];
+        for (AuditCategory category : categories) {
+            loggers[category.ordinal()] = LoggerFactory.getLogger(category.loggerName());
+            sampleRates[category.ordinal()] = properties.getSampling().getOrDefault(category, 1.0);
+        }
+    }
+
+    public LoggingEventBuilder at(AuditCategory category, Level level) {
+        Logger logger = loggers[category.ordinal()];
+        if (!logger.isEnabledForLevel(level)) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+
+        double rate = sampleRates[category.ordinal()];
+        if (rate >= 1.0 || level.toInt() >= Level.WARN.toInt()) {
+            return logger.atLevel(level);
+        }
+        if (rate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= rate) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        // Lets log analysis scale sampled counts back up
+        return logger.atLevel(level).addKeyValue("sampleRate", rate);
+    }
+}
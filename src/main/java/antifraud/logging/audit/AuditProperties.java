@@ -0,0 +1,15 @@
+package antifraud.logging.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+
+    // Share of DEBUG/INFO records kept per category, from 0 to 1; WARN and ERROR records are always kept
+    private Map<AuditCategory, Double> sampling = new EnumMap<>(AuditCategory.class);
+}
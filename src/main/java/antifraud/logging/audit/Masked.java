@@ -0,0 +1,71 @@
+package antifraud.logging.audit;
+
+/**
+ * A sensitive value that is masked when it is rendered rather than when it is logged, so records that are
+ * filtered out never pay for masking.
+ */
+public final class Masked {
+
+    private static final int VISIBLE_CARD_DIGITS = 4;
+    private static final int VISIBLE_IPV6_GROUPS = 3;
+
+    private final String value;
+    private final boolean card;
+
+    private Masked(String value, boolean card) {
+        this.value = value;
+        this.card = card;
+    }
+
+    public static Masked ip(String ip) {
+        return new Masked(ip, false);
+    }
+
+    public static Masked cardNumber(String cardNumber) {
+        return new Masked(cardNumber, true);
+    }
+
+    @Override
+    public String toString() {
+        if (value == null) {
+            return "null";
+        }
+        return card ? maskCardNumber(value) : maskIp(value);
+    }
+
+    /**
+     * Replaces every digit except the last four with {@code *}.
+     */
+    public static String maskCardNumber(String cardNumber) {
+        char[] chars = cardNumber.toCharArray();
+        int visible = 0;
+        for (int i = chars.length - 1; i >= 0; i--) {
+            if (chars[i] >= '0' && chars[i] <= '9') {
+                if (visible < VISIBLE_CARD_DIGITS) {
+                    visible++;
+                } else {
+                    chars[i] = '*';
+                }
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Keeps the network part of an address: the first three octets of IPv4, the first three groups of IPv6.
+     */
+    public static String maskIp(String ip) {
+        int length = ip.length();
+        int separators = 0;
+        boolean ipv6 = ip.indexOf(':') >= 0;
+        char separator = ipv6 ? ':' : '.';
+        int keep = ipv6 ? VISIBLE_IPV6_GROUPS : 3;
+
+        for (int i = 0; i < length; i++) {
+            if (ip.charAt(i) == separator && ++separators == keep) {
+                return ip.substring(0, i + 1) + "***";
+            }
+        }
+        return "***";
+    }
+}
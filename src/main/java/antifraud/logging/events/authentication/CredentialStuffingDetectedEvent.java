@@ -0,0 +1,7 @@
+package antifraud.logging.events.authentication;
+
+import java.time.LocalDateTime;
+
+public record CredentialStuffingDetectedEvent(String ipAddress, int failedAttempts, long distinctUsernames,
+                                              LocalDateTime timestamp) {
+}
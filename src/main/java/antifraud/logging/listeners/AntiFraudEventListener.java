@@ -5,11 +5,15 @@ import antifraud.logging.events.antifraud.StolenCardAddedEvent;
 import antifraud.logging.events.antifraud.StolenCardRemoveEvent;
 import antifraud.logging.events.antifraud.SuspiciousIpAddedEvent;
 import antifraud.logging.events.antifraud.SuspiciousIpRemoveEvent;
-import antifraud.messaging.RabbitMqMessagePublisher;
+import antifraud.logging.audit.AuditCategory;
+import antifraud.logging.audit.AuditLogger;
+import antifraud.logging.audit.Masked;
+import antifraud.messaging.sink.EventSinkException;
+import antifraud.messaging.sink.EventSinkRouter;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.AmqpException;
+import org.slf4j.event.Level;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
@@ -19,16 +23,17 @@ import org.springframework.stereotype.Component;
 public class AntiFraudEventListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AntiFraudEventListener.class);
-    private final RabbitMqMessagePublisher rabbitMqMessagePublisher;
+    private final EventSinkRouter eventSinkRouter;
+    private final AuditLogger auditLogger;
 
     @EventListener
     @Async
     public void logSuspiciousIpAddedEvent(SuspiciousIpAddedEvent event) {
         try {
-            logIpAction("Suspicious IP added", event.ip(), "WARN");
+            logIpAction("suspicious-ip.added", event.ip(), Level.WARN);
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.ANTIFRAUD, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.ANTIFRAUD, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing SuspiciousIpAddedEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -39,10 +44,10 @@ public class AntiFraudEventListener {
     @Async
     public void logSuspiciousIpRemoveEvent(SuspiciousIpRemoveEvent event) {
         try {
-            logIpAction("Suspicious IP removed", event.ip(), "INFO");
+            logIpAction("suspicious-ip.removed", event.ip(), Level.INFO);
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.ANTIFRAUD, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.ANTIFRAUD, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing SuspiciousIpRemoveEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -53,10 +58,10 @@ public class AntiFraudEventListener {
     @Async
     public void logStolenCardAddedEvent(StolenCardAddedEvent event) {
         try {
-            logCardAction("Stolen card added", event.cardNumber(), "WARN");
+            logCardAction("stolen-card.added", event.cardNumber(), Level.WARN);
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.ANTIFRAUD, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.ANTIFRAUD, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing StolenCardAddedEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -67,37 +72,21 @@ public class AntiFraudEventListener {
     @Async
     public void logStolenCardRemoveEvent(StolenCardRemoveEvent event) {
         try {
-            logCardAction("Stolen card removed", event.cardNumber(), "INFO");
+            logCardAction("stolen-card.removed", event.cardNumber(), Level.INFO);
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.ANTIFRAUD, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.ANTIFRAUD, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing StolenCardRemoveEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
         }
     }
 
-    private void logIpAction(String action, String ip, String logLevel) {
-        if ("WARN".equals(logLevel)) {
-            LOGGER.warn("{}: IP: {}", action, maskIp(ip));
-        } else {
-            LOGGER.info("{}: IP: {}", action, maskIp(ip));
-        }
-    }
-
-    private void logCardAction(String action, String cardNumber, String logLevel) {
-        if ("WARN".equals(logLevel)) {
-            LOGGER.warn("{}: Card Number: {}", action, maskCardNumber(cardNumber));
-        } else {
-            LOGGER.info("{}: Card Number: {}", action, maskCardNumber(cardNumber));
-        }
-    }
-
-    private String maskIp(String ip) {
-        return ip.replaceAll("(\\d+\\.\\d+\\.\\d+\\.)\\d+", "$1***");
+    private void logIpAction(String action, String ip, Level level) {
+        auditLogger.at(AuditCategory.BLOCKLIST, level).addKeyValue("ip", Masked.ip(ip)).log(action);
     }
 
-    private String maskCardNumber(String cardNumber) {
-        return cardNumber.replaceAll("\\d(?=\\d{4})", "*");
+    private void logCardAction(String action, String cardNumber, Level level) {
+        auditLogger.at(AuditCategory.BLOCKLIST, level).addKeyValue("cardNumber", Masked.cardNumber(cardNumber)).log(action);
     }
 }
@@ -2,13 +2,18 @@ package antifraud.logging.listeners;
 
 import antifraud.enums.EventNames;
 import antifraud.logging.events.authentication.BruteForceAttemptEvent;
+import antifraud.logging.events.authentication.CredentialStuffingDetectedEvent;
 import antifraud.logging.events.authentication.FailedLoginEvent;
 import antifraud.logging.events.authentication.SuccessfulLoginEvent;
-import antifraud.messaging.RabbitMqMessagePublisher;
+import antifraud.logging.audit.AuditCategory;
+import antifraud.logging.audit.AuditLogger;
+import antifraud.logging.audit.Masked;
+import antifraud.messaging.sink.EventSinkException;
+import antifraud.messaging.sink.EventSinkRouter;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.AmqpException;
+import org.slf4j.event.Level;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
@@ -18,16 +23,21 @@ import org.springframework.stereotype.Component;
 public class AuthenticationEventListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationEventListener.class);
-    private final RabbitMqMessagePublisher rabbitMqMessagePublisher;
+    private final EventSinkRouter eventSinkRouter;
+    private final AuditLogger auditLogger;
 
     @EventListener
     @Async
     public void logSuccessfulLoginEvent(SuccessfulLoginEvent event) {
         try {
-            LOGGER.info("Successful login: Username: {}, IP address: {}, Timestamp: {}", event.username(), maskIp(event.ipAddress()), event.timestamp());
+            auditLogger.at(AuditCategory.AUTHENTICATION, Level.INFO)
+                    .addKeyValue("username", event.username())
+                    .addKeyValue("ip", Masked.ip(event.ipAddress()))
+                    .addKeyValue("timestamp", event.timestamp())
+                    .log("login.succeeded");
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.AUTHENTICATION, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.AUTHENTICATION, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing SuccessfulLoginEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -38,10 +48,14 @@ public class AuthenticationEventListener {
     @Async
     public void logFailedLoginEvent(FailedLoginEvent event) {
         try {
-            LOGGER.warn("Failed login: Username: {}, IP address: {}, Timestamp: {}", event.username(), maskIp(event.ipAddress()), event.timestamp());
+            auditLogger.at(AuditCategory.AUTHENTICATION, Level.WARN)
+                    .addKeyValue("username", event.username())
+                    .addKeyValue("ip", Masked.ip(event.ipAddress()))
+                    .addKeyValue("timestamp", event.timestamp())
+                    .log("login.failed");
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.AUTHENTICATION, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.AUTHENTICATION, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing FailedLoginEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -52,17 +66,36 @@ public class AuthenticationEventListener {
     @Async
     public void logBruteForceAttemptEvent(BruteForceAttemptEvent event) {
         try {
-            LOGGER.warn("Brute force attempt: Username: {}, IP address: {}, Timestamp: {}", event.username(), maskIp(event.ipAddress()), event.timestamp());
+            auditLogger.at(AuditCategory.AUTHENTICATION, Level.WARN)
+                    .addKeyValue("username", event.username())
+                    .addKeyValue("ip", Masked.ip(event.ipAddress()))
+                    .addKeyValue("timestamp", event.timestamp())
+                    .log("login.brute-force");
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.AUTHENTICATION, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.AUTHENTICATION, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing BruteForceAttemptEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
         }
     }
 
-    private String maskIp(String ip) {
-        return ip.replaceAll("(\\d+\\.\\d+\\.\\d+\\.)\\d+", "$1***");
+    @EventListener
+    @Async
+    public void logCredentialStuffingDetectedEvent(CredentialStuffingDetectedEvent event) {
+        try {
+            auditLogger.at(AuditCategory.AUTHENTICATION, Level.WARN)
+                    .addKeyValue("ip", Masked.ip(event.ipAddress()))
+                    .addKeyValue("failedAttempts", event.failedAttempts())
+                    .addKeyValue("distinctUsernames", event.distinctUsernames())
+                    .addKeyValue("timestamp", event.timestamp())
+                    .log("login.credential-stuffing");
+
+            eventSinkRouter.publish(EventNames.AUTHENTICATION, event);
+        } catch (EventSinkException ex) {
+            LOGGER.error("Error publishing CredentialStuffingDetectedEvent: {}", ex.getMessage(), ex);
+        } catch (Exception ex) {
+            LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
+        }
     }
 }
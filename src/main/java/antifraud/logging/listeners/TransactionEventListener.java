@@ -1,65 +1,52 @@
 package antifraud.logging.listeners;
 
-import antifraud.enums.EventNames;
 import antifraud.logging.events.transaction.FeedbackAddedEvent;
 import antifraud.logging.events.transaction.FraudulentTransactionDetectedEvent;
 import antifraud.logging.events.transaction.TransactionCreatedEvent;
-import antifraud.messaging.RabbitMqMessagePublisher;
+import antifraud.logging.audit.AuditCategory;
+import antifraud.logging.audit.AuditLogger;
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.amqp.AmqpException;
-import org.springframework.context.event.EventListener;
+import org.slf4j.event.Level;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+/**
+ * Logs transaction events once their transaction has committed. They reach RabbitMQ through the outbox.
+ */
 @Component
 @RequiredArgsConstructor
 public class TransactionEventListener {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionEventListener.class);
-    private final RabbitMqMessagePublisher rabbitMqMessagePublisher;
+    private final AuditLogger auditLogger;
 
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     @Async
     public void logTransactionCreatedEvent(TransactionCreatedEvent event) {
-        try {
-            LOGGER.info("Transaction created by {}: Transaction ID: {}, Amount: {}, Result: {}",
-                    event.reviewer(), event.transactionId(), event.amount(), event.result());
-
-            rabbitMqMessagePublisher.sendEvent(EventNames.TRANSACTION, event);
-        } catch (AmqpException ex) {
-            LOGGER.error("Error publishing TransactionCreatedEvent: {}", ex.getMessage(), ex);
-        } catch (Exception ex) {
-            LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
-        }
+        auditLogger.at(AuditCategory.TRANSACTION, Level.INFO)
+                .addKeyValue("transactionId", event.transactionId())
+                .addKeyValue("reviewer", event.reviewer())
+                .addKeyValue("amount", event.amount())
+                .addKeyValue("result", event.result())
+                .log("transaction.created");
     }
 
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     @Async
     public void logFraudulentTransactionDetectedEvent(FraudulentTransactionDetectedEvent event) {
-        try {
-            LOGGER.error("Fraudulent transaction detected: Transaction ID: {}, Reasons: {}", event.transactionId(), event.reasons());
-
-            rabbitMqMessagePublisher.sendEvent(EventNames.TRANSACTION, event);
-        } catch (AmqpException ex) {
-            LOGGER.error("Error publishing FraudulentTransactionDetectedEvent: {}", ex.getMessage(), ex);
-        } catch (Exception ex) {
-            LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
-        }
+        auditLogger.at(AuditCategory.TRANSACTION, Level.WARN)
+                .addKeyValue("transactionId", event.transactionId())
+                .addKeyValue("reasons", event.reasons())
+                .log("transaction.fraud-detected");
     }
 
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     @Async
     public void logFeedbackAddedEvent(FeedbackAddedEvent event) {
-        try {
-            LOGGER.error("Feedback added by {}: Transaction ID: {}, Feedback: {}", event.reviewer(), event.transactionId(), event.feedback());
-
-            rabbitMqMessagePublisher.sendEvent(EventNames.TRANSACTION, event);
-        } catch (AmqpException ex) {
-            LOGGER.error("Error publishing FeedbackAddedEvent: {}", ex.getMessage(), ex);
-        } catch (Exception ex) {
-            LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
-        }
+        auditLogger.at(AuditCategory.FEEDBACK, Level.INFO)
+                .addKeyValue("transactionId", event.transactionId())
+                .addKeyValue("reviewer", event.reviewer())
+                .addKeyValue("feedback", event.feedback())
+                .log("feedback.added");
     }
 }
@@ -5,12 +5,12 @@ import antifraud.logging.events.user.UserDeletedEvent;
 import antifraud.logging.events.user.UserRegisteredEvent;
 import antifraud.logging.events.user.UserRoleChangedEvent;
 import antifraud.logging.events.user.UserLockedStatusChangeEvent;
-import antifraud.messaging.RabbitMqMessagePublisher;
+import antifraud.messaging.sink.EventSinkException;
+import antifraud.messaging.sink.EventSinkRouter;
 import antifraud.model.AppUser;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.AmqpException;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
@@ -20,7 +20,7 @@ import org.springframework.stereotype.Component;
 public class UserEventListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserEventListener.class);
-    private final RabbitMqMessagePublisher rabbitMqMessagePublisher;
+    private final EventSinkRouter eventSinkRouter;
 
     @EventListener
     @Async
@@ -28,8 +28,8 @@ public class UserEventListener {
         try {
             logUserAction("New user registered", event.appUser(), null, null);
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.USER, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.USER, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing UserRegisteredEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -42,8 +42,8 @@ public class UserEventListener {
         try {
             logUserAction("User deleted", event.appUser(), null, null);
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.USER, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.USER, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing UserDeletedEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -56,8 +56,8 @@ public class UserEventListener {
         try {
             logUserAction("Role changed", event.appUser(), event.oldRole(), event.newRole());
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.USER, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.USER, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing UserRoleChangedEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -71,8 +71,8 @@ public class UserEventListener {
             String status = event.locked() ? "locked" : "unlocked";
             LOGGER.info("User status changed: Username: {}, Status: {}", event.username(), status);
 
-            rabbitMqMessagePublisher.sendEvent(EventNames.USER, event);
-        } catch (AmqpException ex) {
+            eventSinkRouter.publish(EventNames.USER, event);
+        } catch (EventSinkException ex) {
             LOGGER.error("Error publishing UserLockedStatusChangeEvent: {}", ex.getMessage(), ex);
         } catch (Exception ex) {
             LOGGER.error("Unexpected error occurred: {}", ex.getMessage(), ex);
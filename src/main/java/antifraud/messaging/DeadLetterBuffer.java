@@ -0,0 +1,115 @@
+package antifraud.messaging;
+
+import antifraud.logging.audit.Masked;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds events that could not be published after all retries. The most recent {@code deadLetterCapacity}
+ * are kept in memory for inspection; older ones are appended to {@code deadLetterFile} as JSON lines so that
+ * nothing is lost however long the broker stays down. Card numbers and IPs in spilled payloads are masked the
+ * same way as in the audit log.
+ */
+@Component
+public class DeadLetterBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeadLetterBuffer.class);
+    private static final Set<String> CARD_FIELDS = Set.of("cardNumber", "number");
+    private static final Set<String> IP_FIELDS = Set.of("ip", "ipAddress");
+
+    private final Deque<DeadLetter> recent;
+    private final int capacity;
+    private final Path spillFile;
+    private final ObjectMapper objectMapper;
+    private long spilled;
+
+    public DeadLetterBuffer(PublisherProperties properties, ObjectMapper objectMapper) {
+        if (properties.getDeadLetterCapacity() <= 0) {
+            throw new IllegalStateException("messaging.publisher.dead-letter-capacity must be positive");
+        }
+        this.capacity = properties.getDeadLetterCapacity();
+        this.recent = new ArrayDeque<>(capacity);
+        this.spillFile = properties.getDeadLetterFile();
+        this.objectMapper = objectMapper;
+    }
+
+    public synchronized void add(String queueName, Object payload, String reason) {
+        if (recent.size() >= capacity) {
+            spill(recent.pollFirst());
+        }
+        recent.addLast(new DeadLetter(queueName, payload.getClass().getName(), payload, reason, Instant.now()));
+        // The payload holds card numbers and IPs, so only its type is logged
+        LOGGER.error("{} for queue {} dead-lettered: {}", payload.getClass().getSimpleName(), queueName, reason);
+    }
+
+    public synchronized List<DeadLetter> recent() {
+        return new ArrayList<>(recent);
+    }
+
+    public synchronized long size() {
+        return recent.size() + spilled;
+    }
+
+    private void spill(DeadLetter deadLetter) {
+        try {
+            ObjectNode json = objectMapper.valueToTree(deadLetter);
+            mask(json.get("payload"));
+            String line = objectMapper.writeValueAsString(json) + System.lineSeparator();
+            Path directory = spillFile.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            Files.writeString(spillFile, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            spilled++;
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            // Payloads carry card numbers and IPs, so only the type and time identify the lost event
+            LOGGER.error("Dead letter for queue {} cannot be serialized and is lost: {} failed at {}",
+                    deadLetter.queueName(), deadLetter.payloadType(), deadLetter.failedAt(), ex);
+        } catch (IOException ex) {
+            LOGGER.error("Dead letter for queue {} cannot be written to {} and is lost: {} failed at {}",
+                    deadLetter.queueName(), spillFile, deadLetter.payloadType(), deadLetter.failedAt(), ex);
+        }
+    }
+
+    private static void mask(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            for (Iterator<Map.Entry<String, JsonNode>> fields = object.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                if (value.isTextual() && CARD_FIELDS.contains(field.getKey())) {
+                    field.setValue(TextNode.valueOf(Masked.maskCardNumber(value.asText())));
+                } else if (value.isTextual() && IP_FIELDS.contains(field.getKey())) {
+                    field.setValue(TextNode.valueOf(Masked.maskIp(value.asText())));
+                } else {
+                    mask(value);
+                }
+            }
+        } else if (node instanceof ArrayNode array) {
+            array.forEach(DeadLetterBuffer::mask);
+        }
+    }
+
+    public record DeadLetter(String queueName, String payloadType, Object payload, String reason, Instant failedAt) {
+    }
+}
@@ -0,0 +1,179 @@
+package antifraud.messaging;
+
+import antifraud.enums.EventNames;
+import antifraud.messaging.sink.EventSinkRouter;
+import antifraud.model.OutboxEvent;
+import antifraud.repo.OutboxEventRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Forwards outbox events to their event sink, RabbitMQ by default, in id order. Each chunk is claimed in a short
+ * transaction, published with no transaction or row lock held, and then marked delivered in a second transaction.
+ * Within each event type only the events up to the first one the sink does not accept (for RabbitMQ, does not
+ * confirm) are marked delivered; the rest are released and sent again, in order, on the next run. Delivery is
+ * therefore at least once, with duplicates when a confirm is lost or an earlier event of the same type failed.
+ * <p>
+ * A claim lasts {@code outbox.claim-timeout}, so the chunk of a relay that dies while publishing is taken over
+ * once it expires. While a claim is live other relays send nothing, which keeps the order between nodes too.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepo outboxEventRepo;
+    private final EventSinkRouter eventSinkRouter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Duration retention;
+    private final Duration claimTimeout;
+
+    public OutboxRelay(OutboxEventRepo outboxEventRepo, EventSinkRouter eventSinkRouter, ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.chunk-size:500}") int chunkSize,
+                       @Value("${outbox.max-chunks-per-run:20}") int maxChunksPerRun,
+                       @Value("${outbox.retention:1h}") Duration retention,
+                       @Value("${outbox.claim-timeout:1m}") Duration claimTimeout) {
+        this.outboxEventRepo = outboxEventRepo;
+        this.eventSinkRouter = eventSinkRouter;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.retention = retention;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:200}")
+    public void relay() {
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            // A short chunk means the outbox is drained for now, or another relay holds its head
+            if (relayChunk() < chunkSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops delivered events in bulk once they are older than {@code outbox.retention}.
+     */
+    @Scheduled(fixedDelayString = "${outbox.compact-interval:60000}")
+    public void compact() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepo.deleteDeliveredBefore(Instant.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            LOGGER.debug("Compacted {} delivered outbox events", deleted);
+        }
+    }
+
+    int relayChunk() {
+        List<OutboxEvent> pending = transactionTemplate.execute(status -> claimChunk());
+        if (pending == null || pending.isEmpty()) {
+            return 0;
+        }
+
+        // Grouping keeps the id order within each queue
+        Map<EventNames, List<OutboxEvent>> byType = new LinkedHashMap<>();
+        for (OutboxEvent event : pending) {
+            byType.computeIfAbsent(event.getEventType(), type -> new ArrayList<>()).add(event);
+        }
+
+        List<Long> delivered = new ArrayList<>(pending.size());
+        try {
+            byType.forEach((type, events) -> publish(type, events, delivered));
+        } finally {
+            finish(pending, delivered);
+        }
+
+        if (delivered.size() < pending.size()) {
+            LOGGER.warn("{} of {} outbox events were not confirmed and will be retried",
+                    pending.size() - delivered.size(), pending.size());
+        }
+        return delivered.size();
+    }
+
+    private List<OutboxEvent> claimChunk() {
+        List<OutboxEvent> pending = outboxEventRepo.findPendingForUpdate(PageRequest.of(0, chunkSize));
+        Instant now = Instant.now();
+        for (OutboxEvent event : pending) {
+            if (event.getClaimedUntil() != null && event.getClaimedUntil().isAfter(now)) {
+                // Another relay is still publishing these; sending later events now would overtake them
+                return List.of();
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            outboxEventRepo.claim(pending.stream().map(OutboxEvent::getId).toList(), now.plus(claimTimeout));
+        }
+        return pending;
+    }
+
+    private void publish(EventNames type, List<OutboxEvent> events, List<Long> delivered) {
+        List<OutboxEvent> sendable = new ArrayList<>(events.size());
+        List<Object> payloads = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            Object payload = decode(event);
+            if (payload == null) {
+                // Retrying cannot help, so it is taken out of the outbox rather than blocking the events after it
+                delivered.add(event.getId());
+            } else {
+                sendable.add(event);
+                payloads.add(payload);
+            }
+        }
+
+        boolean[] confirmed = eventSinkRouter.publishAll(type, payloads);
+        // Events after the first failure are sent again behind it, so the sink sees them in order at least once
+        for (int i = 0; i < sendable.size() && confirmed[i]; i++) {
+            delivered.add(sendable.get(i).getId());
+        }
+    }
+
+    private void finish(List<OutboxEvent> pending, List<Long> delivered) {
+        Set<Long> deliveredIds = new HashSet<>(delivered);
+        List<Long> released = pending.stream()
+                .map(OutboxEvent::getId)
+                .filter(id -> !deliveredIds.contains(id))
+                .toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepo.markDelivered(delivered, Instant.now());
+            }
+            if (!released.isEmpty()) {
+                outboxEventRepo.release(released);
+            }
+        });
+    }
+
+    private Object decode(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (JsonProcessingException | ClassNotFoundException ex) {
+            // The payload holds card numbers and IPs, so only the id and type are logged
+            LOGGER.error("Discarding outbox event {} of type {} that cannot be decoded",
+                    event.getId(), event.getPayloadType(), ex);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package antifraud.messaging;
+
+import antifraud.enums.EventNames;
+import antifraud.model.OutboxEvent;
+import antifraud.repo.OutboxEventRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Records events for the {@link OutboxRelay}. It must be called inside the transaction that makes the change,
+ * so the event is stored if and only if that transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepo outboxEventRepo;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(EventNames eventType, Object event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            outboxEventRepo.save(new OutboxEvent(eventType, event.getClass().getName(), payload, Instant.now()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Event cannot be serialized: " + event.getClass().getName(), ex);
+        }
+    }
+}
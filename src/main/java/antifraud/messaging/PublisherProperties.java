@@ -0,0 +1,30 @@
+package antifraud.messaging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "messaging.publisher")
+public class PublisherProperties {
+
+    private int batchSize = 100;
+    private Duration maxDelay = Duration.ofMillis(50);
+    private Duration confirmTimeout = Duration.ofSeconds(5);
+    private int bufferCapacity = 10000;
+
+    // Failed messages are retried after initialBackoff, doubling up to maxBackoff, until maxAttempts
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(1);
+
+    // Consecutive failed batches after which publishing pauses for breakerOpenDuration
+    private int breakerFailureThreshold = 5;
+    private Duration breakerOpenDuration = Duration.ofSeconds(30);
+
+    // Messages kept in memory after their last attempt, at least one; beyond that they are appended to deadLetterFile
+    private int deadLetterCapacity = 1000;
+    private Path deadLetterFile = Path.of(System.getProperty("user.home"), "antifraud", "dead-letters.jsonl");
+}
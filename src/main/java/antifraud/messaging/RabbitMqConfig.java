@@ -1,13 +1,24 @@
 package antifraud.messaging;
 
 import antifraud.enums.EventNames;
+import antifraud.messaging.codec.EventCodec;
+import antifraud.messaging.codec.EventMessageConverter;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(PublisherProperties.class)
 public class RabbitMqConfig {
 
     @Bean
@@ -19,4 +30,27 @@ public class RabbitMqConfig {
                 EventNames.USER, new Queue("userQueue", true)
         );
     }
+
+    // Events use the binary codec; anything else, such as ingest replies, is sent as JSON
+    @Bean
+    public MessageConverter messageConverter(@Value("${messaging.codec.binary:true}") boolean binary) {
+        return new EventMessageConverter(new EventCodec(), new Jackson2JsonMessageConverter(), binary);
+    }
+
+    @Bean
+    @Primary
+    public RabbitTemplate rabbitTemplate(RabbitTemplateConfigurer configurer, ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate();
+        configurer.configure(template, connectionFactory);
+        return template;
+    }
+
+    // Batches go over the publisher connection so a slow broker confirm never holds up consumers
+    @Bean
+    public RabbitTemplate batchRabbitTemplate(RabbitTemplateConfigurer configurer, ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate();
+        configurer.configure(template, connectionFactory);
+        template.setUsePublisherConnection(true);
+        return template;
+    }
 }
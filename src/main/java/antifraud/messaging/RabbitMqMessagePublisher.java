@@ -1,37 +1,338 @@
 package antifraud.messaging;
 
 import antifraud.enums.EventNames;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
+/**
+ * Publishes events in batches. Events are buffered per queue and sent when a buffer reaches {@code batchSize}
+ * or every {@code maxDelay}, each batch on a single channel with publisher confirms.
+ * <p>
+ * Messages the broker nacks, or does not confirm in time, are scheduled for another attempt with exponential
+ * backoff and jitter; the rest of the batch is not resent. After {@code maxAttempts} they go to the
+ * {@link DeadLetterBuffer}. While the {@link CircuitBreaker} is open nothing is sent and events stay buffered.
+ * All of this happens on the publisher's own thread, so callers never wait for the broker.
+ */
 @Service
-@RequiredArgsConstructor
 public class RabbitMqMessagePublisher {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(RabbitMqMessagePublisher.class);
+
     private final RabbitTemplate rabbitTemplate;
+    private final Map<String, BlockingQueue<PendingMessage>> buffers;
     private final Map<EventNames, Queue> eventQueueMap;
-    private static final Logger LOGGER = LoggerFactory.getLogger(RabbitMqMessagePublisher.class);
+    private final PublisherProperties properties;
+    private final DeadLetterBuffer deadLetters;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Retries waiting out their backoff, so that stop() can still send them
+    private final Set<ScheduledRetry> scheduledRetries = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public RabbitMqMessagePublisher(@Qualifier("batchRabbitTemplate") RabbitTemplate rabbitTemplate,
+                                    Map<EventNames, Queue> eventQueueMap, PublisherProperties properties,
+                                    DeadLetterBuffer deadLetters) {
+        this(rabbitTemplate, eventQueueMap, properties, deadLetters,
+                new CircuitBreaker(properties.getBreakerFailureThreshold(), properties.getBreakerOpenDuration()));
+    }
+
+    RabbitMqMessagePublisher(RabbitTemplate rabbitTemplate, Map<EventNames, Queue> eventQueueMap,
+                             PublisherProperties properties, DeadLetterBuffer deadLetters, CircuitBreaker circuitBreaker) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.eventQueueMap = eventQueueMap;
+        this.properties = properties;
+        this.deadLetters = deadLetters;
+        this.circuitBreaker = circuitBreaker;
+        this.buffers = eventQueueMap.values().stream()
+                .collect(Collectors.toUnmodifiableMap(Queue::getName,
+                        queue -> new LinkedBlockingQueue<>(properties.getBufferCapacity())));
+    }
+
+    @PostConstruct
+    void start() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "amqp-batch-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // stop() sends pending retries itself instead of waiting out their backoff
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        flusher = executor;
+        long delay = properties.getMaxDelay().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lets a running flush finish, then sends everything still buffered, including retries waiting out their
+     * backoff, once more. Whatever that last attempt does not get confirmed goes to the {@link DeadLetterBuffer}.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(properties.getConfirmTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+        int retries = 0;
+        for (ScheduledRetry retry : scheduledRetries) {
+            if (retry.claim()) {
+                requeue(retry.queueName, retry.message);
+                retries++;
+            }
+        }
+        if (retries > 0) {
+            LOGGER.info("Sending {} scheduled retries before shutdown", retries);
+        }
+        flushQuietly();
+
+        int dropped = 0;
+        for (Map.Entry<String, BlockingQueue<PendingMessage>> entry : buffers.entrySet()) {
+            List<PendingMessage> remaining = new ArrayList<>();
+            entry.getValue().drainTo(remaining);
+            for (PendingMessage message : remaining) {
+                deadLetters.add(entry.getKey(), message.payload(), "not confirmed before shutdown");
+            }
+            dropped += remaining.size();
+        }
+        if (dropped > 0) {
+            LOGGER.warn("{} events were not confirmed before shutdown and were dead-lettered", dropped);
+        }
+    }
 
-    @Retryable(
-            retryFor = AmqpException.class,
-            maxAttempts = 5,
-            backoff = @Backoff(delay = 2000) // Retry after 2 seconds
-    )
     public void sendEvent(EventNames eventType, Object event) {
         if (event == null) {
             LOGGER.error("Message cannot be null for event type: {}", eventType);
             throw new IllegalArgumentException("Message cannot be null for event type: " + eventType);
         }
 
+        Queue queue = queueFor(eventType);
+        BlockingQueue<PendingMessage> buffer = buffers.get(queue.getName());
+        if (!buffer.offer(new PendingMessage(event, 1))) {
+            deadLetters.add(queue.getName(), event, "publish buffer full");
+            return;
+        }
+
+        if (buffer.size() >= properties.getBatchSize() && flusher != null && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Sends {@code events} straight away, bypassing the buffer, and waits for the broker to confirm them.
+     * Nothing is sent while the circuit breaker is open.
+     *
+     * @return for each event, whether the broker confirmed it
+     */
+    public boolean[] sendAndConfirm(EventNames eventType, List<?> events) {
+        String queueName = queueFor(eventType).getName();
+        int batchSize = properties.getBatchSize();
+        List<Sent> sent = new ArrayList<>();
+        for (int from = 0; from < events.size() && circuitBreaker.allowRequest(); from += batchSize) {
+            Sent batch = send(queueName, events.subList(from, Math.min(events.size(), from + batchSize)));
+            sent.add(batch);
+            if (batch.failed()) {
+                break;
+            }
+        }
+
+        boolean[] confirmed = new boolean[events.size()];
+        long deadline = confirmDeadline();
+        for (int i = 0; i < sent.size(); i++) {
+            boolean[] batchConfirmed = awaitConfirms(sent.get(i), deadline);
+            System.arraycopy(batchConfirmed, 0, confirmed, i * batchSize, batchConfirmed.length);
+        }
+        return confirmed;
+    }
+
+    /**
+     * Sends every buffered message in batches of at most {@code batchSize}, then waits for the confirms of all of
+     * them at once, so one slow queue does not hold back the batches of the others.
+     */
+    void flush() {
+        flushRequested.set(false);
+        int batchSize = properties.getBatchSize();
+        List<PendingBatch> sent = new ArrayList<>();
+        boolean brokerFailed = false;
+        for (Map.Entry<String, BlockingQueue<PendingMessage>> entry : buffers.entrySet()) {
+            BlockingQueue<PendingMessage> buffer = entry.getValue();
+            // Messages requeued by this flush wait for the next one rather than being retried straight away
+            int remaining = buffer.size();
+            while (!brokerFailed && remaining > 0 && circuitBreaker.allowRequest()) {
+                List<PendingMessage> batch = new ArrayList<>(Math.min(batchSize, remaining));
+                if (buffer.drainTo(batch, Math.min(batchSize, remaining)) == 0) {
+                    break;
+                }
+                remaining -= batch.size();
+
+                Sent batchSent = send(entry.getKey(), batch.stream().map(PendingMessage::payload).toList());
+                sent.add(new PendingBatch(entry.getKey(), batch, batchSent));
+                // The rest would most likely fail the same way; it stays buffered for the next flush
+                brokerFailed = batchSent.failed();
+            }
+        }
+
+        long deadline = confirmDeadline();
+        for (PendingBatch batch : sent) {
+            completeBatch(batch, deadline);
+        }
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            LOGGER.error("Unexpected error while flushing event batches: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private void completeBatch(PendingBatch batch, long deadline) {
+        boolean[] confirmed = awaitConfirms(batch.sent(), deadline);
+        int failed = 0;
+        for (int i = 0; i < batch.messages().size(); i++) {
+            if (!confirmed[i]) {
+                failed++;
+                retry(batch.queueName(), batch.messages().get(i));
+            }
+        }
+
+        LOGGER.debug("Published batch of {} events to {}, {} to be retried", batch.messages().size(), batch.queueName(), failed);
+    }
+
+    private Sent send(String queueName, List<?> payloads) {
+        List<CorrelationData> confirms = new ArrayList<>(payloads.size());
+        try {
+            // invoke() keeps the whole batch on one channel
+            rabbitTemplate.invoke(operations -> {
+                for (Object payload : payloads) {
+                    CorrelationData correlation = new CorrelationData();
+                    confirms.add(correlation);
+                    operations.convertAndSend("", queueName, payload, correlation);
+                }
+                return null;
+            });
+        } catch (AmqpException ex) {
+            LOGGER.warn("Publishing batch of {} events to {} failed after {} sent: {}",
+                    payloads.size(), queueName, confirms.size(), ex.getMessage());
+            return new Sent(payloads.size(), confirms, true);
+        } catch (RuntimeException ex) {
+            // Anything else still has to reach the breaker in awaitConfirms, or a half-open trial would never finish
+            LOGGER.error("Unexpected error publishing batch of {} events to {} after {} sent: {}",
+                    payloads.size(), queueName, confirms.size(), ex.getMessage(), ex);
+            return new Sent(payloads.size(), confirms, true);
+        }
+        return new Sent(payloads.size(), confirms, false);
+    }
+
+    // Confirms arrive in parallel, so every batch sent in one go shares a single deadline
+    private long confirmDeadline() {
+        return System.nanoTime() + properties.getConfirmTimeout().toNanos();
+    }
+
+    private boolean[] awaitConfirms(Sent sent, long deadline) {
+        boolean[] confirmed = new boolean[sent.size()];
+        boolean anyConfirmed = false;
+        for (int i = 0; i < sent.confirms().size(); i++) {
+            confirmed[i] = isConfirmed(sent.confirms().get(i), deadline);
+            anyConfirmed |= confirmed[i];
+        }
+
+        // A batch the broker accepted nothing from counts against it; single nacks do not
+        if (anyConfirmed || sent.size() == 0) {
+            circuitBreaker.recordSuccess();
+        } else {
+            circuitBreaker.recordFailure();
+        }
+        return confirmed;
+    }
+
+    private boolean isConfirmed(CorrelationData correlation, long deadline) {
+        try {
+            long wait = Math.max(0, deadline - System.nanoTime());
+            return correlation.getFuture().get(wait, TimeUnit.NANOSECONDS).isAck();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException ex) {
+            return false;
+        }
+    }
+
+    private void retry(String queueName, PendingMessage message) {
+        if (message.attempts() >= properties.getMaxAttempts()) {
+            deadLetters.add(queueName, message.payload(), "not confirmed after " + message.attempts() + " attempts");
+            return;
+        }
+
+        PendingMessage next = new PendingMessage(message.payload(), message.attempts() + 1);
+        long delay = backoffMillis(message.attempts());
+        if (delay == 0 || flusher == null) {
+            requeue(queueName, next);
+            return;
+        }
+
+        ScheduledRetry retry = new ScheduledRetry(queueName, next);
+        scheduledRetries.add(retry);
+        try {
+            flusher.schedule(retry, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            // Shutting down; stop() dead-letters it if the final flush does not get it through
+            if (retry.claim()) {
+                requeue(queueName, next);
+            }
+        }
+    }
+
+    private void requeue(String queueName, PendingMessage message) {
+        if (!buffers.get(queueName).offer(message)) {
+            deadLetters.add(queueName, message.payload(), "publish buffer full");
+        }
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half of the delay is fixed and half is random, so retries from
+     * a failed batch spread out instead of hitting the broker together.
+     */
+    private long backoffMillis(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long delay = Math.min(max, initial << Math.min(attempts - 1, 30));
+        if (delay <= 1) {
+            return delay;
+        }
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    private Queue queueFor(EventNames eventType) {
         Queue queue = eventQueueMap.get(eventType);
 
         if (queue == null) {
@@ -39,11 +340,41 @@ public class RabbitMqMessagePublisher {
             throw new IllegalArgumentException("Unknown event type: " + eventType);
         }
 
-        sendMessage(queue.getName(), event);
+        return queue;
+    }
+
+    private record PendingMessage(Object payload, int attempts) {
+    }
+
+    // Compared by identity; whichever of the schedule and stop() claims it first requeues the message
+    private final class ScheduledRetry implements Runnable {
+
+        private final String queueName;
+        private final PendingMessage message;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private ScheduledRetry(String queueName, PendingMessage message) {
+            this.queueName = queueName;
+            this.message = message;
+        }
+
+        @Override
+        public void run() {
+            if (claim()) {
+                requeue(queueName, message);
+            }
+        }
+
+        boolean claim() {
+            scheduledRetries.remove(this);
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    // The correlations of the messages of one batch that reached the channel, in send order
+    private record Sent(int size, List<CorrelationData> confirms, boolean failed) {
     }
 
-    private void sendMessage(String queueName, Object message) {
-        rabbitTemplate.convertAndSend(queueName, message);
-        LOGGER.info("Sending event to queue: {}, Message: {}", queueName, message);
+    private record PendingBatch(String queueName, List<PendingMessage> messages, Sent sent) {
     }
 }
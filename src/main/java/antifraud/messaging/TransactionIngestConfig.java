@@ -0,0 +1,43 @@
+package antifraud.messaging;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "ingest.enabled", havingValue = "true")
+public class TransactionIngestConfig {
+
+    @Bean
+    public Queue transactionIngestQueue(@Value("${ingest.queue:transactionIngestQueue}") String name) {
+        return new Queue(name, true);
+    }
+
+    @Bean
+    public Queue transactionDecisionQueue(@Value("${ingest.reply-queue:transactionDecisionQueue}") String name) {
+        return new Queue(name, true);
+    }
+
+    // Acks are sent by the listener itself, once the transaction has committed
+    @Bean
+    public SimpleRabbitListenerContainerFactory ingestContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${ingest.prefetch:50}") int prefetch,
+            @Value("${ingest.concurrent-consumers:4}") int concurrentConsumers,
+            @Value("${ingest.max-concurrent-consumers:8}") int maxConcurrentConsumers) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setPrefetchCount(prefetch);
+        factory.setConcurrentConsumers(concurrentConsumers);
+        factory.setMaxConcurrentConsumers(maxConcurrentConsumers);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+}
@@ -0,0 +1,124 @@
+package antifraud.messaging;
+
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.dto.response.TransactionResponseDTO;
+import antifraud.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Reviews transactions that arrive over AMQP, the same way {@code POST /api/antifraud/transaction} does,
+ * and publishes each decision to the message's {@code reply-to} queue (or {@code ingest.reply-queue})
+ * with the request's correlation id.
+ * <p>
+ * Acks follow the commit, not the reply: a message is acked once its transaction has committed, and a decision
+ * that cannot be sent is only logged, so that a lost reply never gets the transaction reviewed and saved twice.
+ * Invalid messages get an error reply and are acked, since redelivering them cannot help; failures before the
+ * commit are requeued once.
+ * <p>
+ * The reviewer is the AMQP user that published the message. RabbitMQ rejects a {@code user-id} property that does
+ * not match the connection's authenticated user, so unlike a header it cannot be forged by the client.
+ */
+@Component
+@ConditionalOnProperty(name = "ingest.enabled", havingValue = "true")
+public class TransactionIngestListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionIngestListener.class);
+
+    static final String STATUS_HEADER = "x-status";
+    static final String MALFORMED_MESSAGE = "Malformed transaction";
+
+    private final TransactionService transactionService;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final String replyQueue;
+    private final String defaultReviewer;
+
+    public TransactionIngestListener(TransactionService transactionService, RabbitTemplate rabbitTemplate,
+                                     ObjectMapper objectMapper, Validator validator,
+                                     @Value("${ingest.reply-queue:transactionDecisionQueue}") String replyQueue,
+                                     @Value("${ingest.default-reviewer:amqp-ingest}") String defaultReviewer) {
+        this.transactionService = transactionService;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.replyQueue = replyQueue;
+        this.defaultReviewer = defaultReviewer;
+    }
+
+    @RabbitListener(queues = "${ingest.queue:transactionIngestQueue}", containerFactory = "ingestContainerFactory")
+    public void onTransaction(Message message, Channel channel) throws IOException {
+        MessageProperties properties = message.getMessageProperties();
+        long deliveryTag = properties.getDeliveryTag();
+
+        TransactionRequestDTO request;
+        try {
+            request = objectMapper.readValue(message.getBody(), TransactionRequestDTO.class);
+        } catch (IOException ex) {
+            // The parser's message quotes the body, which is the publisher's business, not the reply's
+            LOGGER.debug("Malformed ingested transaction {}: {}", properties.getCorrelationId(), ex.getClass().getSimpleName());
+            reply(properties, 400, Map.of("message", MALFORMED_MESSAGE));
+            channel.basicAck(deliveryTag, false);
+            return;
+        }
+
+        Set<ConstraintViolation<TransactionRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new TreeMap<>();
+            violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+            reply(properties, 400, errors);
+            channel.basicAck(deliveryTag, false);
+            return;
+        }
+
+        TransactionResponseDTO decision;
+        try {
+            // The service call commits before it returns, so the ack below never covers uncommitted work
+            decision = transactionService.processTransaction(request, reviewerOf(properties));
+        } catch (RuntimeException ex) {
+            LOGGER.error("Failed to process ingested transaction {}: {}", properties.getCorrelationId(), ex.getMessage(), ex);
+            channel.basicNack(deliveryTag, false, !properties.isRedelivered());
+            return;
+        }
+
+        reply(properties, 200, decision);
+        channel.basicAck(deliveryTag, false);
+    }
+
+    // A failed reply is only logged: the transaction is already saved, and redelivery would save it again
+    private void reply(MessageProperties request, int status, Object body) {
+        String replyTo = request.getReplyTo() != null ? request.getReplyTo() : replyQueue;
+        String correlationId = request.getCorrelationId() != null ? request.getCorrelationId() : request.getMessageId();
+        try {
+            rabbitTemplate.convertAndSend("", replyTo, body, reply -> {
+                reply.getMessageProperties().setCorrelationId(correlationId);
+                reply.getMessageProperties().setHeader(STATUS_HEADER, status);
+                return reply;
+            });
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to send decision for ingested transaction {} to {}: {}", correlationId, replyTo, ex.getMessage());
+        }
+    }
+
+    private String reviewerOf(MessageProperties properties) {
+        String userId = properties.getReceivedUserId();
+        return userId != null && !userId.isBlank() ? userId : defaultReviewer;
+    }
+}
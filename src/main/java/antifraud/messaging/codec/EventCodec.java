@@ -0,0 +1,391 @@
+package antifraud.messaging.codec;
+
+import antifraud.enums.RoleNames;
+import antifraud.enums.TransactionType;
+import antifraud.logging.events.antifraud.StolenCardAddedEvent;
+import antifraud.logging.events.antifraud.StolenCardRemoveEvent;
+import antifraud.logging.events.antifraud.SuspiciousIpAddedEvent;
+import antifraud.logging.events.antifraud.SuspiciousIpRemoveEvent;
+import antifraud.logging.events.authentication.BruteForceAttemptEvent;
+import antifraud.logging.events.authentication.CredentialStuffingDetectedEvent;
+import antifraud.logging.events.authentication.FailedLoginEvent;
+import antifraud.logging.events.authentication.SuccessfulLoginEvent;
+import antifraud.logging.events.transaction.FeedbackAddedEvent;
+import antifraud.logging.events.transaction.FraudulentTransactionDetectedEvent;
+import antifraud.logging.events.transaction.TransactionCreatedEvent;
+import antifraud.logging.events.user.UserLockedStatusChangeEvent;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A compact binary encoding for the event records in {@code logging.events}.
+ * <p>
+ * A message is {@code [version][type tag][components...]}, with the components in declaration order. Integers are
+ * zig-zag varints, timestamps are epoch seconds plus nanos, and strings go through a table: result and reason
+ * codes, role names and any string repeated within the message are written as a small index instead of text.
+ * <p>
+ * {@link #TYPES} and {@link #DICTIONARY} define the wire format: only ever append to them, and bump
+ * {@link #VERSION} if an existing record's components change.
+ */
+public class EventCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final List<Class<? extends Record>> TYPES = List.of(
+            TransactionCreatedEvent.class,
+            FraudulentTransactionDetectedEvent.class,
+            FeedbackAddedEvent.class,
+            SuccessfulLoginEvent.class,
+            FailedLoginEvent.class,
+            BruteForceAttemptEvent.class,
+            CredentialStuffingDetectedEvent.class,
+            StolenCardAddedEvent.class,
+            StolenCardRemoveEvent.class,
+            SuspiciousIpAddedEvent.class,
+            SuspiciousIpRemoveEvent.class,
+            UserLockedStatusChangeEvent.class
+    );
+
+    private static final List<String> DICTIONARY = Stream.of(
+            Arrays.stream(TransactionType.values()).map(Enum::name),
+            Stream.of("none", "amount", "card-number", "ip", "ip-correlation", "region-correlation"),
+            Arrays.stream(RoleNames.values()).map(Enum::name)
+    ).flatMap(s -> s).toList();
+
+    private static final Map<String, Integer> DICTIONARY_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < DICTIONARY.size(); i++) {
+            DICTIONARY_INDEX.putIfAbsent(DICTIONARY.get(i), i);
+        }
+    }
+
+    private final Map<Class<?>, Schema> schemas = new HashMap<>();
+    private final Schema[] byTag = new Schema[TYPES.size()];
+
+    public EventCodec() {
+        for (int tag = 0; tag < TYPES.size(); tag++) {
+            Schema schema = Schema.of(TYPES.get(tag), tag);
+            schemas.put(schema.type(), schema);
+            byTag[tag] = schema;
+        }
+    }
+
+    public boolean supports(Class<?> type) {
+        return schemas.containsKey(type);
+    }
+
+    public byte[] encode(Object event) {
+        Schema schema = schemas.get(event.getClass());
+        if (schema == null) {
+            throw new IllegalArgumentException("No binary schema for " + event.getClass().getName());
+        }
+
+        Writer writer = new Writer();
+        writer.writeByte(VERSION);
+        writer.writeByte(schema.tag());
+        for (int i = 0; i < schema.fields().length; i++) {
+            schema.fields()[i].write(writer, schema.component(event, i));
+        }
+        return writer.toByteArray();
+    }
+
+    public Object decode(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported event encoding version " + version);
+        }
+
+        int tag = reader.readByte();
+        if (tag < 0 || tag >= byTag.length) {
+            throw new IllegalArgumentException("Unknown event type tag " + tag);
+        }
+
+        Schema schema = byTag[tag];
+        Object[] values = new Object[schema.fields().length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = schema.fields()[i].read(reader);
+        }
+        return schema.instantiate(values);
+    }
+
+    private record Schema(Class<?> type, byte tag, RecordComponent[] components, FieldCodec[] fields,
+                          Constructor<?> constructor) {
+
+        static Schema of(Class<? extends Record> type, int tag) {
+            RecordComponent[] components = type.getRecordComponents();
+            FieldCodec[] fields = new FieldCodec[components.length];
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                fields[i] = FieldCodec.forType(components[i].getGenericType(), type);
+                parameterTypes[i] = components[i].getType();
+            }
+
+            try {
+                return new Schema(type, (byte) tag, components, fields, type.getDeclaredConstructor(parameterTypes));
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException("Record without canonical constructor: " + type.getName(), ex);
+            }
+        }
+
+        Object component(Object event, int index) {
+            try {
+                return components[index].getAccessor().invoke(event);
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                throw new IllegalStateException("Cannot read " + components[index].getName() + " of " + type.getName(), ex);
+            }
+        }
+
+        Object instantiate(Object[] values) {
+            try {
+                return constructor.newInstance(values);
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalStateException("Cannot create " + type.getName(), ex);
+            }
+        }
+    }
+
+    private interface FieldCodec {
+
+        void write(Writer writer, Object value);
+
+        Object read(Reader reader);
+
+        static FieldCodec forType(Type type, Class<?> owner) {
+            if (type == long.class) {
+                return of((w, v) -> w.writeSignedVarLong((Long) v), Reader::readSignedVarLong);
+            }
+            if (type == int.class) {
+                return of((w, v) -> w.writeSignedVarLong((Integer) v), r -> (int) r.readSignedVarLong());
+            }
+            if (type == boolean.class) {
+                return of((w, v) -> w.writeByte((Boolean) v ? 1 : 0), r -> r.readByte() != 0);
+            }
+            if (type == String.class) {
+                return of((w, v) -> w.writeString((String) v), Reader::readString);
+            }
+            if (type == LocalDateTime.class) {
+                return of(Writer::writeDateTime, Reader::readDateTime);
+            }
+            if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class
+                    && parameterized.getActualTypeArguments()[0] == String.class) {
+                return of(Writer::writeStringList, Reader::readStringList);
+            }
+            throw new IllegalStateException("No binary encoding for " + type.getTypeName() + " in " + owner.getName());
+        }
+
+        static FieldCodec of(BiConsumer<Writer, Object> writer,
+                             Function<Reader, Object> reader) {
+            return new FieldCodec() {
+                @Override
+                public void write(Writer w, Object value) {
+                    writer.accept(w, value);
+                }
+
+                @Override
+                public Object read(Reader r) {
+                    return reader.apply(r);
+                }
+            };
+        }
+    }
+
+    /**
+     * Strings are written as one varint: 0 for null, an odd number {@code 2i + 1} for entry {@code i} of the
+     * string table, or an even number {@code 2(n + 1)} followed by {@code n} UTF-8 bytes for a new string,
+     * which is then added to the table.
+     */
+    private static final class Writer {
+
+        private byte[] buffer = new byte[64];
+        private int size;
+        private Map<String, Integer> interned;
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+
+            Integer index = DICTIONARY_INDEX.get(value);
+            if (index == null && interned != null) {
+                index = interned.get(value);
+            }
+            if (index != null) {
+                writeVarLong(2L * index + 1);
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(2L * (bytes.length + 1));
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+
+            if (interned == null) {
+                interned = new HashMap<>();
+            }
+            interned.put(value, DICTIONARY.size() + interned.size());
+        }
+
+        void writeDateTime(Object value) {
+            LocalDateTime dateTime = (LocalDateTime) value;
+            if (dateTime == null) {
+                writeByte(0);
+                return;
+            }
+            writeByte(1);
+            writeSignedVarLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(dateTime.getNano());
+        }
+
+        @SuppressWarnings("unchecked")
+        void writeStringList(Object value) {
+            List<String> list = (List<String>) value;
+            if (list == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(list.size() + 1L);
+            list.forEach(this::writeString);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+        private final List<String> interned = new ArrayList<>();
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated event");
+            }
+            return buffer[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long readSignedVarLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() {
+            long tag = readVarLong();
+            if (tag == 0) {
+                return null;
+            }
+
+            if ((tag & 1) == 1) {
+                long index = tag >>> 1;
+                if (index < DICTIONARY.size()) {
+                    return DICTIONARY.get((int) index);
+                }
+                // Only strings that already appeared in this message can be referenced
+                if (index - DICTIONARY.size() >= interned.size()) {
+                    throw new IllegalArgumentException("Unknown string index " + index);
+                }
+                return interned.get((int) (index - DICTIONARY.size()));
+            }
+
+            long length = (tag >>> 1) - 1;
+            if (length > buffer.length - position) {
+                throw new IllegalArgumentException("Truncated event");
+            }
+            String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            interned.add(value);
+            return value;
+        }
+
+        LocalDateTime readDateTime() {
+            if (readByte() == 0) {
+                return null;
+            }
+            long seconds = readSignedVarLong();
+            long nanos = readVarLong();
+            try {
+                return LocalDateTime.ofEpochSecond(seconds, Math.toIntExact(nanos), ZoneOffset.UTC);
+            } catch (DateTimeException | ArithmeticException ex) {
+                throw new IllegalArgumentException("Malformed timestamp", ex);
+            }
+        }
+
+        List<String> readStringList() {
+            long encoded = readVarLong();
+            if (encoded == 0) {
+                return null;
+            }
+            long size = encoded - 1;
+            // Every element takes at least one byte, so a larger size cannot be genuine
+            if (Long.compareUnsigned(size, buffer.length - position) > 0) {
+                throw new IllegalArgumentException("String list of " + Long.toUnsignedString(size) + " elements exceeds the event");
+            }
+            List<String> list = new ArrayList<>((int) size);
+            for (int i = 0; i < size; i++) {
+                list.add(readString());
+            }
+            return list;
+        }
+    }
+}
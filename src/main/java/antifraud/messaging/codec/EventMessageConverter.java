@@ -0,0 +1,52 @@
+package antifraud.messaging.codec;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Writes events that {@link EventCodec} knows in its binary form and everything else with the fallback
+ * converter. Reading picks the decoder from the content type, so consumers accept both encodings.
+ * With {@code binary} disabled every message is written by the fallback, which is handy for reading
+ * queues by eye.
+ */
+public class EventMessageConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-antifraud-event";
+
+    private final EventCodec codec;
+    private final MessageConverter fallback;
+    private final boolean binary;
+
+    public EventMessageConverter(EventCodec codec, MessageConverter fallback, boolean binary) {
+        this.codec = codec;
+        this.fallback = fallback;
+        this.binary = binary;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        if (!binary || !codec.supports(object.getClass())) {
+            return fallback.toMessage(object, messageProperties);
+        }
+
+        byte[] body = codec.encode(object);
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        if (!CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return fallback.fromMessage(message);
+        }
+
+        try {
+            return codec.decode(message.getBody());
+        } catch (IllegalArgumentException ex) {
+            throw new MessageConversionException("Cannot decode event: " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package antifraud.messaging.sink;
+
+import antifraud.enums.EventNames;
+import antifraud.messaging.RabbitMqMessagePublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class AmqpEventSink implements EventSink {
+
+    public static final String NAME = "amqp";
+
+    private final RabbitMqMessagePublisher publisher;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void publish(EventNames category, Object event) {
+        publisher.sendEvent(category, event);
+    }
+
+    @Override
+    public boolean[] publishAll(EventNames category, List<?> events) {
+        return publisher.sendAndConfirm(category, events);
+    }
+}
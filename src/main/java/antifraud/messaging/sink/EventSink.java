@@ -0,0 +1,35 @@
+package antifraud.messaging.sink;
+
+import antifraud.enums.EventNames;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Somewhere domain events are delivered to. {@link EventSinkRouter} picks the sink for each {@link EventNames}
+ * category by {@link #name()}, as configured under {@code events.sinks}.
+ */
+public interface EventSink {
+
+    String name();
+
+    /**
+     * Hands the event over without waiting for it to be delivered.
+     *
+     * @throws EventSinkException if the sink cannot take the event
+     */
+    void publish(EventNames category, Object event);
+
+    /**
+     * Delivers {@code events} and reports, for each one, whether the sink has durably accepted it. Sinks that
+     * accept events synchronously report all of them once {@link #publish} has returned.
+     */
+    default boolean[] publishAll(EventNames category, List<?> events) {
+        for (Object event : events) {
+            publish(category, event);
+        }
+        boolean[] accepted = new boolean[events.size()];
+        Arrays.fill(accepted, true);
+        return accepted;
+    }
+}
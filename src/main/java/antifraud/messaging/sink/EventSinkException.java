@@ -0,0 +1,8 @@
+package antifraud.messaging.sink;
+
+public class EventSinkException extends RuntimeException {
+
+    public EventSinkException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
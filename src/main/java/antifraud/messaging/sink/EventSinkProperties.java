@@ -0,0 +1,45 @@
+package antifraud.messaging.sink;
+
+import antifraud.enums.EventNames;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "events")
+public class EventSinkProperties {
+
+    private Sinks sinks = new Sinks();
+    private Journal journal = new Journal();
+    private Memory memory = new Memory();
+
+    @Data
+    public static class Sinks {
+
+        // Sink name for categories without their own entry: amqp, journal or memory
+        private String defaultSink = AmqpEventSink.NAME;
+        private Map<EventNames, String> categories = new EnumMap<>(EventNames.class);
+
+        public String sinkFor(EventNames category) {
+            return categories.getOrDefault(category, defaultSink);
+        }
+    }
+
+    @Data
+    public static class Journal {
+
+        private Path directory = Path.of("journal");
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+    }
+
+    @Data
+    public static class Memory {
+
+        // Rounded up to a power of two
+        private int capacity = 65536;
+    }
+}
@@ -0,0 +1,46 @@
+package antifraud.messaging.sink;
+
+import antifraud.enums.EventNames;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends each event to the sink configured for its category. The mapping is resolved once at startup,
+ * so an unknown sink name fails the application instead of the first publish.
+ */
+@Component
+@EnableConfigurationProperties(EventSinkProperties.class)
+public class EventSinkRouter {
+
+    private final Map<EventNames, EventSink> routes = new EnumMap<>(EventNames.class);
+
+    public EventSinkRouter(List<EventSink> sinks, EventSinkProperties properties) {
+        Map<String, EventSink> byName = sinks.stream().collect(Collectors.toMap(EventSink::name, Function.identity()));
+        for (EventNames category : EventNames.values()) {
+            String name = properties.getSinks().sinkFor(category);
+            EventSink sink = byName.get(name);
+            if (sink == null) {
+                throw new IllegalStateException("Unknown event sink '" + name + "' for " + category + ", expected one of " + byName.keySet());
+            }
+            routes.put(category, sink);
+        }
+    }
+
+    public void publish(EventNames category, Object event) {
+        routes.get(category).publish(category, event);
+    }
+
+    public boolean[] publishAll(EventNames category, List<?> events) {
+        return routes.get(category).publishAll(category, events);
+    }
+
+    public EventSink sinkFor(EventNames category) {
+        return routes.get(category);
+    }
+}
@@ -0,0 +1,67 @@
+package antifraud.messaging.sink;
+
+import antifraud.enums.EventNames;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent events in a fixed ring buffer, overwriting the oldest. Publishing is one atomic
+ * increment and one array write, so it is suitable for tests and load tests that should not need a broker.
+ */
+@Component
+public class InMemoryEventSink implements EventSink {
+
+    public static final String NAME = "memory";
+
+    private final AtomicReferenceArray<StoredEvent> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public InMemoryEventSink(EventSinkProperties properties) {
+        int capacity = Integer.highestOneBit(Math.max(1, properties.getMemory().getCapacity() - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void publish(EventNames category, Object event) {
+        long seq = sequence.getAndIncrement();
+        slots.set((int) (seq & mask), new StoredEvent(seq, category, event));
+    }
+
+    /**
+     * The retained events, oldest first. Slots being overwritten while this runs are skipped.
+     */
+    public List<StoredEvent> snapshot() {
+        long end = sequence.get();
+        long start = Math.max(0, end - slots.length());
+        List<StoredEvent> events = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            StoredEvent event = slots.get((int) (seq & mask));
+            if (event != null && event.sequence() == seq) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    public long published() {
+        return sequence.get();
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public record StoredEvent(long sequence, EventNames category, Object event) {
+    }
+}
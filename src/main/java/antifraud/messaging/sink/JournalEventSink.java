@@ -0,0 +1,232 @@
+package antifraud.messaging.sink;
+
+import antifraud.enums.EventNames;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Appends events to memory-mapped segment files, so a publish is a copy into the page cache and the OS writes
+ * it out at disk bandwidth. Segments are named after the sequence number of their first record and are never
+ * modified once full, which makes the journal replayable in order with {@link #replay}.
+ * <p>
+ * Each record is {@code [int length][byte category][short type length][type][payload JSON]}. The length is
+ * written last, so a record cut short by a crash reads as the end of the journal.
+ */
+@Component
+public class JournalEventSink implements EventSink {
+
+    public static final String NAME = "journal";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalEventSink.class);
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES + Short.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ObjectMapper objectMapper;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+
+    public JournalEventSink(EventSinkProperties properties, ObjectMapper objectMapper) {
+        this.directory = properties.getJournal().getDirectory();
+        this.segmentSize = Math.toIntExact(properties.getJournal().getSegmentSize().toBytes());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void publish(EventNames category, Object event) {
+        byte[] type = event.getClass().getName().getBytes(StandardCharsets.UTF_8);
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException ex) {
+            throw new EventSinkException("Event cannot be serialized: " + event.getClass().getName(), ex);
+        }
+
+        int length = Byte.BYTES + Short.BYTES + type.length + payload.length;
+        if (Integer.BYTES + length + Integer.BYTES > segmentSize) {
+            throw new EventSinkException("Event of " + length + " bytes does not fit in a journal segment", null);
+        }
+
+        append(category, type, payload, length);
+    }
+
+    /**
+     * Appends {@code events} and forces the segment to disk before reporting them, since until then they only sit
+     * in the page cache and a crash would lose them. If the force fails, none of them are reported.
+     */
+    @Override
+    public boolean[] publishAll(EventNames category, List<?> events) {
+        for (Object event : events) {
+            publish(category, event);
+        }
+        boolean[] accepted = new boolean[events.size()];
+        Arrays.fill(accepted, force());
+        return accepted;
+    }
+
+    private synchronized boolean force() {
+        try {
+            // Segments that filled up were forced when the journal rolled over
+            if (segment != null) {
+                segment.force();
+            }
+            return true;
+        } catch (UncheckedIOException ex) {
+            LOGGER.warn("Cannot force journal segment in {} to disk: {}", directory, ex.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void append(EventNames category, byte[] type, byte[] payload, int length) {
+        try {
+            if (segment == null) {
+                openLatestSegment();
+            }
+            // Keep room for the zero length that marks the end of the segment
+            if (segment.remaining() < Integer.BYTES + length + Integer.BYTES) {
+                roll();
+            }
+        } catch (IOException ex) {
+            throw new EventSinkException("Cannot open journal segment in " + directory, ex);
+        }
+
+        int start = segment.position();
+        segment.position(start + Integer.BYTES);
+        segment.put((byte) category.ordinal());
+        segment.putShort((short) type.length);
+        segment.put(type);
+        segment.put(payload);
+        segment.putInt(start, length);
+        nextSequence++;
+    }
+
+    /**
+     * Reads every record in the journal, oldest first.
+     */
+    public synchronized void replay(Consumer<JournalRecord> consumer) {
+        if (segment != null) {
+            segment.force();
+        }
+        try {
+            for (Path file : segmentFiles()) {
+                try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                    readRecords(buffer, consumer);
+                }
+            }
+        } catch (IOException ex) {
+            throw new EventSinkException("Cannot read journal in " + directory, ex);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.force();
+            channel.close();
+            segment = null;
+        }
+    }
+
+    private void openLatestSegment() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files = segmentFiles();
+        if (files.isEmpty()) {
+            map(directory.resolve(segmentName(0)));
+            return;
+        }
+
+        Path latest = files.get(files.size() - 1);
+        long firstSequence = sequenceOf(latest);
+        map(latest);
+        // Skip past the records already in the segment
+        int[] count = {0};
+        int end = readRecords(segment.duplicate(), record -> count[0]++);
+        segment.position(end);
+        nextSequence = firstSequence + count[0];
+    }
+
+    private void roll() throws IOException {
+        segment.force();
+        channel.close();
+        map(directory.resolve(segmentName(nextSequence)));
+    }
+
+    private void map(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    /**
+     * @return the position just after the last complete record
+     */
+    private static int readRecords(ByteBuffer buffer, Consumer<JournalRecord> consumer) {
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return start;
+            }
+            EventNames category = EventNames.values()[buffer.get()];
+            byte[] type = new byte[buffer.getShort()];
+            buffer.get(type);
+            byte[] payload = new byte[length - Byte.BYTES - Short.BYTES - type.length];
+            buffer.get(payload);
+            consumer.accept(new JournalRecord(category, new String(type, StandardCharsets.UTF_8), payload));
+        }
+        return buffer.position();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // Zero-padded names sort in sequence order
+            return new ArrayList<>(files
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    public record JournalRecord(EventNames category, String type, byte[] payload) {
+    }
+}
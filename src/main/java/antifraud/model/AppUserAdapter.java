@@ -6,6 +6,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -13,6 +14,18 @@ public class AppUserAdapter implements UserDetails {
 
     private final AppUser user;
 
+    /**
+     * Creates an adapter over a detached copy of {@code user}, so it can be cached and shared between
+     * requests without holding on to a managed entity.
+     */
+    public static AppUserAdapter snapshotOf(AppUser user) {
+        AppUser copy = new AppUser(user.getName(), user.getUsername(), user.getPassword());
+        copy.setId(user.getId());
+        copy.setLocked(user.isLocked());
+        copy.setRoles(Set.copyOf(user.getRoles()));
+        return new AppUserAdapter(copy);
+    }
+
     // When fetching Authorities make sure that we are only fetching Role names and storing them in List of Strings
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
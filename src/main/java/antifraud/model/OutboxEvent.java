@@ -0,0 +1,58 @@
+package antifraud.model;
+
+import antifraud.enums.EventNames;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An event recorded in the same database transaction as the change it describes, waiting to be relayed to the broker.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_delivered_at", columnList = "deliveredAt, id"))
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventNames eventType;
+
+    @Column(nullable = false)
+    private String payloadType;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant deliveredAt;
+
+    // Set while a relay is publishing the event; an expired claim is taken over by the next relay.
+    // Like the rest of the table, the column is generated by Hibernate, so older databases have to be recreated
+    private Instant claimedUntil;
+
+    public OutboxEvent(EventNames eventType, String payloadType, String payload, Instant createdAt) {
+        this.eventType = eventType;
+        this.payloadType = payloadType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+}
@@ -1,15 +1,32 @@
 package antifraud.model;
 
+import antifraud.model.converter.CardNumberConverter;
+import antifraud.model.converter.EpochMillisConverter;
+import antifraud.model.converter.IpAddressConverter;
+import antifraud.model.converter.RegionConverter;
+import antifraud.model.converter.TransactionTypeConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * A reviewed transaction. Text attributes are kept as Strings in Java and stored in compact typed columns through
+ * converters: {@code ip} as VARBINARY(16) holding 4 or 16 packed bytes, {@code number} as BIGINT, {@code region},
+ * {@code result} and {@code feedback} as TINYINT enum ordinals, and {@code date} as BIGINT UTC epoch milliseconds.
+ * The schema is generated by Hibernate; there are no migrations, so a database created with another layout has to
+ * be recreated, and the order of {@code RegionNames} and {@code TransactionType} constants must not change.
+ */
 @Entity
+@Table(indexes = @Index(name = "idx_transaction_number_date", columnList = "number, date"))
 @Data
 @NoArgsConstructor
 public class Transaction {
@@ -19,12 +36,24 @@ public class Transaction {
     private long id;
 
     private long amount;
+
+    @Convert(converter = IpAddressConverter.class)
+    @Column(length = 16)
     private String ip;
+
+    @Convert(converter = CardNumberConverter.class)
     private String number;
+
+    @Convert(converter = RegionConverter.class)
     private String region;
 
+    @Convert(converter = EpochMillisConverter.class)
     private LocalDateTime date;
+
+    @Convert(converter = TransactionTypeConverter.class)
     private String result;
+
+    @Convert(converter = TransactionTypeConverter.class)
     private String feedback;
 
     public Transaction(long amount, String ip, String number, String region, LocalDateTime date) {
@@ -0,0 +1,28 @@
+package antifraud.model.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a 16-digit card number as a BIGINT. Leading zeros are restored when reading.
+ */
+@Converter
+public class CardNumberConverter implements AttributeConverter<String, Long> {
+
+    private static final int CARD_NUMBER_LENGTH = 16;
+
+    @Override
+    public Long convertToDatabaseColumn(String number) {
+        return number == null ? null : Long.parseLong(number);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long number) {
+        if (number == null) {
+            return null;
+        }
+
+        String digits = Long.toString(number);
+        return digits.length() >= CARD_NUMBER_LENGTH ? digits : "0".repeat(CARD_NUMBER_LENGTH - digits.length()) + digits;
+    }
+}
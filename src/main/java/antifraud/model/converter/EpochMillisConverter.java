@@ -0,0 +1,25 @@
+package antifraud.model.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Stores a date as UTC epoch milliseconds, which keeps range comparisons on a plain BIGINT column.
+ */
+@Converter
+public class EpochMillisConverter implements AttributeConverter<LocalDateTime, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(LocalDateTime date) {
+        return date == null ? null : date.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @Override
+    public LocalDateTime convertToEntityAttribute(Long epochMillis) {
+        return epochMillis == null ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,35 @@
+package antifraud.model.converter;
+
+import antifraud.utils.IpAddressParser;
+import antifraud.utils.PackedIp;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an IP address as its packed network-order bytes: 4 bytes for IPv4, 16 bytes for IPv6.
+ * Addresses are read back in the same canonical text form that {@code IpValidator} accepts.
+ */
+@Converter
+public class IpAddressConverter implements AttributeConverter<String, byte[]> {
+
+    /**
+     * @throws IllegalArgumentException if {@code ip} is not a valid address
+     */
+    @Override
+    public byte[] convertToDatabaseColumn(String ip) {
+        if (ip == null) {
+            return null;
+        }
+
+        PackedIp packed = IpAddressParser.parse(ip);
+        if (packed == null) {
+            throw new IllegalArgumentException("Invalid IP address: " + ip);
+        }
+        return packed.toBytes();
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : PackedIp.fromBytes(bytes).toString();
+    }
+}
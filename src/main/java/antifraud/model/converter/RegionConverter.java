@@ -0,0 +1,24 @@
+package antifraud.model.converter;
+
+import antifraud.enums.RegionNames;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a region as the ordinal of its {@link RegionNames} constant.
+ */
+@Converter
+public class RegionConverter implements AttributeConverter<String, Byte> {
+
+    private static final RegionNames[] REGIONS = RegionNames.values();
+
+    @Override
+    public Byte convertToDatabaseColumn(String region) {
+        return region == null ? null : (byte) RegionNames.valueOf(region).ordinal();
+    }
+
+    @Override
+    public String convertToEntityAttribute(Byte ordinal) {
+        return ordinal == null ? null : REGIONS[ordinal].name();
+    }
+}
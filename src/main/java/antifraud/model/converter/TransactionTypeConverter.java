@@ -0,0 +1,24 @@
+package antifraud.model.converter;
+
+import antifraud.enums.TransactionType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a transaction result or feedback as the ordinal of its {@link TransactionType} constant.
+ */
+@Converter
+public class TransactionTypeConverter implements AttributeConverter<String, Byte> {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    @Override
+    public Byte convertToDatabaseColumn(String type) {
+        return type == null ? null : (byte) TransactionType.valueOf(type).ordinal();
+    }
+
+    @Override
+    public String convertToEntityAttribute(Byte ordinal) {
+        return ordinal == null ? null : TYPES[ordinal].name();
+    }
+}
@@ -0,0 +1,25 @@
+package antifraud.profile;
+
+import antifraud.enums.TransactionType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "profile")
+public class CardProfileProperties {
+
+    // Transactions a card needs before its amounts are judged against its own history
+    private int minTransactions = 10;
+    // Amounts this many standard deviations above the card's mean are flagged
+    private double maxZScore = 4.0;
+    private TransactionType action = TransactionType.MANUAL_PROCESSING;
+    // Weight of the latest gap in the smoothed time between a card's transactions
+    private double interArrivalAlpha = 0.2;
+    private int initialCapacity = 1024;
+    // Profiles of cards without a transaction for this long are evicted; checked every profile.eviction-interval
+    private Duration idleTtl = Duration.ofDays(90);
+    // Profiles are written here periodically and on shutdown, and read back on startup; unset keeps them in memory
+    private String snapshotFile;
+}
@@ -0,0 +1,353 @@
+package antifraud.profile;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.TransactionType;
+import antifraud.utils.AfterCommit;
+import antifraud.utils.LongLongMap;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps a behavioural profile per card: how many transactions it made, the running mean and variance of their
+ * amounts (Welford), the smoothed time between them and the regions it was used in. Profiles live in parallel
+ * primitive arrays indexed by slot, so updating and checking one is constant time and allocates nothing once the
+ * card has a slot.
+ * <p>
+ * Profiles are local to this instance; with a snapshot file configured they survive restarts. Cards not seen for
+ * {@code profile.idle-ttl} are evicted, so memory follows the active cards rather than every card ever seen.
+ */
+@Component
+@EnableConfigurationProperties(CardProfileProperties.class)
+public class CardProfileStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CardProfileStore.class);
+    private static final String REASON = "amount-profile";
+    private static final int SNAPSHOT_MAGIC = 0x43505346; // "CPSF"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int PROFILE_BYTES = 7 * Long.BYTES;
+
+    private final double maxZScore;
+    private final int minTransactions;
+    private final TransactionType action;
+    private final double alpha;
+    private final Path snapshotFile;
+    private final long idleTtlSeconds;
+    private final Clock clock;
+    // The scheduled and shutdown snapshots share the temporary file, so writes take turns
+    private final Object snapshotLock = new Object();
+
+    // Replaced rather than cleared on eviction, since the map cannot remove entries
+    private LongLongMap slots;
+    private long[] cards;
+    private long[] counts;
+    private double[] means;
+    // Sum of squared deviations from the mean; the variance is m2 / (count - 1)
+    private double[] m2;
+    private long[] lastSeen;
+    private double[] interArrival;
+    private long[] regions;
+    private int size;
+
+    @Autowired
+    public CardProfileStore(CardProfileProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    CardProfileStore(CardProfileProperties properties, Clock clock) {
+        if (properties.getInterArrivalAlpha() <= 0 || properties.getInterArrivalAlpha() > 1) {
+            throw new IllegalStateException("profile.inter-arrival-alpha must be in (0, 1]");
+        }
+        if (properties.getMinTransactions() < 2) {
+            throw new IllegalStateException("profile.min-transactions must be at least 2");
+        }
+        if (properties.getAction() == TransactionType.ALLOWED) {
+            throw new IllegalStateException("profile.action must be MANUAL_PROCESSING or PROHIBITED");
+        }
+        if (properties.getIdleTtl().toSeconds() <= 0) {
+            throw new IllegalStateException("profile.idle-ttl must be positive");
+        }
+
+        this.maxZScore = properties.getMaxZScore();
+        this.minTransactions = properties.getMinTransactions();
+        this.action = properties.getAction();
+        this.alpha = properties.getInterArrivalAlpha();
+        this.snapshotFile = properties.getSnapshotFile() != null && !properties.getSnapshotFile().isBlank()
+                ? Path.of(properties.getSnapshotFile()) : null;
+        this.idleTtlSeconds = properties.getIdleTtl().toSeconds();
+        this.clock = clock;
+
+        int capacity = Math.max(16, properties.getInitialCapacity());
+        this.slots = new LongLongMap(capacity);
+        this.cards = new long[capacity];
+        this.counts = new long[capacity];
+        this.means = new double[capacity];
+        this.m2 = new double[capacity];
+        this.lastSeen = new long[capacity];
+        this.interArrival = new double[capacity];
+        this.regions = new long[capacity];
+
+        if (snapshotFile != null) {
+            restore();
+        }
+    }
+
+    /**
+     * Flags the transaction if its amount is an outlier for the card, once the card has enough history.
+     */
+    public synchronized TransactionType evaluate(ParsedTransaction transaction, List<String> reasons,
+                                                 TransactionType currentType) {
+        int slot = (int) slots.get(transaction.cardNumber(), -1);
+        if (slot < 0 || counts[slot] < minTransactions) {
+            return currentType;
+        }
+
+        // A card that always spends the same amount has no spread; one unit keeps its z-scores finite
+        double stdDev = Math.max(1.0, Math.sqrt(m2[slot] / (counts[slot] - 1)));
+        if ((transaction.amount() - means[slot]) / stdDev <= maxZScore) {
+            return currentType;
+        }
+
+        reasons.add(REASON);
+        if (action == TransactionType.PROHIBITED) {
+            return TransactionType.PROHIBITED;
+        }
+        return currentType == TransactionType.ALLOWED ? TransactionType.MANUAL_PROCESSING : currentType;
+    }
+
+    /**
+     * Adds a saved transaction to its card's profile, once the surrounding database transaction has committed.
+     * Callers pass only transactions known to be legitimate, so fraud never shifts the card's baseline.
+     */
+    public void record(ParsedTransaction transaction) {
+        AfterCommit.run(() -> apply(transaction));
+    }
+
+    /**
+     * @return a copy of the card's profile, or {@code null} if it has none
+     */
+    public synchronized CardProfile profile(long cardNumber) {
+        int slot = (int) slots.get(cardNumber, -1);
+        if (slot < 0) {
+            return null;
+        }
+
+        double variance = counts[slot] > 1 ? m2[slot] / (counts[slot] - 1) : 0;
+        return new CardProfile(counts[slot], means[slot], variance, interArrival[slot], lastSeen[slot], regions[slot]);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    synchronized void apply(ParsedTransaction transaction) {
+        int slot = (int) slots.get(transaction.cardNumber(), -1);
+        if (slot < 0) {
+            slot = allocate(transaction.cardNumber());
+        }
+
+        long count = ++counts[slot];
+        double delta = transaction.amount() - means[slot];
+        means[slot] += delta / count;
+        m2[slot] += delta * (transaction.amount() - means[slot]);
+
+        // The date comes from the client; one from the future is counted as now, so it cannot outlive eviction
+        long time = Math.min(transaction.epochSecond(), clock.instant().getEpochSecond());
+        if (count > 1) {
+            long gap = Math.max(0, time - lastSeen[slot]);
+            interArrival[slot] = count == 2 ? gap : alpha * gap + (1 - alpha) * interArrival[slot];
+        }
+        lastSeen[slot] = Math.max(lastSeen[slot], time);
+        regions[slot] |= 1L << transaction.region().ordinal();
+    }
+
+    /**
+     * Drops the profiles of cards not seen within {@code profile.idle-ttl} before now. The remaining profiles are
+     * moved down to fill the gaps and the slot map is rebuilt, so scoring waits for one pass over the arrays.
+     */
+    @Scheduled(fixedDelayString = "${profile.eviction-interval:3600000}")
+    public synchronized void evictIdleProfiles() {
+        long cutoff = clock.instant().getEpochSecond() - idleTtlSeconds;
+        int kept = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (lastSeen[slot] <= cutoff) {
+                continue;
+            }
+            cards[kept] = cards[slot];
+            counts[kept] = counts[slot];
+            means[kept] = means[slot];
+            m2[kept] = m2[slot];
+            lastSeen[kept] = lastSeen[slot];
+            interArrival[kept] = interArrival[slot];
+            regions[kept] = regions[slot];
+            kept++;
+        }
+        if (kept == size) {
+            return;
+        }
+
+        // allocate() only sets the card, so the freed slots must not keep their old statistics
+        for (long[] column : List.of(counts, lastSeen, regions)) {
+            Arrays.fill(column, kept, size, 0L);
+        }
+        for (double[] column : List.of(means, m2, interArrival)) {
+            Arrays.fill(column, kept, size, 0.0);
+        }
+
+        LongLongMap rebuilt = new LongLongMap(Math.max(16, kept));
+        for (int slot = 0; slot < kept; slot++) {
+            rebuilt.put(cards[slot], slot);
+        }
+        LOGGER.debug("Evicted {} idle card profiles, {} remain", size - kept, kept);
+        slots = rebuilt;
+        size = kept;
+    }
+
+    /**
+     * Writes all profiles to the snapshot file. The arrays are copied under the lock and written outside it, so
+     * scoring only waits for the copy.
+     */
+    @Scheduled(fixedDelayString = "${profile.snapshot-interval:300000}")
+    @PreDestroy
+    public void snapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+
+        synchronized (snapshotLock) {
+            int count;
+            long[] cardsCopy;
+            long[] countsCopy;
+            double[] meansCopy;
+            double[] m2Copy;
+            long[] lastSeenCopy;
+            double[] interArrivalCopy;
+            long[] regionsCopy;
+            synchronized (this) {
+                count = size;
+                cardsCopy = Arrays.copyOf(cards, count);
+                countsCopy = Arrays.copyOf(counts, count);
+                meansCopy = Arrays.copyOf(means, count);
+                m2Copy = Arrays.copyOf(m2, count);
+                lastSeenCopy = Arrays.copyOf(lastSeen, count);
+                interArrivalCopy = Arrays.copyOf(interArrival, count);
+                regionsCopy = Arrays.copyOf(regions, count);
+            }
+
+            Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(SNAPSHOT_MAGIC);
+                    out.writeInt(SNAPSHOT_VERSION);
+                    out.writeInt(count);
+                    for (int i = 0; i < count; i++) {
+                        out.writeLong(cardsCopy[i]);
+                        out.writeLong(countsCopy[i]);
+                        out.writeDouble(meansCopy[i]);
+                        out.writeDouble(m2Copy[i]);
+                        out.writeLong(lastSeenCopy[i]);
+                        out.writeDouble(interArrivalCopy[i]);
+                        out.writeLong(regionsCopy[i]);
+                    }
+                }
+                Files.move(temp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                LOGGER.warn("Cannot write card profile snapshot {}: {}", snapshotFile, ex.getMessage());
+            }
+        }
+    }
+
+    // Profiles only sharpen scoring, so an unreadable snapshot is logged and the store starts empty
+    private void restore() {
+        long[][] longs;
+        double[][] doubles;
+        int count;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                LOGGER.warn("Ignoring card profile snapshot {} in an unknown format", snapshotFile);
+                return;
+            }
+
+            // Read fully before installing anything, so a failed read leaves the store empty rather than partial
+            count = in.readInt();
+            if (count < 0 || Files.size(snapshotFile) != HEADER_BYTES + (long) count * PROFILE_BYTES) {
+                LOGGER.warn("Ignoring truncated card profile snapshot {}", snapshotFile);
+                return;
+            }
+            longs = new long[4][count];
+            doubles = new double[3][count];
+            for (int i = 0; i < count; i++) {
+                longs[0][i] = in.readLong();
+                longs[1][i] = in.readLong();
+                doubles[0][i] = in.readDouble();
+                doubles[1][i] = in.readDouble();
+                longs[2][i] = in.readLong();
+                doubles[2][i] = in.readDouble();
+                longs[3][i] = in.readLong();
+            }
+        } catch (NoSuchFileException ex) {
+            LOGGER.info("No card profile snapshot at {}, starting empty", snapshotFile);
+            return;
+        } catch (IOException ex) {
+            LOGGER.warn("Cannot read card profile snapshot {}, starting empty: {}", snapshotFile, ex.toString());
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int slot = allocate(longs[0][i]);
+            counts[slot] = longs[1][i];
+            means[slot] = doubles[0][i];
+            m2[slot] = doubles[1][i];
+            lastSeen[slot] = longs[2][i];
+            interArrival[slot] = doubles[2][i];
+            regions[slot] = longs[3][i];
+        }
+        LOGGER.info("Restored {} card profiles from {}", count, snapshotFile);
+    }
+
+    private int allocate(long cardNumber) {
+        if (size == cards.length) {
+            int capacity = cards.length * 2;
+            cards = Arrays.copyOf(cards, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            means = Arrays.copyOf(means, capacity);
+            m2 = Arrays.copyOf(m2, capacity);
+            lastSeen = Arrays.copyOf(lastSeen, capacity);
+            interArrival = Arrays.copyOf(interArrival, capacity);
+            regions = Arrays.copyOf(regions, capacity);
+        }
+
+        int slot = size++;
+        cards[slot] = cardNumber;
+        slots.put(cardNumber, slot);
+        return slot;
+    }
+
+    /**
+     * A copy of one card's profile.
+     *
+     * @param meanInterArrival smoothed seconds between the card's transactions
+     * @param regions          bit {@code r.ordinal()} is set for every region the card was used in
+     */
+    public record CardProfile(long count, double mean, double variance, double meanInterArrival, long lastSeen,
+                              long regions) {
+    }
+}
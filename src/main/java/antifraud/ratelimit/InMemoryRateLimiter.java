@@ -0,0 +1,52 @@
+package antifraud.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+@Component
+@ConditionalOnProperty(name = "security.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final RateLimitProperties properties;
+    private final LongSupplier clock;
+
+    @Autowired
+    public InMemoryRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    InMemoryRateLimiter(RateLimitProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.getCapacity(), limit.nanosPerToken(), now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    @Override
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    // Full buckets carry no state, so they can be dropped and recreated on the next request
+    @Scheduled(fixedDelayString = "${security.rate-limit.cleanup-interval:60000}")
+    public void evictIdleBuckets() {
+        long now = clock.getAsLong();
+        long idleNanos = properties.getIdleBucketTtl().toNanos();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+}
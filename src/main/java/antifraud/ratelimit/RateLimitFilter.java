@@ -0,0 +1,113 @@
+package antifraud.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits how fast each caller may use each route. It runs after authentication, so buckets are keyed by
+ * the authenticated username; anonymous requests are keyed by client IP instead.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ROUTE = "default";
+
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final List<MatchedRoute> routes;
+    private final RateLimitProperties.Limit defaultLimit;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.enabled = properties.isEnabled();
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new MatchedRoute(route.getName(), matcherFor(route), route))
+                .toList();
+        this.defaultLimit = properties.getDefaultLimit();
+
+        Gauge.builder("rate_limit.buckets", rateLimiter, RateLimiter::bucketCount)
+                .description("Token buckets held by this node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        MatchedRoute route = enabled ? match(request) : null;
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(route.name() + ":" + callerOf(request), route.limit());
+        if (waitNanos == 0) {
+            counter(route.name(), "allowed").increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        counter(route.name(), "rejected").increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+    }
+
+    private MatchedRoute match(HttpServletRequest request) {
+        for (MatchedRoute route : routes) {
+            if (route.matcher().matches(request)) {
+                return route;
+            }
+        }
+        return defaultLimit != null ? new MatchedRoute(DEFAULT_ROUTE, null, defaultLimit) : null;
+    }
+
+    private static String callerOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Tagged by route and outcome only; tagging by caller would create a meter per merchant
+    private Counter counter(String route, String outcome) {
+        return counters.computeIfAbsent(route + ":" + outcome, key -> Counter.builder("rate_limit.requests")
+                .description("Requests checked against a rate limit")
+                .tag("route", route)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private static RequestMatcher matcherFor(RateLimitProperties.Route route) {
+        return route.getMethod() == null
+                ? new AntPathRequestMatcher(route.getPattern())
+                : new AntPathRequestMatcher(route.getPattern(), HttpMethod.valueOf(route.getMethod()).name());
+    }
+
+    private record MatchedRoute(String name, RequestMatcher matcher, RateLimitProperties.Limit limit) {
+    }
+}
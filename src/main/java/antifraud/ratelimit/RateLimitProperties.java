@@ -0,0 +1,57 @@
+package antifraud.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request limits applied per principal (or per client IP for anonymous calls) and per route.
+ * The first route whose pattern and method match a request decides its limit; requests matching no route
+ * use {@link #getDefaultLimit()}, or are not limited when it is unset.
+ */
+@Data
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private String store = "memory";
+    private Limit defaultLimit;
+    private List<Route> routes = new ArrayList<>();
+    private Duration idleBucketTtl = Duration.ofMinutes(10);
+
+    @Data
+    public static class Limit {
+
+        // Requests that may be made in a burst on a full bucket
+        private int capacity;
+        // Tokens added back every refill period
+        private int refillTokens;
+        private Duration refillPeriod = Duration.ofSeconds(1);
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, int refillTokens, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillTokens = refillTokens;
+            this.refillPeriod = refillPeriod;
+        }
+
+        public long nanosPerToken() {
+            return refillPeriod.toNanos() / Math.max(1, refillTokens);
+        }
+    }
+
+    @Data
+    @lombok.EqualsAndHashCode(callSuper = true)
+    public static class Route extends Limit {
+
+        private String name;
+        private String pattern;
+        // Any method when unset
+        private String method;
+    }
+}
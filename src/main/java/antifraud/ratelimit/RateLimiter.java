@@ -0,0 +1,18 @@
+package antifraud.ratelimit;
+
+/**
+ * Takes tokens from per-key buckets. The implementation is selected with {@code security.rate-limit.store}:
+ * {@code memory} (default) limits each node on its own, {@code redis} enforces the limits cluster-wide.
+ */
+public interface RateLimiter {
+
+    /**
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the bucket has a token again
+     */
+    long tryAcquire(String key, RateLimitProperties.Limit limit);
+
+    /**
+     * Number of buckets currently held by this node.
+     */
+    int bucketCount();
+}
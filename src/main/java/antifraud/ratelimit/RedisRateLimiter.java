@@ -0,0 +1,57 @@
+package antifraud.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same algorithm as {@link TokenBucket} in a Redis script, with the arrival time stored per key and the
+ * Redis server clock as the time source, so every node draws from the same bucket.
+ */
+@Component
+@ConditionalOnProperty(name = "security.rate-limit.store", havingValue = "redis")
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    // KEYS[1] = bucket key, ARGV[1] = microseconds per token, ARGV[2] = capacity; returns microseconds to wait
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local per_token = tonumber(ARGV[1])
+            local burst = per_token * tonumber(ARGV[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            local next = math.max(tat, now) + per_token
+            local wait = next - now - burst
+            if wait > 0 then
+                return wait
+            end
+            redis.call('SET', KEYS[1], next, 'PX', math.ceil((next - now) / 1000) + 1)
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long microsPerToken = Math.max(1, TimeUnit.NANOSECONDS.toMicros(limit.nanosPerToken()));
+        Long waitMicros = redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + key),
+                String.valueOf(microsPerToken), String.valueOf(limit.getCapacity()));
+        return waitMicros == null ? 0 : TimeUnit.MICROSECONDS.toNanos(waitMicros);
+    }
+
+    @Override
+    public int bucketCount() {
+        // Buckets live in Redis and expire there on their own
+        return 0;
+    }
+}
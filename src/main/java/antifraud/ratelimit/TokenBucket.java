@@ -0,0 +1,47 @@
+package antifraud.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as a single "theoretical arrival time" (the generic cell rate algorithm), so acquiring
+ * a token is one compare-and-set on an {@link AtomicLong} with no locking and no allocation.
+ * <p>
+ * Each token pushes the arrival time {@code nanosPerToken} into the future; a request is allowed as long as
+ * that leaves the arrival time no more than {@code capacity} tokens ahead of now.
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, long nanosPerToken, long now) {
+        this.nanosPerToken = nanosPerToken;
+        this.burstNanos = nanosPerToken * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanoseconds to wait before one becomes available
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * True once the bucket has been full for longer than {@code idleNanos}, so dropping it changes nothing.
+     */
+    public boolean isIdle(long now, long idleNanos) {
+        return theoreticalArrival.get() + idleNanos < now;
+    }
+}
@@ -0,0 +1,38 @@
+package antifraud.repo;
+
+import antifraud.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepo extends JpaRepository<OutboxEvent, Long> {
+
+    // Locked only while a relay claims the chunk, so relays on other nodes see the claim instead of racing it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e where e.deliveredAt is null order by e.id")
+    List<OutboxEvent> findPendingForUpdate(Pageable pageable);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :claimedUntil where e.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") Instant claimedUntil);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = null where e.id in :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.deliveredAt = :deliveredAt, e.claimedUntil = null where e.id in :ids")
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("deliveredAt") Instant deliveredAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.deliveredAt < :before")
+    int deleteDeliveredBefore(@Param("before") Instant before);
+}
@@ -14,4 +14,5 @@ public interface TransactionRepo extends JpaRepository<Transaction, Long> {
     List<Transaction> findAllByDateGreaterThanEqualAndDateLessThanAndNumber
             (LocalDateTime startDate, LocalDateTime endDate, String number);
     Page<Transaction> findAllByNumber(String number, Pageable pageable);
+    List<Transaction> findAllByDateLessThanAndIdGreaterThanOrderByIdAsc(LocalDateTime date, long id, Pageable pageable);
 }
@@ -0,0 +1,80 @@
+package antifraud.rules;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.TransactionType;
+
+import java.util.List;
+
+/**
+ * An immutable set of compiled rules. The conditions of all rules sit in one flat array, and evaluating the set
+ * only walks that array, so it allocates nothing unless a rule fires.
+ */
+public final class CompiledRuleSet {
+
+    public static final CompiledRuleSet EMPTY = new CompiledRuleSet(0, "none", new String[0], new TransactionType[0],
+            new int[0], new RulePredicate[0]);
+
+    private final long version;
+    private final String source;
+    private final String[] names;
+    private final TransactionType[] actions;
+    // The conditions of rule i are predicates[ends[i - 1]] up to, but excluding, predicates[ends[i]]
+    private final int[] ends;
+    private final RulePredicate[] predicates;
+
+    CompiledRuleSet(long version, String source, String[] names, TransactionType[] actions, int[] ends,
+                    RulePredicate[] predicates) {
+        this.version = version;
+        this.source = source;
+        this.names = names;
+        this.actions = actions;
+        this.ends = ends;
+        this.predicates = predicates;
+    }
+
+    /**
+     * Adds the name of every rule whose conditions all hold to {@code reasons} and escalates {@code currentType}
+     * to the rule's action.
+     */
+    public TransactionType evaluate(ParsedTransaction transaction, List<String> reasons, TransactionType currentType) {
+        int start = 0;
+        for (int rule = 0; rule < names.length; rule++) {
+            int end = ends[rule];
+            if (matches(transaction, start, end)) {
+                reasons.add(names[rule]);
+                if (actions[rule] == TransactionType.PROHIBITED) {
+                    currentType = TransactionType.PROHIBITED;
+                } else if (currentType == TransactionType.ALLOWED) {
+                    currentType = TransactionType.MANUAL_PROCESSING;
+                }
+            }
+            start = end;
+        }
+        return currentType;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public List<String> names() {
+        return List.of(names);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    private boolean matches(ParsedTransaction transaction, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!predicates[i].test(transaction)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,355 @@
+package antifraud.rules;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.RegionNames;
+import antifraud.enums.TransactionType;
+import antifraud.velocity.VelocityEngine;
+import antifraud.velocity.VelocityField;
+import org.springframework.boot.convert.DurationStyle;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles YAML rule definitions into a {@link CompiledRuleSet}. A definition looks like
+ * <pre>
+ * rules:
+ *   - name: high amount from risky region
+ *     action: PROHIBITED
+ *     when:
+ *       - amount &gt; 100000
+ *       - region in [MENA, SSA]
+ *   - name: card burst
+ *     action: MANUAL_PROCESSING
+ *     when:
+ *       - count(card, 10m) &gt;= 5
+ *       - distinct(card, ip, 1h) &gt; 2
+ * </pre>
+ * A rule fires when all of its conditions hold. The operands are {@code amount}, {@code bin}, {@code hour} (UTC),
+ * {@code region}, and the window aggregates {@code count(key, window)}, {@code sum(key, window)} and
+ * {@code distinct(key, field, window)}, which read the {@link VelocityEngine} counters and therefore need the key
+ * and field to be tracked and the window to be configured there. Numbers compare with
+ * {@code > >= < <= == != in} and {@code not in}; regions only with {@code == != in} and {@code not in}.
+ * <p>
+ * Everything is resolved here, so a compiled condition is a single comparison against a bound constant.
+ */
+public class RuleCompiler {
+
+    private static final Pattern CONDITION =
+            Pattern.compile("\\s*([a-z]+)\\s*(?:\\(([^)]*)\\))?\\s*(>=|<=|==|!=|>|<|not\\s+in|in)\\s*(.+?)\\s*");
+    private static final Set<String> RULE_KEYS = Set.of("name", "action", "when", "enabled");
+
+    private final VelocityEngine velocityEngine;
+
+    public RuleCompiler(VelocityEngine velocityEngine) {
+        this.velocityEngine = velocityEngine;
+    }
+
+    /**
+     * @throws RuleDefinitionException listing every problem found in the definition
+     */
+    public CompiledRuleSet compile(String definition, String source, long version) {
+        List<String> errors = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<TransactionType> actions = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        List<RulePredicate> predicates = new ArrayList<>();
+
+        List<?> rules = readRules(definition, errors);
+        for (int index = 0; index < rules.size(); index++) {
+            if (!(rules.get(index) instanceof Map<?, ?> rule)) {
+                errors.add("Rule #" + (index + 1) + ": expected a mapping with name, action and when");
+                continue;
+            }
+
+            String name = rule.get("name") instanceof String value && !value.isBlank() ? value : null;
+            String prefix = "Rule " + (name != null ? "'" + name + "'" : "#" + (index + 1)) + ": ";
+            int errorCount = errors.size();
+
+            if (name == null) {
+                errors.add(prefix + "name is required");
+            } else if (names.contains(name)) {
+                errors.add(prefix + "duplicate name");
+            }
+            for (Object key : rule.keySet()) {
+                if (!RULE_KEYS.contains(String.valueOf(key))) {
+                    errors.add(prefix + "unknown property '" + key + "'");
+                }
+            }
+
+            TransactionType action = parseAction(rule.get("action"), prefix, errors);
+            List<RulePredicate> conditions = new ArrayList<>();
+            for (String condition : conditions(rule.get("when"), prefix, errors)) {
+                RulePredicate predicate = parseCondition(condition, prefix, errors);
+                if (predicate != null) {
+                    conditions.add(predicate);
+                }
+            }
+
+            if (errors.size() == errorCount && !Boolean.FALSE.equals(rule.get("enabled"))) {
+                names.add(name);
+                actions.add(action);
+                predicates.addAll(conditions);
+                ends.add(predicates.size());
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new RuleDefinitionException(errors);
+        }
+
+        return new CompiledRuleSet(version, source, names.toArray(String[]::new),
+                actions.toArray(TransactionType[]::new), ends.stream().mapToInt(Integer::intValue).toArray(),
+                predicates.toArray(RulePredicate[]::new));
+    }
+
+    private static List<?> readRules(String definition, List<String> errors) {
+        Object document;
+        try {
+            document = new Yaml(new SafeConstructor(new LoaderOptions())).load(definition);
+        } catch (YAMLException ex) {
+            errors.add("Malformed YAML: " + ex.getMessage());
+            return List.of();
+        }
+
+        if (document == null) {
+            return List.of();
+        }
+        if (!(document instanceof Map<?, ?> root) || !(root.get("rules") instanceof List<?> rules)) {
+            errors.add("Expected a top-level 'rules' list");
+            return List.of();
+        }
+        return rules;
+    }
+
+    private static TransactionType parseAction(Object value, String prefix, List<String> errors) {
+        String action = value == null ? "" : String.valueOf(value).toUpperCase(Locale.ROOT);
+        if (action.equals(TransactionType.PROHIBITED.name())) {
+            return TransactionType.PROHIBITED;
+        }
+        if (action.equals(TransactionType.MANUAL_PROCESSING.name())) {
+            return TransactionType.MANUAL_PROCESSING;
+        }
+
+        errors.add(prefix + "action must be MANUAL_PROCESSING or PROHIBITED");
+        return null;
+    }
+
+    private static List<String> conditions(Object value, String prefix, List<String> errors) {
+        if (value instanceof String condition) {
+            return List.of(condition);
+        }
+        if (value instanceof List<?> list && !list.isEmpty()) {
+            List<String> conditions = new ArrayList<>();
+            for (Object condition : list) {
+                conditions.add(String.valueOf(condition));
+            }
+            return conditions;
+        }
+
+        errors.add(prefix + "when must be a condition or a non-empty list of conditions");
+        return List.of();
+    }
+
+    private RulePredicate parseCondition(String condition, String prefix, List<String> errors) {
+        Matcher matcher = CONDITION.matcher(condition);
+        if (!matcher.matches()) {
+            errors.add(prefix + "cannot parse condition '" + condition + "'");
+            return null;
+        }
+
+        String operand = matcher.group(1);
+        String arguments = matcher.group(2);
+        String operator = matcher.group(3).replaceAll("\\s+", " ");
+        String value = matcher.group(4);
+        String where = prefix + "'" + condition + "': ";
+
+        if (operand.equals("region") && arguments == null) {
+            return regionCondition(operator, value, where, errors);
+        }
+
+        ToLongFunction<ParsedTransaction> numeric = numericOperand(operand, arguments, where, errors);
+        if (numeric == null) {
+            return null;
+        }
+
+        if (operator.endsWith("in")) {
+            long[] values = parseNumbers(list(value, where, errors), where, errors);
+            if (values == null) {
+                return null;
+            }
+            Arrays.sort(values);
+            return operator.equals("in")
+                    ? transaction -> Arrays.binarySearch(values, numeric.applyAsLong(transaction)) >= 0
+                    : transaction -> Arrays.binarySearch(values, numeric.applyAsLong(transaction)) < 0;
+        }
+
+        long[] bound = parseNumbers(List.of(value), where, errors);
+        return bound == null ? null : compare(numeric, operator, bound[0]);
+    }
+
+    private static RulePredicate compare(ToLongFunction<ParsedTransaction> operand, String operator, long value) {
+        return switch (operator) {
+            case ">" -> transaction -> operand.applyAsLong(transaction) > value;
+            case ">=" -> transaction -> operand.applyAsLong(transaction) >= value;
+            case "<" -> transaction -> operand.applyAsLong(transaction) < value;
+            case "<=" -> transaction -> operand.applyAsLong(transaction) <= value;
+            case "==" -> transaction -> operand.applyAsLong(transaction) == value;
+            case "!=" -> transaction -> operand.applyAsLong(transaction) != value;
+            default -> throw new IllegalArgumentException("Unsupported operator " + operator);
+        };
+    }
+
+    private static RulePredicate regionCondition(String operator, String value, String where, List<String> errors) {
+        List<String> names = switch (operator) {
+            case "==", "!=" -> List.of(value);
+            case "in", "not in" -> list(value, where, errors);
+            default -> {
+                errors.add(where + "regions only support == != in and not in");
+                yield null;
+            }
+        };
+        if (names == null) {
+            return null;
+        }
+
+        long mask = 0;
+        for (String name : names) {
+            RegionNames region = RegionNames.fromName(name);
+            if (region == null) {
+                errors.add(where + "unknown region '" + name + "'");
+                return null;
+            }
+            mask |= 1L << region.ordinal();
+        }
+
+        long regions = mask;
+        return operator.equals("==") || operator.equals("in")
+                ? transaction -> (regions & 1L << transaction.region().ordinal()) != 0
+                : transaction -> (regions & 1L << transaction.region().ordinal()) == 0;
+    }
+
+    private ToLongFunction<ParsedTransaction> numericOperand(String operand, String arguments, String where,
+                                                             List<String> errors) {
+        if (arguments == null) {
+            return switch (operand) {
+                case "amount" -> ParsedTransaction::amount;
+                case "bin" -> ParsedTransaction::bin;
+                case "hour" -> transaction -> Math.floorMod(transaction.epochSecond(), 86_400L) / 3_600L;
+                default -> {
+                    errors.add(where + "unknown operand '" + operand + "'");
+                    yield null;
+                }
+            };
+        }
+
+        String[] args = arguments.split(",", -1);
+        int arity = operand.equals("distinct") ? 3 : 2;
+        if (!operand.equals("count") && !operand.equals("sum") && !operand.equals("distinct")) {
+            errors.add(where + "unknown function '" + operand + "'");
+            return null;
+        }
+        if (args.length != arity) {
+            errors.add(where + operand + " takes " + arity + " arguments");
+            return null;
+        }
+
+        VelocityField key = field(args[0], where, errors);
+        int window = window(args[arity - 1], where, errors);
+        if (key == null || window < 0) {
+            return null;
+        }
+        if (!velocityEngine.tracks(key)) {
+            errors.add(where + "no counters are kept per " + key.name().toLowerCase(Locale.ROOT)
+                    + "; add it to velocity.track");
+            return null;
+        }
+
+        return switch (operand) {
+            case "count" -> transaction -> velocityEngine.count(key, window, transaction);
+            case "sum" -> transaction -> velocityEngine.sum(key, window, transaction);
+            default -> {
+                VelocityField field = field(args[1], where, errors);
+                if (field == null) {
+                    yield null;
+                }
+                int slot = velocityEngine.distinctSlot(key, field);
+                if (slot < 0) {
+                    errors.add(where + "distinct " + field.name().toLowerCase(Locale.ROOT) + " values are not tracked per "
+                            + key.name().toLowerCase(Locale.ROOT) + "; add it to velocity.track");
+                    yield null;
+                }
+                yield transaction -> velocityEngine.distinct(key, slot, field, window, transaction);
+            }
+        };
+    }
+
+    private static VelocityField field(String name, String where, List<String> errors) {
+        try {
+            return VelocityField.valueOf(name.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            errors.add(where + "unknown field '" + name.strip() + "'");
+            return null;
+        }
+    }
+
+    private int window(String text, String where, List<String> errors) {
+        Duration window;
+        try {
+            window = DurationStyle.detectAndParse(text.strip());
+        } catch (IllegalArgumentException ex) {
+            errors.add(where + "invalid window '" + text.strip() + "'");
+            return -1;
+        }
+
+        int index = velocityEngine.windowIndex(window);
+        if (index < 0) {
+            errors.add(where + "window " + text.strip() + " is not one of velocity.windows");
+        }
+        return index;
+    }
+
+    private static List<String> list(String value, String where, List<String> errors) {
+        if (!value.startsWith("[") || !value.endsWith("]")) {
+            errors.add(where + "expected a list such as [a, b]");
+            return null;
+        }
+
+        List<String> items = new ArrayList<>();
+        for (String item : value.substring(1, value.length() - 1).split(",")) {
+            if (!item.isBlank()) {
+                items.add(item.strip());
+            }
+        }
+        return items;
+    }
+
+    private static long[] parseNumbers(List<String> items, String where, List<String> errors) {
+        if (items == null) {
+            return null;
+        }
+
+        long[] values = new long[items.size()];
+        for (int i = 0; i < values.length; i++) {
+            try {
+                values[i] = Long.parseLong(items.get(i).replace("_", ""));
+            } catch (NumberFormatException ex) {
+                errors.add(where + "'" + items.get(i) + "' is not a whole number");
+                return null;
+            }
+        }
+        return values;
+    }
+}
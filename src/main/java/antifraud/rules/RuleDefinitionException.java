@@ -0,0 +1,20 @@
+package antifraud.rules;
+
+import java.util.List;
+
+/**
+ * Thrown when a rule definition does not compile; carries every problem found, not just the first.
+ */
+public class RuleDefinitionException extends RuntimeException {
+
+    private final List<String> errors;
+
+    public RuleDefinitionException(List<String> errors) {
+        super("Invalid rule definition: " + String.join("; ", errors));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,107 @@
+package antifraud.rules;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.TransactionType;
+import antifraud.velocity.VelocityEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the active {@link CompiledRuleSet} and swaps it when the rule file changes. Scoring reads the current set
+ * once per transaction, so a reload never blocks it and a transaction is always scored by a single version.
+ * <p>
+ * A rule file that does not compile fails startup; a later broken edit is logged and the previous rules stay active.
+ */
+@Component
+@EnableConfigurationProperties(RuleProperties.class)
+public class RuleEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleEngine.class);
+
+    private final RuleCompiler compiler;
+    private final Path file;
+    private final AtomicReference<CompiledRuleSet> active = new AtomicReference<>(CompiledRuleSet.EMPTY);
+    private final AtomicLong versions = new AtomicLong();
+    private volatile FileTime loadedModified;
+
+    public RuleEngine(RuleProperties properties, VelocityEngine velocityEngine) {
+        this.compiler = new RuleCompiler(velocityEngine);
+        this.file = properties.getFile() != null && !properties.getFile().isBlank()
+                ? Path.of(properties.getFile()) : null;
+        if (file != null) {
+            reload();
+        }
+    }
+
+    public TransactionType evaluate(ParsedTransaction transaction, List<String> reasons, TransactionType currentType) {
+        return active.get().evaluate(transaction, reasons, currentType);
+    }
+
+    public CompiledRuleSet getActive() {
+        return active.get();
+    }
+
+    public boolean hasFile() {
+        return file != null;
+    }
+
+    /**
+     * Compiles {@code definition} without activating it.
+     *
+     * @throws RuleDefinitionException if it does not compile
+     */
+    public CompiledRuleSet compile(String definition) {
+        return compiler.compile(definition, "dry-run", 0);
+    }
+
+    /**
+     * Compiles the rule file and activates it.
+     *
+     * @throws RuleDefinitionException if it does not compile, in which case the active rules are kept
+     */
+    public synchronized CompiledRuleSet reload() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            String definition = Files.readString(file);
+            // Remembered before compiling so that a broken file is not recompiled until it changes again
+            loadedModified = modified;
+            CompiledRuleSet compiled = compiler.compile(definition, file.toString(), versions.incrementAndGet());
+            active.set(compiled);
+            LOGGER.info("Activated {} rules from {} as version {}", compiled.size(), file, compiled.version());
+            return compiled;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read rule file " + file, ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rules.reload-interval:5000}")
+    public void reloadIfChanged() {
+        if (file == null) {
+            return;
+        }
+
+        try {
+            if (!Files.getLastModifiedTime(file).equals(loadedModified)) {
+                reload();
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            LOGGER.warn("Cannot check rule file {}, keeping version {}: {}", file, active.get().version(),
+                    ex.getMessage());
+        } catch (RuleDefinitionException ex) {
+            LOGGER.warn("Rule file {} does not compile, keeping version {}: {}", file, active.get().version(),
+                    ex.getErrors());
+        }
+    }
+}
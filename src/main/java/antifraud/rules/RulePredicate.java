@@ -0,0 +1,12 @@
+package antifraud.rules;
+
+import antifraud.dto.request.ParsedTransaction;
+
+/**
+ * One compiled condition of a rule, with its operand and constants already bound.
+ */
+@FunctionalInterface
+public interface RulePredicate {
+
+    boolean test(ParsedTransaction transaction);
+}
@@ -0,0 +1,12 @@
+package antifraud.rules;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "rules")
+public class RuleProperties {
+
+    // YAML rule file; no rules are loaded when unset
+    private String file;
+}
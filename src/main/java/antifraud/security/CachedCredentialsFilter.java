@@ -0,0 +1,125 @@
+package antifraud.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers recently verified HTTP Basic credentials so repeated calls skip both the user lookup and BCrypt.
+ * <p>
+ * Entries are keyed by an HMAC of the whole Authorization header under a key generated at startup, so neither
+ * the header nor a plain digest of it is kept in memory. They live for a short time only and are dropped as soon
+ * as the {@link PrincipalCache} invalidates the user. An invalidation while a request is still being authenticated
+ * wins: that request's result is not cached.
+ */
+@Component
+public class CachedCredentialsFilter extends OncePerRequestFilter {
+
+    private static final String BASIC_PREFIX = "Basic ";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, Authentication> verified;
+    private final SecretKeySpec hmacKey;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    // Bumped by every invalidation, so a request can tell whether one ran while it was being authenticated
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachedCredentialsFilter(PrincipalCache principalCache,
+                                   @Value("${security.credentials-cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${security.credentials-cache.ttl:60s}") Duration ttl) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+
+        principalCache.addInvalidationListener(this::invalidate);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BASIC_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String cacheKey = hash(header);
+        Authentication cached = verified.getIfPresent(cacheKey);
+        if (cached != null) {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(cached);
+            SecurityContextHolder.setContext(context);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long startGeneration = generation.get();
+        filterChain.doFilter(request, response);
+
+        // BasicAuthenticationFilter runs after this filter, so a successful login is visible once the chain returns
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof UsernamePasswordAuthenticationToken && authentication.isAuthenticated()) {
+            verified.put(cacheKey, UsernamePasswordAuthenticationToken.authenticated(
+                    authentication.getPrincipal(), null, authentication.getAuthorities()));
+            // Checked after the put: an invalidation that bumped the generation before this check may have missed
+            // the entry, and one that bumps it later removes the entry itself
+            if (generation.get() != startGeneration) {
+                verified.invalidate(cacheKey);
+            }
+        }
+    }
+
+    /**
+     * Drops every cached credential of {@code username}, or all of them when {@code username} is {@code null}.
+     */
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        if (username == null) {
+            verified.invalidateAll();
+            return;
+        }
+
+        verified.asMap().values().removeIf(authentication -> username.equals(authentication.getName()));
+    }
+
+    private String hash(String header) {
+        byte[] digest = macs.get().doFinal(header.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package antifraud.security;
+
+import antifraud.logging.events.authentication.CredentialStuffingDetectedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.LongSupplier;
+
+/**
+ * Detects one IP address failing logins across many usernames, which per-username counters never see.
+ * <p>
+ * Failures are counted per IP in a sliding window of time buckets, and the usernames tried are fed to a
+ * {@link HyperLogLog} that is restarted whenever the IP has had no failures for a whole window. Once an IP
+ * reaches both {@code max-failures} and {@code min-distinct-usernames} it is blocked for {@code block-duration},
+ * and {@link CredentialStuffingFilter} rejects its requests before any authentication runs.
+ */
+@Component
+public class CredentialStuffingDetector {
+
+    private static final int BUCKETS = 10;
+    private static final int HLL_PRECISION = 10;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<String, IpWindow> windows;
+    private final Cache<String, Long> blockedUntil;
+    private final long windowMillis;
+    private final int maxFailures;
+    private final long minDistinctUsernames;
+    private final long blockMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public CredentialStuffingDetector(ApplicationEventPublisher eventPublisher,
+                                      @Value("${security.credential-stuffing.window:10m}") Duration window,
+                                      @Value("${security.credential-stuffing.max-failures:20}") int maxFailures,
+                                      @Value("${security.credential-stuffing.min-distinct-usernames:10}") long minDistinctUsernames,
+                                      @Value("${security.credential-stuffing.block-duration:30m}") Duration blockDuration,
+                                      @Value("${security.credential-stuffing.maximum-tracked-ips:100000}") long maximumTrackedIps) {
+        this(eventPublisher, window, maxFailures, minDistinctUsernames, blockDuration, maximumTrackedIps,
+                System::currentTimeMillis);
+    }
+
+    CredentialStuffingDetector(ApplicationEventPublisher eventPublisher, Duration window, int maxFailures,
+                               long minDistinctUsernames, Duration blockDuration, long maximumTrackedIps,
+                               LongSupplier clock) {
+        this.eventPublisher = eventPublisher;
+        this.windowMillis = window.toMillis();
+        this.maxFailures = maxFailures;
+        this.minDistinctUsernames = minDistinctUsernames;
+        this.blockMillis = blockDuration.toMillis();
+        this.clock = clock;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maximumTrackedIps)
+                .expireAfterAccess(window)
+                .build();
+        this.blockedUntil = Caffeine.newBuilder()
+                .maximumSize(maximumTrackedIps)
+                .expireAfterWrite(blockDuration)
+                .build();
+    }
+
+    /**
+     * Returns how much longer {@code ipAddress} stays blocked, or {@link Duration#ZERO} if it is not blocked.
+     */
+    public Duration remainingBlock(String ipAddress) {
+        Long until = blockedUntil.getIfPresent(ipAddress);
+        if (until == null) {
+            return Duration.ZERO;
+        }
+
+        long remaining = until - clock.getAsLong();
+        return remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+    }
+
+    public void recordFailure(String ipAddress, String username) {
+        long now = clock.getAsLong();
+        IpWindow window = windows.get(ipAddress, key -> new IpWindow(windowMillis));
+
+        int failures;
+        long distinctUsernames;
+        synchronized (window) {
+            failures = window.record(now, username);
+            distinctUsernames = window.distinctUsernames();
+        }
+
+        if (failures >= maxFailures && distinctUsernames >= minDistinctUsernames
+                && blockedUntil.asMap().putIfAbsent(ipAddress, now + blockMillis) == null) {
+            windows.invalidate(ipAddress);
+            eventPublisher.publishEvent(new CredentialStuffingDetectedEvent(
+                    ipAddress, failures, distinctUsernames, LocalDateTime.now()));
+        }
+    }
+
+    @EventListener
+    public void onAuthenticationFailure(AuthenticationFailureBadCredentialsEvent event) {
+        String ipAddress = resolveIpAddress(event.getAuthentication().getDetails());
+        if (ipAddress != null) {
+            recordFailure(ipAddress, event.getAuthentication().getName());
+        }
+    }
+
+    // Basic and form logins attach WebAuthenticationDetails; the token endpoint runs on the request thread instead
+    private String resolveIpAddress(Object details) {
+        if (details instanceof WebAuthenticationDetails webDetails) {
+            return webDetails.getRemoteAddress();
+        }
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+
+    private static final class IpWindow {
+
+        private final long bucketMillis;
+        private final long[] bucketStarts = new long[BUCKETS];
+        private final int[] counts = new int[BUCKETS];
+        private HyperLogLog usernames = new HyperLogLog(HLL_PRECISION);
+        private long lastFailureAt = Long.MIN_VALUE;
+
+        private IpWindow(long windowMillis) {
+            this.bucketMillis = Math.max(1, windowMillis / BUCKETS);
+        }
+
+        int record(long now, String username) {
+            long windowMillis = bucketMillis * BUCKETS;
+            if (lastFailureAt != Long.MIN_VALUE && now - lastFailureAt >= windowMillis) {
+                usernames = new HyperLogLog(HLL_PRECISION);
+            }
+            lastFailureAt = now;
+
+            long bucketStart = now - Math.floorMod(now, bucketMillis);
+            int index = (int) Math.floorMod(bucketStart / bucketMillis, (long) BUCKETS);
+            if (bucketStarts[index] != bucketStart) {
+                bucketStarts[index] = bucketStart;
+                counts[index] = 0;
+            }
+            counts[index]++;
+            usernames.add(username);
+
+            int total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (bucketStarts[i] > now - windowMillis) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        long distinctUsernames() {
+            return usernames.estimate();
+        }
+    }
+}
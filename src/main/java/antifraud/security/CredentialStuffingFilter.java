@@ -0,0 +1,39 @@
+package antifraud.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Rejects requests from IP addresses blocked by the {@link CredentialStuffingDetector} before any
+ * authentication, and therefore any user lookup or BCrypt check, takes place.
+ */
+@Component
+@RequiredArgsConstructor
+public class CredentialStuffingFilter extends OncePerRequestFilter {
+
+    private final CredentialStuffingDetector detector;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration remaining = detector.remainingBlock(request.getRemoteAddr());
+        if (remaining.isZero()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, (remaining.toMillis() + 999) / 1000);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many failed logins from this IP address");
+    }
+}
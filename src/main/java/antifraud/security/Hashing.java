@@ -0,0 +1,24 @@
+package antifraud.security;
+
+import java.nio.charset.StandardCharsets;
+
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    // 64-bit FNV-1a followed by a murmur3 finaliser so all bits are well mixed
+    static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
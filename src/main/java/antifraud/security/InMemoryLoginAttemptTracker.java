@@ -0,0 +1,80 @@
+package antifraud.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the most recent failure timestamps of each username in a small ring buffer. Only {@code threshold}
+ * timestamps are ever needed to tell whether the threshold was reached within the window, so memory per user
+ * is bounded, and users with no recent failures are evicted once the window has passed.
+ */
+@Component
+@ConditionalOnProperty(name = "security.login-attempts.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptTracker implements LoginAttemptTracker {
+
+    private final Cache<String, SlidingWindow> windows;
+    private final int threshold;
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public InMemoryLoginAttemptTracker(@Value("${security.failed-login-threshold:5}") int threshold,
+                                       @Value("${security.failed-login-window:15m}") Duration window,
+                                       @Value("${security.login-attempts.maximum-size:100000}") long maximumSize) {
+        this(threshold, window, maximumSize, System::currentTimeMillis);
+    }
+
+    InMemoryLoginAttemptTracker(int threshold, Duration window, long maximumSize, LongSupplier clock) {
+        this.threshold = threshold;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(window)
+                .build();
+    }
+
+    @Override
+    public int recordFailure(String username) {
+        SlidingWindow window = windows.get(username, key -> new SlidingWindow(threshold));
+        return window.record(clock.getAsLong(), windowMillis);
+    }
+
+    @Override
+    public void reset(String username) {
+        windows.invalidate(username);
+    }
+
+    private static final class SlidingWindow {
+
+        private final long[] timestamps;
+        private int next;
+        private int size;
+
+        private SlidingWindow(int capacity) {
+            this.timestamps = new long[Math.max(1, capacity)];
+        }
+
+        synchronized int record(long now, long windowMillis) {
+            timestamps[next] = now;
+            next = (next + 1) % timestamps.length;
+            size = Math.min(size + 1, timestamps.length);
+
+            long cutoff = now - windowMillis;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (timestamps[i] > cutoff) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
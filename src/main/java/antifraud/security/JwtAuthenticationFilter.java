@@ -0,0 +1,72 @@
+package antifraud.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying a {@code Bearer} access token from the token itself, without loading the user.
+ * Invalid, expired or revoked tokens leave the request unauthenticated, so it is rejected like any anonymous call.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final TokenDenylist tokenDenylist;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            authenticate(header.substring(BEARER_PREFIX.length()));
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(String token) {
+        Claims claims;
+        try {
+            claims = jwtService.parse(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            LOGGER.debug("Rejected access token: {}", ex.getMessage());
+            return;
+        }
+
+        String username = claims.getSubject();
+        if (username == null || claims.getIssuedAt() == null
+                || tokenDenylist.isRevoked(username, claims.getIssuedAt().toInstant().getEpochSecond())) {
+            return;
+        }
+
+        List<?> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, authorities));
+        SecurityContextHolder.setContext(context);
+    }
+}
@@ -0,0 +1,84 @@
+package antifraud.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Issues and verifies the HS256-signed access tokens handed out by {@code POST /api/auth/token}.
+ * A token carries the username as subject and the granted authorities in the {@value #ROLES_CLAIM} claim,
+ * so verifying it needs no database access.
+ */
+@Component
+public class JwtService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwtService.class);
+    static final String ROLES_CLAIM = "roles";
+
+    private final Key key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public JwtService(@Value("${security.jwt.secret:}") String secret,
+                      @Value("${security.jwt.ttl:15m}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    JwtService(String secret, Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        if (secret == null || secret.isBlank()) {
+            LOGGER.warn("security.jwt.secret is not set, tokens are signed with a random key and only valid on this instance");
+            this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        } else {
+            this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        }
+    }
+
+    public String issue(String username, Collection<? extends GrantedAuthority> authorities) {
+        Instant now = clock.instant();
+        List<String> roles = authorities.stream().map(GrantedAuthority::getAuthority).toList();
+
+        return Jwts.builder()
+                .setSubject(username)
+                .claim(ROLES_CLAIM, roles)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(ttl)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Verifies the signature and expiry of {@code token} and returns its claims.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .setClock(() -> Date.from(clock.instant()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
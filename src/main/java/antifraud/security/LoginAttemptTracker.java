@@ -0,0 +1,16 @@
+package antifraud.security;
+
+/**
+ * Counts failed logins per username within a sliding window of {@code security.failed-login-window}.
+ * The store is selected with {@code security.login-attempts.store}: {@code memory} (default) keeps counters
+ * on this node only, {@code redis} shares them between nodes.
+ */
+public interface LoginAttemptTracker {
+
+    /**
+     * Records a failed login and returns how many failures {@code username} has within the window, this one included.
+     */
+    int recordFailure(String username);
+
+    void reset(String username);
+}
@@ -0,0 +1,109 @@
+package antifraud.security;
+
+import antifraud.cache.CacheInvalidationBus;
+import antifraud.logging.events.user.UserDeletedEvent;
+import antifraud.logging.events.user.UserLockedStatusChangeEvent;
+import antifraud.logging.events.user.UserRoleChangedEvent;
+import antifraud.model.AppUserAdapter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Holds {@link AppUserAdapter} snapshots by username so authentication does not hit the database on every request.
+ * <p>
+ * Entries are dropped as soon as a user is locked, deleted or has their role changed, on this node synchronously
+ * and on other nodes through the {@link CacheInvalidationBus}.
+ */
+@Component
+public class PrincipalCache {
+
+    static final String CACHE_NAME = "principals";
+
+    private final Cache<String, AppUserAdapter> principals;
+    private final CacheInvalidationBus invalidationBus;
+    private final List<Consumer<String>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public PrincipalCache(CacheInvalidationBus invalidationBus,
+                          @Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
+        this.invalidationBus = invalidationBus;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        invalidationBus.register((cacheName, key) -> {
+            if (CACHE_NAME.equals(cacheName)) {
+                if (key == null) {
+                    principals.invalidateAll();
+                    invalidationListeners.forEach(listener -> listener.accept(null));
+                } else {
+                    invalidateLocally(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the cached snapshot for {@code username}, calling {@code loader} at most once per miss.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     */
+    public AppUserAdapter get(String username, Function<String, AppUserAdapter> loader) {
+        return principals.get(username, loader);
+    }
+
+    /**
+     * Registers a callback run whenever a username is invalidated, or with {@code null} when everything is.
+     */
+    public void addInvalidationListener(Consumer<String> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    public void invalidate(String username) {
+        invalidateLocally(username);
+        invalidationBus.publish(CACHE_NAME, username);
+
+        // The change is not visible to other transactions until commit, so a request racing with it could
+        // have reloaded the old row in the meantime
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateLocally(username);
+                    invalidationBus.publish(CACHE_NAME, username);
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void onUserLockedStatusChange(UserLockedStatusChangeEvent event) {
+        invalidate(event.username());
+    }
+
+    @EventListener
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        invalidate(event.appUser().getUsername());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidate(event.appUser().getUsername());
+    }
+
+    private void invalidateLocally(String username) {
+        principals.invalidate(username);
+        invalidationListeners.forEach(listener -> listener.accept(username));
+    }
+}
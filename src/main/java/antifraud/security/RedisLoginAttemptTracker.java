@@ -0,0 +1,53 @@
+package antifraud.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shares failure counters between nodes as one Redis sorted set per username, scored by failure time.
+ * Recording, trimming and counting run in a single script, so concurrent failures on different nodes
+ * are all counted.
+ */
+@Component
+@ConditionalOnProperty(name = "security.login-attempts.store", havingValue = "redis")
+public class RedisLoginAttemptTracker implements LoginAttemptTracker {
+
+    private static final String KEY_PREFIX = "login-failures:";
+
+    // KEYS[1] = counter key, ARGV[1] = now in ms, ARGV[2] = window in ms, ARGV[3] = unique member
+    private static final RedisScript<Long> RECORD_FAILURE = new DefaultRedisScript<>("""
+            redis.call('ZADD', KEYS[1], ARGV[1], ARGV[3])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[1] - ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return redis.call('ZCARD', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long windowMillis;
+
+    public RedisLoginAttemptTracker(StringRedisTemplate redisTemplate,
+                                    @Value("${security.failed-login-window:15m}") Duration window) {
+        this.redisTemplate = redisTemplate;
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    public int recordFailure(String username) {
+        Long count = redisTemplate.execute(RECORD_FAILURE, List.of(KEY_PREFIX + username),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(windowMillis), UUID.randomUUID().toString());
+        return count == null ? 0 : count.intValue();
+    }
+
+    @Override
+    public void reset(String username) {
+        redisTemplate.delete(KEY_PREFIX + username);
+    }
+}
@@ -0,0 +1,114 @@
+package antifraud.security;
+
+import antifraud.cache.CacheInvalidationBus;
+import antifraud.logging.events.user.UserDeletedEvent;
+import antifraud.logging.events.user.UserLockedStatusChangeEvent;
+import antifraud.logging.events.user.UserRoleChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks users whose access tokens were revoked, as username to revocation time. A token is rejected if it was
+ * issued at or before its user's revocation time.
+ * <p>
+ * Revocations are rare, so lookups go through a {@link BloomFilter} first and almost never touch the map.
+ * Entries are kept for one token lifetime, after which every token they could reject has expired anyway;
+ * the filter is rebuilt from the remaining entries when they are pruned.
+ */
+@Component
+public class TokenDenylist {
+
+    static final String CHANNEL_NAME = "token-denylist";
+
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+    private final CacheInvalidationBus invalidationBus;
+    private final Duration retention;
+    private final int expectedRevocations;
+    private final Clock clock;
+    private volatile BloomFilter filter;
+
+    @Autowired
+    public TokenDenylist(CacheInvalidationBus invalidationBus,
+                         @Value("${security.jwt.ttl:15m}") Duration retention,
+                         @Value("${security.jwt.denylist-expected-size:10000}") int expectedRevocations) {
+        this(invalidationBus, retention, expectedRevocations, Clock.systemUTC());
+    }
+
+    TokenDenylist(CacheInvalidationBus invalidationBus, Duration retention, int expectedRevocations, Clock clock) {
+        this.invalidationBus = invalidationBus;
+        this.retention = retention;
+        this.expectedRevocations = expectedRevocations;
+        this.clock = clock;
+        this.filter = new BloomFilter(expectedRevocations, 0.01);
+
+        invalidationBus.register((channel, username) -> {
+            if (CHANNEL_NAME.equals(channel) && username != null) {
+                revokeLocally(username);
+            }
+        });
+    }
+
+    public boolean isRevoked(String username, long issuedAtEpochSecond) {
+        if (!filter.mightContain(username)) {
+            return false;
+        }
+
+        Long revoked = revokedAt.get(username);
+        return revoked != null && issuedAtEpochSecond <= revoked;
+    }
+
+    /**
+     * Rejects every token of {@code username} issued up to now, on this node and on the others.
+     */
+    public void revoke(String username) {
+        revokeLocally(username);
+        invalidationBus.publish(CHANNEL_NAME, username);
+    }
+
+    @EventListener
+    public void onUserLockedStatusChange(UserLockedStatusChangeEvent event) {
+        if (event.locked()) {
+            revoke(event.username());
+        }
+    }
+
+    @EventListener
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        revoke(event.appUser().getUsername());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        revoke(event.appUser().getUsername());
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.denylist-prune-interval:60000}")
+    public synchronized void prune() {
+        long cutoff = clock.instant().minus(retention).getEpochSecond();
+        if (!revokedAt.values().removeIf(revoked -> revoked < cutoff)) {
+            return;
+        }
+
+        BloomFilter rebuilt = new BloomFilter(expectedRevocations, 0.01);
+        revokedAt.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    // Synchronized with prune so a revocation cannot be lost while the filter is being swapped
+    private synchronized void revokeLocally(String username) {
+        revokedAt.put(username, clock.instant().getEpochSecond());
+        filter.add(username);
+    }
+
+    int size() {
+        return revokedAt.size();
+    }
+}
@@ -34,7 +34,7 @@ public class AntiFraudService {
     private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = "suspiciousIps", key = "#requestDTO.ip")
+    @CacheEvict(value = "suspiciousIps", key = "'all'")
     public ResponseEntity<SuspiciousIp> addSuspiciousIp(SuspiciousIpRequestDTO requestDTO) {
         return addEntity(requestDTO, SuspiciousIpRequestDTO::toSuspiciousIp,
                 suspiciousIpRepo::findByIp, suspiciousIpRepo::save, "IP address",
@@ -42,20 +42,20 @@ public class AntiFraudService {
     }
 
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
-    @Cacheable("suspiciousIps")
-    public ResponseEntity<List<SuspiciousIp>> getSuspiciousIps() {
-        return ResponseEntity.ok(suspiciousIpRepo.findAllByOrderByIdAsc());
+    @Cacheable(value = "suspiciousIps", key = "'all'", sync = true)
+    public List<SuspiciousIp> getSuspiciousIps() {
+        return suspiciousIpRepo.findAllByOrderByIdAsc();
     }
 
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = "suspiciousIps", key = "#ip")
+    @CacheEvict(value = "suspiciousIps", key = "'all'")
     public ResponseEntity<AntiFraudDeletionResponseDTO<SuspiciousIp>> removeSuspiciousIp(String ip) {
         return removeEntity(ip, suspiciousIpRepo::findByIp, suspiciousIpRepo::delete, "IP address",
                 suspiciousIp -> eventPublisher.publishEvent(new SuspiciousIpRemoveEvent(suspiciousIp.getIp())));
     }
 
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = "stolenCards", key = "#requestDTO.number")
+    @CacheEvict(value = "stolenCards", key = "'all'")
     public ResponseEntity<StolenCard> addStolenCard(StolenCardRequestDTO requestDTO) {
         return addEntity(requestDTO, StolenCardRequestDTO::toStolenCard,
                 stolenCardRepo::findByNumber, stolenCardRepo::save, "card number",
@@ -63,13 +63,13 @@ public class AntiFraudService {
     }
 
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
-    @Cacheable("stolenCards")
-    public ResponseEntity<List<StolenCard>> getStolenCards() {
-        return ResponseEntity.ok(stolenCardRepo.findAllByOrderByIdAsc());
+    @Cacheable(value = "stolenCards", key = "'all'", sync = true)
+    public List<StolenCard> getStolenCards() {
+        return stolenCardRepo.findAllByOrderByIdAsc();
     }
 
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = "stolenCards", key = "#number")
+    @CacheEvict(value = "stolenCards", key = "'all'")
     public ResponseEntity<AntiFraudDeletionResponseDTO<StolenCard>> removeStolenCard(String number) {
         return removeEntity(number, stolenCardRepo::findByNumber, stolenCardRepo::delete, "card number",
                 stolenCard -> eventPublisher.publishEvent(new StolenCardRemoveEvent(stolenCard.getNumber())));
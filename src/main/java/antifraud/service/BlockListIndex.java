@@ -0,0 +1,68 @@
+package antifraud.service;
+
+import antifraud.model.StolenCard;
+import antifraud.model.SuspiciousIp;
+import antifraud.utils.CardNumbers;
+import antifraud.utils.IpAddressParser;
+import antifraud.utils.LongLongMap;
+import antifraud.utils.PackedIp;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers block list lookups for the review rules in constant time. The index is built from the list cached by
+ * {@link AntiFraudService} and rebuilt whenever the cache hands out a different list, so it is invalidated together
+ * with that cache, on every node.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlockListIndex {
+
+    private final AntiFraudService antiFraudService;
+    private volatile Snapshot<Set<PackedIp>> suspiciousIps;
+    // Used as a set of card numbers; a primitive map keeps the lookup free of boxing
+    private volatile Snapshot<LongLongMap> stolenCards;
+
+    public boolean isStolenCard(long cardNumber) {
+        List<StolenCard> source = antiFraudService.getStolenCards();
+        Snapshot<LongLongMap> current = stolenCards;
+        if (current == null || current.source() != source) {
+            LongLongMap cards = new LongLongMap(source.size());
+            for (StolenCard stolenCard : source) {
+                long number = CardNumbers.parse(stolenCard.getNumber());
+                if (number >= 0) {
+                    cards.put(number, 1);
+                }
+            }
+            current = new Snapshot<>(source, cards);
+            stolenCards = current;
+        }
+        return current.index().get(cardNumber, 0) != 0;
+    }
+
+    public boolean isSuspiciousIp(PackedIp ip) {
+        List<SuspiciousIp> source = antiFraudService.getSuspiciousIps();
+        Snapshot<Set<PackedIp>> current = suspiciousIps;
+        if (current == null || current.source() != source) {
+            Set<PackedIp> ips = new HashSet<>(source.size() * 2);
+            for (SuspiciousIp suspiciousIp : source) {
+                // Stored literals were validated on the way in, so only a corrupt row fails to parse
+                PackedIp packed = IpAddressParser.parse(suspiciousIp.getIp());
+                if (packed != null) {
+                    ips.add(packed);
+                }
+            }
+            current = new Snapshot<>(source, ips);
+            suspiciousIps = current;
+        }
+        return current.index().contains(ip);
+    }
+
+    // The cached list an index was built from, compared by identity
+    private record Snapshot<T>(List<?> source, T index) {
+    }
+}
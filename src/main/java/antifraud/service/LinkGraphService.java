@@ -0,0 +1,31 @@
+package antifraud.service;
+
+import antifraud.dto.response.LinkComponentResponseDTO;
+import antifraud.exception.BadRequestException;
+import antifraud.exception.NotFoundException;
+import antifraud.graph.LinkGraph;
+import antifraud.utils.CardNumbers;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class LinkGraphService {
+
+    private final LinkGraph linkGraph;
+
+    public ResponseEntity<LinkComponentResponseDTO> getComponent(String number) {
+        long cardNumber = CardNumbers.parse(number);
+        if (cardNumber < 0 || !CardNumbers.isLuhnValid(cardNumber)) {
+            throw new BadRequestException("Invalid card number format");
+        }
+
+        LinkGraph.LinkComponent component = linkGraph.component(cardNumber);
+        if (component == null) {
+            throw new NotFoundException("Card not found in link graph");
+        }
+
+        return ResponseEntity.ok(new LinkComponentResponseDTO(component));
+    }
+}
@@ -0,0 +1,57 @@
+package antifraud.service;
+
+import antifraud.dto.request.RuleDryRunRequestDTO;
+import antifraud.dto.response.RuleDryRunResponseDTO;
+import antifraud.dto.response.RuleSetResponseDTO;
+import antifraud.enums.TransactionType;
+import antifraud.exception.BadRequestException;
+import antifraud.rules.CompiledRuleSet;
+import antifraud.rules.RuleDefinitionException;
+import antifraud.rules.RuleEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class RuleService {
+
+    private final RuleEngine ruleEngine;
+
+    public ResponseEntity<RuleSetResponseDTO> getRules() {
+        return ResponseEntity.ok(new RuleSetResponseDTO(ruleEngine.getActive()));
+    }
+
+    public ResponseEntity<RuleSetResponseDTO> reloadRules() {
+        if (!ruleEngine.hasFile()) {
+            throw new BadRequestException("No rule file is configured");
+        }
+
+        try {
+            return ResponseEntity.ok(new RuleSetResponseDTO(ruleEngine.reload()));
+        } catch (RuleDefinitionException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
+    }
+
+    // Compiles and optionally evaluates a definition without activating it
+    public ResponseEntity<RuleDryRunResponseDTO> dryRun(RuleDryRunRequestDTO requestDTO) {
+        CompiledRuleSet ruleSet;
+        try {
+            ruleSet = ruleEngine.compile(requestDTO.getDefinition());
+        } catch (RuleDefinitionException ex) {
+            return ResponseEntity.ok(new RuleDryRunResponseDTO(false, ex.getErrors(), List.of(), List.of(), null));
+        }
+
+        if (requestDTO.getTransaction() == null) {
+            return ResponseEntity.ok(new RuleDryRunResponseDTO(true, List.of(), ruleSet.names(), List.of(), null));
+        }
+
+        List<String> fired = new ArrayList<>();
+        TransactionType result = ruleSet.evaluate(requestDTO.getTransaction().getParsed(), fired, TransactionType.ALLOWED);
+        return ResponseEntity.ok(new RuleDryRunResponseDTO(true, List.of(), ruleSet.names(), fired, result.name()));
+    }
+}
@@ -0,0 +1,61 @@
+package antifraud.service;
+
+import antifraud.config.CustomAuthenticationFailureHandler;
+import antifraud.config.CustomAuthenticationSuccessHandler;
+import antifraud.dto.request.TokenRequestDTO;
+import antifraud.dto.response.TokenResponseDTO;
+import antifraud.exception.TooManyRequestsException;
+import antifraud.exception.UnauthorizedException;
+import antifraud.security.CredentialStuffingDetector;
+import antifraud.security.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+@Service
+@RequiredArgsConstructor
+public class TokenService {
+
+    private final AuthenticationManager authenticationManager;
+    private final JwtService jwtService;
+    private final CredentialStuffingDetector credentialStuffingDetector;
+    private final CustomAuthenticationSuccessHandler successHandler;
+    private final CustomAuthenticationFailureHandler failureHandler;
+
+    /**
+     * Exchanges credentials for a bearer token. Goes through the same IP block, lockout and failed login
+     * accounting as Basic and form logins, so the token endpoint cannot be used to get around them.
+     */
+    public ResponseEntity<TokenResponseDTO> issueToken(TokenRequestDTO tokenRequest, String ipAddress) {
+        Duration remainingBlock = credentialStuffingDetector.remainingBlock(ipAddress);
+        if (!remainingBlock.isZero()) {
+            throw new TooManyRequestsException("Too many failed logins from this IP address",
+                    Math.max(1, (remainingBlock.toMillis() + 999) / 1000));
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(
+                    tokenRequest.getUsername(), tokenRequest.getPassword()));
+        } catch (LockedException ex) {
+            failureHandler.recordFailure(tokenRequest.getUsername(), ipAddress);
+            throw new UnauthorizedException("User is locked");
+        } catch (AuthenticationException ex) {
+            if (failureHandler.recordFailure(tokenRequest.getUsername(), ipAddress)) {
+                throw new UnauthorizedException("User blocked due to too many failed login attempts");
+            }
+            throw new UnauthorizedException("Invalid credentials");
+        }
+
+        successHandler.recordSuccess(authentication.getName(), ipAddress);
+        String token = jwtService.issue(authentication.getName(), authentication.getAuthorities());
+        return ResponseEntity.ok(TokenResponseDTO.bearer(token, jwtService.getTtl().toSeconds()));
+    }
+}
@@ -1,26 +1,35 @@
 package antifraud.service;
 
+import antifraud.archive.ArchivedTransaction;
+import antifraud.archive.TransactionArchive;
 import antifraud.dto.request.FeedbackRequestDTO;
+import antifraud.dto.request.ParsedTransaction;
 import antifraud.dto.request.TransactionRequestDTO;
 import antifraud.dto.response.FeedbackResponseDTO;
 import antifraud.dto.response.TransactionResponseDTO;
+import antifraud.enums.EventNames;
 import antifraud.enums.TransactionType;
+import antifraud.exception.BadRequestException;
 import antifraud.exception.ConflictException;
 import antifraud.exception.NotFoundException;
 import antifraud.exception.UnprocessableEntityException;
+import antifraud.graph.LinkGraph;
 import antifraud.logging.events.transaction.FeedbackAddedEvent;
 import antifraud.logging.events.transaction.FraudulentTransactionDetectedEvent;
 import antifraud.logging.events.transaction.TransactionCreatedEvent;
+import antifraud.messaging.OutboxWriter;
 import antifraud.model.Transaction;
-import antifraud.repo.StolenCardRepo;
-import antifraud.repo.SuspiciousIpRepo;
+import antifraud.profile.CardProfileStore;
 import antifraud.repo.TransactionRepo;
+import antifraud.rules.RuleEngine;
 import antifraud.validation.annotation.ValidCardNumber;
 import antifraud.validation.transaction.*;
+import antifraud.velocity.VelocityEngine;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -30,43 +39,96 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static antifraud.utils.ConstantsUtil.updateTransactionLimit;
+import static antifraud.utils.ValidationUtil.isCardNumberFormat;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
 
     private final TransactionRepo transactionRepo;
-    private final SuspiciousIpRepo suspiciousIpRepo;
-    private final StolenCardRepo stolenCardRepo;
+    private final BlockListIndex blockListIndex;
     private final ApplicationEventPublisher eventPublisher;
+    private final OutboxWriter outboxWriter;
+    private final VelocityEngine velocityEngine;
+    private final RuleEngine ruleEngine;
+    private final LinkGraph linkGraph;
+    private final CardProfileStore cardProfileStore;
+    private final TransactionArchive transactionArchive;
 
     @Transactional(isolation = Isolation.REPEATABLE_READ)
     public ResponseEntity<TransactionResponseDTO> addTransaction(TransactionRequestDTO transactionDTO, Authentication authentication) {
+        return ResponseEntity.ok(processTransaction(transactionDTO, authentication.getName()));
+    }
+
+    /**
+     * Reviews and saves a transaction on behalf of {@code reviewer}; shared by the HTTP and AMQP entry points.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public TransactionResponseDTO processTransaction(TransactionRequestDTO transactionDTO, String reviewer) {
         List<String> reasonsForRejection = new ArrayList<>();
         String type = reviewTransaction(transactionDTO, reasonsForRejection);
 
         Transaction transaction = transactionDTO.getTransaction();
         transaction.setResult(type);
         transactionRepo.save(transaction);
-        eventPublisher.publishEvent(new TransactionCreatedEvent(transaction.getId(), transaction.getAmount(), type, authentication.getName()));
+        velocityEngine.record(transactionDTO.getParsed());
+        // Only the block lists mark a card prohibited in the graph; its own verdict would feed back into itself
+        linkGraph.record(transactionDTO.getParsed(), reasonsForRejection.contains(StolenCardValidator.REASON)
+                || reasonsForRejection.contains(SuspiciousIpValidator.REASON));
+        // Profiles describe legitimate spending only; flagged transactions join once feedback confirms them
+        if (TransactionType.ALLOWED.name().equals(type)) {
+            cardProfileStore.record(transactionDTO.getParsed());
+        }
+        publish(new TransactionCreatedEvent(transaction.getId(), transaction.getAmount(), type, reviewer));
 
         boolean isAllowed = reasonsForRejection.isEmpty();
-        String info = isAllowed ? "none" : reasonsForRejection.stream().sorted().collect(Collectors.joining(", "));
-        if (!isAllowed) eventPublisher.publishEvent(new FraudulentTransactionDetectedEvent(transaction.getId(), reasonsForRejection));
+        if (!isAllowed) publish(new FraudulentTransactionDetectedEvent(transaction.getId(), reasonsForRejection));
 
-        return ResponseEntity.ok(new TransactionResponseDTO(type, info));
+        return new TransactionResponseDTO(type, describeReasons(reasonsForRejection));
+    }
+
+    /**
+     * Runs the review rules against a transaction without saving it or publishing any events.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public TransactionResponseDTO reviewWithoutSaving(TransactionRequestDTO transactionDTO) {
+        List<String> reasonsForRejection = new ArrayList<>();
+        String type = reviewTransaction(transactionDTO, reasonsForRejection);
+
+        return new TransactionResponseDTO(type, describeReasons(reasonsForRejection));
+    }
+
+    // The outbox row commits or rolls back with the transaction; the local event only drives logging
+    private void publish(Object event) {
+        outboxWriter.append(EventNames.TRANSACTION, event);
+        eventPublisher.publishEvent(event);
+    }
+
+    private String describeReasons(List<String> reasons) {
+        return reasons.isEmpty() ? "none" : reasons.stream().sorted().collect(Collectors.joining(", "));
     }
 
     private String reviewTransaction(TransactionRequestDTO dto, List<String> reasons) {
+        // Requests are validated before they get here, so this only guards callers that skipped validation
+        if (dto.getParsed() == null) {
+            throw new BadRequestException("Invalid transaction");
+        }
+
         List<TransactionValidator> validators = List.of(
-                new SuspiciousIpValidator(suspiciousIpRepo),
-                new StolenCardValidator(stolenCardRepo),
+                new SuspiciousIpValidator(blockListIndex),
+                new StolenCardValidator(blockListIndex),
                 new IpCorrelationValidator(transactionRepo),
                 new RegionCorrelationValidator(transactionRepo),
+                new VelocityValidator(velocityEngine),
+                new RuleSetValidator(ruleEngine),
+                new LinkGraphValidator(linkGraph),
+                new CardProfileValidator(cardProfileStore),
                 new AmountValidator()
         );
 
@@ -81,8 +143,14 @@ public class TransactionService {
 
     @Transactional(isolation = Isolation.REPEATABLE_READ)
     public ResponseEntity<FeedbackResponseDTO> addFeedback(FeedbackRequestDTO feedbackDTO, Authentication authentication) {
-        Transaction transaction = transactionRepo.findById(feedbackDTO.getTransactionId())
-                .orElseThrow(() -> new NotFoundException("Transaction not found"));
+        Transaction transaction = transactionRepo.findById(feedbackDTO.getTransactionId()).orElse(null);
+        if (transaction == null) {
+            // Only transactions that already have feedback are archived
+            if (transactionArchive.findById(feedbackDTO.getTransactionId()).isPresent()) {
+                throw new ConflictException("Transaction already has feedback");
+            }
+            throw new NotFoundException("Transaction not found");
+        }
 
         if (transaction.getFeedback() != null) {
             throw new ConflictException("Transaction already has feedback");
@@ -97,14 +165,35 @@ public class TransactionService {
 
         transaction.setFeedback(feedback);
         transactionRepo.save(transaction);
-        eventPublisher.publishEvent(new FeedbackAddedEvent(transaction.getId(), feedback, authentication.getName()));
+        if (TransactionType.PROHIBITED.name().equals(feedback)) {
+            linkGraph.recordProhibited(Long.parseLong(transaction.getNumber()));
+        } else if (TransactionType.ALLOWED.name().equals(feedback)) {
+            // The result differs from the feedback, so the profile has not seen this transaction yet
+            ParsedTransaction parsed = ParsedTransaction.of(transaction);
+            if (parsed != null) {
+                cardProfileStore.record(parsed);
+            }
+        }
+        publish(new FeedbackAddedEvent(transaction.getId(), feedback, authentication.getName()));
 
         return ResponseEntity.ok(new FeedbackResponseDTO(transaction));
     }
 
+    /**
+     * Lists archived transactions first, then those still in the row store; the pageable's sort applies to the latter.
+     */
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public ResponseEntity<List<FeedbackResponseDTO>> getHistory(Pageable pageable) {
-        Page<Transaction> transactions = transactionRepo.findAll(pageable);
+        long archived = transactionArchive.count();
+        List<Transaction> transactions = new ArrayList<>();
+        if (pageable.getOffset() < archived) {
+            transactionArchive.list(pageable.getOffset(), pageable.getPageSize())
+                    .forEach(archivedTransaction -> transactions.add(archivedTransaction.toTransaction()));
+        }
+        if (transactions.size() < pageable.getPageSize()) {
+            transactions.addAll(rowsAt(Math.max(0, pageable.getOffset() - archived),
+                    pageable.getPageSize() - transactions.size(), pageable, transactionRepo::findAll));
+        }
 
         return ResponseEntity.ok(transactions.isEmpty() ? Collections.emptyList() : transactions.stream()
                 .map(FeedbackResponseDTO::new)
@@ -113,7 +202,26 @@ public class TransactionService {
 
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public ResponseEntity<List<FeedbackResponseDTO>> getHistoryByNumber(@Valid @ValidCardNumber String number, Pageable pageable) {
-        Page<Transaction> transactions = transactionRepo.findAllByNumber(number, pageable);
+        // Card numbers are stored as BIGINT, so anything but 16 digits cannot be looked up
+        if (!isCardNumberFormat(number)) {
+            throw new BadRequestException("Invalid card number format");
+        }
+
+        // Archived transactions of the card come first, like in getHistory
+        List<Transaction> archived = transactionArchive.findByNumber(number).stream()
+                .sorted(Comparator.comparingLong(ArchivedTransaction::id))
+                .map(ArchivedTransaction::toTransaction)
+                .toList();
+        List<Transaction> transactions = new ArrayList<>();
+        if (pageable.getOffset() < archived.size()) {
+            int from = (int) pageable.getOffset();
+            transactions.addAll(archived.subList(from, Math.min(archived.size(), from + pageable.getPageSize())));
+        }
+        if (transactions.size() < pageable.getPageSize()) {
+            transactions.addAll(rowsAt(Math.max(0, pageable.getOffset() - archived.size()),
+                    pageable.getPageSize() - transactions.size(), pageable,
+                    page -> transactionRepo.findAllByNumber(number, page)));
+        }
 
         if (transactions.isEmpty()) {
             throw new NotFoundException("Transaction not found");
@@ -125,4 +233,18 @@ public class TransactionService {
 
         return ResponseEntity.ok(transactionDTOs);
     }
+
+    // Reads up to limit rows from an offset that need not fall on a page boundary, as at most two pages
+    private static List<Transaction> rowsAt(long offset, int limit, Pageable pageable,
+                                            Function<Pageable, Page<Transaction>> query) {
+        int size = pageable.getPageSize();
+        int skip = (int) (offset % size);
+        Pageable first = PageRequest.of((int) (offset / size), size, pageable.getSort());
+
+        List<Transaction> rows = new ArrayList<>(query.apply(first).getContent());
+        if (skip > 0 && rows.size() == size) {
+            rows.addAll(query.apply(first.next()).getContent());
+        }
+        return rows.subList(Math.min(skip, rows.size()), Math.min(rows.size(), skip + limit));
+    }
 }
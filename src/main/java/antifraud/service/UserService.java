@@ -45,7 +45,7 @@ public class UserService {
     private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(isolation = Isolation.REPEATABLE_READ)
-    @CacheEvict(value = "users", key = "#registration.username", condition = "#existingUser == null")
+    @CacheEvict(value = "users", key = "'all'")
     public ResponseEntity<UserResponseDTO> registerUser(UserRegistrationRequestDTO registration) {
         if (appUserRepo.findByUsername(registration.getUsername()).isPresent()) {
             throw new ConflictException("Username already exists");
@@ -58,17 +58,15 @@ public class UserService {
     }
 
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
-    @Cacheable("users")
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        List<UserResponseDTO> users = appUserRepo.findAllByOrderByIdAsc().stream()
+    @Cacheable(value = "users", key = "'all'", sync = true)
+    public List<UserResponseDTO> getAllUsers() {
+        return appUserRepo.findAllByOrderByIdAsc().stream()
                 .map(UserResponseDTO::new)
                 .collect(Collectors.toList());
-
-        return ResponseEntity.ok(users);
     }
 
     @Transactional(isolation = Isolation.REPEATABLE_READ)
-    @CacheEvict(value = "users", key = "#username")
+    @CacheEvict(value = "users", key = "'all'")
     public ResponseEntity<UserDeletionResponseDTO> deleteUser(String username) {
         AppUser user = appUserRepo.findByUsername(username)
                 .orElseThrow(() -> new NotFoundException("User not found"));
@@ -80,6 +78,7 @@ public class UserService {
     }
 
     @Transactional(isolation = Isolation.REPEATABLE_READ)
+    @CacheEvict(value = "users", key = "'all'")
     public ResponseEntity<UserResponseDTO> changeRole(UserRoleRequestDTO roleRequest) {
         if (!isValidUserRoleChange(roleRequest.getRole())) {
             throw new BadRequestException("Invalid role");
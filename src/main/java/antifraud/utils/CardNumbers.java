@@ -0,0 +1,73 @@
+package antifraud.utils;
+
+/**
+ * Card numbers as 16-digit {@code long} values, so checks never have to walk the text more than once.
+ */
+public final class CardNumbers {
+
+    public static final int LENGTH = 16;
+
+    // The issuer identification number is the first six of the sixteen digits
+    private static final long BIN_DIVISOR = 10_000_000_000L;
+
+    private CardNumbers() {
+    }
+
+    /**
+     * @return the card number as a long, or -1 if {@code number} is not exactly 16 ASCII digits
+     */
+    public static long parse(CharSequence number) {
+        if (number == null || number.length() != LENGTH) {
+            return -1L;
+        }
+
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = number.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1L;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Whether {@code number} is the text of {@code cardNumber}, checked without allocating.
+     */
+    public static boolean matches(CharSequence number, long cardNumber) {
+        return cardNumber >= 0 && parse(number) == cardNumber;
+    }
+
+    public static boolean isLuhnValid(long cardNumber) {
+        int sum = 0;
+        boolean alternate = false;
+        for (int i = 0; i < LENGTH; i++) {
+            int digit = (int) (cardNumber % 10);
+            cardNumber /= 10;
+            if (alternate) {
+                digit *= 2;
+                if (digit > 9) digit -= 9;
+            }
+            sum += digit;
+            alternate = !alternate;
+        }
+        return sum % 10 == 0;
+    }
+
+    public static int bin(long cardNumber) {
+        return (int) (cardNumber / BIN_DIVISOR);
+    }
+
+    /**
+     * @return the 16-digit text of the card number, keeping its leading zeros
+     */
+    public static String format(long cardNumber) {
+        char[] digits = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + cardNumber % 10);
+            cardNumber /= 10;
+        }
+        return new String(digits);
+    }
+}
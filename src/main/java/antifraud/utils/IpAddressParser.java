@@ -0,0 +1,183 @@
+package antifraud.utils;
+
+/**
+ * Parses IP address literals in a single pass over their characters, without going through
+ * {@link java.net.InetAddress}, so parsing never allocates beyond the returned value and never resolves host names.
+ * <p>
+ * Only the canonical form produced by {@code InetAddress.getHostAddress()} is accepted: dotted-decimal IPv4 without
+ * leading zeros, and IPv6 as eight lowercase hex groups without leading zeros or {@code ::} compression. Every
+ * address therefore has exactly one accepted spelling, and two literals are equal exactly when their packed values
+ * are.
+ */
+public final class IpAddressParser {
+
+    private static final int MIN_IPV4_LENGTH = 7;
+    private static final int MAX_IPV4_LENGTH = 15;
+    private static final int MIN_IPV6_LENGTH = 15;
+    private static final int MAX_IPV6_LENGTH = 39;
+
+    private IpAddressParser() {
+    }
+
+    public static boolean isValid(CharSequence ip) {
+        if (ip == null) {
+            return false;
+        }
+        return isIpv6Literal(ip) ? ipv6Split(ip) >= 0 : parseIpv4(ip) >= 0;
+    }
+
+    /**
+     * @return the packed address, or {@code null} if {@code ip} is not a canonical IPv4 or IPv6 literal
+     */
+    public static PackedIp parse(CharSequence ip) {
+        if (ip == null) {
+            return null;
+        }
+
+        if (!isIpv6Literal(ip)) {
+            long ipv4 = parseIpv4(ip);
+            return ipv4 < 0 ? null : PackedIp.ofIpv4((int) ipv4);
+        }
+
+        int split = ipv6Split(ip);
+        if (split < 0) {
+            return null;
+        }
+        return new PackedIp(packGroups(ip, 0, split), packGroups(ip, split + 1, ip.length()));
+    }
+
+    /**
+     * Whether {@code ip} is the literal of {@code packed}, checked without allocating.
+     */
+    public static boolean matches(CharSequence ip, PackedIp packed) {
+        if (ip == null || packed == null) {
+            return false;
+        }
+
+        if (packed.isIpv4()) {
+            return !isIpv6Literal(ip) && parseIpv4(ip) == Integer.toUnsignedLong(packed.ipv4());
+        }
+
+        int split = isIpv6Literal(ip) ? ipv6Split(ip) : -1;
+        return split >= 0
+                && packGroups(ip, 0, split) == packed.hi()
+                && packGroups(ip, split + 1, ip.length()) == packed.lo();
+    }
+
+    /**
+     * @return the address as an unsigned 32-bit value, or -1 if {@code ip} is not a canonical IPv4 literal
+     */
+    public static long parseIpv4(CharSequence ip) {
+        int length = ip == null ? 0 : ip.length();
+        if (length < MIN_IPV4_LENGTH || length > MAX_IPV4_LENGTH) {
+            return -1L;
+        }
+
+        long packed = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = 0; i < length; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits == 1 && octet == 0) {
+                    return -1L;
+                }
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return -1L;
+                }
+            } else if (c == '.' && digits > 0 && dots < 3) {
+                packed = (packed << 8) | octet;
+                octet = 0;
+                digits = 0;
+                dots++;
+            } else {
+                return -1L;
+            }
+        }
+
+        return dots == 3 && digits > 0 ? (packed << 8) | octet : -1L;
+    }
+
+    // A canonical IPv6 group has at most four digits, so the first ':' of an IPv6 literal is within five characters
+    private static boolean isIpv6Literal(CharSequence ip) {
+        int limit = Math.min(ip.length(), 5);
+        for (int i = 0; i < limit; i++) {
+            if (ip.charAt(i) == ':') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Validates a canonical IPv6 literal and returns the index of the fourth ':', which separates the high and the
+     * low 64 bits, or -1 if the literal is invalid.
+     */
+    private static int ipv6Split(CharSequence ip) {
+        int length = ip.length();
+        if (length < MIN_IPV6_LENGTH || length > MAX_IPV6_LENGTH) {
+            return -1;
+        }
+
+        int split = -1;
+        int groups = 0;
+        int group = 0;
+        int digits = 0;
+        boolean zeroPrefix = true;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? ip.charAt(i) : ':';
+            int nibble = hexValue(c);
+            if (nibble >= 0) {
+                if ((digits == 1 && group == 0) || digits == 4) {
+                    return -1;
+                }
+                group = (group << 4) | nibble;
+                digits++;
+            } else if (c == ':' && digits > 0 && groups < 8) {
+                if (groups < 5) {
+                    zeroPrefix &= group == 0;
+                } else if (groups == 5 && zeroPrefix && group == 0xFFFF) {
+                    // InetAddress turns IPv4-mapped addresses into IPv4, so their IPv6 spelling is never canonical
+                    return -1;
+                }
+                if (++groups == 4) {
+                    split = i;
+                }
+                group = 0;
+                digits = 0;
+            } else {
+                return -1;
+            }
+        }
+
+        return groups == 8 ? split : -1;
+    }
+
+    // Packs the already validated groups between from and to into 16 bits each
+    private static long packGroups(CharSequence ip, int from, int to) {
+        long packed = 0;
+        int group = 0;
+        for (int i = from; i < to; i++) {
+            char c = ip.charAt(i);
+            if (c == ':') {
+                packed = (packed << 16) | group;
+                group = 0;
+            } else {
+                group = (group << 4) | hexValue(c);
+            }
+        }
+        return (packed << 16) | group;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+}
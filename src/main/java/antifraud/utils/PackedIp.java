@@ -0,0 +1,88 @@
+package antifraud.utils;
+
+/**
+ * An IP address as the high and low 64 bits of its 128-bit IPv6 form. IPv4 addresses are kept in the IPv4-mapped
+ * range {@code ::ffff:0:0/96}, which {@link IpAddressParser} never produces for an IPv6 literal, so the two families
+ * cannot collide.
+ */
+public record PackedIp(long hi, long lo) {
+
+    private static final long IPV4_MAPPED_PREFIX = 0xFFFFL << 32;
+
+    public static PackedIp ofIpv4(int address) {
+        return new PackedIp(0L, IPV4_MAPPED_PREFIX | Integer.toUnsignedLong(address));
+    }
+
+    /**
+     * @param bytes the address in network order, 4 bytes for IPv4 or 16 bytes for IPv6
+     */
+    public static PackedIp fromBytes(byte[] bytes) {
+        if (bytes.length == 4) {
+            return ofIpv4((int) readLong(bytes, 0, 4));
+        }
+        if (bytes.length == 16) {
+            return new PackedIp(readLong(bytes, 0, 8), readLong(bytes, 8, 8));
+        }
+        throw new IllegalArgumentException("Invalid packed IP address length: " + bytes.length);
+    }
+
+    public boolean isIpv4() {
+        return hi == 0L && (lo & ~0xFFFF_FFFFL) == IPV4_MAPPED_PREFIX;
+    }
+
+    public int ipv4() {
+        return (int) lo;
+    }
+
+    /**
+     * @return the address in network order, 4 bytes for IPv4 or 16 bytes for IPv6
+     */
+    public byte[] toBytes() {
+        if (isIpv4()) {
+            byte[] bytes = new byte[4];
+            writeLong(bytes, 0, 4, lo);
+            return bytes;
+        }
+
+        byte[] bytes = new byte[16];
+        writeLong(bytes, 0, 8, hi);
+        writeLong(bytes, 8, 8, lo);
+        return bytes;
+    }
+
+    /**
+     * @return the canonical literal, as accepted by {@link IpAddressParser}
+     */
+    @Override
+    public String toString() {
+        if (isIpv4()) {
+            int ip = ipv4();
+            return (ip >>> 24) + "." + ((ip >>> 16) & 0xFF) + "." + ((ip >>> 8) & 0xFF) + "." + (ip & 0xFF);
+        }
+
+        StringBuilder ip = new StringBuilder(39);
+        for (int shift = 48; shift >= 0; shift -= 16) {
+            ip.append(Long.toHexString((hi >>> shift) & 0xFFFF)).append(':');
+        }
+        for (int shift = 48; shift >= 0; shift -= 16) {
+            ip.append(Long.toHexString((lo >>> shift) & 0xFFFF));
+            if (shift > 0) ip.append(':');
+        }
+        return ip.toString();
+    }
+
+    private static long readLong(byte[] bytes, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeLong(byte[] bytes, int offset, int length, long value) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+}
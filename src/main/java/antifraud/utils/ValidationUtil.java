@@ -16,4 +16,17 @@ public class ValidationUtil {
     public static boolean isUserAnAdministrator(AppUser user) {
         return user.getRoles().contains(new Role(RoleNames.ROLE_ADMINISTRATOR.toString()));
     }
+
+    public static boolean isCardNumberFormat(String number) {
+        if (number == null || number.length() != 16) {
+            return false;
+        }
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -1,5 +1,6 @@
 package antifraud.validation.annotation;
 
+import antifraud.utils.CardNumbers;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
@@ -17,47 +18,33 @@ public class CardNumberValidator implements ConstraintValidator<ValidCardNumber,
 
     @Override
     public boolean isValid(String cardNumber, ConstraintValidatorContext context) {
-        if (!isValidLength(cardNumber)) {
-            buildConstraintViolation(context, "Card number must be 16 digits");
-            return false;
-        }
-
-        if (!isNumeric(cardNumber)) {
-            buildConstraintViolation(context, "Card number must contain only digits");
-            return false;
-        }
-
-        if (!isValidLuhn(cardNumber)) {
-            buildConstraintViolation(context, "Invalid card number according to the Luhn algorithm");
+        String message = describeInvalid(cardNumber);
+        if (message != null) {
+            buildConstraintViolation(context, message);
             return false;
         }
 
         return true;
     }
 
-    private boolean isValidLength(String cardNumber) {
-        return cardNumber.length() == 16;
-    }
-
-    private boolean isNumeric(String cardNumber) {
-        return cardNumber.chars().allMatch(Character::isDigit);
-    }
+    /**
+     * @return why the card number is invalid, or {@code null} if it is valid
+     */
+    static String describeInvalid(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() != CardNumbers.LENGTH) {
+            return "Card number must be 16 digits";
+        }
 
-    private boolean isValidLuhn(String cardNumber) {
-        int sum = 0;
-        boolean alternate = false;
+        long number = CardNumbers.parse(cardNumber);
+        if (number < 0) {
+            return "Card number must contain only digits";
+        }
 
-        for (int i = cardNumber.length() - 1; i >= 0; i--) {
-            int digit = Character.getNumericValue(cardNumber.charAt(i));
-            if (alternate) {
-                digit *= 2;
-                if (digit > 9) digit -= 9;
-            }
-            sum += digit;
-            alternate = !alternate;
+        if (!CardNumbers.isLuhnValid(number)) {
+            return "Invalid card number according to the Luhn algorithm";
         }
 
-        return sum % 10 == 0;
+        return null;
     }
 
     private void buildConstraintViolation(ConstraintValidatorContext context, String message) {
@@ -1,13 +1,12 @@
 package antifraud.validation.annotation;
 
+import antifraud.utils.IpAddressParser;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 
 /**
  * Validator for the {@link ValidIp} annotation.
- * Validates that the provided IP address is in a valid format (IPv4).
+ * Validates that the provided IP address is a canonical IPv4 or IPv6 literal; host names are rejected, never resolved.
  */
 public class IpValidator implements ConstraintValidator<ValidIp, String> {
 
@@ -18,11 +17,6 @@ public class IpValidator implements ConstraintValidator<ValidIp, String> {
 
     @Override
     public boolean isValid(String ip, ConstraintValidatorContext context) {
-        try {
-            InetAddress inetAddress = InetAddress.getByName(ip);
-            return inetAddress.getHostAddress().equals(ip);
-        } catch (UnknownHostException e) {
-            return false;
-        }
+        return IpAddressParser.isValid(ip);
     }
 }
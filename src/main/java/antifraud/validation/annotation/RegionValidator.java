@@ -3,7 +3,6 @@ package antifraud.validation.annotation;
 import antifraud.enums.RegionNames;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import java.util.Arrays;
 
 /**
  * Validator for the {@link ValidRegion} annotation.
@@ -18,6 +17,6 @@ public class RegionValidator implements ConstraintValidator<ValidRegion, String>
 
     @Override
     public boolean isValid(String region, ConstraintValidatorContext context) {
-        return Arrays.stream(RegionNames.values()).anyMatch(r -> r.name().equals(region));
+        return RegionNames.fromName(region) != null;
     }
 }
@@ -0,0 +1,70 @@
+package antifraud.validation.annotation;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.enums.RegionNames;
+import antifraud.utils.CardNumbers;
+import antifraud.utils.IpAddressParser;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validator for the {@link ValidTransaction} annotation.
+ * Parses the request once; a request that parses and passes the Luhn and amount checks is valid without any
+ * further work. Only rejected requests are inspected field by field to report what is wrong with them.
+ */
+public class TransactionRequestValidator implements ConstraintValidator<ValidTransaction, TransactionRequestDTO> {
+
+    @Override
+    public boolean isValid(TransactionRequestDTO dto, ConstraintValidatorContext context) {
+        if (dto == null) {
+            return true;
+        }
+
+        ParsedTransaction parsed = dto.getParsed();
+        if (parsed != null && parsed.amount() >= 1 && CardNumbers.isLuhnValid(parsed.cardNumber())) {
+            return true;
+        }
+
+        context.disableDefaultConstraintViolation();
+        if (dto.getAmount() < 1) {
+            addViolation(context, "amount", "must be greater than or equal to 1");
+        }
+
+        if (isBlank(dto.getIp())) {
+            addViolation(context, "ip", "must not be blank");
+        } else if (!IpAddressParser.isValid(dto.getIp())) {
+            addViolation(context, "ip", "Invalid IP");
+        }
+
+        if (isBlank(dto.getNumber())) {
+            addViolation(context, "number", "must not be blank");
+        } else {
+            String message = CardNumberValidator.describeInvalid(dto.getNumber());
+            if (message != null) {
+                addViolation(context, "number", message);
+            }
+        }
+
+        if (isBlank(dto.getRegion())) {
+            addViolation(context, "region", "must not be blank");
+        } else if (RegionNames.fromName(dto.getRegion()) == null) {
+            addViolation(context, "region", "Invalid region");
+        }
+
+        if (dto.getDate() == null) {
+            addViolation(context, "date", "must not be null");
+        }
+        return false;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static void addViolation(ConstraintValidatorContext context, String field, String message) {
+        context.buildConstraintViolationWithTemplate(message)
+                .addPropertyNode(field)
+                .addConstraintViolation();
+    }
+}
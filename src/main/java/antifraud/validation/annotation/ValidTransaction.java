@@ -0,0 +1,22 @@
+package antifraud.validation.annotation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for validating every field of a transaction request in a single pass.
+ * Violations are reported against the offending fields, with the same messages as the field-level constraints.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = TransactionRequestValidator.class)
+public @interface ValidTransaction {
+
+    String message() default "Invalid transaction";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
@@ -28,13 +28,13 @@ public abstract class AbstractCorrelationValidator implements TransactionValidat
                 .findAllByDateGreaterThanEqualAndDateLessThanAndNumber(oneHourAgo, requestTime, dto.getNumber());
 
         // Extract and validate field-specific correlations
-        Set<String> distinctValues = extractDistinctValues(recentTransactions, dto);
+        Set<?> distinctValues = extractDistinctValues(recentTransactions, dto);
         return evaluateCorrelations(distinctValues, reasons, currentType);
     }
 
-    protected abstract Set<String> extractDistinctValues(List<Transaction> transactions, TransactionRequestDTO dto);
+    protected abstract Set<?> extractDistinctValues(List<Transaction> transactions, TransactionRequestDTO dto);
 
-    private TransactionType evaluateCorrelations(Set<String> distinctValues, List<String> reasons, TransactionType currentType) {
+    private TransactionType evaluateCorrelations(Set<?> distinctValues, List<String> reasons, TransactionType currentType) {
         if (distinctValues.size() > 2) {
             reasons.add(getReasonKey());
             return TransactionType.PROHIBITED;
@@ -10,10 +10,11 @@ public class AmountValidator implements TransactionValidator {
 
     @Override
     public TransactionType validate(TransactionRequestDTO dto, List<String> reasons, TransactionType currentType) {
-        if (dto.getAmount() > Constants.MAX_MANUAL_PROCESSING) {
+        long amount = dto.getParsed().amount();
+        if (amount > Constants.MAX_MANUAL_PROCESSING) {
             currentType = TransactionType.PROHIBITED;
             reasons.add("amount");
-        } else if (dto.getAmount() > Constants.MAX_ALLOWED && reasons.isEmpty()) {
+        } else if (amount > Constants.MAX_ALLOWED && reasons.isEmpty()) {
             currentType = TransactionType.MANUAL_PROCESSING;
             reasons.add("amount");
         }
@@ -0,0 +1,19 @@
+package antifraud.validation.transaction;
+
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.enums.TransactionType;
+import antifraud.profile.CardProfileStore;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class CardProfileValidator implements TransactionValidator {
+
+    private final CardProfileStore cardProfileStore;
+
+    @Override
+    public TransactionType validate(TransactionRequestDTO dto, List<String> reasons, TransactionType currentType) {
+        return cardProfileStore.evaluate(dto.getParsed(), reasons, currentType);
+    }
+}
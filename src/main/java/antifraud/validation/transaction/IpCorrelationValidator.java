@@ -3,6 +3,9 @@ package antifraud.validation.transaction;
 import antifraud.dto.request.TransactionRequestDTO;
 import antifraud.model.Transaction;
 import antifraud.repo.TransactionRepo;
+import antifraud.utils.IpAddressParser;
+import antifraud.utils.PackedIp;
+
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -14,10 +17,12 @@ public class IpCorrelationValidator extends AbstractCorrelationValidator {
     }
 
     @Override
-    protected Set<String> extractDistinctValues(List<Transaction> transactions, TransactionRequestDTO dto) {
+    protected Set<PackedIp> extractDistinctValues(List<Transaction> transactions, TransactionRequestDTO dto) {
+        PackedIp currentIp = dto.getParsed().ip();
+        // Each stored address is parsed once and compared in packed form
         return transactions.stream()
-                .map(Transaction::getIp)
-                .filter(ip -> !ip.equals(dto.getIp())) // Exclude current IP
+                .map(transaction -> IpAddressParser.parse(transaction.getIp()))
+                .filter(ip -> !currentIp.equals(ip)) // Exclude current IP
                 .collect(Collectors.toSet());
     }
 
@@ -0,0 +1,19 @@
+package antifraud.validation.transaction;
+
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.enums.TransactionType;
+import antifraud.graph.LinkGraph;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class LinkGraphValidator implements TransactionValidator {
+
+    private final LinkGraph linkGraph;
+
+    @Override
+    public TransactionType validate(TransactionRequestDTO dto, List<String> reasons, TransactionType currentType) {
+        return linkGraph.evaluate(dto.getParsed(), reasons, currentType);
+    }
+}
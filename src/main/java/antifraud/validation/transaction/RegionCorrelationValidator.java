@@ -1,6 +1,7 @@
 package antifraud.validation.transaction;
 
 import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.enums.RegionNames;
 import antifraud.model.Transaction;
 import antifraud.repo.TransactionRepo;
 
@@ -15,10 +16,11 @@ public class RegionCorrelationValidator extends AbstractCorrelationValidator {
     }
 
     @Override
-    protected Set<String> extractDistinctValues(List<Transaction> transactions, TransactionRequestDTO dto) {
+    protected Set<RegionNames> extractDistinctValues(List<Transaction> transactions, TransactionRequestDTO dto) {
+        RegionNames currentRegion = dto.getParsed().region();
         return transactions.stream()
-                .map(Transaction::getRegion)
-                .filter(region -> !region.equals(dto.getRegion())) // Exclude current region
+                .map(transaction -> RegionNames.fromName(transaction.getRegion()))
+                .filter(region -> region != currentRegion) // Exclude current region
                 .collect(Collectors.toSet());
     }
 
@@ -0,0 +1,19 @@
+package antifraud.validation.transaction;
+
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.enums.TransactionType;
+import antifraud.rules.RuleEngine;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class RuleSetValidator implements TransactionValidator {
+
+    private final RuleEngine ruleEngine;
+
+    @Override
+    public TransactionType validate(TransactionRequestDTO dto, List<String> reasons, TransactionType currentType) {
+        return ruleEngine.evaluate(dto.getParsed(), reasons, currentType);
+    }
+}
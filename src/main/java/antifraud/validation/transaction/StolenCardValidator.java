@@ -2,23 +2,23 @@ package antifraud.validation.transaction;
 
 import antifraud.dto.request.TransactionRequestDTO;
 import antifraud.enums.TransactionType;
-import antifraud.repo.StolenCardRepo;
+import antifraud.service.BlockListIndex;
 import lombok.AllArgsConstructor;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @AllArgsConstructor
 public class StolenCardValidator implements TransactionValidator {
 
-    private final StolenCardRepo stolenCardRepo;
+    public static final String REASON = "card-number";
+
+    private final BlockListIndex blockListIndex;
 
     @Override
-    @Transactional(readOnly = true)
     public TransactionType validate(TransactionRequestDTO dto, List<String> reasons, TransactionType currentType) {
-        if (stolenCardRepo.findAllCardNumbers().contains(dto.getNumber())) {
-            currentType = TransactionType.PROHIBITED;
-            reasons.add("card-number");
+        if (blockListIndex.isStolenCard(dto.getParsed().cardNumber())) {
+            reasons.add(REASON);
+            return TransactionType.PROHIBITED;
         }
 
         return currentType;
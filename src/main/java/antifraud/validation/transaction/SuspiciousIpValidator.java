@@ -2,23 +2,23 @@ package antifraud.validation.transaction;
 
 import antifraud.dto.request.TransactionRequestDTO;
 import antifraud.enums.TransactionType;
-import antifraud.repo.SuspiciousIpRepo;
+import antifraud.service.BlockListIndex;
 import lombok.AllArgsConstructor;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @AllArgsConstructor
 public class SuspiciousIpValidator implements TransactionValidator {
 
-    private final SuspiciousIpRepo suspiciousIpRepo;
+    public static final String REASON = "ip";
+
+    private final BlockListIndex blockListIndex;
 
     @Override
-    @Transactional(readOnly = true)
     public TransactionType validate(TransactionRequestDTO dto, List<String> reasons, TransactionType currentType) {
-        if (suspiciousIpRepo.findAllIps().contains(dto.getIp())) {
-            currentType = TransactionType.PROHIBITED;
-            reasons.add("ip");
+        if (blockListIndex.isSuspiciousIp(dto.getParsed().ip())) {
+            reasons.add(REASON);
+            return TransactionType.PROHIBITED;
         }
 
         return currentType;
@@ -0,0 +1,29 @@
+package antifraud.validation.transaction;
+
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.enums.TransactionType;
+import antifraud.velocity.VelocityEngine;
+import antifraud.velocity.VelocityRule;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class VelocityValidator implements TransactionValidator {
+
+    private final VelocityEngine velocityEngine;
+
+    @Override
+    public TransactionType validate(TransactionRequestDTO dto, List<String> reasons, TransactionType currentType) {
+        for (VelocityRule rule : velocityEngine.evaluate(dto.getParsed())) {
+            reasons.add(rule.name());
+            if (rule.action() == TransactionType.PROHIBITED) {
+                currentType = TransactionType.PROHIBITED;
+            } else if (currentType == TransactionType.ALLOWED) {
+                currentType = TransactionType.MANUAL_PROCESSING;
+            }
+        }
+
+        return currentType;
+    }
+}
@@ -0,0 +1,29 @@
+package antifraud.velocity;
+
+/**
+ * The key of the per-card counters. Lookups reuse one mutable instance per thread instead of boxing the card
+ * number; only keys that are stored in a map are created afresh, and those are never changed.
+ */
+final class CardKey {
+
+    private long number;
+
+    CardKey(long number) {
+        this.number = number;
+    }
+
+    CardKey set(long number) {
+        this.number = number;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CardKey key && key.number == number;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(number);
+    }
+}
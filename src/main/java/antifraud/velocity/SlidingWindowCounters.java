@@ -0,0 +1,124 @@
+package antifraud.velocity;
+
+import java.util.Arrays;
+
+/**
+ * Transaction counts and amount sums of one key, kept in a ring of buckets for each window, plus the last time each
+ * distinct value of the tracked fields was seen. Times are transaction dates in epoch seconds, so late transactions
+ * land in the bucket they belong to as long as it is still in the ring.
+ * <p>
+ * Not thread-safe; {@link VelocityEngine} synchronizes on the instance.
+ */
+final class SlidingWindowCounters {
+
+    private final long[] bucketSeconds;
+    private final int buckets;
+    // Flattened [window][bucket]; a bucket holds the transactions of one bucket-sized interval, identified by epochs
+    private final long[] counts;
+    private final long[] sums;
+    private final long[] epochs;
+    // Per tracked field, the remembered values and the last time each was seen
+    private final long[][] distinctValues;
+    private final long[][] distinctSeen;
+    private final int[] distinctSizes;
+    private long lastSeen = Long.MIN_VALUE;
+
+    SlidingWindowCounters(long[] bucketSeconds, int buckets, int distinctFields, int distinctCapacity) {
+        this.bucketSeconds = bucketSeconds;
+        this.buckets = buckets;
+        this.counts = new long[bucketSeconds.length * buckets];
+        this.sums = new long[counts.length];
+        this.epochs = new long[counts.length];
+        Arrays.fill(epochs, Long.MIN_VALUE);
+        this.distinctValues = new long[distinctFields][distinctCapacity];
+        this.distinctSeen = new long[distinctFields][distinctCapacity];
+        this.distinctSizes = new int[distinctFields];
+    }
+
+    void record(long time, long amount, long[] distinct) {
+        for (int window = 0; window < bucketSeconds.length; window++) {
+            // Floor division keeps dates before 1970 in their own buckets
+            long epoch = Math.floorDiv(time, bucketSeconds[window]);
+            int index = window * buckets + (int) Math.floorMod(epoch, buckets);
+            if (epochs[index] == epoch) {
+                counts[index]++;
+                sums[index] += amount;
+            } else if (epochs[index] < epoch) {
+                epochs[index] = epoch;
+                counts[index] = 1;
+                sums[index] = amount;
+            }
+            // Otherwise the transaction is older than the ring still covers
+        }
+
+        for (int slot = 0; slot < distinct.length; slot++) {
+            remember(slot, distinct[slot], time);
+        }
+        lastSeen = Math.max(lastSeen, time);
+    }
+
+    long count(int window, long now) {
+        return total(counts, window, now);
+    }
+
+    long sum(int window, long now) {
+        return total(sums, window, now);
+    }
+
+    /**
+     * Counts the distinct values of a tracked field seen in {@code (now - windowSeconds, now]}, plus {@code current}
+     * if it is not among them.
+     */
+    int distinct(int slot, long now, long windowSeconds, long current) {
+        long[] values = distinctValues[slot];
+        long[] seen = distinctSeen[slot];
+        int distinct = 1;
+        for (int i = 0; i < distinctSizes[slot]; i++) {
+            if (seen[i] > now - windowSeconds && seen[i] <= now && values[i] != current) {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
+    long lastSeen() {
+        return lastSeen;
+    }
+
+    // Sums the buckets of the window that end at the bucket containing now
+    private long total(long[] values, int window, long now) {
+        long newest = Math.floorDiv(now, bucketSeconds[window]);
+        long oldest = newest - buckets + 1;
+        int from = window * buckets;
+        long total = 0;
+        for (int index = from; index < from + buckets; index++) {
+            if (epochs[index] >= oldest && epochs[index] <= newest) {
+                total += values[index];
+            }
+        }
+        return total;
+    }
+
+    private void remember(int slot, long value, long time) {
+        long[] values = distinctValues[slot];
+        long[] seen = distinctSeen[slot];
+        int size = distinctSizes[slot];
+        int oldest = 0;
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                seen[i] = Math.max(seen[i], time);
+                return;
+            }
+            if (seen[i] < seen[oldest]) {
+                oldest = i;
+            }
+        }
+
+        if (size < values.length) {
+            oldest = size;
+            distinctSizes[slot] = size + 1;
+        }
+        values[oldest] = value;
+        seen[oldest] = time;
+    }
+}
@@ -0,0 +1,290 @@
+package antifraud.velocity;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.TransactionType;
+import antifraud.utils.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates the configured velocity rules against sliding-window counters that are kept in memory per card, IP
+ * and region. Counters are updated once per saved transaction, so rules never query the database and adding one
+ * only costs a scan of its window's buckets.
+ * <p>
+ * Counters are local to this instance and start empty, so rules only see transactions this node has saved since
+ * it started.
+ */
+@Component
+@EnableConfigurationProperties(VelocityProperties.class)
+public class VelocityEngine {
+
+    private static final VelocityField[] FIELDS = VelocityField.values();
+
+    private final List<VelocityRule> rules;
+    private final List<Duration> windows;
+    private final long[] windowSeconds;
+    private final long[] bucketSeconds;
+    private final int buckets;
+    private final int distinctCapacity;
+    // Indexed by the key field; null for fields that no rule keys on and that are not tracked
+    private final Map<Object, SlidingWindowCounters>[] counters;
+    private final VelocityField[][] distinctFields;
+    private final int keyFields;
+    private final Clock clock;
+    private final ThreadLocal<CardKey> cardProbe = ThreadLocal.withInitial(() -> new CardKey(0));
+
+    @Autowired
+    public VelocityEngine(VelocityProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    @SuppressWarnings("unchecked")
+    VelocityEngine(VelocityProperties properties, Clock clock) {
+        this.clock = clock;
+        List<Duration> windows = properties.getWindows();
+        this.buckets = properties.getBuckets();
+        this.distinctCapacity = properties.getDistinctCapacity();
+        this.windowSeconds = new long[windows.size()];
+        this.bucketSeconds = new long[windows.size()];
+        for (int i = 0; i < windows.size(); i++) {
+            windowSeconds[i] = windows.get(i).toSeconds();
+            bucketSeconds[i] = Math.max(1, windowSeconds[i] / buckets);
+        }
+
+        Map<VelocityField, List<VelocityField>> tracked = new EnumMap<>(VelocityField.class);
+        properties.getTrack().forEach((key, fields) -> {
+            List<VelocityField> fieldsOfKey = tracked.computeIfAbsent(key, k -> new ArrayList<>());
+            fields.stream().filter(field -> field != key && !fieldsOfKey.contains(field)).forEach(fieldsOfKey::add);
+        });
+        Set<String> names = new HashSet<>();
+        List<VelocityRule> compiled = new ArrayList<>();
+        for (VelocityProperties.Rule rule : properties.getRules()) {
+            compiled.add(compile(rule, windows, tracked, names));
+        }
+        this.rules = List.copyOf(compiled);
+        this.windows = List.copyOf(windows);
+
+        this.counters = new Map[FIELDS.length];
+        this.distinctFields = new VelocityField[FIELDS.length][];
+        for (Map.Entry<VelocityField, List<VelocityField>> entry : tracked.entrySet()) {
+            counters[entry.getKey().ordinal()] = new ConcurrentHashMap<>();
+            distinctFields[entry.getKey().ordinal()] = entry.getValue().toArray(VelocityField[]::new);
+        }
+        this.keyFields = tracked.size();
+    }
+
+    public List<VelocityRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * @return the index of {@code window} among the configured windows, or -1 if it is not one of them
+     */
+    public int windowIndex(Duration window) {
+        return windows.indexOf(window);
+    }
+
+    public boolean tracks(VelocityField key) {
+        return counters[key.ordinal()] != null;
+    }
+
+    /**
+     * @return where the counters of {@code key} track the distinct values of {@code field}, or -1 if they do not
+     */
+    public int distinctSlot(VelocityField key, VelocityField field) {
+        VelocityField[] fields = distinctFields[key.ordinal()];
+        if (fields != null) {
+            for (int slot = 0; slot < fields.length; slot++) {
+                if (fields[slot] == field) {
+                    return slot;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The number of transactions of the same {@code key} in a window, counting {@code transaction} itself.
+     */
+    public long count(VelocityField key, int window, ParsedTransaction transaction) {
+        SlidingWindowCounters keyCounters = lookup(key, transaction);
+        if (keyCounters == null) {
+            return 1;
+        }
+        synchronized (keyCounters) {
+            return keyCounters.count(window, transaction.epochSecond()) + 1;
+        }
+    }
+
+    /**
+     * The amount spent with the same {@code key} in a window, including {@code transaction} itself.
+     */
+    public long sum(VelocityField key, int window, ParsedTransaction transaction) {
+        SlidingWindowCounters keyCounters = lookup(key, transaction);
+        if (keyCounters == null) {
+            return transaction.amount();
+        }
+        synchronized (keyCounters) {
+            return keyCounters.sum(window, transaction.epochSecond()) + transaction.amount();
+        }
+    }
+
+    /**
+     * The number of distinct values of {@code field} seen with the same {@code key} in a window, including the one
+     * of {@code transaction}.
+     *
+     * @param slot the result of {@link #distinctSlot(VelocityField, VelocityField)} for key and field
+     */
+    public long distinct(VelocityField key, int slot, VelocityField field, int window, ParsedTransaction transaction) {
+        SlidingWindowCounters keyCounters = lookup(key, transaction);
+        if (keyCounters == null) {
+            return 1;
+        }
+        synchronized (keyCounters) {
+            return keyCounters.distinct(slot, transaction.epochSecond(), windowSeconds[window], field.value(transaction));
+        }
+    }
+
+    /**
+     * @return the rules that fire for {@code transaction}, counting it in each aggregate
+     */
+    public List<VelocityRule> evaluate(ParsedTransaction transaction) {
+        List<VelocityRule> fired = null;
+        for (VelocityRule rule : rules) {
+            if (aggregate(rule, transaction) > rule.threshold()) {
+                if (fired == null) {
+                    fired = new ArrayList<>(2);
+                }
+                fired.add(rule);
+            }
+        }
+        return fired == null ? List.of() : fired;
+    }
+
+    /**
+     * Adds a saved transaction to the counters, once the surrounding database transaction has committed.
+     */
+    public void record(ParsedTransaction transaction) {
+        if (keyFields == 0) {
+            return;
+        }
+
+        AfterCommit.run(() -> apply(transaction));
+    }
+
+    public int keyCount() {
+        int keys = 0;
+        for (Map<Object, SlidingWindowCounters> keyCounters : counters) {
+            keys += keyCounters == null ? 0 : keyCounters.size();
+        }
+        return keys;
+    }
+
+    // Keys not seen within the longest window before now no longer contribute to any rule. A transaction recorded
+    // while its key is being evicted may be lost, which at worst lets a rule fire one transaction later.
+    @Scheduled(fixedDelayString = "${velocity.eviction-interval:60000}")
+    public void evictIdleKeys() {
+        long longestWindow = 0;
+        for (long seconds : windowSeconds) {
+            longestWindow = Math.max(longestWindow, seconds);
+        }
+
+        long cutoff = clock.instant().getEpochSecond() - longestWindow;
+        for (Map<Object, SlidingWindowCounters> keyCounters : counters) {
+            if (keyCounters != null) {
+                keyCounters.values().removeIf(keyCounter -> {
+                    synchronized (keyCounter) {
+                        return keyCounter.lastSeen() <= cutoff;
+                    }
+                });
+            }
+        }
+    }
+
+    void apply(ParsedTransaction transaction) {
+        // The date comes from the client; one from the future is counted as now, so it cannot outlive eviction
+        long time = Math.min(transaction.epochSecond(), clock.instant().getEpochSecond());
+        for (VelocityField key : FIELDS) {
+            Map<Object, SlidingWindowCounters> keyCounters = counters[key.ordinal()];
+            if (keyCounters == null) {
+                continue;
+            }
+
+            VelocityField[] fields = distinctFields[key.ordinal()];
+            long[] distinct = new long[fields.length];
+            for (int slot = 0; slot < fields.length; slot++) {
+                distinct[slot] = fields[slot].value(transaction);
+            }
+
+            SlidingWindowCounters keyCounter = lookup(key, transaction);
+            if (keyCounter == null) {
+                keyCounter = keyCounters.computeIfAbsent(key.key(transaction),
+                        k -> new SlidingWindowCounters(bucketSeconds, buckets, fields.length, distinctCapacity));
+            }
+            synchronized (keyCounter) {
+                keyCounter.record(time, transaction.amount(), distinct);
+            }
+        }
+    }
+
+    // Reads go through this so that evaluating rules allocates nothing; only a key's first transaction creates one
+    private SlidingWindowCounters lookup(VelocityField key, ParsedTransaction transaction) {
+        Map<Object, SlidingWindowCounters> keyCounters = counters[key.ordinal()];
+        return keyCounters.get(key == VelocityField.CARD
+                ? cardProbe.get().set(transaction.cardNumber())
+                : key.key(transaction));
+    }
+
+    private long aggregate(VelocityRule rule, ParsedTransaction transaction) {
+        return switch (rule.aggregate()) {
+            case COUNT -> count(rule.key(), rule.window(), transaction);
+            case SUM -> sum(rule.key(), rule.window(), transaction);
+            case DISTINCT -> distinct(rule.key(), rule.distinctSlot(), rule.field(), rule.window(), transaction);
+        };
+    }
+
+    private static VelocityRule compile(VelocityProperties.Rule rule, List<Duration> windows,
+                                        Map<VelocityField, List<VelocityField>> tracked, Set<String> names) {
+        String name = rule.getName();
+        if (name == null || name.isBlank() || !names.add(name)) {
+            throw new IllegalStateException("Velocity rules need unique names, got '" + name + "'");
+        }
+
+        int window = windows.indexOf(rule.getWindow());
+        if (window < 0) {
+            throw new IllegalStateException("Velocity rule '" + name + "' uses window " + rule.getWindow()
+                    + ", expected one of " + windows);
+        }
+
+        if (rule.getAction() != TransactionType.MANUAL_PROCESSING && rule.getAction() != TransactionType.PROHIBITED) {
+            throw new IllegalStateException("Velocity rule '" + name + "' must end in MANUAL_PROCESSING or PROHIBITED");
+        }
+
+        List<VelocityField> fields = tracked.computeIfAbsent(rule.getKey(), key -> new ArrayList<>());
+        int distinctSlot = -1;
+        if (rule.getAggregate() == VelocityProperties.Aggregate.DISTINCT) {
+            if (rule.getField() == null || rule.getField() == rule.getKey()) {
+                throw new IllegalStateException("Velocity rule '" + name + "' must count the distinct values of a field other than its key");
+            }
+            if (!fields.contains(rule.getField())) {
+                fields.add(rule.getField());
+            }
+            distinctSlot = fields.indexOf(rule.getField());
+        }
+
+        return new VelocityRule(name, rule.getKey(), rule.getAggregate(), rule.getField(), window, distinctSlot,
+                rule.getThreshold(), rule.getAction());
+    }
+}
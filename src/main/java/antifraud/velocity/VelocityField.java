@@ -0,0 +1,50 @@
+package antifraud.velocity;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.utils.PackedIp;
+
+/**
+ * A transaction attribute that velocity counters can be kept per, or whose distinct values can be counted.
+ */
+public enum VelocityField {
+
+    CARD {
+        @Override
+        Object key(ParsedTransaction transaction) {
+            return new CardKey(transaction.cardNumber());
+        }
+
+        @Override
+        long value(ParsedTransaction transaction) {
+            return transaction.cardNumber();
+        }
+    },
+    IP {
+        @Override
+        Object key(ParsedTransaction transaction) {
+            return transaction.ip();
+        }
+
+        // Exact for IPv4; IPv6 addresses are folded into 64 bits
+        @Override
+        long value(ParsedTransaction transaction) {
+            PackedIp ip = transaction.ip();
+            return ip.hi() * 0x9E3779B97F4A7C15L ^ ip.lo();
+        }
+    },
+    REGION {
+        @Override
+        Object key(ParsedTransaction transaction) {
+            return transaction.region();
+        }
+
+        @Override
+        long value(ParsedTransaction transaction) {
+            return transaction.region().ordinal();
+        }
+    };
+
+    abstract Object key(ParsedTransaction transaction);
+
+    abstract long value(ParsedTransaction transaction);
+}
@@ -0,0 +1,51 @@
+package antifraud.velocity;
+
+import antifraud.enums.TransactionType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Velocity rules of the form "aggregate per key over window exceeds threshold", evaluated against in-memory
+ * sliding-window counters instead of the database.
+ */
+@Data
+@ConfigurationProperties(prefix = "velocity")
+public class VelocityProperties {
+
+    // Window lengths the counters keep; every rule's window must be one of them
+    private List<Duration> windows = new ArrayList<>(List.of(
+            Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofHours(1), Duration.ofHours(24)));
+    // Buckets per window; a window slides in steps of window / buckets
+    private int buckets = 60;
+    // Distinct values remembered per key and field; the least recently seen one is forgotten when full
+    private int distinctCapacity = 32;
+    private List<Rule> rules = new ArrayList<>();
+    // Counters to keep for rules defined elsewhere (the rule file): key field to the fields whose distinct values
+    // are tracked, e.g. velocity.track.card=region,ip; keys used by the rules above are tracked anyway
+    private Map<VelocityField, List<VelocityField>> track = new EnumMap<>(VelocityField.class);
+
+    public enum Aggregate {
+        COUNT, SUM, DISTINCT
+    }
+
+    @Data
+    public static class Rule {
+
+        // Also the reason reported when the rule fires
+        private String name;
+        private VelocityField key = VelocityField.CARD;
+        private Aggregate aggregate = Aggregate.COUNT;
+        // The field whose distinct values are counted; only used by DISTINCT
+        private VelocityField field;
+        private Duration window = Duration.ofHours(1);
+        // The rule fires when the aggregate, including the transaction under review, is greater than this
+        private long threshold;
+        private TransactionType action = TransactionType.MANUAL_PROCESSING;
+    }
+}
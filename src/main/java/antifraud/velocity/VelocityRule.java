@@ -0,0 +1,14 @@
+package antifraud.velocity;
+
+import antifraud.enums.TransactionType;
+
+/**
+ * A velocity rule resolved against the configured windows.
+ *
+ * @param window       index of the rule's window in {@link VelocityProperties#getWindows()}
+ * @param distinctSlot where the counters of {@code key} track the distinct values of {@code field}, or -1
+ */
+public record VelocityRule(String name, VelocityField key, VelocityProperties.Aggregate aggregate,
+                           VelocityField field, int window, int distinctSlot, long threshold,
+                           TransactionType action) {
+}
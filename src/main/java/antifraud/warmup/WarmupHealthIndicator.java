@@ -0,0 +1,55 @@
+package antifraud.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reports warm-up progress as the {@code warmup} health contributor. It stays OUT_OF_SERVICE until warm-up has
+ * finished, so an instance that includes it in its readiness group does not receive traffic while still cold.
+ * A failed warm-up is reported as UP with the error, since the instance still works, just slower at first.
+ */
+@Component("warmup")
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private volatile String phase = "pending";
+    private volatile boolean finished;
+    private volatile String error;
+    private final AtomicInteger syntheticReviews = new AtomicInteger();
+    private volatile int syntheticReviewsPlanned;
+
+    void phase(String phase) {
+        this.phase = phase;
+    }
+
+    void planSyntheticReviews(int planned) {
+        this.syntheticReviewsPlanned = planned;
+    }
+
+    void syntheticReviewCompleted() {
+        syntheticReviews.incrementAndGet();
+    }
+
+    void finished(String error) {
+        this.error = error;
+        this.phase = "done";
+        this.finished = true;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = finished ? Health.up() : Health.outOfService();
+        builder.withDetail("phase", phase)
+                .withDetail("syntheticReviews", syntheticReviews.get() + "/" + syntheticReviewsPlanned);
+        if (error != null) {
+            builder.withDetail("error", error);
+        }
+        return builder.build();
+    }
+}
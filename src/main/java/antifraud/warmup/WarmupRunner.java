@@ -0,0 +1,137 @@
+package antifraud.warmup;
+
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.enums.RegionNames;
+import antifraud.enums.RoleNames;
+import antifraud.model.AppUser;
+import antifraud.repo.AppUserRepo;
+import antifraud.service.AntiFraudService;
+import antifraud.service.TransactionService;
+import antifraud.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms caches, query plans and the JIT before the instance reports ready.
+ * <p>
+ * Application runners complete before Spring Boot switches readiness to ACCEPTING_TRAFFIC, so running here keeps
+ * the readiness probe down until warm-up is over. Failures are logged and never stop the application.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WarmupRunner.class);
+    private static final String MERCHANT_ROLE = RoleNames.ROLE_MERCHANT.name();
+
+    private final AntiFraudService antiFraudService;
+    private final UserService userService;
+    private final TransactionService transactionService;
+    private final AppUserRepo appUserRepo;
+    private final UserDetailsService userDetailsService;
+    private final WarmupHealthIndicator healthIndicator;
+    private final Executor executor;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.synthetic-transactions:500}")
+    private int syntheticTransactions;
+
+    @Value("${warmup.max-principals:1000}")
+    private int maxPrincipals;
+
+    @Value("${warmup.timeout:60s}")
+    private Duration timeout;
+
+    public WarmupRunner(AntiFraudService antiFraudService, UserService userService,
+                        TransactionService transactionService, AppUserRepo appUserRepo,
+                        UserDetailsService userDetailsService, WarmupHealthIndicator healthIndicator,
+                        @Qualifier("taskExecutor") Executor executor) {
+        this.antiFraudService = antiFraudService;
+        this.userService = userService;
+        this.transactionService = transactionService;
+        this.appUserRepo = appUserRepo;
+        this.userDetailsService = userDetailsService;
+        this.healthIndicator = healthIndicator;
+        this.executor = executor;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            healthIndicator.finished(null);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            healthIndicator.phase("blocklists");
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(antiFraudService::getStolenCards, executor),
+                    CompletableFuture.runAsync(antiFraudService::getSuspiciousIps, executor),
+                    CompletableFuture.runAsync(userService::getAllUsers, executor)
+            ).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            healthIndicator.phase("principals");
+            primePrincipals();
+
+            healthIndicator.phase("synthetic-transactions");
+            runSyntheticReviews();
+
+            healthIndicator.finished(null);
+            LOGGER.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            healthIndicator.finished("interrupted");
+        } catch (Exception ex) {
+            LOGGER.warn("Warm-up failed, continuing with cold caches: {}", ex.getMessage());
+            healthIndicator.finished(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        }
+    }
+
+    private void primePrincipals() {
+        List<String> merchants = appUserRepo.findAllByOrderByIdAsc().stream()
+                .filter(user -> !user.isLocked())
+                .filter(user -> user.getRoles().stream().anyMatch(role -> MERCHANT_ROLE.equals(role.getName())))
+                .map(AppUser::getUsername)
+                .limit(maxPrincipals)
+                .toList();
+
+        merchants.forEach(userDetailsService::loadUserByUsername);
+    }
+
+    private void runSyntheticReviews() {
+        healthIndicator.planSyntheticReviews(syntheticTransactions);
+
+        // Fixed seed so every instance exercises the same code paths
+        Random random = new Random(42);
+        RegionNames[] regions = RegionNames.values();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        for (int i = 0; i < syntheticTransactions; i++) {
+            TransactionRequestDTO dto = new TransactionRequestDTO();
+            dto.setAmount(1 + random.nextInt(2000));
+            dto.setIp("10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256));
+            dto.setNumber(String.format("4%015d", random.nextLong(1_000_000_000_000_000L)));
+            dto.setRegion(regions[random.nextInt(regions.length)].name());
+            dto.setDate(now.minusMinutes(random.nextInt(60)));
+
+            transactionService.reviewWithoutSaving(dto);
+            healthIndicator.syntheticReviewCompleted();
+        }
+    }
+}
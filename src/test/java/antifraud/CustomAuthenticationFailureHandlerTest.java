@@ -1,14 +1,12 @@
 package antifraud;
 
 import antifraud.config.CustomAuthenticationFailureHandler;
-import antifraud.exception.NotFoundException;
 import antifraud.logging.events.authentication.BruteForceAttemptEvent;
 import antifraud.logging.events.authentication.FailedLoginEvent;
 import antifraud.logging.events.user.UserLockedStatusChangeEvent;
 import antifraud.model.AppUser;
-import antifraud.model.FailedLoginAttempt;
 import antifraud.repo.AppUserRepo;
-import antifraud.repo.FailedLoginAttemptRepo;
+import antifraud.security.LoginAttemptTracker;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,7 +15,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.mockito.Mockito;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -26,6 +23,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.io.IOException;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +33,7 @@ class CustomAuthenticationFailureHandlerTest {
     private CustomAuthenticationFailureHandler handler;
 
     @Mock
-    private FailedLoginAttemptRepo failedLoginAttemptRepo;
+    private LoginAttemptTracker loginAttemptTracker;
 
     @Mock
     private ApplicationEventPublisher eventPublisher;
@@ -61,16 +59,16 @@ class CustomAuthenticationFailureHandlerTest {
     public void testOnAuthenticationFailure() throws IOException {
         // Arrange
         when(request.getParameter("username")).thenReturn("testUser");
-        AppUser user = new AppUser();
-        when(appUserRepo.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(loginAttemptTracker.recordFailure("testUser")).thenReturn(1);
 
         // Act
         handler.onAuthenticationFailure(request, response, exception);
 
         // Assert
-        verify(failedLoginAttemptRepo).save(any(FailedLoginAttempt.class));
+        verify(loginAttemptTracker).recordFailure("testUser");
         verify(eventPublisher).publishEvent(any(FailedLoginEvent.class));
         verify(response).sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid credentials");
+        verifyNoInteractions(appUserRepo);
     }
 
     @Test
@@ -79,13 +77,15 @@ class CustomAuthenticationFailureHandlerTest {
         when(request.getParameter("username")).thenReturn("testUser");
         AppUser user = new AppUser();
         when(appUserRepo.findByUsername("testUser")).thenReturn(Optional.of(user));
-        when(failedLoginAttemptRepo.countByUsername("testUser")).thenReturn(5);
+        when(loginAttemptTracker.recordFailure("testUser")).thenReturn(5);
 
         // Act
         handler.onAuthenticationFailure(request, response, exception);
 
         // Assert
-        verify(failedLoginAttemptRepo).save(any(FailedLoginAttempt.class));
+        assertTrue(user.isLocked());
+        verify(appUserRepo).save(user);
+        verify(loginAttemptTracker).reset("testUser");
         verify(eventPublisher).publishEvent(any(FailedLoginEvent.class));
         verify(eventPublisher).publishEvent(any(BruteForceAttemptEvent.class));
         verify(eventPublisher).publishEvent(any(UserLockedStatusChangeEvent.class));
@@ -97,14 +97,14 @@ class CustomAuthenticationFailureHandlerTest {
         // Arrange
         when(request.getParameter("username")).thenReturn("testUser");
         when(appUserRepo.findByUsername("testUser")).thenReturn(Optional.empty());
+        when(loginAttemptTracker.recordFailure("testUser")).thenReturn(5);
 
-        // Act and Assert
-        try {
-            handler.onAuthenticationFailure(request, response, exception);
-        } catch (NotFoundException e) {
-            verifyNoInteractions(failedLoginAttemptRepo);
-            verifyNoInteractions(eventPublisher);
-            verifyNoInteractions(response);
-        }
+        // Act
+        handler.onAuthenticationFailure(request, response, exception);
+
+        // Assert
+        verify(appUserRepo, never()).save(any(AppUser.class));
+        verify(eventPublisher, never()).publishEvent(any(UserLockedStatusChangeEvent.class));
+        verify(response).sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid credentials");
     }
 }
@@ -2,9 +2,7 @@ package antifraud;
 
 import antifraud.config.CustomAuthenticationSuccessHandler;
 import antifraud.logging.events.authentication.SuccessfulLoginEvent;
-import antifraud.model.AppUser;
-import antifraud.repo.AppUserRepo;
-import antifraud.repo.FailedLoginAttemptRepo;
+import antifraud.security.LoginAttemptTracker;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,7 +15,6 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 
 import java.io.IOException;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
@@ -36,10 +33,7 @@ public class CustomAuthenticationSuccessHandlerTest {
     private Authentication authentication;
 
     @Mock
-    private AppUserRepo appUserRepo;
-
-    @Mock
-    private FailedLoginAttemptRepo failedLoginAttemptRepo;
+    private LoginAttemptTracker loginAttemptTracker;
 
     @Mock
     private ApplicationEventPublisher eventPublisher;
@@ -51,13 +45,12 @@ public class CustomAuthenticationSuccessHandlerTest {
     public void testOnAuthenticationSuccess() throws IOException, ServletException {
         // Arrange
         when(authentication.getName()).thenReturn("testUser");
-        when(appUserRepo.findByUsername("testUser")).thenReturn(Optional.of(new AppUser()));
 
         // Act
         handler.onAuthenticationSuccess(request, response, authentication);
 
         // Assert
-        verify(failedLoginAttemptRepo).deleteByUsername("testUser");
+        verify(loginAttemptTracker).reset("testUser");
         verify(eventPublisher).publishEvent(any(SuccessfulLoginEvent.class));
     }
 }
@@ -1,17 +1,19 @@
 package antifraud;
 
+import antifraud.cache.CacheInvalidationBus;
 import antifraud.config.UserDetailsServiceImpl;
 import antifraud.model.AppUser;
 import antifraud.repo.AppUserRepo;
+import antifraud.security.PrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,13 +25,17 @@ public class UserDetailsServiceImplTest {
     @Mock
     private AppUserRepo appUserRepo;
 
-    @InjectMocks
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
     private UserDetailsServiceImpl userDetailsServiceImpl;
 
     private AppUser testUser;
 
     @BeforeEach
     void setUp() {
+        PrincipalCache principalCache = new PrincipalCache(invalidationBus, 100, Duration.ofMinutes(5));
+        userDetailsServiceImpl = new UserDetailsServiceImpl(appUserRepo, principalCache);
         testUser = new AppUser("Test User", "testuser", "encodedPassword");
     }
 
@@ -44,6 +50,17 @@ public class UserDetailsServiceImplTest {
         verify(appUserRepo, times(1)).findByUsername("testuser");
     }
 
+    @Test
+    void shouldServeRepeatedLookupsFromPrincipalCache() {
+        when(appUserRepo.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        userDetailsServiceImpl.loadUserByUsername("testuser");
+        UserDetails userDetails = userDetailsServiceImpl.loadUserByUsername("testuser");
+
+        assertEquals("testuser", userDetails.getUsername(), "Username should match the input.");
+        verify(appUserRepo, times(1)).findByUsername("testuser");
+    }
+
     @Test
     void shouldThrowUsernameNotFoundExceptionWhenUserNotFound() {
         when(appUserRepo.findByUsername("nonexistentuser")).thenReturn(Optional.empty());
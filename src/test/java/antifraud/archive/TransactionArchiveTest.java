@@ -0,0 +1,76 @@
+package antifraud.archive;
+
+import antifraud.enums.RegionNames;
+import antifraud.enums.TransactionType;
+import antifraud.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionArchiveTest {
+
+    private static final LocalDateTime START = LocalDateTime.parse("2023-01-01T00:00:00");
+
+    @TempDir
+    private Path directory;
+
+    private final TransactionSegmentWriter writer = new TransactionSegmentWriter();
+
+    private TransactionArchive archive;
+
+    @AfterEach
+    void closeArchive() throws IOException {
+        if (archive != null) {
+            archive.close();
+        }
+    }
+
+    @Test
+    void shouldListPagesAcrossSegmentsInIdOrder() throws IOException {
+        archive = new TransactionArchive(directory.toString());
+        writeSegment(1, 200);
+        writeSegment(201, 300);
+
+        List<ArchivedTransaction> page = archive.list(150, 100);
+
+        assertEquals(100, page.size());
+        for (int i = 0; i < page.size(); i++) {
+            assertEquals(151L + i, page.get(i).id());
+        }
+    }
+
+    @Test
+    void shouldReplaceRewrittenSegment() throws IOException {
+        archive = new TransactionArchive(directory.toString());
+        writeSegment(1, 10);
+        assertTrue(archive.findById(10L).isPresent());
+
+        writeSegment(1, 5);
+
+        assertEquals(5, archive.count());
+        assertTrue(archive.findById(10L).isEmpty());
+        assertTrue(archive.findById(5L).isPresent());
+    }
+
+    private void writeSegment(long firstId, long lastId) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        for (long id = firstId; id <= lastId; id++) {
+            Transaction transaction = new Transaction(id * 10, "10.0.0.1", String.valueOf(4000008449433403L - id * 7919),
+                    RegionNames.values()[(int) (id % 7)].name(), START.plusMinutes(id));
+            transaction.setId(id);
+            transaction.setResult(TransactionType.ALLOWED.name());
+            transactions.add(transaction);
+        }
+        Path path = archive.newSegmentPath(firstId);
+        writer.write(transactions, path);
+        archive.addSegment(path);
+    }
+}
@@ -0,0 +1,150 @@
+package antifraud.archive;
+
+import antifraud.enums.RegionNames;
+import antifraud.enums.TransactionType;
+import antifraud.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionSegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.parse("2023-01-01T00:00:00");
+
+    @TempDir
+    private Path directory;
+
+    private final TransactionSegmentWriter writer = new TransactionSegmentWriter();
+
+    @Test
+    void shouldRoundTripAllColumns() throws IOException {
+        Transaction transaction = createTransaction(7L, "4000008449433403", "192.168.0.1", 1500);
+        transaction.setFeedback(TransactionType.PROHIBITED.name());
+        Path segment = directory.resolve("single.seg");
+
+        writer.write(List.of(transaction), segment);
+
+        try (TransactionSegmentReader reader = TransactionSegmentReader.open(segment)) {
+            List<ArchivedTransaction> rows = reader.findByNumber(4000008449433403L);
+            assertEquals(1, rows.size());
+            assertEquals(transaction, rows.get(0).toTransaction());
+        }
+    }
+
+    @Test
+    void shouldWriteFooterWithDateAndCardRanges() throws IOException {
+        List<Transaction> transactions = List.of(
+                createTransaction(1L, "4000008449433403", "10.0.0.1", 100),
+                createTransaction(2L, "1234567812345670", "10.0.0.2", 200));
+        Path segment = directory.resolve("footer.seg");
+
+        SegmentFooter footer = writer.write(transactions, segment);
+
+        assertEquals(2, footer.rowCount());
+        assertEquals(1234567812345670L, footer.minCard());
+        assertEquals(4000008449433403L, footer.maxCard());
+        assertTrue(footer.minEpochSecond() < footer.maxEpochSecond());
+        try (TransactionSegmentReader reader = TransactionSegmentReader.open(segment)) {
+            assertEquals(footer, reader.getFooter());
+        }
+    }
+
+    @Test
+    void shouldFindCardRowsAcrossBlockBoundaries() throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String number = i % 3 == 0 ? "4000008449433403" : String.format("1%015d", i);
+            transactions.add(createTransaction(i + 1L, number, "10.0." + (i % 256) + ".1", 50 + i));
+        }
+        Path segment = directory.resolve("blocks.seg");
+
+        writer.write(transactions, segment);
+
+        try (TransactionSegmentReader reader = TransactionSegmentReader.open(segment)) {
+            List<ArchivedTransaction> rows = reader.findByNumber(4000008449433403L);
+            assertEquals(334, rows.size());
+            for (ArchivedTransaction row : rows) {
+                assertEquals(transactions.get((int) row.id() - 1), row.toTransaction());
+            }
+
+            List<ArchivedTransaction> scanned = new ArrayList<>();
+            reader.scan(scanned::add);
+            assertEquals(1000, scanned.size());
+            assertTrue(reader.findByNumber(9999999999999995L).isEmpty());
+        }
+    }
+
+    @Test
+    void shouldBeSmallerThanTextualRows() throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            transactions.add(createTransaction(i + 1L, "4000008449433403", "192.168.100." + (i % 256), 100 + i % 50));
+        }
+        Path segment = directory.resolve("size.seg");
+
+        writer.write(transactions, segment);
+
+        // id, amount, ip, number, region, date, result as text would take well over 60 bytes per row
+        assertTrue(Files.size(segment) < 1000 * 30L);
+    }
+
+    @Test
+    void shouldFindRowsById() throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            transactions.add(createTransaction(id, String.valueOf(4000008449433403L - id * 7919), "10.0.0.1", id * 10));
+        }
+        Path segment = directory.resolve("ids.seg");
+        writer.write(transactions, segment);
+
+        try (TransactionSegmentReader reader = TransactionSegmentReader.open(segment)) {
+            assertEquals(transactions.get(200), reader.findById(201L).toTransaction());
+            assertNull(reader.findById(301L));
+            assertNull(reader.findById(0L));
+        }
+    }
+
+    @Test
+    void shouldScanRowsInIdOrder() throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            transactions.add(createTransaction(id, String.valueOf(4000008449433403L - id * 7919), "10.0.0.1", id * 10));
+        }
+        Path segment = directory.resolve("order.seg");
+        writer.write(transactions, segment);
+
+        try (TransactionSegmentReader reader = TransactionSegmentReader.open(segment)) {
+            List<ArchivedTransaction> page = new ArrayList<>();
+            reader.scanById(250, 310, page::add);
+
+            assertEquals(50, page.size());
+            for (int i = 0; i < page.size(); i++) {
+                assertEquals(transactions.get(250 + i), page.get(i).toTransaction());
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectIpv6Transactions() {
+        Transaction transaction = createTransaction(1L, "4000008449433403", "2001:db8:0:0:0:0:0:1", 100);
+
+        assertFalse(ArchivedTransaction.isArchivable(transaction));
+        assertThrows(IllegalArgumentException.class, () -> writer.write(List.of(transaction), directory.resolve("v6.seg")));
+    }
+
+    private Transaction createTransaction(long id, String number, String ip, long amount) {
+        Transaction transaction = new Transaction(amount, ip, number, RegionNames.values()[(int) (id % 7)].name(),
+                START.plusMinutes(id * 7));
+        transaction.setId(id);
+        transaction.setResult(TransactionType.values()[(int) (id % 3)].name());
+        return transaction;
+    }
+}
@@ -0,0 +1,281 @@
+package antifraud.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoTierCacheTest {
+
+    private ConcurrentMapCache remote;
+    private CacheInvalidationBus invalidationBus;
+    private TwoTierCache cache;
+    private AtomicLong clock;
+    private List<Runnable> refreshes;
+    private AtomicInteger sourceLoads;
+    private volatile List<String> source;
+    private volatile boolean sourceDown;
+    // Runs once, right after the next read of the remote tier
+    private volatile Runnable afterRemoteRead;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("suspiciousIps") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper wrapper = super.get(key);
+                Runnable hook = afterRemoteRead;
+                afterRemoteRead = null;
+                if (hook != null) {
+                    hook.run();
+                }
+                return wrapper;
+            }
+        };
+        invalidationBus = mock(CacheInvalidationBus.class);
+        clock = new AtomicLong();
+        refreshes = new ArrayList<>();
+        sourceLoads = new AtomicInteger();
+        source = List.of("10.0.0.1");
+
+        TwoTierCacheProperties.Spec spec = new TwoTierCacheProperties.Spec(100L, Duration.ofSeconds(30),
+                Duration.ofMinutes(10), Duration.ofSeconds(20), Duration.ofMinutes(5));
+        CacheLoader loader = CacheLoader.of("suspiciousIps", key -> loadSource());
+        cache = new TwoTierCache("suspiciousIps", spec, Caffeine.newBuilder().maximumSize(100).build(), remote,
+                invalidationBus, loader, refreshes::add, clock::get);
+    }
+
+    private List<String> loadSource() {
+        sourceLoads.incrementAndGet();
+        if (sourceDown) {
+            throw new IllegalStateException("database unavailable");
+        }
+        return source;
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void shouldWriteThroughToRemoteAndBroadcast() {
+        cache.put("all", List.of("10.0.0.1"));
+
+        assertEquals(List.of("10.0.0.1"), remote.get("all").get());
+        assertEquals(List.of("10.0.0.1"), cache.get("all").get());
+        verify(invalidationBus).publish("suspiciousIps", "all");
+    }
+
+    @Test
+    void shouldServeLocalHitsWithoutTouchingRemote() {
+        cache.put("all", List.of("10.0.0.1"));
+        remote.clear();
+
+        Cache.ValueWrapper wrapper = cache.get("all");
+
+        assertNotNull(wrapper);
+        assertEquals(List.of("10.0.0.1"), wrapper.get());
+    }
+
+    @Test
+    void shouldPopulateLocalTierFromRemote() {
+        remote.put("all", List.of("10.0.0.1"));
+
+        assertEquals(List.of("10.0.0.1"), cache.get("all").get());
+        remote.clear();
+        assertEquals(List.of("10.0.0.1"), cache.get("all").get());
+    }
+
+    @Test
+    void shouldLoadOnceAndStoreInBothTiers() {
+        AtomicInteger loads = new AtomicInteger();
+
+        List<String> first = cache.get("all", () -> {
+            loads.incrementAndGet();
+            return List.of("10.0.0.1");
+        });
+        List<String> second = cache.get("all", () -> {
+            loads.incrementAndGet();
+            return List.of("10.0.0.2");
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(first, second);
+        assertEquals(first, remote.get("all").get());
+    }
+
+    @Test
+    void shouldEvictBothTiersAndBroadcast() {
+        cache.put("all", List.of("10.0.0.1"));
+
+        cache.evict("all");
+
+        assertNull(cache.get("all"));
+        assertNull(remote.get("all"));
+        verify(invalidationBus, times(2)).publish("suspiciousIps", "all");
+    }
+
+    @Test
+    void shouldDropOnlyLocalEntryOnRemoteInvalidation() {
+        cache.put("all", List.of("10.0.0.1"));
+        remote.put("all", List.of("10.0.0.2"));
+
+        cache.evictLocal("all");
+
+        assertEquals(List.of("10.0.0.2"), cache.get("all").get());
+    }
+
+    @Test
+    void shouldClearLocalTierOnRemoteClear() {
+        cache.put("all", List.of("10.0.0.1"));
+        remote.clear();
+
+        cache.evictLocal(null);
+
+        assertNull(cache.get("all"));
+    }
+
+    @Test
+    void shouldCacheNullValues() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("missing", () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        Object second = cache.get("missing", () -> {
+            loads.incrementAndGet();
+            return "loaded";
+        });
+
+        assertNull(second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        int threads = 8;
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> cache.get("all", () -> {
+                    loading.countDown();
+                    release.await();
+                    return loadSource();
+                })));
+            }
+
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<List<String>> result : results) {
+                assertEquals(List.of("10.0.0.1"), result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, sourceLoads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRefreshAheadOfExpiryInBackground() {
+        cache.get("all", this::loadSource);
+        source = List.of("10.0.0.1", "10.0.0.2");
+
+        advance(Duration.ofSeconds(10));
+        cache.get("all", this::loadSource);
+        assertTrue(refreshes.isEmpty());
+
+        advance(Duration.ofSeconds(15));
+        List<String> served = cache.get("all", this::loadSource);
+        cache.get("all", this::loadSource);
+
+        assertEquals(List.of("10.0.0.1"), served);
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+
+        assertEquals(List.of("10.0.0.1", "10.0.0.2"), cache.get("all", this::loadSource));
+        assertEquals(List.of("10.0.0.1", "10.0.0.2"), remote.get("all").get());
+        assertEquals(2, sourceLoads.get());
+    }
+
+    @Test
+    void shouldNotResurrectEntryEvictedDuringRefresh() {
+        cache.get("all", this::loadSource);
+        advance(Duration.ofSeconds(25));
+        cache.get("all", this::loadSource);
+
+        cache.evict("all");
+        refreshes.get(0).run();
+
+        assertNull(cache.get("all"));
+        assertNull(remote.get("all"));
+    }
+
+    @Test
+    void shouldNotStoreValueLoadedWhileKeyWasEvicted() {
+        List<String> loaded = cache.get("all", () -> {
+            List<String> stale = loadSource();
+            // A blocklist change lands while the old list is being loaded
+            source = List.of("10.0.0.1", "10.0.0.2");
+            cache.evict("all");
+            return stale;
+        });
+
+        assertEquals(List.of("10.0.0.1"), loaded);
+        assertNull(remote.get("all"));
+        assertEquals(List.of("10.0.0.1", "10.0.0.2"), cache.get("all", this::loadSource));
+    }
+
+    @Test
+    void shouldNotKeepRemoteValueReadBeforeEviction() {
+        remote.put("all", List.of("10.0.0.1"));
+        afterRemoteRead = () -> cache.evict("all");
+
+        assertEquals(List.of("10.0.0.1"), cache.get("all").get());
+
+        assertNull(cache.get("all"));
+    }
+
+    @Test
+    void shouldServeStaleEntryWhenReloadFails() {
+        cache.get("all", this::loadSource);
+        remote.clear();
+        sourceDown = true;
+
+        advance(Duration.ofMinutes(2));
+
+        assertEquals(List.of("10.0.0.1"), cache.get("all", this::loadSource));
+    }
+
+    @Test
+    void shouldFailOnceStaleWindowHasPassed() {
+        cache.get("all", this::loadSource);
+        remote.clear();
+        sourceDown = true;
+
+        advance(Duration.ofMinutes(6));
+
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("all", this::loadSource));
+    }
+}
@@ -0,0 +1,86 @@
+package antifraud.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncConfigTest {
+
+    private SimpleMeterRegistry registry;
+    private InstrumentedTaskDecorator decorator;
+    private AsyncExecutorProperties properties;
+    private ThreadPoolTaskExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+    private final List<String> ran = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        decorator = new InstrumentedTaskDecorator(registry, "test");
+        properties = new AsyncExecutorProperties();
+        properties.setCorePoolSize(1);
+        properties.setMaxPoolSize(1);
+        properties.setQueueCapacity(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldRunOverflowOnCallerThread() throws Exception {
+        executor = AsyncConfig.platformExecutor(properties, decorator, AsyncExecutorProperties.Mode.CALLER_RUNS);
+        occupyWorker();
+
+        executor.execute(() -> ran.add("queued"));
+        executor.execute(() -> ran.add("overflow:" + Thread.currentThread().getName()));
+
+        assertEquals(List.of("overflow:" + Thread.currentThread().getName()), ran);
+        assertEquals(1.0, registry.get("async.executor.rejected").tag("action", "caller-runs").counter().count());
+    }
+
+    @Test
+    void shouldDropOldestQueuedTaskWhenFull() throws Exception {
+        executor = AsyncConfig.platformExecutor(properties, decorator, AsyncExecutorProperties.Mode.DROP_OLDEST);
+        occupyWorker();
+
+        executor.execute(() -> ran.add("oldest"));
+        executor.execute(() -> ran.add("newest"));
+        assertEquals(1, decorator.queued());
+
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("newest"), ran);
+        assertEquals(0, decorator.queued());
+        // The blocker and the newest task, each measured once
+        assertEquals(2, registry.get("async.executor.wait").timer().count());
+        assertEquals(1.0, registry.get("async.executor.rejected").tag("action", "dropped").counter().count());
+    }
+
+    private void occupyWorker() throws InterruptedException {
+        executor.execute(() -> {
+            blockerStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -58,7 +58,7 @@ class AntiFraudControllerTest {
     @Test
     void shouldRetrieveSuspiciousIPs() {
         List<SuspiciousIp> expectedIps = Collections.singletonList(new SuspiciousIp(validIp));
-        when(antiFraudService.getSuspiciousIps()).thenReturn(ResponseEntity.ok(expectedIps));
+        when(antiFraudService.getSuspiciousIps()).thenReturn(expectedIps);
 
         ResponseEntity<List<SuspiciousIp>> response = antiFraudController.getSuspiciousIps();
 
@@ -99,7 +99,7 @@ class AntiFraudControllerTest {
     @Test
     void shouldRetrieveStolenCards() {
         List<StolenCard> expectedCards = Collections.singletonList(new StolenCard(validCardNumber));
-        when(antiFraudService.getStolenCards()).thenReturn(ResponseEntity.ok(expectedCards));
+        when(antiFraudService.getStolenCards()).thenReturn(expectedCards);
 
         ResponseEntity<List<StolenCard>> response = antiFraudController.getStolenCards();
 
@@ -0,0 +1,45 @@
+package antifraud.controller;
+
+import antifraud.dto.request.TokenRequestDTO;
+import antifraud.dto.response.TokenResponseDTO;
+import antifraud.service.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenControllerTest {
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private HttpServletRequest httpRequest;
+
+    @InjectMocks
+    private TokenController tokenController;
+
+    @Test
+    void shouldIssueTokenSuccessfully() {
+        TokenRequestDTO request = new TokenRequestDTO();
+        request.setUsername("merchant");
+        request.setPassword("secret");
+        TokenResponseDTO expectedResponse = TokenResponseDTO.bearer("token", 900);
+        when(httpRequest.getRemoteAddr()).thenReturn("192.168.1.1");
+        when(tokenService.issueToken(request, "192.168.1.1")).thenReturn(ResponseEntity.ok(expectedResponse));
+
+        ResponseEntity<TokenResponseDTO> response = tokenController.issueToken(request, httpRequest);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+        verify(tokenService).issueToken(request, "192.168.1.1");
+    }
+}
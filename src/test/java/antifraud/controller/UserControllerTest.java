@@ -63,7 +63,7 @@ class UserControllerTest {
     @Test
     void shouldGetAllUsersSuccessfully() {
         List<UserResponseDTO> expectedUsers = List.of(new UserResponseDTO(validUser));
-        when(userService.getAllUsers()).thenReturn(ResponseEntity.ok(expectedUsers));
+        when(userService.getAllUsers()).thenReturn(expectedUsers);
 
         ResponseEntity<List<UserResponseDTO>> response = userController.getAllUsers();
 
@@ -0,0 +1,83 @@
+package antifraud.dto.request;
+
+import antifraud.config.JacksonConfig;
+import antifraud.dto.response.TransactionResponseDTO;
+import antifraud.enums.RegionNames;
+import antifraud.utils.IpAddressParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionRequestDeserializerTest {
+
+    private static final String JSON = """
+            {"amount": 150, "ip": "192.168.1.1", "number": "4000008449433403", "region": "EAP", "date": "2024-01-01T10:00:00"}
+            """;
+
+    private final ObjectMapper mapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void shouldBindTheSameRequestAsTheReflectivePath() throws Exception {
+        ObjectMapper reflective = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        TransactionRequestDTO dto = mapper.readValue(JSON, TransactionRequestDTO.class);
+
+        assertEquals(reflective.readValue(JSON, TransactionRequestDTO.class), dto);
+        assertEquals(LocalDateTime.parse("2024-01-01T10:00:00"), dto.getDate());
+    }
+
+    @Test
+    void shouldParseTheRequestWhileBinding() throws Exception {
+        TransactionRequestDTO dto = mapper.readValue(JSON, TransactionRequestDTO.class);
+
+        assertEquals(new ParsedTransaction(150, 4000008449433403L, IpAddressParser.parse("192.168.1.1"), RegionNames.EAP,
+                LocalDateTime.parse("2024-01-01T10:00:00").toEpochSecond(ZoneOffset.UTC)), dto.getParsed());
+        assertEquals("4000008449433403", dto.getTransaction().getNumber());
+    }
+
+    @Test
+    void shouldKeepNullFields() throws Exception {
+        TransactionRequestDTO dto = mapper.readValue("{\"amount\": 1, \"ip\": null, \"date\": null}", TransactionRequestDTO.class);
+
+        assertEquals(1, dto.getAmount());
+        assertNull(dto.getIp());
+        assertNull(dto.getDate());
+    }
+
+    @Test
+    void shouldRejectUnknownFields() {
+        assertThrows(UnrecognizedPropertyException.class,
+                () -> mapper.readValue("{\"amount\": 1, \"merchant\": \"x\"}", TransactionRequestDTO.class));
+    }
+
+    @Test
+    void shouldRejectMalformedDates() {
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue(
+                "{\"date\": \"2023.12.08T10;15;30\"}", TransactionRequestDTO.class));
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue(
+                "{\"date\": \"2023-02-30T10:15:30\"}", TransactionRequestDTO.class));
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue(
+                "{\"date\": \"2023-12-08T10:15\"}", TransactionRequestDTO.class));
+    }
+
+    @Test
+    void shouldRejectNonTextValues() {
+        assertThrows(MismatchedInputException.class,
+                () -> mapper.readValue("{\"ip\": [\"192.168.1.1\"]}", TransactionRequestDTO.class));
+    }
+
+    @Test
+    void shouldWriteResponseFields() throws Exception {
+        String json = mapper.writeValueAsString(new TransactionResponseDTO("ALLOWED", "none"));
+
+        assertEquals("{\"result\":\"ALLOWED\",\"info\":\"none\"}", json);
+    }
+}
@@ -0,0 +1,137 @@
+package antifraud.graph;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.RegionNames;
+import antifraud.enums.TransactionType;
+import antifraud.utils.IpAddressParser;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkGraphTest {
+
+    private static final long CARD = 4000008449433403L;
+    private static final long START = 1_700_000_000L;
+
+    @Test
+    void shouldJoinCardsThatShareAnIp() {
+        LinkGraph graph = new LinkGraph(new LinkGraphProperties());
+
+        graph.apply(transaction(CARD, "10.0.0.1", START), false);
+        graph.apply(transaction(CARD + 1, "10.0.0.1", START), false);
+        graph.apply(transaction(CARD + 1, "10.0.0.2", START), false);
+        graph.apply(transaction(CARD + 2, "10.0.0.3", START), false);
+
+        LinkGraph.LinkComponent component = graph.component(CARD);
+        assertEquals(List.of(CARD, CARD + 1), component.cards().stream().sorted().toList());
+        assertEquals(2, component.ips().size());
+        assertEquals(1, graph.component(CARD + 2).cards().size());
+        assertNull(graph.component(CARD + 3));
+    }
+
+    @Test
+    void shouldFlagComponentsWithTooManyCards() {
+        LinkGraphProperties properties = new LinkGraphProperties();
+        properties.setMaxCards(3);
+        LinkGraph graph = new LinkGraph(properties);
+        for (int i = 0; i < 3; i++) {
+            graph.apply(transaction(CARD + i, "10.0.0.1", START), false);
+        }
+
+        List<String> reasons = new ArrayList<>();
+        assertEquals(TransactionType.ALLOWED,
+                graph.evaluate(transaction(CARD, "10.0.0.1", START), reasons, TransactionType.ALLOWED));
+        assertEquals(TransactionType.MANUAL_PROCESSING,
+                graph.evaluate(transaction(CARD + 3, "10.0.0.1", START), reasons, TransactionType.ALLOWED));
+        assertEquals(List.of("link-graph"), reasons);
+    }
+
+    @Test
+    void shouldProhibitComponentsWithManyProhibitedCards() {
+        LinkGraph graph = new LinkGraph(new LinkGraphProperties());
+        graph.apply(transaction(CARD, "10.0.0.1", START), true);
+        graph.apply(transaction(CARD + 1, "10.0.0.1", START), true);
+        graph.apply(transaction(CARD + 2, "10.0.0.2", START), false);
+
+        List<String> reasons = new ArrayList<>();
+        assertEquals(TransactionType.PROHIBITED,
+                graph.evaluate(transaction(CARD + 2, "10.0.0.1", START), reasons, TransactionType.ALLOWED));
+        assertEquals(TransactionType.ALLOWED,
+                graph.evaluate(transaction(CARD + 2, "10.0.0.2", START), reasons, TransactionType.ALLOWED));
+    }
+
+    @Test
+    void shouldCountProhibitedFeedbackTowardsTheComponent() {
+        LinkGraph graph = new LinkGraph(new LinkGraphProperties());
+        graph.apply(transaction(CARD, "10.0.0.1", START), false);
+        graph.apply(transaction(CARD + 1, "10.0.0.1", START), false);
+
+        graph.applyProhibited(CARD);
+        graph.applyProhibited(CARD);
+        graph.applyProhibited(CARD + 5);
+
+        assertEquals(1, graph.component(CARD + 1).prohibitedCards());
+        assertNull(graph.component(CARD + 5));
+    }
+
+    @Test
+    void shouldDropExpiredLinksOnRebuild() {
+        LinkGraphProperties properties = new LinkGraphProperties();
+        properties.setEdgeTtl(Duration.ofHours(1));
+        LinkGraph graph = new LinkGraph(properties, clockAt(START + 7_200));
+        graph.apply(transaction(CARD, "10.0.0.1", START), true);
+        graph.apply(transaction(CARD + 1, "10.0.0.1", START + 3_000), false);
+        graph.apply(transaction(CARD + 1, "10.0.0.2", START + 7_200), false);
+
+        graph.rebuild();
+
+        assertNull(graph.component(CARD));
+        assertEquals(List.of(CARD + 1), graph.component(CARD + 1).cards());
+        assertEquals(0, graph.component(CARD + 1).prohibitedCards());
+        assertEquals(1, graph.edgeCount());
+    }
+
+    @Test
+    void shouldKeepCurrentLinksAfterFutureDatedTransaction() {
+        LinkGraphProperties properties = new LinkGraphProperties();
+        properties.setEdgeTtl(Duration.ofHours(1));
+        LinkGraph graph = new LinkGraph(properties, clockAt(START + 60));
+        graph.apply(transaction(CARD, "10.0.0.1", START), false);
+        graph.apply(transaction(CARD + 1, "10.0.0.1", START), false);
+        graph.apply(transaction(CARD + 2, "10.0.0.2", LocalDateTime.of(2099, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC)), false);
+
+        graph.rebuild();
+
+        assertEquals(List.of(CARD, CARD + 1), graph.component(CARD).cards().stream().sorted().toList());
+        assertEquals(3, graph.edgeCount());
+    }
+
+    @Test
+    void shouldGrowPastInitialCapacity() {
+        LinkGraphProperties properties = new LinkGraphProperties();
+        properties.setInitialCapacity(4);
+        LinkGraph graph = new LinkGraph(properties);
+        for (int i = 0; i < 1_000; i++) {
+            graph.apply(transaction(CARD + i, "10.0." + (i / 250) + ".1", START), false);
+        }
+
+        assertEquals(1_004, graph.nodeCount());
+        assertEquals(250, graph.component(CARD).cards().size());
+    }
+
+    private static Clock clockAt(long epochSecond) {
+        return Clock.fixed(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+
+    private static ParsedTransaction transaction(long card, String ip, long epochSecond) {
+        return new ParsedTransaction(100, card, IpAddressParser.parse(ip), RegionNames.EAP, epochSecond);
+    }
+}
@@ -0,0 +1,49 @@
+package antifraud.logging;
+
+import antifraud.logging.audit.AuditCategory;
+import antifraud.logging.audit.AuditLogger;
+import antifraud.logging.audit.AuditProperties;
+import antifraud.logging.audit.Masked;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AuditLoggerTest {
+
+    @Test
+    void shouldDropSampledOutInfoRecords() {
+        AuditProperties properties = new AuditProperties();
+        properties.getSampling().put(AuditCategory.AUTHENTICATION, 0.0);
+        AuditLogger auditLogger = new AuditLogger(properties);
+
+        assertSame(NOPLoggingEventBuilder.singleton(), auditLogger.at(AuditCategory.AUTHENTICATION, Level.INFO));
+        assertNotSame(NOPLoggingEventBuilder.singleton(), auditLogger.at(AuditCategory.TRANSACTION, Level.INFO));
+    }
+
+    @Test
+    void shouldAlwaysKeepWarnings() {
+        AuditProperties properties = new AuditProperties();
+        properties.getSampling().put(AuditCategory.AUTHENTICATION, 0.0);
+        AuditLogger auditLogger = new AuditLogger(properties);
+
+        assertNotSame(NOPLoggingEventBuilder.singleton(), auditLogger.at(AuditCategory.AUTHENTICATION, Level.WARN));
+    }
+
+    @Test
+    void shouldMaskIpAddresses() {
+        assertEquals("192.168.1.***", Masked.ip("192.168.1.254").toString());
+        assertEquals("2001:db8:85a3:***", Masked.ip("2001:db8:85a3:0:0:8a2e:370:7334").toString());
+        assertEquals("***", Masked.ip("localhost").toString());
+    }
+
+    @Test
+    void shouldMaskAllButLastFourCardDigits() {
+        assertEquals("************3403", Masked.cardNumber("4000008449433403").toString());
+        assertEquals("123", Masked.cardNumber("123").toString());
+        assertEquals("null", Masked.cardNumber(null).toString());
+    }
+}
@@ -0,0 +1,85 @@
+package antifraud.messaging;
+
+import antifraud.logging.events.antifraud.StolenCardAddedEvent;
+import antifraud.logging.events.authentication.FailedLoginEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadLetterBufferTest {
+
+    @TempDir
+    Path directory;
+
+    private Path spillFile;
+    private DeadLetterBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        spillFile = directory.resolve("dead-letters.jsonl");
+        PublisherProperties properties = new PublisherProperties();
+        properties.setDeadLetterCapacity(2);
+        properties.setDeadLetterFile(spillFile);
+        buffer = new DeadLetterBuffer(properties, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void shouldKeepRecentDeadLettersInMemory() {
+        buffer.add("transactionQueue", "first", "nacked");
+        buffer.add("transactionQueue", "second", "nacked");
+
+        assertEquals(List.of("first", "second"), buffer.recent().stream().map(DeadLetterBuffer.DeadLetter::payload).toList());
+        assertTrue(Files.notExists(spillFile));
+    }
+
+    @Test
+    void shouldSpillOldestToDiskWhenFull() throws Exception {
+        buffer.add("transactionQueue", "first", "nacked");
+        buffer.add("transactionQueue", "second", "nacked");
+        buffer.add("userQueue", "third", "buffer full");
+
+        List<String> lines = Files.readAllLines(spillFile);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"payload\":\"first\""));
+        assertEquals(List.of("second", "third"), buffer.recent().stream().map(DeadLetterBuffer.DeadLetter::payload).toList());
+        assertEquals(3, buffer.size());
+    }
+
+    @Test
+    void shouldMaskCardNumbersAndIpsWhenSpilling() throws Exception {
+        spillFile = directory.resolve("spill").resolve("dead-letters.jsonl");
+        PublisherProperties properties = new PublisherProperties();
+        properties.setDeadLetterCapacity(1);
+        properties.setDeadLetterFile(spillFile);
+        buffer = new DeadLetterBuffer(properties, new ObjectMapper().findAndRegisterModules());
+
+        buffer.add("antifraudQueue", new StolenCardAddedEvent("4000008449433403"), "nacked");
+        buffer.add("authQueue", new FailedLoginEvent("user", "192.168.1.23", LocalDateTime.now()), "nacked");
+        buffer.add("authQueue", "third", "nacked");
+
+        String spilled = Files.readString(spillFile);
+        assertTrue(spilled.contains("\"cardNumber\":\"************3403\""));
+        assertTrue(spilled.contains("\"ipAddress\":\"192.168.1.***\""));
+        assertFalse(spilled.contains("4000008449433403"));
+        assertFalse(spilled.contains("192.168.1.23"));
+    }
+
+    @Test
+    void shouldRejectCapacityBelowOne() {
+        PublisherProperties properties = new PublisherProperties();
+        properties.setDeadLetterCapacity(0);
+
+        assertThrows(IllegalStateException.class, () -> new DeadLetterBuffer(properties, new ObjectMapper()));
+    }
+}
@@ -0,0 +1,136 @@
+package antifraud.messaging;
+
+import antifraud.enums.EventNames;
+import antifraud.logging.events.transaction.TransactionCreatedEvent;
+import antifraud.messaging.sink.EventSinkRouter;
+import antifraud.model.OutboxEvent;
+import antifraud.repo.OutboxEventRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepo outboxEventRepo;
+
+    @Mock
+    private EventSinkRouter eventSinkRouter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepo, eventSinkRouter, objectMapper, transactionManager, 10, 5,
+                Duration.ofHours(1), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldMarkOnlyConfirmedEventsDelivered() throws Exception {
+        List<OutboxEvent> pending = List.of(outboxEvent(1, new TransactionCreatedEvent(1, 100, "ALLOWED", "merchant")),
+                outboxEvent(2, new TransactionCreatedEvent(2, 200, "ALLOWED", "merchant")));
+        when(outboxEventRepo.findPendingForUpdate(any(Pageable.class))).thenReturn(pending);
+        when(eventSinkRouter.publishAll(eq(EventNames.TRANSACTION), anyList())).thenReturn(new boolean[]{true, false});
+
+        int relayed = relay.relayChunk();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxEventRepo).markDelivered(ids.capture(), any(Instant.class));
+        assertEquals(List.of(1L), List.copyOf(ids.getValue()));
+        verify(outboxEventRepo).release(List.of(2L));
+        assertEquals(1, relayed);
+    }
+
+    @Test
+    void shouldKeepEventsAfterFirstUnconfirmedOnePending() throws Exception {
+        List<OutboxEvent> pending = List.of(outboxEvent(1, new TransactionCreatedEvent(1, 100, "ALLOWED", "merchant")),
+                outboxEvent(2, new TransactionCreatedEvent(2, 200, "ALLOWED", "merchant")),
+                outboxEvent(3, new TransactionCreatedEvent(3, 300, "ALLOWED", "merchant")));
+        when(outboxEventRepo.findPendingForUpdate(any(Pageable.class))).thenReturn(pending);
+        when(eventSinkRouter.publishAll(eq(EventNames.TRANSACTION), anyList())).thenReturn(new boolean[]{true, false, true});
+
+        int relayed = relay.relayChunk();
+
+        verify(outboxEventRepo).claim(eq(List.of(1L, 2L, 3L)), any(Instant.class));
+        verify(outboxEventRepo).markDelivered(eq(List.of(1L)), any(Instant.class));
+        verify(outboxEventRepo).release(List.of(2L, 3L));
+        assertEquals(1, relayed);
+    }
+
+    @Test
+    void shouldNotSendWhileAnotherRelayHoldsTheClaim() throws Exception {
+        OutboxEvent claimed = outboxEvent(1, new TransactionCreatedEvent(1, 100, "ALLOWED", "merchant"));
+        claimed.setClaimedUntil(Instant.now().plusSeconds(30));
+        when(outboxEventRepo.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(claimed));
+
+        assertEquals(0, relay.relayChunk());
+        verify(outboxEventRepo, never()).claim(any(), any());
+        verifyNoInteractions(eventSinkRouter);
+    }
+
+    @Test
+    void shouldReleaseClaimWhenSinkThrows() throws Exception {
+        when(outboxEventRepo.findPendingForUpdate(any(Pageable.class)))
+                .thenReturn(List.of(outboxEvent(1, new TransactionCreatedEvent(1, 100, "ALLOWED", "merchant"))));
+        when(eventSinkRouter.publishAll(eq(EventNames.TRANSACTION), anyList())).thenThrow(new IllegalStateException("down"));
+
+        assertThrows(IllegalStateException.class, () -> relay.relayChunk());
+        verify(outboxEventRepo).release(List.of(1L));
+        verify(outboxEventRepo, never()).markDelivered(any(), any());
+    }
+
+    @Test
+    void shouldSendDecodedEventsInIdOrder() throws Exception {
+        TransactionCreatedEvent first = new TransactionCreatedEvent(1, 100, "ALLOWED", "merchant");
+        TransactionCreatedEvent second = new TransactionCreatedEvent(2, 200, "PROHIBITED", "merchant");
+        when(outboxEventRepo.findPendingForUpdate(any(Pageable.class)))
+                .thenReturn(List.of(outboxEvent(1, first), outboxEvent(2, second)));
+        when(eventSinkRouter.publishAll(eq(EventNames.TRANSACTION), anyList())).thenReturn(new boolean[]{true, true});
+
+        relay.relayChunk();
+
+        verify(eventSinkRouter).publishAll(EventNames.TRANSACTION, List.of(first, second));
+    }
+
+    @Test
+    void shouldNotTouchOutboxWhenNothingIsPending() {
+        when(outboxEventRepo.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, relay.relayChunk());
+        verify(outboxEventRepo, never()).markDelivered(any(), any());
+    }
+
+    private OutboxEvent outboxEvent(long id, Object event) throws Exception {
+        OutboxEvent outboxEvent = new OutboxEvent(EventNames.TRANSACTION, event.getClass().getName(),
+                objectMapper.writeValueAsString(event), Instant.now());
+        outboxEvent.setId(id);
+        return outboxEvent;
+    }
+}
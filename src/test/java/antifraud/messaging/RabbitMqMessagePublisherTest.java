@@ -0,0 +1,207 @@
+package antifraud.messaging;
+
+import antifraud.enums.EventNames;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RabbitMqMessagePublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitOperations operations;
+
+    @Mock
+    private DeadLetterBuffer deadLetters;
+
+    private final List<Object> sent = new ArrayList<>();
+    private final List<Object> nacked = new ArrayList<>();
+    private PublisherProperties properties;
+    private RabbitMqMessagePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PublisherProperties();
+        properties.setBatchSize(2);
+        properties.setConfirmTimeout(Duration.ofMillis(100));
+        properties.setBufferCapacity(10);
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ZERO);
+        publisher = new RabbitMqMessagePublisher(rabbitTemplate,
+                Map.of(EventNames.TRANSACTION, new Queue("transactionQueue", true)),
+                properties, deadLetters, new CircuitBreaker(2, Duration.ofMinutes(1)));
+
+        lenient().doAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(operations);
+        }).when(rabbitTemplate).invoke(any());
+
+        lenient().doAnswer(invocation -> {
+            Object payload = invocation.getArgument(2);
+            CorrelationData correlation = invocation.getArgument(3);
+            sent.add(payload);
+            boolean ack = !nacked.contains(payload);
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(operations).convertAndSend(eq(""), eq("transactionQueue"), any(), any(CorrelationData.class));
+    }
+
+    @Test
+    void shouldSendBufferedEventsInBatches() {
+        publisher.sendEvent(EventNames.TRANSACTION, "first");
+        publisher.sendEvent(EventNames.TRANSACTION, "second");
+        publisher.sendEvent(EventNames.TRANSACTION, "third");
+
+        publisher.flush();
+
+        assertEquals(List.of("first", "second", "third"), sent);
+        verify(rabbitTemplate, times(2)).invoke(any());
+    }
+
+    @Test
+    void shouldSendAllBatchesBeforeWaitingForConfirms() {
+        // The broker confirms nothing until the last batch is in, which only works if no batch waits alone
+        List<CorrelationData> unconfirmed = new ArrayList<>();
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(2));
+            unconfirmed.add(invocation.getArgument(3));
+            if ("third".equals(invocation.getArgument(2))) {
+                unconfirmed.forEach(correlation -> correlation.getFuture().complete(new CorrelationData.Confirm(true, null)));
+            }
+            return null;
+        }).when(operations).convertAndSend(eq(""), eq("transactionQueue"), any(), any(CorrelationData.class));
+        publisher.sendEvent(EventNames.TRANSACTION, "first");
+        publisher.sendEvent(EventNames.TRANSACTION, "second");
+        publisher.sendEvent(EventNames.TRANSACTION, "third");
+
+        publisher.flush();
+        publisher.flush();
+
+        assertEquals(List.of("first", "second", "third"), sent);
+        assertEquals(CircuitBreaker.State.CLOSED, publisher.circuitState());
+    }
+
+    @Test
+    void shouldRetryOnlyNackedEvents() {
+        nacked.add("second");
+        publisher.sendEvent(EventNames.TRANSACTION, "first");
+        publisher.sendEvent(EventNames.TRANSACTION, "second");
+
+        publisher.flush();
+        nacked.clear();
+        publisher.flush();
+
+        assertEquals(List.of("first", "second", "second"), sent);
+    }
+
+    @Test
+    void shouldDeadLetterEventAfterMaxAttempts() {
+        nacked.add("poison");
+        publisher.sendEvent(EventNames.TRANSACTION, "poison");
+        publisher.sendEvent(EventNames.TRANSACTION, "fine");
+
+        for (int i = 0; i < 5; i++) {
+            publisher.flush();
+        }
+
+        assertEquals(List.of("poison", "fine", "poison", "poison"), sent);
+        verify(deadLetters).add(eq("transactionQueue"), eq("poison"), anyString());
+    }
+
+    @Test
+    void shouldStopPublishingWhileBrokerIsDown() {
+        doThrow(new AmqpConnectException(new IOException("connection refused"))).when(rabbitTemplate).invoke(any());
+        publisher.sendEvent(EventNames.TRANSACTION, "first");
+
+        publisher.flush();
+        publisher.flush();
+        publisher.flush();
+
+        verify(rabbitTemplate, times(2)).invoke(any());
+        assertEquals(CircuitBreaker.State.OPEN, publisher.circuitState());
+        verify(deadLetters, never()).add(anyString(), any(), anyString());
+    }
+
+    @Test
+    void shouldNotSendAndConfirmWhileBreakerIsOpen() {
+        doThrow(new AmqpConnectException(new IOException("connection refused"))).when(rabbitTemplate).invoke(any());
+        publisher.sendAndConfirm(EventNames.TRANSACTION, List.of("a"));
+        publisher.sendAndConfirm(EventNames.TRANSACTION, List.of("b"));
+
+        boolean[] confirmed = publisher.sendAndConfirm(EventNames.TRANSACTION, List.of("c"));
+
+        assertFalse(confirmed[0]);
+        verify(rabbitTemplate, times(2)).invoke(any());
+    }
+
+    @Test
+    void shouldReopenBreakerWhenHalfOpenTrialFailsUnexpectedly() {
+        long[] now = {0};
+        publisher = new RabbitMqMessagePublisher(rabbitTemplate,
+                Map.of(EventNames.TRANSACTION, new Queue("transactionQueue", true)),
+                properties, deadLetters, new CircuitBreaker(1, Duration.ofMinutes(1), () -> now[0]));
+        doThrow(new AmqpConnectException(new IOException("connection refused"))).when(rabbitTemplate).invoke(any());
+        publisher.sendAndConfirm(EventNames.TRANSACTION, List.of("a"));
+        now[0] += Duration.ofMinutes(1).toNanos();
+
+        doThrow(new IllegalStateException("unexpected")).when(rabbitTemplate).invoke(any());
+        boolean[] confirmed = publisher.sendAndConfirm(EventNames.TRANSACTION, List.of("b"));
+
+        assertFalse(confirmed[0]);
+        assertEquals(CircuitBreaker.State.OPEN, publisher.circuitState());
+    }
+
+    @Test
+    void shouldSendScheduledRetriesOnceOnStop() throws InterruptedException {
+        properties.setMaxDelay(Duration.ofMinutes(1));
+        properties.setInitialBackoff(Duration.ofMinutes(1));
+        publisher.start();
+        nacked.add("poison");
+        nacked.add("late");
+        publisher.sendEvent(EventNames.TRANSACTION, "poison");
+        publisher.sendEvent(EventNames.TRANSACTION, "late");
+        publisher.flush();
+        nacked.remove("late");
+
+        publisher.stop();
+
+        assertEquals(List.of("poison", "late", "poison", "late"), sent);
+        verify(deadLetters).add(eq("transactionQueue"), eq("poison"), anyString());
+        verify(deadLetters, never()).add(anyString(), eq("late"), anyString());
+    }
+
+    @Test
+    void shouldRejectUnknownEventType() {
+        assertThrows(IllegalArgumentException.class, () -> publisher.sendEvent(EventNames.USER, "event"));
+        verify(operations, never()).convertAndSend(anyString(), anyString(), any(), any(CorrelationData.class));
+    }
+}
@@ -0,0 +1,156 @@
+package antifraud.messaging;
+
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.dto.response.TransactionResponseDTO;
+import antifraud.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIngestListenerTest {
+
+    private static final String BODY = """
+            {"amount": 150, "ip": "192.168.1.1", "number": "4000008449433403", "region": "EAP", "date": "2024-01-01T10:00:00"}
+            """;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private Channel channel;
+
+    private TransactionIngestListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new TransactionIngestListener(transactionService, rabbitTemplate,
+                new ObjectMapper().findAndRegisterModules(), validator, "decisions", "amqp-ingest");
+    }
+
+    @Test
+    void shouldReplyWithDecisionAndAckAfterProcessing() throws Exception {
+        when(transactionService.processTransaction(any(TransactionRequestDTO.class), eq("merchant")))
+                .thenReturn(new TransactionResponseDTO("ALLOWED", "none"));
+        Message message = message(BODY, "corr-1", "replies");
+        message.getMessageProperties().setReceivedUserId("merchant");
+
+        listener.onTransaction(message, channel);
+
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(""), eq("replies"), any(TransactionResponseDTO.class), postProcessor.capture());
+        Message reply = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertEquals("corr-1", reply.getMessageProperties().getCorrelationId());
+        assertEquals(200, (int) reply.getMessageProperties().getHeader(TransactionIngestListener.STATUS_HEADER));
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void shouldReplyWithErrorsAndAckInvalidTransaction() throws Exception {
+        @SuppressWarnings("unchecked")
+        ConstraintViolation<TransactionRequestDTO> violation = mock(ConstraintViolation.class);
+        Path path = mock(Path.class);
+        when(path.toString()).thenReturn("ip");
+        when(violation.getPropertyPath()).thenReturn(path);
+        when(violation.getMessage()).thenReturn("Invalid IP address");
+        when(validator.validate(any(TransactionRequestDTO.class))).thenReturn(Set.of(violation));
+
+        listener.onTransaction(message(BODY, "corr-2", null), channel);
+
+        verify(rabbitTemplate).convertAndSend(eq(""), eq("decisions"), any(Object.class), any(MessagePostProcessor.class));
+        verify(transactionService, never()).processTransaction(any(), anyString());
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void shouldAckMalformedMessageWithoutProcessing() throws Exception {
+        listener.onTransaction(message("not json", "corr-3", null), channel);
+
+        verify(rabbitTemplate).convertAndSend(eq(""), eq("decisions"),
+                eq(Map.of("message", TransactionIngestListener.MALFORMED_MESSAGE)), any(MessagePostProcessor.class));
+        verify(transactionService, never()).processTransaction(any(), anyString());
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void shouldIgnoreClientSuppliedMerchantHeader() throws Exception {
+        when(transactionService.processTransaction(any(TransactionRequestDTO.class), eq("amqp-ingest")))
+                .thenReturn(new TransactionResponseDTO("ALLOWED", "none"));
+        Message message = message(BODY, "corr-5", null);
+        message.getMessageProperties().setHeader("x-merchant", "someone-else");
+
+        listener.onTransaction(message, channel);
+
+        verify(transactionService).processTransaction(any(TransactionRequestDTO.class), eq("amqp-ingest"));
+    }
+
+    @Test
+    void shouldAckSavedTransactionWhenReplyFails() throws Exception {
+        when(transactionService.processTransaction(any(TransactionRequestDTO.class), eq("amqp-ingest")))
+                .thenReturn(new TransactionResponseDTO("ALLOWED", "none"));
+        doThrow(new AmqpConnectException(new IOException("broker gone")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class));
+
+        listener.onTransaction(message(BODY, "corr-6", null), channel);
+
+        verify(channel).basicAck(7L, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void shouldRequeueWhenProcessingFails() throws Exception {
+        when(transactionService.processTransaction(any(TransactionRequestDTO.class), eq("amqp-ingest")))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        listener.onTransaction(message(BODY, "corr-4", null), channel);
+
+        verify(channel).basicNack(7L, false, true);
+        verify(channel, never()).basicAck(7L, false);
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    private static Message message(String body, String correlationId, String replyTo) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(7L);
+        properties.setCorrelationId(correlationId);
+        properties.setReplyTo(replyTo);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,131 @@
+package antifraud.messaging.codec;
+
+import antifraud.dto.response.TransactionResponseDTO;
+import antifraud.logging.events.antifraud.SuspiciousIpAddedEvent;
+import antifraud.logging.events.authentication.CredentialStuffingDetectedEvent;
+import antifraud.logging.events.authentication.FailedLoginEvent;
+import antifraud.logging.events.transaction.FeedbackAddedEvent;
+import antifraud.logging.events.transaction.FraudulentTransactionDetectedEvent;
+import antifraud.logging.events.transaction.TransactionCreatedEvent;
+import antifraud.logging.events.user.UserLockedStatusChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventCodecTest {
+
+    private final EventCodec codec = new EventCodec();
+
+    @Test
+    void shouldRoundTripEvents() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+        Stream.of(
+                new TransactionCreatedEvent(42, 150, "ALLOWED", "merchant"),
+                new FraudulentTransactionDetectedEvent(43, List.of("amount", "ip-correlation", "unknown-reason")),
+                new FeedbackAddedEvent(44, "PROHIBITED", null),
+                new FailedLoginEvent("merchant", "192.168.1.1", timestamp),
+                new CredentialStuffingDetectedEvent("10.0.0.1", 25, 12, timestamp),
+                new SuspiciousIpAddedEvent("10.0.0.2"),
+                new UserLockedStatusChangeEvent("merchant", true)
+        ).forEach(event -> assertEquals(event, codec.decode(codec.encode(event))));
+    }
+
+    @Test
+    void shouldWriteKnownCodesAndRepeatedStringsAsIndexes() {
+        byte[] encoded = codec.encode(new FraudulentTransactionDetectedEvent(1, List.of("amount", "card-number", "ip")));
+
+        // version, tag, id, list size and one byte per reason
+        assertEquals(7, encoded.length);
+        assertEquals(EventCodec.VERSION, encoded[0]);
+
+        byte[] repeated = codec.encode(new TransactionCreatedEvent(1, 1, "ALLOWED", "merchant"));
+        byte[] twice = codec.encode(new FeedbackAddedEvent(1, "merchant", "merchant"));
+        assertTrue(twice.length < repeated.length + "merchant".length());
+    }
+
+    @Test
+    void shouldBeSmallerThanJson() throws Exception {
+        TransactionCreatedEvent event = new TransactionCreatedEvent(123456, 1500, "MANUAL_PROCESSING", "merchant");
+
+        int json = new ObjectMapper().writeValueAsBytes(event).length;
+        assertTrue(codec.encode(event).length * 3 < json);
+    }
+
+    @Test
+    void shouldRejectUnknownVersion() {
+        byte[] encoded = codec.encode(new SuspiciousIpAddedEvent("10.0.0.2"));
+        encoded[0] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    void shouldRejectReferenceToStringNotYetSeen() {
+        byte[] encoded = Arrays.copyOf(codec.encode(new SuspiciousIpAddedEvent("10.0.0.2")), 4);
+        // Odd varint 201 refers to string table entry 100, which this message never defined
+        encoded[2] = (byte) 0xC9;
+        encoded[3] = 0x01;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    void shouldRejectStringListLongerThanTheEvent() {
+        byte[] empty = codec.encode(new FraudulentTransactionDetectedEvent(43, List.of()));
+        byte[] encoded = Arrays.copyOf(empty, empty.length + 3);
+        // Replace the list size with a varint of 2^28 - 1 that no remaining bytes can back
+        encoded[empty.length - 1] = (byte) 0xFF;
+        encoded[empty.length] = (byte) 0xFF;
+        encoded[empty.length + 1] = (byte) 0xFF;
+        encoded[empty.length + 2] = 0x7F;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    void shouldRejectTimestampOutOfRange() {
+        byte[] valid = codec.encode(new FailedLoginEvent("merchant", "192.168.1.1", LocalDateTime.of(2024, 5, 1, 12, 30)));
+        byte[] encoded = Arrays.copyOf(valid, valid.length + 4);
+        // Replace the trailing zero nanos with a varint of 10^9, one past the largest nano-of-second
+        long nanos = 1_000_000_000L;
+        for (int i = valid.length - 1; i < encoded.length; i++, nanos >>>= 7) {
+            encoded[i] = (byte) (nanos >= 0x80 ? (nanos & 0x7F) | 0x80 : nanos);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    void shouldFallBackToJsonForOtherPayloads() {
+        EventMessageConverter converter = new EventMessageConverter(codec, new Jackson2JsonMessageConverter(), true);
+
+        Message event = converter.toMessage(new TransactionCreatedEvent(1, 100, "ALLOWED", "merchant"), new MessageProperties());
+        Message reply = converter.toMessage(new TransactionResponseDTO("ALLOWED", "none"), new MessageProperties());
+
+        assertEquals(EventMessageConverter.CONTENT_TYPE, event.getMessageProperties().getContentType());
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, reply.getMessageProperties().getContentType());
+        assertEquals(new TransactionCreatedEvent(1, 100, "ALLOWED", "merchant"), converter.fromMessage(event));
+        assertFalse(codec.supports(TransactionResponseDTO.class));
+    }
+
+    @Test
+    void shouldWriteJsonWhenBinaryIsDisabled() {
+        EventMessageConverter converter = new EventMessageConverter(codec, new Jackson2JsonMessageConverter(), false);
+
+        Message message = converter.toMessage(new SuspiciousIpAddedEvent("10.0.0.2"), new MessageProperties());
+
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+    }
+}
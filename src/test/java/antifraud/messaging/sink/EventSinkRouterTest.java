@@ -0,0 +1,59 @@
+package antifraud.messaging.sink;
+
+import antifraud.enums.EventNames;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventSinkRouterTest {
+
+    @Test
+    void shouldRouteCategoriesToConfiguredSinks() {
+        EventSinkProperties properties = new EventSinkProperties();
+        properties.getMemory().setCapacity(4);
+        properties.getSinks().setDefaultSink(InMemoryEventSink.NAME);
+        properties.getSinks().getCategories().put(EventNames.USER, "other");
+        InMemoryEventSink memory = new InMemoryEventSink(properties);
+        InMemoryEventSink other = new InMemoryEventSink(properties) {
+            @Override
+            public String name() {
+                return "other";
+            }
+        };
+
+        EventSinkRouter router = new EventSinkRouter(List.of(memory, other), properties);
+        router.publish(EventNames.TRANSACTION, "created");
+        router.publish(EventNames.USER, "registered");
+
+        assertSame(other, router.sinkFor(EventNames.USER));
+        assertEquals(List.of("created"), memory.snapshot().stream().map(InMemoryEventSink.StoredEvent::event).toList());
+        assertEquals(List.of("registered"), other.snapshot().stream().map(InMemoryEventSink.StoredEvent::event).toList());
+    }
+
+    @Test
+    void shouldFailOnUnknownSink() {
+        EventSinkProperties properties = new EventSinkProperties();
+        properties.getSinks().setDefaultSink("kafka");
+
+        assertThrows(IllegalStateException.class,
+                () -> new EventSinkRouter(List.of(new InMemoryEventSink(properties)), properties));
+    }
+
+    @Test
+    void shouldKeepOnlyLatestEventsInRingBuffer() {
+        EventSinkProperties properties = new EventSinkProperties();
+        properties.getMemory().setCapacity(4);
+        InMemoryEventSink sink = new InMemoryEventSink(properties);
+
+        for (int i = 0; i < 6; i++) {
+            sink.publish(EventNames.ANTIFRAUD, i);
+        }
+
+        assertEquals(List.of(2, 3, 4, 5), sink.snapshot().stream().map(InMemoryEventSink.StoredEvent::event).toList());
+        assertEquals(6, sink.published());
+    }
+}
@@ -0,0 +1,94 @@
+package antifraud.messaging.sink;
+
+import antifraud.enums.EventNames;
+import antifraud.logging.events.transaction.TransactionCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalEventSinkTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EventSinkProperties properties;
+    private JournalEventSink sink;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EventSinkProperties();
+        properties.getJournal().setDirectory(directory);
+        properties.getJournal().setSegmentSize(DataSize.ofBytes(512));
+        sink = new JournalEventSink(properties, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        sink.close();
+    }
+
+    @Test
+    void shouldReplayEventsInOrderAcrossSegments() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            sink.publish(EventNames.TRANSACTION, new TransactionCreatedEvent(i, 100L * i, "ALLOWED", "merchant"));
+        }
+
+        List<TransactionCreatedEvent> replayed = replay(sink);
+
+        assertEquals(10, replayed.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, replayed.get(i).transactionId());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 1, "Events should have rolled over into several segments");
+        }
+    }
+
+    @Test
+    void shouldContinueExistingJournalAfterRestart() throws Exception {
+        sink.publish(EventNames.TRANSACTION, new TransactionCreatedEvent(1, 100, "ALLOWED", "merchant"));
+        sink.close();
+
+        sink = new JournalEventSink(properties, objectMapper);
+        sink.publish(EventNames.TRANSACTION, new TransactionCreatedEvent(2, 200, "ALLOWED", "merchant"));
+
+        List<TransactionCreatedEvent> replayed = replay(sink);
+        assertEquals(List.of(1L, 2L), replayed.stream().map(TransactionCreatedEvent::transactionId).toList());
+    }
+
+    @Test
+    void shouldReportBatchAcceptedOnceWritten() {
+        boolean[] accepted = sink.publishAll(EventNames.TRANSACTION, List.of(
+                new TransactionCreatedEvent(1, 100, "ALLOWED", "merchant"),
+                new TransactionCreatedEvent(2, 200, "ALLOWED", "merchant")));
+
+        assertArrayEquals(new boolean[]{true, true}, accepted);
+        assertEquals(List.of(1L, 2L), replay(sink).stream().map(TransactionCreatedEvent::transactionId).toList());
+    }
+
+    private List<TransactionCreatedEvent> replay(JournalEventSink journal) {
+        List<TransactionCreatedEvent> events = new ArrayList<>();
+        journal.replay(record -> {
+            try {
+                events.add(objectMapper.readValue(record.payload(), TransactionCreatedEvent.class));
+            } catch (Exception ex) {
+                throw new AssertionError(ex);
+            }
+        });
+        return events;
+    }
+}
@@ -0,0 +1,61 @@
+package antifraud.model;
+
+import antifraud.model.converter.CardNumberConverter;
+import antifraud.model.converter.EpochMillisConverter;
+import antifraud.model.converter.IpAddressConverter;
+import antifraud.model.converter.RegionConverter;
+import antifraud.model.converter.TransactionTypeConverter;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionConverterTest {
+
+    private final IpAddressConverter ipConverter = new IpAddressConverter();
+    private final CardNumberConverter cardConverter = new CardNumberConverter();
+
+    @Test
+    void shouldPackIpv4IntoFourBytes() {
+        byte[] packed = ipConverter.convertToDatabaseColumn("192.168.0.1");
+
+        assertArrayEquals(new byte[]{(byte) 192, (byte) 168, 0, 1}, packed);
+        assertEquals("192.168.0.1", ipConverter.convertToEntityAttribute(packed));
+    }
+
+    @Test
+    void shouldPackIpv6IntoSixteenBytes() {
+        byte[] packed = ipConverter.convertToDatabaseColumn("2001:db8:85a3:0:0:8a2e:370:7334");
+
+        assertEquals(16, packed.length);
+        assertEquals("2001:db8:85a3:0:0:8a2e:370:7334", ipConverter.convertToEntityAttribute(packed));
+    }
+
+    @Test
+    void shouldRejectMalformedIp() {
+        assertThrows(IllegalArgumentException.class, () -> ipConverter.convertToDatabaseColumn("192.168.0.256"));
+        assertThrows(IllegalArgumentException.class, () -> ipConverter.convertToDatabaseColumn("1.1.1"));
+    }
+
+    @Test
+    void shouldKeepLeadingZerosOfCardNumber() {
+        Long stored = cardConverter.convertToDatabaseColumn("0000008449433403");
+
+        assertEquals(8449433403L, stored);
+        assertEquals("0000008449433403", cardConverter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void shouldRoundTripEnumsAndDates() {
+        RegionConverter regionConverter = new RegionConverter();
+        TransactionTypeConverter typeConverter = new TransactionTypeConverter();
+        EpochMillisConverter dateConverter = new EpochMillisConverter();
+        LocalDateTime date = LocalDateTime.parse("2023-12-08T10:15:30");
+
+        assertEquals("MENA", regionConverter.convertToEntityAttribute(regionConverter.convertToDatabaseColumn("MENA")));
+        assertEquals("PROHIBITED", typeConverter.convertToEntityAttribute(typeConverter.convertToDatabaseColumn("PROHIBITED")));
+        assertNull(typeConverter.convertToDatabaseColumn(null));
+        assertEquals(date, dateConverter.convertToEntityAttribute(dateConverter.convertToDatabaseColumn(date)));
+    }
+}
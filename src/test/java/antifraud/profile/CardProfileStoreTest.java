@@ -0,0 +1,150 @@
+package antifraud.profile;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.RegionNames;
+import antifraud.enums.TransactionType;
+import antifraud.utils.IpAddressParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardProfileStoreTest {
+
+    private static final long CARD = 4000008449433403L;
+    private static final long START = 1_700_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldKeepRunningMeanVarianceAndRegions() {
+        CardProfileStore store = new CardProfileStore(new CardProfileProperties());
+        store.apply(transaction(100, RegionNames.EAP, START));
+        store.apply(transaction(200, RegionNames.EAP, START + 100));
+        store.apply(transaction(300, RegionNames.MENA, START + 300));
+
+        CardProfileStore.CardProfile profile = store.profile(CARD);
+        assertEquals(3, profile.count());
+        assertEquals(200.0, profile.mean(), 1e-9);
+        assertEquals(10_000.0, profile.variance(), 1e-9);
+        assertEquals(0.2 * 200 + 0.8 * 100, profile.meanInterArrival(), 1e-9);
+        assertEquals(1L << RegionNames.EAP.ordinal() | 1L << RegionNames.MENA.ordinal(), profile.regions());
+        assertNull(store.profile(CARD + 1));
+    }
+
+    @Test
+    void shouldFlagAmountsFarAboveTheCardsMean() {
+        CardProfileStore store = new CardProfileStore(new CardProfileProperties());
+        for (int i = 0; i < 10; i++) {
+            store.apply(transaction(i % 2 == 0 ? 90 : 110, RegionNames.EAP, START + i));
+        }
+
+        List<String> reasons = new ArrayList<>();
+        assertEquals(TransactionType.ALLOWED,
+                store.evaluate(transaction(140, RegionNames.EAP, START + 20), reasons, TransactionType.ALLOWED));
+        assertEquals(TransactionType.MANUAL_PROCESSING,
+                store.evaluate(transaction(200, RegionNames.EAP, START + 20), reasons, TransactionType.ALLOWED));
+        assertEquals(List.of("amount-profile"), reasons);
+    }
+
+    @Test
+    void shouldIgnoreCardsWithoutEnoughHistory() {
+        CardProfileStore store = new CardProfileStore(new CardProfileProperties());
+        for (int i = 0; i < 9; i++) {
+            store.apply(transaction(100, RegionNames.EAP, START + i));
+        }
+
+        assertEquals(TransactionType.ALLOWED, store.evaluate(transaction(100_000, RegionNames.EAP, START + 20),
+                new ArrayList<>(), TransactionType.ALLOWED));
+    }
+
+    @Test
+    void shouldRestoreProfilesFromSnapshot() {
+        CardProfileProperties properties = new CardProfileProperties();
+        properties.setSnapshotFile(directory.resolve("profiles.bin").toString());
+        properties.setInitialCapacity(2);
+        CardProfileStore store = new CardProfileStore(properties);
+        for (int i = 0; i < 100; i++) {
+            store.apply(new ParsedTransaction(100 + i, CARD + i % 20, IpAddressParser.parse("10.0.0.1"),
+                    RegionNames.SSA, START + i));
+        }
+
+        store.snapshot();
+        CardProfileStore restored = new CardProfileStore(properties);
+
+        assertEquals(20, restored.size());
+        assertEquals(store.profile(CARD + 7), restored.profile(CARD + 7));
+    }
+
+    @Test
+    void shouldStartEmptyFromTruncatedSnapshot() throws Exception {
+        Path file = directory.resolve("profiles.bin");
+        CardProfileProperties properties = new CardProfileProperties();
+        properties.setSnapshotFile(file.toString());
+        CardProfileStore store = new CardProfileStore(properties);
+        store.apply(transaction(100, RegionNames.EAP, START));
+        store.snapshot();
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertEquals(0, new CardProfileStore(properties).size());
+    }
+
+    @Test
+    void shouldEvictProfilesIdleForTheTtl() {
+        CardProfileProperties properties = new CardProfileProperties();
+        properties.setIdleTtl(Duration.ofDays(1));
+        long now = START + Duration.ofDays(2).toSeconds();
+        CardProfileStore store = new CardProfileStore(properties, clockAt(now));
+        store.apply(transaction(CARD, 100, START));
+        store.apply(transaction(CARD + 1, 200, now - 60));
+        store.apply(transaction(CARD + 2, 300, now - 30));
+
+        store.evictIdleProfiles();
+
+        assertEquals(2, store.size());
+        assertNull(store.profile(CARD));
+        assertEquals(200.0, store.profile(CARD + 1).mean(), 1e-9);
+        assertEquals(300.0, store.profile(CARD + 2).mean(), 1e-9);
+
+        store.apply(transaction(CARD, 50, now));
+        CardProfileStore.CardProfile restarted = store.profile(CARD);
+        assertEquals(1, restarted.count());
+        assertEquals(50.0, restarted.mean(), 1e-9);
+    }
+
+    @Test
+    void shouldCountFutureDatedTransactionAsNow() {
+        CardProfileProperties properties = new CardProfileProperties();
+        properties.setIdleTtl(Duration.ofDays(1));
+        CardProfileStore store = new CardProfileStore(properties, clockAt(START));
+        store.apply(transaction(CARD, 100, LocalDateTime.of(2099, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC)));
+
+        assertEquals(START, store.profile(CARD).lastSeen());
+    }
+
+    private static Clock clockAt(long epochSecond) {
+        return Clock.fixed(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+
+    private static ParsedTransaction transaction(long amount, RegionNames region, long epochSecond) {
+        return new ParsedTransaction(amount, CARD, IpAddressParser.parse("10.0.0.1"), region, epochSecond);
+    }
+
+    private static ParsedTransaction transaction(long card, long amount, long epochSecond) {
+        return new ParsedTransaction(amount, card, IpAddressParser.parse("10.0.0.1"), RegionNames.EAP, epochSecond);
+    }
+}
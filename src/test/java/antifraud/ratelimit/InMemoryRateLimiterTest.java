@@ -0,0 +1,68 @@
+package antifraud.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRateLimiterTest {
+
+    private static final RateLimitProperties.Limit LIMIT = new RateLimitProperties.Limit(3, 1, Duration.ofSeconds(1));
+
+    private AtomicLong clock;
+    private InMemoryRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000_000L);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIdleBucketTtl(Duration.ofMinutes(1));
+        rateLimiter = new InMemoryRateLimiter(properties, clock::get);
+    }
+
+    @Test
+    void shouldAllowBurstUpToCapacity() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("merchant", LIMIT));
+        }
+
+        long wait = rateLimiter.tryAcquire("merchant", LIMIT);
+        assertEquals(Duration.ofSeconds(1).toNanos(), wait);
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("merchant", LIMIT);
+        }
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertEquals(0, rateLimiter.tryAcquire("merchant", LIMIT));
+        assertTrue(rateLimiter.tryAcquire("merchant", LIMIT) > 0);
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerKey() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("transaction:user:merchant", LIMIT);
+        }
+
+        assertEquals(0, rateLimiter.tryAcquire("transaction:user:other", LIMIT));
+        assertEquals(0, rateLimiter.tryAcquire("default:user:merchant", LIMIT));
+    }
+
+    @Test
+    void shouldEvictIdleBuckets() {
+        rateLimiter.tryAcquire("merchant", LIMIT);
+        rateLimiter.evictIdleBuckets();
+        assertEquals(1, rateLimiter.bucketCount());
+
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        rateLimiter.evictIdleBuckets();
+        assertEquals(0, rateLimiter.bucketCount());
+    }
+}
@@ -0,0 +1,133 @@
+package antifraud.rules;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.RegionNames;
+import antifraud.enums.TransactionType;
+import antifraud.utils.IpAddressParser;
+import antifraud.velocity.VelocityEngine;
+import antifraud.velocity.VelocityField;
+import antifraud.velocity.VelocityProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleCompilerTest {
+
+    private static final long CARD = 4000008449433403L;
+    private static final long START = 1_700_000_000L;
+
+    private final VelocityEngine velocityEngine = new VelocityEngine(trackedProperties());
+    private final RuleCompiler compiler = new RuleCompiler(velocityEngine);
+
+    @Test
+    void shouldFireRuleWhenAllConditionsHold() {
+        CompiledRuleSet ruleSet = compiler.compile("""
+                rules:
+                  - name: high amount from risky region
+                    action: PROHIBITED
+                    when:
+                      - amount > 1000
+                      - region in [MENA, SSA]
+                """, "test", 1);
+
+        assertEquals(List.of("high amount from risky region"), fired(ruleSet, transaction(1001, RegionNames.MENA, START)));
+        assertTrue(fired(ruleSet, transaction(1000, RegionNames.MENA, START)).isEmpty());
+        assertTrue(fired(ruleSet, transaction(1001, RegionNames.EAP, START)).isEmpty());
+    }
+
+    @Test
+    void shouldOnlyUpgradeAllowedForManualRules() {
+        CompiledRuleSet ruleSet = compiler.compile("""
+                rules:
+                  - name: night
+                    action: manual_processing
+                    when: hour >= 22
+                """, "test", 1);
+
+        List<String> reasons = new ArrayList<>();
+        assertEquals(TransactionType.MANUAL_PROCESSING,
+                ruleSet.evaluate(transaction(10, RegionNames.EAP, START), reasons, TransactionType.ALLOWED));
+        assertEquals(TransactionType.PROHIBITED,
+                ruleSet.evaluate(transaction(10, RegionNames.EAP, START), reasons, TransactionType.PROHIBITED));
+    }
+
+    @Test
+    void shouldReadWindowAggregatesFromVelocityEngine() {
+        CompiledRuleSet ruleSet = compiler.compile("""
+                rules:
+                  - name: card burst across regions
+                    action: PROHIBITED
+                    when:
+                      - count(card, 10m) >= 3
+                      - distinct(card, region, 1h) > 1
+                """, "test", 1);
+
+        velocityEngine.record(transaction(100, RegionNames.EAP, START));
+        assertTrue(fired(ruleSet, transaction(100, RegionNames.ECA, START + 10)).isEmpty());
+
+        velocityEngine.record(transaction(100, RegionNames.EAP, START + 20));
+        assertTrue(fired(ruleSet, transaction(100, RegionNames.EAP, START + 30)).isEmpty());
+        assertEquals(1, fired(ruleSet, transaction(100, RegionNames.ECA, START + 30)).size());
+    }
+
+    @Test
+    void shouldReportEveryError() {
+        RuleDefinitionException ex = assertThrows(RuleDefinitionException.class, () -> compiler.compile("""
+                rules:
+                  - name: broken
+                    action: BLOCK
+                    when:
+                      - amount >> 5
+                      - region > MENA
+                      - count(card, 5m) > 1
+                      - sum(ip, 1h) > 1
+                      - distinct(card, ip, 1h) > 1
+                  - action: PROHIBITED
+                    when: amount > 1
+                """, "test", 1));
+
+        assertEquals(List.of(
+                "Rule 'broken': action must be MANUAL_PROCESSING or PROHIBITED",
+                "Rule 'broken': 'amount >> 5': '> 5' is not a whole number",
+                "Rule 'broken': 'region > MENA': regions only support == != in and not in",
+                "Rule 'broken': 'count(card, 5m) > 1': window 5m is not one of velocity.windows",
+                "Rule 'broken': 'sum(ip, 1h) > 1': no counters are kept per ip; add it to velocity.track",
+                "Rule 'broken': 'distinct(card, ip, 1h) > 1': distinct ip values are not tracked per card; add it to velocity.track",
+                "Rule #2: name is required"
+        ), ex.getErrors());
+    }
+
+    @Test
+    void shouldSkipDisabledRules() {
+        CompiledRuleSet ruleSet = compiler.compile("""
+                rules:
+                  - name: off
+                    action: PROHIBITED
+                    enabled: false
+                    when: amount > 0
+                """, "test", 1);
+
+        assertEquals(0, ruleSet.size());
+        assertTrue(fired(ruleSet, transaction(10, RegionNames.EAP, START)).isEmpty());
+    }
+
+    private static List<String> fired(CompiledRuleSet ruleSet, ParsedTransaction transaction) {
+        List<String> reasons = new ArrayList<>();
+        ruleSet.evaluate(transaction, reasons, TransactionType.ALLOWED);
+        return reasons;
+    }
+
+    private static ParsedTransaction transaction(long amount, RegionNames region, long epochSecond) {
+        return new ParsedTransaction(amount, CARD, IpAddressParser.parse("10.0.0.1"), region, epochSecond);
+    }
+
+    private static VelocityProperties trackedProperties() {
+        VelocityProperties properties = new VelocityProperties();
+        properties.getTrack().putAll(Map.of(VelocityField.CARD, List.of(VelocityField.REGION)));
+        return properties;
+    }
+}
@@ -0,0 +1,117 @@
+package antifraud.security;
+
+import antifraud.cache.CacheInvalidationBus;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CachedCredentialsFilterTest {
+
+    private static final String MERCHANT_HEADER = "Basic bWVyY2hhbnQ6c2VjcmV0";
+
+    private PrincipalCache principalCache;
+    private CachedCredentialsFilter filter;
+    private AtomicInteger authentications;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(mock(CacheInvalidationBus.class), 100, Duration.ofMinutes(5));
+        filter = new CachedCredentialsFilter(principalCache, 100, Duration.ofMinutes(1));
+        authentications = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Stands in for BasicAuthenticationFilter: authenticates only if nothing is in the context yet
+    private FilterChain authenticatingChain() {
+        return (request, response) -> {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                authentications.incrementAndGet();
+                SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        "merchant", "secret", AuthorityUtils.createAuthorityList("ROLE_MERCHANT")));
+            }
+        };
+    }
+
+    private Authentication send(String header) throws Exception {
+        return send(header, authenticatingChain());
+    }
+
+    private Authentication send(String header, FilterChain chain) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/antifraud/transaction");
+        if (header != null) {
+            request.addHeader("Authorization", header);
+        }
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void shouldReuseVerifiedCredentials() throws Exception {
+        send(MERCHANT_HEADER);
+        Authentication second = send(MERCHANT_HEADER);
+
+        assertEquals(1, authentications.get());
+        assertEquals("merchant", second.getName());
+        assertTrue(second.isAuthenticated());
+        assertNull(second.getCredentials());
+    }
+
+    @Test
+    void shouldNotShareEntriesBetweenDifferentHeaders() throws Exception {
+        send(MERCHANT_HEADER);
+        send("Basic bWVyY2hhbnQ6d3Jvbmc=");
+
+        assertEquals(2, authentications.get());
+    }
+
+    @Test
+    void shouldIgnoreRequestsWithoutBasicCredentials() throws Exception {
+        send(null);
+        send(null);
+
+        assertEquals(2, authentications.get());
+    }
+
+    @Test
+    void shouldForgetCredentialsWhenPrincipalIsInvalidated() throws Exception {
+        send(MERCHANT_HEADER);
+
+        principalCache.invalidate("merchant");
+        send(MERCHANT_HEADER);
+
+        assertEquals(2, authentications.get());
+    }
+
+    @Test
+    void shouldNotCacheCredentialsInvalidatedWhileAuthenticating() throws Exception {
+        FilterChain chain = authenticatingChain();
+        send(MERCHANT_HEADER, (request, response) -> {
+            chain.doFilter(request, response);
+            // The user is locked while their request is still in flight
+            principalCache.invalidate("merchant");
+        });
+
+        send(MERCHANT_HEADER);
+
+        assertEquals(2, authentications.get());
+    }
+}
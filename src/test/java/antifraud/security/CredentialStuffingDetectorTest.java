@@ -0,0 +1,131 @@
+package antifraud.security;
+
+import antifraud.logging.events.authentication.CredentialStuffingDetectedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CredentialStuffingDetectorTest {
+
+    private static final String ATTACKER_IP = "203.0.113.7";
+
+    private ApplicationEventPublisher eventPublisher;
+    private AtomicLong clock;
+    private CredentialStuffingDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        clock = new AtomicLong(1_700_000_000_000L);
+        detector = new CredentialStuffingDetector(eventPublisher, Duration.ofMinutes(10), 20, 10,
+                Duration.ofMinutes(30), 1000, clock::get);
+    }
+
+    @Test
+    void shouldBlockIpSprayingManyUsernames() {
+        for (int i = 0; i < 20; i++) {
+            detector.recordFailure(ATTACKER_IP, "user" + i);
+        }
+
+        assertFalse(detector.remainingBlock(ATTACKER_IP).isZero());
+        assertTrue(detector.remainingBlock("198.51.100.1").isZero());
+
+        ArgumentCaptor<CredentialStuffingDetectedEvent> event = ArgumentCaptor.forClass(CredentialStuffingDetectedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ATTACKER_IP, event.getValue().ipAddress());
+        assertEquals(20, event.getValue().failedAttempts());
+        assertTrue(event.getValue().distinctUsernames() >= 18);
+    }
+
+    @Test
+    void shouldNotBlockRepeatedFailuresForOneUsername() {
+        for (int i = 0; i < 50; i++) {
+            detector.recordFailure(ATTACKER_IP, "merchant");
+        }
+
+        assertTrue(detector.remainingBlock(ATTACKER_IP).isZero());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldOnlyCountFailuresWithinWindow() {
+        for (int i = 0; i < 15; i++) {
+            detector.recordFailure(ATTACKER_IP, "user" + i);
+        }
+        clock.addAndGet(Duration.ofMinutes(11).toMillis());
+        for (int i = 15; i < 30; i++) {
+            detector.recordFailure(ATTACKER_IP, "user" + i);
+        }
+
+        assertTrue(detector.remainingBlock(ATTACKER_IP).isZero());
+    }
+
+    @Test
+    void shouldLiftBlockAfterBlockDuration() {
+        for (int i = 0; i < 20; i++) {
+            detector.recordFailure(ATTACKER_IP, "user" + i);
+        }
+
+        clock.addAndGet(Duration.ofMinutes(31).toMillis());
+
+        assertTrue(detector.remainingBlock(ATTACKER_IP).isZero());
+    }
+
+    @Test
+    void shouldTakeIpFromAuthenticationDetails() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(ATTACKER_IP);
+        WebAuthenticationDetails details = new WebAuthenticationDetails(request);
+
+        for (int i = 0; i < 20; i++) {
+            UsernamePasswordAuthenticationToken attempt = UsernamePasswordAuthenticationToken.unauthenticated("user" + i, "password");
+            attempt.setDetails(details);
+            detector.onAuthenticationFailure(new AuthenticationFailureBadCredentialsEvent(attempt, new BadCredentialsException("Bad credentials")));
+        }
+
+        assertFalse(detector.remainingBlock(ATTACKER_IP).isZero());
+    }
+
+    @Test
+    void filterShouldRejectBlockedIpBeforeAuthentication() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            detector.recordFailure(ATTACKER_IP, "user" + i);
+        }
+        CredentialStuffingFilter filter = new CredentialStuffingFilter(detector);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/token");
+        request.setRemoteAddr(ATTACKER_IP);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1800", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void hyperLogLogShouldEstimateDistinctCount() {
+        HyperLogLog hll = new HyperLogLog(10);
+        for (int i = 0; i < 10_000; i++) {
+            hll.add("user" + (i % 5_000));
+        }
+
+        long estimate = hll.estimate();
+        assertTrue(estimate > 4_500 && estimate < 5_500, "estimate: " + estimate);
+    }
+}
@@ -0,0 +1,69 @@
+package antifraud.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryLoginAttemptTrackerTest {
+
+    private AtomicLong clock;
+    private InMemoryLoginAttemptTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000L);
+        tracker = new InMemoryLoginAttemptTracker(5, Duration.ofMinutes(15), 1000, clock::get);
+    }
+
+    @Test
+    void shouldCountFailuresWithinWindow() {
+        assertEquals(1, tracker.recordFailure("merchant"));
+        assertEquals(2, tracker.recordFailure("merchant"));
+        assertEquals(1, tracker.recordFailure("support"));
+        assertEquals(3, tracker.recordFailure("merchant"));
+    }
+
+    @Test
+    void shouldForgetFailuresOutsideWindow() {
+        tracker.recordFailure("merchant");
+        tracker.recordFailure("merchant");
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        tracker.recordFailure("merchant");
+        clock.addAndGet(Duration.ofMinutes(6).toMillis());
+
+        assertEquals(2, tracker.recordFailure("merchant"));
+    }
+
+    @Test
+    void shouldReachThresholdOnlyWithinWindow() {
+        for (int i = 0; i < 4; i++) {
+            tracker.recordFailure("merchant");
+            clock.addAndGet(Duration.ofMinutes(5).toMillis());
+        }
+
+        assertEquals(3, tracker.recordFailure("merchant"));
+    }
+
+    @Test
+    void shouldCapCountAtThreshold() {
+        for (int i = 0; i < 10; i++) {
+            tracker.recordFailure("merchant");
+        }
+
+        assertEquals(5, tracker.recordFailure("merchant"));
+    }
+
+    @Test
+    void shouldResetAfterSuccessfulLogin() {
+        tracker.recordFailure("merchant");
+        tracker.recordFailure("merchant");
+
+        tracker.reset("merchant");
+
+        assertEquals(1, tracker.recordFailure("merchant"));
+    }
+}
@@ -0,0 +1,107 @@
+package antifraud.security;
+
+import antifraud.cache.CacheInvalidationBus;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS0zMi1ieXRlcyE=";
+
+    private JwtService jwtService;
+    private TokenDenylist denylist;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, Duration.ofMinutes(15));
+        denylist = new TokenDenylist(mock(CacheInvalidationBus.class), Duration.ofMinutes(15), 100);
+        filter = new JwtAuthenticationFilter(jwtService, denylist);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication send(String authorization) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/antifraud/transaction");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void shouldAuthenticateFromValidToken() throws Exception {
+        String token = jwtService.issue("merchant", AuthorityUtils.createAuthorityList("ROLE_MERCHANT"));
+
+        Authentication authentication = send("Bearer " + token);
+
+        assertNotNull(authentication);
+        assertEquals("merchant", authentication.getName());
+        assertTrue(authentication.isAuthenticated());
+        assertEquals(List.of("ROLE_MERCHANT"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void shouldIgnoreTamperedToken() throws Exception {
+        String token = jwtService.issue("merchant", AuthorityUtils.createAuthorityList("ROLE_MERCHANT"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(send("Bearer " + tampered));
+        assertNull(send("Bearer not-a-token"));
+    }
+
+    @Test
+    void shouldIgnoreTokenSignedWithAnotherKey() throws Exception {
+        JwtService otherInstance = new JwtService("", Duration.ofMinutes(15));
+        String token = otherInstance.issue("merchant", AuthorityUtils.createAuthorityList("ROLE_MERCHANT"));
+
+        assertNull(send("Bearer " + token));
+    }
+
+    @Test
+    void shouldIgnoreRevokedToken() throws Exception {
+        String token = jwtService.issue("merchant", AuthorityUtils.createAuthorityList("ROLE_MERCHANT"));
+
+        denylist.revoke("merchant");
+
+        assertNull(send("Bearer " + token));
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        Clock issuedClock = Clock.fixed(Instant.parse("2024-05-01T12:00:00Z"), ZoneOffset.UTC);
+        Clock laterClock = Clock.fixed(Instant.parse("2024-05-01T12:16:00Z"), ZoneOffset.UTC);
+        String token = new JwtService(SECRET, Duration.ofMinutes(15), issuedClock)
+                .issue("merchant", AuthorityUtils.createAuthorityList("ROLE_MERCHANT"));
+
+        assertThrows(ExpiredJwtException.class,
+                () -> new JwtService(SECRET, Duration.ofMinutes(15), laterClock).parse(token));
+    }
+
+    @Test
+    void shouldLeaveBasicAuthenticationToLaterFilters() throws Exception {
+        assertNull(send("Basic bWVyY2hhbnQ6c2VjcmV0"));
+    }
+}
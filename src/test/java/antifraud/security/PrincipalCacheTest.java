@@ -0,0 +1,113 @@
+package antifraud.security;
+
+import antifraud.cache.CacheInvalidationBus;
+import antifraud.logging.events.user.UserDeletedEvent;
+import antifraud.logging.events.user.UserLockedStatusChangeEvent;
+import antifraud.logging.events.user.UserRoleChangedEvent;
+import antifraud.model.AppUser;
+import antifraud.model.AppUserAdapter;
+import antifraud.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTest {
+
+    private CacheInvalidationBus invalidationBus;
+    private PrincipalCache principalCache;
+    private AppUser user;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        invalidationBus = mock(CacheInvalidationBus.class);
+        principalCache = new PrincipalCache(invalidationBus, 100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+
+        user = new AppUser("Test User", "testuser", "encodedPassword");
+        Role role = new Role();
+        role.setName("ROLE_MERCHANT");
+        user.getRoles().add(role);
+    }
+
+    private AppUserAdapter load(String username) {
+        loads.incrementAndGet();
+        return AppUserAdapter.snapshotOf(user);
+    }
+
+    @Test
+    void shouldLoadOncePerUsername() {
+        principalCache.get("testuser", this::load);
+        principalCache.get("testuser", this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldHoldDetachedSnapshot() {
+        AppUserAdapter adapter = principalCache.get("testuser", this::load);
+        user.setLocked(true);
+
+        assertTrue(adapter.isAccountNonLocked());
+        assertEquals("testuser", adapter.getUsername());
+        assertEquals("ROLE_MERCHANT", adapter.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void shouldInvalidateOnLockedStatusChange() {
+        principalCache.get("testuser", this::load);
+
+        principalCache.onUserLockedStatusChange(new UserLockedStatusChangeEvent("testuser", true));
+        principalCache.get("testuser", this::load);
+
+        assertEquals(2, loads.get());
+        verify(invalidationBus).publish("principals", "testuser");
+    }
+
+    @Test
+    void shouldInvalidateOnRoleChange() {
+        principalCache.get("testuser", this::load);
+
+        principalCache.onUserRoleChanged(new UserRoleChangedEvent(user, "MERCHANT", "SUPPORT"));
+        principalCache.get("testuser", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldInvalidateOnDeletion() {
+        principalCache.get("testuser", this::load);
+
+        principalCache.onUserDeleted(new UserDeletedEvent(user));
+        principalCache.get("testuser", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldInvalidateOnRemoteMessage() {
+        ArgumentCaptor<CacheInvalidationBus.CacheInvalidationHandler> handler =
+                ArgumentCaptor.forClass(CacheInvalidationBus.CacheInvalidationHandler.class);
+        verify(invalidationBus).register(handler.capture());
+        List<String> invalidated = new ArrayList<>();
+        principalCache.addInvalidationListener(invalidated::add);
+        principalCache.get("testuser", this::load);
+
+        handler.getValue().onRemoteInvalidation("users", "testuser");
+        principalCache.get("testuser", this::load);
+        handler.getValue().onRemoteInvalidation("principals", "testuser");
+        principalCache.get("testuser", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(List.of("testuser"), invalidated);
+        verify(invalidationBus, never()).publish(anyString(), any());
+    }
+}
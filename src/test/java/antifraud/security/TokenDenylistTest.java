@@ -0,0 +1,137 @@
+package antifraud.security;
+
+import antifraud.cache.CacheInvalidationBus;
+import antifraud.logging.events.user.UserDeletedEvent;
+import antifraud.logging.events.user.UserLockedStatusChangeEvent;
+import antifraud.logging.events.user.UserRoleChangedEvent;
+import antifraud.model.AppUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenDenylistTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    private CacheInvalidationBus invalidationBus;
+    private MutableClock clock;
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        invalidationBus = mock(CacheInvalidationBus.class);
+        clock = new MutableClock(NOW);
+        denylist = new TokenDenylist(invalidationBus, Duration.ofMinutes(15), 1000, clock);
+    }
+
+    @Test
+    void shouldRejectTokensIssuedBeforeRevocation() {
+        denylist.onUserLockedStatusChange(new UserLockedStatusChangeEvent("merchant", true));
+
+        assertTrue(denylist.isRevoked("merchant", NOW.getEpochSecond() - 60));
+        assertTrue(denylist.isRevoked("merchant", NOW.getEpochSecond()));
+        assertFalse(denylist.isRevoked("merchant", NOW.getEpochSecond() + 1));
+        assertFalse(denylist.isRevoked("other", NOW.getEpochSecond() - 60));
+        verify(invalidationBus).publish("token-denylist", "merchant");
+    }
+
+    @Test
+    void shouldIgnoreUnlocking() {
+        denylist.onUserLockedStatusChange(new UserLockedStatusChangeEvent("merchant", false));
+
+        assertFalse(denylist.isRevoked("merchant", NOW.getEpochSecond()));
+    }
+
+    @Test
+    void shouldRevokeOnRoleChangeAndDeletion() {
+        AppUser support = new AppUser("Support", "support", "password");
+        AppUser deleted = new AppUser("Deleted", "deleted", "password");
+
+        denylist.onUserRoleChanged(new UserRoleChangedEvent(support, "MERCHANT", "SUPPORT"));
+        denylist.onUserDeleted(new UserDeletedEvent(deleted));
+
+        assertTrue(denylist.isRevoked("support", NOW.getEpochSecond()));
+        assertTrue(denylist.isRevoked("deleted", NOW.getEpochSecond()));
+    }
+
+    @Test
+    void shouldApplyRevocationsFromOtherNodes() {
+        ArgumentCaptor<CacheInvalidationBus.CacheInvalidationHandler> handler =
+                ArgumentCaptor.forClass(CacheInvalidationBus.CacheInvalidationHandler.class);
+        verify(invalidationBus).register(handler.capture());
+
+        handler.getValue().onRemoteInvalidation("principals", "merchant");
+        assertFalse(denylist.isRevoked("merchant", NOW.getEpochSecond()));
+
+        handler.getValue().onRemoteInvalidation("token-denylist", "merchant");
+        assertTrue(denylist.isRevoked("merchant", NOW.getEpochSecond()));
+        verify(invalidationBus, never()).publish(anyString(), any());
+    }
+
+    @Test
+    void shouldPruneEntriesOlderThanTokenLifetime() {
+        denylist.revoke("merchant");
+        clock.advance(Duration.ofMinutes(10));
+        denylist.revoke("support");
+        clock.advance(Duration.ofMinutes(6));
+
+        denylist.prune();
+
+        assertEquals(1, denylist.size());
+        assertFalse(denylist.isRevoked("merchant", NOW.getEpochSecond()));
+        assertTrue(denylist.isRevoked("support", NOW.getEpochSecond()));
+    }
+
+    @Test
+    void bloomFilterShouldHaveNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+            if (filter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 50, "false positives: " + falsePositives);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -153,12 +153,12 @@ class AntiFraudServiceTest {
         List<SuspiciousIp> suspiciousIps = Arrays.asList(new SuspiciousIp("192.168.1.1"), new SuspiciousIp("192.168.1.2"));
         when(suspiciousIpRepo.findAllByOrderByIdAsc()).thenReturn(suspiciousIps);
 
-        ResponseEntity<List<SuspiciousIp>> response = antiFraudService.getSuspiciousIps();
+        List<SuspiciousIp> response = antiFraudService.getSuspiciousIps();
 
         assertNotNull(response);
-        assertEquals(2, response.getBody().size());
-        assertEquals("192.168.1.1", response.getBody().get(0).getIp());
-        assertEquals("192.168.1.2", response.getBody().get(1).getIp());
+        assertEquals(2, response.size());
+        assertEquals("192.168.1.1", response.get(0).getIp());
+        assertEquals("192.168.1.2", response.get(1).getIp());
         verify(suspiciousIpRepo, times(1)).findAllByOrderByIdAsc();
     }
 
@@ -167,12 +167,12 @@ class AntiFraudServiceTest {
         List<StolenCard> stolenCards = Arrays.asList(new StolenCard("1234567812345678"), new StolenCard("8765432187654321"));
         when(stolenCardRepo.findAllByOrderByIdAsc()).thenReturn(stolenCards);
 
-        ResponseEntity<List<StolenCard>> response = antiFraudService.getStolenCards();
+        List<StolenCard> response = antiFraudService.getStolenCards();
 
         assertNotNull(response);
-        assertEquals(2, response.getBody().size());
-        assertEquals("1234567812345678", response.getBody().get(0).getNumber());
-        assertEquals("8765432187654321", response.getBody().get(1).getNumber());
+        assertEquals(2, response.size());
+        assertEquals("1234567812345678", response.get(0).getNumber());
+        assertEquals("8765432187654321", response.get(1).getNumber());
         verify(stolenCardRepo, times(1)).findAllByOrderByIdAsc();
     }
 }
@@ -0,0 +1,58 @@
+package antifraud.service;
+
+import antifraud.model.StolenCard;
+import antifraud.model.SuspiciousIp;
+import antifraud.utils.IpAddressParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BlockListIndexTest {
+
+    @Mock
+    private AntiFraudService antiFraudService;
+
+    private BlockListIndex blockListIndex;
+
+    @BeforeEach
+    void setUp() {
+        blockListIndex = new BlockListIndex(antiFraudService);
+    }
+
+    @Test
+    void shouldMatchListedIpsOfBothFamilies() {
+        when(antiFraudService.getSuspiciousIps()).thenReturn(List.of(new SuspiciousIp("fe80:0:0:0:0:0:0:1"), new SuspiciousIp("10.0.0.1")));
+
+        assertTrue(blockListIndex.isSuspiciousIp(IpAddressParser.parse("fe80:0:0:0:0:0:0:1")));
+        assertTrue(blockListIndex.isSuspiciousIp(IpAddressParser.parse("10.0.0.1")));
+        assertFalse(blockListIndex.isSuspiciousIp(IpAddressParser.parse("10.0.0.2")));
+        assertFalse(blockListIndex.isSuspiciousIp(IpAddressParser.parse("fe80:0:0:0:0:0:0:2")));
+    }
+
+    @Test
+    void shouldRebuildWhenCachedListChanges() {
+        when(antiFraudService.getSuspiciousIps())
+                .thenReturn(List.of(new SuspiciousIp("10.0.0.1")))
+                .thenReturn(List.of(new SuspiciousIp("10.0.0.2")));
+
+        assertTrue(blockListIndex.isSuspiciousIp(IpAddressParser.parse("10.0.0.1")));
+        assertFalse(blockListIndex.isSuspiciousIp(IpAddressParser.parse("10.0.0.1")));
+    }
+
+    @Test
+    void shouldMatchStolenCards() {
+        when(antiFraudService.getStolenCards()).thenReturn(List.of(new StolenCard("4000008449433403")));
+
+        assertTrue(blockListIndex.isStolenCard(4000008449433403L));
+        assertFalse(blockListIndex.isStolenCard(4000008449433402L));
+    }
+}
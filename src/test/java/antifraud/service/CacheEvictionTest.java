@@ -0,0 +1,256 @@
+package antifraud.service;
+
+import antifraud.dto.request.StolenCardRequestDTO;
+import antifraud.dto.request.SuspiciousIpRequestDTO;
+import antifraud.dto.request.UserRegistrationRequestDTO;
+import antifraud.dto.request.UserRoleRequestDTO;
+import antifraud.exception.ConflictException;
+import antifraud.model.AppUser;
+import antifraud.model.Role;
+import antifraud.model.StolenCard;
+import antifraud.model.SuspiciousIp;
+import antifraud.repo.AppUserRepo;
+import antifraud.repo.RoleRepo;
+import antifraud.repo.StolenCardRepo;
+import antifraud.repo.SuspiciousIpRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(CacheEvictionTest.Config.class)
+class CacheEvictionTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        @Bean
+        SuspiciousIpRepo suspiciousIpRepo() {
+            return mock(SuspiciousIpRepo.class);
+        }
+
+        @Bean
+        StolenCardRepo stolenCardRepo() {
+            return mock(StolenCardRepo.class);
+        }
+
+        @Bean
+        AppUserRepo appUserRepo() {
+            return mock(AppUserRepo.class);
+        }
+
+        @Bean
+        RoleRepo roleRepo() {
+            return mock(RoleRepo.class);
+        }
+
+        @Bean
+        AppUserService appUserService() {
+            return mock(AppUserService.class);
+        }
+
+        @Bean
+        AntiFraudService antiFraudService(SuspiciousIpRepo suspiciousIpRepo, StolenCardRepo stolenCardRepo,
+                                          ApplicationEventPublisher eventPublisher) {
+            return new AntiFraudService(suspiciousIpRepo, stolenCardRepo, eventPublisher);
+        }
+
+        @Bean
+        UserService userService(AppUserRepo appUserRepo, RoleRepo roleRepo, AppUserService appUserService,
+                                ApplicationEventPublisher eventPublisher) {
+            return new UserService(appUserRepo, roleRepo, appUserService, eventPublisher);
+        }
+    }
+
+    private static final String TEST_IP = "192.168.1.1";
+    private static final String TEST_CARD_NUMBER = "4000008449433403";
+
+    @Autowired
+    private AntiFraudService antiFraudService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SuspiciousIpRepo suspiciousIpRepo;
+
+    @Autowired
+    private StolenCardRepo stolenCardRepo;
+
+    @Autowired
+    private AppUserRepo appUserRepo;
+
+    @Autowired
+    private RoleRepo roleRepo;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        reset(suspiciousIpRepo, stolenCardRepo, appUserRepo, roleRepo, appUserService);
+
+        user = new AppUser("Test User", "testuser", "password");
+        Role role = new Role();
+        role.setName("ROLE_MERCHANT");
+        user.getRoles().add(role);
+
+        when(suspiciousIpRepo.findAllByOrderByIdAsc()).thenReturn(List.of(new SuspiciousIp(TEST_IP)));
+        when(stolenCardRepo.findAllByOrderByIdAsc()).thenReturn(List.of(new StolenCard(TEST_CARD_NUMBER)));
+        when(appUserRepo.findAllByOrderByIdAsc()).thenReturn(List.of(user));
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        antiFraudService.getSuspiciousIps();
+        antiFraudService.getSuspiciousIps();
+        antiFraudService.getStolenCards();
+        antiFraudService.getStolenCards();
+        userService.getAllUsers();
+        userService.getAllUsers();
+
+        verify(suspiciousIpRepo, times(1)).findAllByOrderByIdAsc();
+        verify(stolenCardRepo, times(1)).findAllByOrderByIdAsc();
+        verify(appUserRepo, times(1)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldEvictSuspiciousIpsOnAdd() {
+        antiFraudService.getSuspiciousIps();
+        when(suspiciousIpRepo.findByIp("10.0.0.1")).thenReturn(Optional.empty());
+        SuspiciousIpRequestDTO requestDTO = new SuspiciousIpRequestDTO();
+        requestDTO.setIp("10.0.0.1");
+
+        antiFraudService.addSuspiciousIp(requestDTO);
+        antiFraudService.getSuspiciousIps();
+
+        verify(suspiciousIpRepo, times(2)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldEvictSuspiciousIpsOnRemove() {
+        antiFraudService.getSuspiciousIps();
+        when(suspiciousIpRepo.findByIp(TEST_IP)).thenReturn(Optional.of(new SuspiciousIp(TEST_IP)));
+
+        antiFraudService.removeSuspiciousIp(TEST_IP);
+        antiFraudService.getSuspiciousIps();
+
+        verify(suspiciousIpRepo, times(2)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldEvictStolenCardsOnAdd() {
+        antiFraudService.getStolenCards();
+        when(stolenCardRepo.findByNumber("4000008449433402")).thenReturn(Optional.empty());
+        StolenCardRequestDTO requestDTO = new StolenCardRequestDTO();
+        requestDTO.setNumber("4000008449433402");
+
+        antiFraudService.addStolenCard(requestDTO);
+        antiFraudService.getStolenCards();
+
+        verify(stolenCardRepo, times(2)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldEvictStolenCardsOnRemove() {
+        antiFraudService.getStolenCards();
+        when(stolenCardRepo.findByNumber(TEST_CARD_NUMBER)).thenReturn(Optional.of(new StolenCard(TEST_CARD_NUMBER)));
+
+        antiFraudService.removeStolenCard(TEST_CARD_NUMBER);
+        antiFraudService.getStolenCards();
+
+        verify(stolenCardRepo, times(2)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldKeepCacheWhenOperationFails() {
+        antiFraudService.getSuspiciousIps();
+        when(suspiciousIpRepo.findByIp(TEST_IP)).thenReturn(Optional.of(new SuspiciousIp(TEST_IP)));
+        SuspiciousIpRequestDTO requestDTO = new SuspiciousIpRequestDTO();
+        requestDTO.setIp(TEST_IP);
+
+        assertThrows(ConflictException.class, () -> antiFraudService.addSuspiciousIp(requestDTO));
+        antiFraudService.getSuspiciousIps();
+
+        verify(suspiciousIpRepo, times(1)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldNotEvictOtherCaches() {
+        antiFraudService.getStolenCards();
+        when(suspiciousIpRepo.findByIp(TEST_IP)).thenReturn(Optional.of(new SuspiciousIp(TEST_IP)));
+
+        antiFraudService.removeSuspiciousIp(TEST_IP);
+        antiFraudService.getStolenCards();
+
+        verify(stolenCardRepo, times(1)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldEvictUsersOnRegister() {
+        userService.getAllUsers();
+        UserRegistrationRequestDTO registration = new UserRegistrationRequestDTO();
+        registration.setUsername("newuser");
+        registration.setName("New User");
+        registration.setPassword("password");
+        when(appUserRepo.findByUsername("newuser")).thenReturn(Optional.empty());
+        when(appUserService.register(registration)).thenReturn(user);
+
+        userService.registerUser(registration);
+        userService.getAllUsers();
+
+        verify(appUserRepo, times(2)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldEvictUsersOnDelete() {
+        userService.getAllUsers();
+        when(appUserRepo.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        userService.deleteUser("testuser");
+        userService.getAllUsers();
+
+        verify(appUserRepo, times(2)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldEvictUsersOnRoleChange() {
+        userService.getAllUsers();
+        Role support = new Role();
+        support.setName("ROLE_SUPPORT");
+        when(appUserRepo.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(roleRepo.findByName("ROLE_SUPPORT")).thenReturn(Optional.of(support));
+        UserRoleRequestDTO roleRequest = new UserRoleRequestDTO();
+        roleRequest.setUsername("testuser");
+        roleRequest.setRole("SUPPORT");
+
+        userService.changeRole(roleRequest);
+        userService.getAllUsers();
+
+        verify(appUserRepo, times(2)).findAllByOrderByIdAsc();
+    }
+}
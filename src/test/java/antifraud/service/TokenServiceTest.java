@@ -0,0 +1,119 @@
+package antifraud.service;
+
+import antifraud.config.CustomAuthenticationFailureHandler;
+import antifraud.config.CustomAuthenticationSuccessHandler;
+import antifraud.dto.request.TokenRequestDTO;
+import antifraud.dto.response.TokenResponseDTO;
+import antifraud.exception.TooManyRequestsException;
+import antifraud.exception.UnauthorizedException;
+import antifraud.security.CredentialStuffingDetector;
+import antifraud.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    private static final String IP = "192.168.1.1";
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS0zMi1ieXRlcyE=";
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private CredentialStuffingDetector credentialStuffingDetector;
+
+    @Mock
+    private CustomAuthenticationSuccessHandler successHandler;
+
+    @Mock
+    private CustomAuthenticationFailureHandler failureHandler;
+
+    private JwtService jwtService;
+    private TokenService tokenService;
+    private TokenRequestDTO tokenRequest;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, Duration.ofMinutes(15));
+        tokenService = new TokenService(authenticationManager, jwtService, credentialStuffingDetector,
+                successHandler, failureHandler);
+
+        tokenRequest = new TokenRequestDTO();
+        tokenRequest.setUsername("merchant");
+        tokenRequest.setPassword("secret");
+
+        when(credentialStuffingDetector.remainingBlock(IP)).thenReturn(Duration.ZERO);
+    }
+
+    @Test
+    void shouldIssueTokenForValidCredentials() {
+        Authentication authenticated = UsernamePasswordAuthenticationToken.authenticated(
+                "merchant", null, AuthorityUtils.createAuthorityList("ROLE_MERCHANT"));
+        when(authenticationManager.authenticate(any())).thenReturn(authenticated);
+
+        ResponseEntity<TokenResponseDTO> response = tokenService.issueToken(tokenRequest, IP);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("Bearer", response.getBody().getTokenType());
+        assertEquals(900, response.getBody().getExpiresIn());
+        assertEquals("merchant", jwtService.parse(response.getBody().getAccessToken()).getSubject());
+        verify(successHandler).recordSuccess("merchant", IP);
+    }
+
+    @Test
+    void shouldRejectInvalidCredentials() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        UnauthorizedException exception = assertThrows(UnauthorizedException.class, () -> tokenService.issueToken(tokenRequest, IP));
+        assertEquals("Invalid credentials", exception.getMessage());
+        verify(failureHandler).recordFailure("merchant", IP);
+        verify(successHandler, never()).recordSuccess(any(), any());
+    }
+
+    @Test
+    void shouldReportLockWhenFailureReachesThreshold() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        when(failureHandler.recordFailure("merchant", IP)).thenReturn(true);
+
+        UnauthorizedException exception = assertThrows(UnauthorizedException.class, () -> tokenService.issueToken(tokenRequest, IP));
+        assertEquals("User blocked due to too many failed login attempts", exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectBlockedIpBeforeAuthenticating() {
+        when(credentialStuffingDetector.remainingBlock(IP)).thenReturn(Duration.ofMillis(1500));
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> tokenService.issueToken(tokenRequest, IP));
+        assertEquals(2, exception.getRetryAfterSeconds());
+        verifyNoInteractions(authenticationManager, successHandler, failureHandler);
+    }
+
+    @Test
+    void shouldRejectLockedUser() {
+        when(authenticationManager.authenticate(any())).thenThrow(new LockedException("User account is locked"));
+
+        UnauthorizedException exception = assertThrows(UnauthorizedException.class, () -> tokenService.issueToken(tokenRequest, IP));
+        assertEquals("User is locked", exception.getMessage());
+    }
+}
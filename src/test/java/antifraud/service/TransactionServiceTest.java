@@ -1,24 +1,33 @@
 package antifraud.service;
 
+import antifraud.archive.ArchivedTransaction;
+import antifraud.archive.TransactionArchive;
 import antifraud.constants.Constants;
 import antifraud.dto.request.FeedbackRequestDTO;
+import antifraud.dto.request.ParsedTransaction;
 import antifraud.dto.request.TransactionRequestDTO;
 import antifraud.dto.response.FeedbackResponseDTO;
 import antifraud.dto.response.TransactionResponseDTO;
+import antifraud.enums.EventNames;
 import antifraud.enums.RoleNames;
 import antifraud.enums.TransactionType;
 import antifraud.exception.ConflictException;
 import antifraud.exception.NotFoundException;
 import antifraud.exception.UnprocessableEntityException;
+import antifraud.graph.LinkGraph;
+import antifraud.logging.events.transaction.TransactionCreatedEvent;
+import antifraud.messaging.OutboxWriter;
 import antifraud.model.Transaction;
-import antifraud.repo.StolenCardRepo;
-import antifraud.repo.SuspiciousIpRepo;
+import antifraud.profile.CardProfileStore;
 import antifraud.repo.TransactionRepo;
+import antifraud.rules.RuleEngine;
 import antifraud.utils.ConstantsUtil;
+import antifraud.velocity.VelocityEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -46,13 +55,28 @@ public class TransactionServiceTest {
     private TransactionRepo transactionRepo;
 
     @Mock
-    private SuspiciousIpRepo suspiciousIpRepo;
+    private BlockListIndex blockListIndex;
 
     @Mock
-    private StolenCardRepo stolenCardRepo;
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private VelocityEngine velocityEngine;
+
+    @Mock
+    private RuleEngine ruleEngine;
+
+    @Mock
+    private LinkGraph linkGraph;
+
+    @Mock
+    private CardProfileStore cardProfileStore;
+
+    @Mock
+    private TransactionArchive transactionArchive;
 
     @Mock
     private Authentication authentication;
@@ -69,6 +93,9 @@ public class TransactionServiceTest {
     void setUp() {
         initTestData();
         authentication = createValidAuthentication();
+        lenient().when(ruleEngine.evaluate(any(), anyList(), any())).thenAnswer(invocation -> invocation.getArgument(2));
+        lenient().when(linkGraph.evaluate(any(), anyList(), any())).thenAnswer(invocation -> invocation.getArgument(2));
+        lenient().when(cardProfileStore.evaluate(any(), anyList(), any())).thenAnswer(invocation -> invocation.getArgument(2));
     }
 
     private void initTestData() {
@@ -105,6 +132,27 @@ public class TransactionServiceTest {
         verify(transactionRepo, times(1)).save(any(Transaction.class));
     }
 
+    @Test
+    @DisplayName("Should record the created transaction event in the outbox")
+    void shouldAppendTransactionCreatedEventToOutbox() {
+        when(transactionRepo.save(any(Transaction.class))).thenReturn(transaction);
+
+        transactionService.addTransaction(transactionDTO, authentication);
+
+        verify(outboxWriter).append(eq(EventNames.TRANSACTION), any(TransactionCreatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should review a transaction without saving it or publishing events")
+    void shouldReviewTransactionWithoutSaving() {
+        TransactionResponseDTO response = transactionService.reviewWithoutSaving(transactionDTO);
+
+        assertEquals(TransactionType.ALLOWED.toString(), response.getResult());
+        assertEquals("none", response.getInfo());
+        verify(transactionRepo, never()).save(any(Transaction.class));
+        verifyNoInteractions(eventPublisher, outboxWriter);
+    }
+
     @Test
     @DisplayName("Should throw NotFoundException when adding feedback to a non-existent transaction")
     void shouldThrowNotFoundExceptionWhenAddingFeedbackToNonExistentTransaction() {
@@ -127,6 +175,16 @@ public class TransactionServiceTest {
         verify(transactionRepo, times(0)).save(any(Transaction.class));
     }
 
+    @Test
+    @DisplayName("Should throw ConflictException when adding feedback to an archived transaction")
+    void shouldThrowConflictExceptionWhenAddingFeedbackToArchivedTransaction() {
+        when(transactionRepo.findById(1L)).thenReturn(Optional.empty());
+        when(transactionArchive.findById(1L)).thenReturn(Optional.of(ArchivedTransaction.of(archivableTransaction(1L))));
+
+        assertThrows(ConflictException.class, () -> transactionService.addFeedback(feedbackDTO, authentication));
+        verify(transactionRepo, never()).save(any(Transaction.class));
+    }
+
     @Test
     @DisplayName("Should throw UnprocessableEntityException when feedback and result are the same")
     void shouldThrowUnprocessableEntityExceptionWhenFeedbackAndResultAreTheSame() {
@@ -156,6 +214,35 @@ public class TransactionServiceTest {
         verify(transactionRepo, times(1)).findAll(pageable);
     }
 
+    @Test
+    void shouldListArchivedTransactionsBeforeRowStoreTransactions() {
+        when(transactionArchive.count()).thenReturn(3L);
+        when(transactionArchive.list(0, 10)).thenReturn(List.of(
+                ArchivedTransaction.of(archivableTransaction(1L)),
+                ArchivedTransaction.of(archivableTransaction(2L)),
+                ArchivedTransaction.of(archivableTransaction(3L))));
+        when(transactionRepo.findAll(pageable)).thenReturn(new PageImpl<>(
+                List.of(createTransaction(4L, "1234567890123456", 100)), pageable, 1));
+
+        List<?> history = transactionService.getHistory(pageable).getBody();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), history.stream().map(dto -> ((FeedbackResponseDTO) dto).getTransactionId()).toList());
+    }
+
+    @Test
+    void shouldContinueRowStoreHistoryAfterArchivedTransactions() {
+        Pageable secondPage = PageRequest.of(1, 2);
+        when(transactionArchive.count()).thenReturn(3L);
+        when(transactionArchive.list(2, 2)).thenReturn(List.of(ArchivedTransaction.of(archivableTransaction(3L))));
+        when(transactionRepo.findAll(PageRequest.of(0, 2))).thenReturn(new PageImpl<>(List.of(
+                createTransaction(4L, "1234567890123456", 100),
+                createTransaction(5L, "1234567890123456", 100))));
+
+        List<?> history = transactionService.getHistory(secondPage).getBody();
+
+        assertEquals(List.of(3L, 4L), history.stream().map(dto -> ((FeedbackResponseDTO) dto).getTransactionId()).toList());
+    }
+
     @Test
     void shouldReturnPaginatedTransactionHistoryByCardNumber() {
         String cardNumber = "1234567890123456";
@@ -275,6 +362,70 @@ public class TransactionServiceTest {
         verify(transactionRepo, times(1)).save(transaction);
     }
 
+    @Test
+    @DisplayName("Should not feed the link graph's own verdict back into it")
+    void shouldNotMarkCardProhibitedFromGraphVerdict() {
+        when(linkGraph.evaluate(any(), anyList(), any())).thenReturn(TransactionType.PROHIBITED);
+        when(transactionRepo.save(any(Transaction.class))).thenReturn(transaction);
+
+        TransactionResponseDTO response = transactionService.processTransaction(transactionDTO, "testUser");
+
+        assertEquals(TransactionType.PROHIBITED.toString(), response.getResult());
+        verify(linkGraph).record(any(), eq(false));
+    }
+
+    @Test
+    @DisplayName("Should mark the card prohibited in the link graph on PROHIBITED feedback")
+    void shouldMarkCardProhibitedOnProhibitedFeedback() {
+        transaction.setResult(TransactionType.ALLOWED.toString());
+        transaction.setFeedback(null);
+        when(transactionRepo.findById(1L)).thenReturn(Optional.of(transaction));
+
+        FeedbackRequestDTO feedbackRequest = new FeedbackRequestDTO();
+        feedbackRequest.setTransactionId(1L);
+        feedbackRequest.setFeedback(TransactionType.PROHIBITED.toString());
+
+        transactionService.addFeedback(feedbackRequest, authentication);
+
+        verify(linkGraph).recordProhibited(1234567890123456L);
+    }
+
+    @Test
+    @DisplayName("Should keep flagged transactions out of the card profile")
+    void shouldNotProfileFlaggedTransactions() {
+        when(linkGraph.evaluate(any(), anyList(), any())).thenReturn(TransactionType.MANUAL_PROCESSING);
+        when(transactionRepo.save(any(Transaction.class))).thenReturn(transaction);
+
+        transactionService.processTransaction(transactionDTO, "testUser");
+
+        verify(cardProfileStore, never()).record(any());
+    }
+
+    @Test
+    @DisplayName("Should add a flagged transaction to the card profile once feedback allows it")
+    void shouldProfileTransactionOnAllowedFeedback() {
+        transaction.setResult(TransactionType.MANUAL_PROCESSING.toString());
+        transaction.setFeedback(null);
+        when(transactionRepo.findById(1L)).thenReturn(Optional.of(transaction));
+
+        FeedbackRequestDTO feedbackRequest = new FeedbackRequestDTO();
+        feedbackRequest.setTransactionId(1L);
+        feedbackRequest.setFeedback(TransactionType.ALLOWED.toString());
+
+        transactionService.addFeedback(feedbackRequest, authentication);
+
+        ArgumentCaptor<ParsedTransaction> parsed = ArgumentCaptor.forClass(ParsedTransaction.class);
+        verify(cardProfileStore).record(parsed.capture());
+        assertEquals(1234567890123456L, parsed.getValue().cardNumber());
+        assertEquals(100, parsed.getValue().amount());
+    }
+
+    private Transaction archivableTransaction(long id) {
+        Transaction archivable = createTransaction(id, "4000008449433403", 100);
+        archivable.setFeedback("PROHIBITED");
+        return archivable;
+    }
+
     private Authentication createValidAuthentication() {
         return new UsernamePasswordAuthenticationToken(
                 "testUser",
@@ -120,13 +120,12 @@ public class UserServiceTest {
 
         when(appUserRepo.findAllByOrderByIdAsc()).thenReturn(mockUsers);
 
-        ResponseEntity<List<UserResponseDTO>> response = userService.getAllUsers();
+        List<UserResponseDTO> response = userService.getAllUsers();
 
-        assertNotNull(response.getBody());
-        assertEquals(200, response.getStatusCode().value());
-        assertEquals(2, response.getBody().size());
-        assertEquals("testuser", response.getBody().get(0).getUsername());
-        assertEquals("MERCHANT", response.getBody().get(0).getRole());
+        assertNotNull(response);
+        assertEquals(2, response.size());
+        assertEquals("testuser", response.get(0).getUsername());
+        assertEquals("MERCHANT", response.get(0).getRole());
 
         verify(appUserRepo, times(1)).findAllByOrderByIdAsc();
     }
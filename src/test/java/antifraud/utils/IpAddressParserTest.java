@@ -0,0 +1,64 @@
+package antifraud.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpAddressParserTest {
+
+    @Test
+    void shouldPackIpv4IntoMappedRange() {
+        PackedIp ip = IpAddressParser.parse("192.168.0.1");
+
+        assertTrue(ip.isIpv4());
+        assertEquals(0xC0A80001, ip.ipv4());
+        assertEquals(0L, ip.hi());
+        assertEquals("192.168.0.1", ip.toString());
+    }
+
+    @Test
+    void shouldPackIpv6IntoTwoHalves() {
+        PackedIp ip = IpAddressParser.parse("2001:db8:85a3:0:0:8a2e:370:7334");
+
+        assertFalse(ip.isIpv4());
+        assertEquals(0x20010DB885A30000L, ip.hi());
+        assertEquals(0x00008A2E03707334L, ip.lo());
+        assertEquals("2001:db8:85a3:0:0:8a2e:370:7334", ip.toString());
+    }
+
+    @Test
+    void shouldRejectNonCanonicalLiterals() {
+        assertNull(IpAddressParser.parse("192.168.0.256"));
+        assertNull(IpAddressParser.parse("010.0.0.1"));
+        assertNull(IpAddressParser.parse("1.2.3.4."));
+        assertNull(IpAddressParser.parse("2001:db8::1"));
+        assertNull(IpAddressParser.parse("2001:DB8:0:0:0:0:0:1"));
+        assertNull(IpAddressParser.parse("2001:0db8:0:0:0:0:0:1"));
+        assertNull(IpAddressParser.parse("0:0:0:0:0:ffff:c0a8:1"));
+        assertNull(IpAddressParser.parse("0:0:0:0:0:0:0:0:1"));
+        assertNull(IpAddressParser.parse("localhost"));
+    }
+
+    @Test
+    void shouldMatchLiteralAgainstPackedValue() {
+        PackedIp ipv4 = IpAddressParser.parse("10.0.0.1");
+        PackedIp ipv6 = IpAddressParser.parse("fe80:0:0:0:0:0:0:1");
+
+        assertTrue(IpAddressParser.matches("10.0.0.1", ipv4));
+        assertFalse(IpAddressParser.matches("10.0.0.2", ipv4));
+        assertFalse(IpAddressParser.matches("fe80:0:0:0:0:0:0:1", ipv4));
+        assertTrue(IpAddressParser.matches("fe80:0:0:0:0:0:0:1", ipv6));
+        assertFalse(IpAddressParser.matches("fe80:0:0:0:0:0:0:2", ipv6));
+        assertFalse(IpAddressParser.matches(null, ipv6));
+    }
+
+    @Test
+    void shouldRoundTripBytes() {
+        PackedIp ipv4 = IpAddressParser.parse("255.0.127.1");
+        PackedIp ipv6 = IpAddressParser.parse("ffff:1:0:0:0:0:abcd:1");
+
+        assertArrayEquals(new byte[]{(byte) 255, 0, 127, 1}, ipv4.toBytes());
+        assertEquals(ipv4, PackedIp.fromBytes(ipv4.toBytes()));
+        assertEquals(ipv6, PackedIp.fromBytes(ipv6.toBytes()));
+    }
+}
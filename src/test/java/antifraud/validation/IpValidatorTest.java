@@ -64,4 +64,26 @@ class IpValidatorTest {
     void shouldReturnFalseForLongIpInput() {
         assertFalse(validator.isValid("192.168.0.1.1.2.3.4.5.6.7.8.9.10.11.12", mockContext));
     }
+
+    @Test
+    void shouldReturnTrueForCanonicalIPv6() {
+        assertTrue(validator.isValid("2001:db8:85a3:0:0:8a2e:370:7334", mockContext));
+        assertTrue(validator.isValid("0:0:0:0:0:0:0:1", mockContext));
+    }
+
+    @Test
+    void shouldReturnFalseForLeadingZeros() {
+        assertFalse(validator.isValid("192.168.0.01", mockContext));
+    }
+
+    @Test
+    void shouldReturnFalseForHostNamesWithoutResolvingThem() {
+        assertFalse(validator.isValid("localhost", mockContext));
+        assertFalse(validator.isValid("example.com", mockContext));
+    }
+
+    @Test
+    void shouldReturnFalseForNull() {
+        assertFalse(validator.isValid(null, mockContext));
+    }
 }
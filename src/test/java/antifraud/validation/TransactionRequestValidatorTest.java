@@ -0,0 +1,90 @@
+package antifraud.validation;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.enums.RegionNames;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionRequestValidatorTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void shouldAcceptValidRequestAndKeepItsParsedForm() {
+        TransactionRequestDTO dto = createRequest("192.168.1.1", "4000008449433403", "MENA");
+
+        assertTrue(validator.validate(dto).isEmpty());
+
+        ParsedTransaction parsed = dto.getParsed();
+        assertEquals(4000008449433403L, parsed.cardNumber());
+        assertEquals(400000, parsed.bin());
+        assertEquals(RegionNames.MENA, parsed.region());
+        assertEquals("192.168.1.1", parsed.ip().toString());
+        assertEquals(LocalDateTime.parse("2024-01-01T10:00:00"), parsed.date());
+        assertSame(parsed, dto.getParsed());
+    }
+
+    @Test
+    void shouldReportEachInvalidFieldWithItsMessage() {
+        TransactionRequestDTO dto = createRequest("192.168.1.256", "4000008449433402", "MARS");
+        dto.setAmount(0);
+
+        Map<String, String> errors = errors(validator.validate(dto));
+
+        assertEquals("must be greater than or equal to 1", errors.get("amount"));
+        assertEquals("Invalid IP", errors.get("ip"));
+        assertEquals("Invalid card number according to the Luhn algorithm", errors.get("number"));
+        assertEquals("Invalid region", errors.get("region"));
+        assertEquals(4, errors.size());
+    }
+
+    @Test
+    void shouldReportMissingFields() {
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setAmount(100);
+
+        Map<String, String> errors = errors(validator.validate(dto));
+
+        assertEquals("must not be blank", errors.get("ip"));
+        assertEquals("must not be blank", errors.get("number"));
+        assertEquals("must not be blank", errors.get("region"));
+        assertEquals("must not be null", errors.get("date"));
+        assertNull(dto.getParsed());
+    }
+
+    @Test
+    void shouldReparseAfterFieldChanges() {
+        TransactionRequestDTO dto = createRequest("192.168.1.1", "4000008449433403", "EAP");
+        ParsedTransaction before = dto.getParsed();
+
+        dto.setRegion("SA");
+
+        assertNotSame(before, dto.getParsed());
+        assertEquals(RegionNames.SA, dto.getParsed().region());
+    }
+
+    private static Map<String, String> errors(Set<ConstraintViolation<TransactionRequestDTO>> violations) {
+        return violations.stream()
+                .collect(Collectors.toMap(violation -> violation.getPropertyPath().toString(), ConstraintViolation::getMessage));
+    }
+
+    private static TransactionRequestDTO createRequest(String ip, String number, String region) {
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setAmount(150);
+        dto.setIp(ip);
+        dto.setNumber(number);
+        dto.setRegion(region);
+        dto.setDate(LocalDateTime.parse("2024-01-01T10:00:00"));
+        return dto;
+    }
+}
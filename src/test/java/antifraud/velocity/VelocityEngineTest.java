@@ -0,0 +1,150 @@
+package antifraud.velocity;
+
+import antifraud.dto.request.ParsedTransaction;
+import antifraud.enums.RegionNames;
+import antifraud.enums.TransactionType;
+import antifraud.utils.IpAddressParser;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityEngineTest {
+
+    private static final long CARD = 4000008449433403L;
+    private static final long START = 1_700_000_000L;
+
+    @Test
+    void shouldFireCountRuleWhenTheWindowFillsUp() {
+        VelocityEngine engine = new VelocityEngine(properties(rule("card-burst", VelocityField.CARD,
+                VelocityProperties.Aggregate.COUNT, null, Duration.ofMinutes(1), 2, TransactionType.PROHIBITED)));
+
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START));
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START + 10));
+
+        assertEquals(List.of("card-burst"), names(engine.evaluate(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START + 20))));
+        assertTrue(engine.evaluate(transaction(CARD + 1, "10.0.0.1", RegionNames.EAP, 100, START + 20)).isEmpty());
+    }
+
+    @Test
+    void shouldForgetTransactionsThatSlideOutOfTheWindow() {
+        VelocityEngine engine = new VelocityEngine(properties(rule("card-burst", VelocityField.CARD,
+                VelocityProperties.Aggregate.COUNT, null, Duration.ofMinutes(1), 2, TransactionType.PROHIBITED)));
+
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START));
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START + 1));
+
+        assertTrue(engine.evaluate(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START + 61)).isEmpty());
+    }
+
+    @Test
+    void shouldSumAmountsPerIp() {
+        VelocityEngine engine = new VelocityEngine(properties(rule("ip-spend", VelocityField.IP,
+                VelocityProperties.Aggregate.SUM, null, Duration.ofHours(1), 1000, TransactionType.MANUAL_PROCESSING)));
+
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 600, START));
+        engine.apply(transaction(CARD + 1, "10.0.0.2", RegionNames.EAP, 600, START));
+
+        assertTrue(engine.evaluate(transaction(CARD + 2, "10.0.0.1", RegionNames.EAP, 400, START + 5)).isEmpty());
+        assertEquals(1, engine.evaluate(transaction(CARD + 2, "10.0.0.1", RegionNames.EAP, 401, START + 5)).size());
+    }
+
+    @Test
+    void shouldCountDistinctValuesIncludingTheCurrentOne() {
+        VelocityEngine engine = new VelocityEngine(properties(rule("region-spread", VelocityField.CARD,
+                VelocityProperties.Aggregate.DISTINCT, VelocityField.REGION, Duration.ofHours(1), 2, TransactionType.PROHIBITED)));
+
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START));
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.ECA, 100, START + 60));
+
+        assertTrue(engine.evaluate(transaction(CARD, "10.0.0.1", RegionNames.ECA, 100, START + 120)).isEmpty());
+        assertEquals(1, engine.evaluate(transaction(CARD, "10.0.0.1", RegionNames.MENA, 100, START + 120)).size());
+        assertTrue(engine.evaluate(transaction(CARD, "10.0.0.1", RegionNames.MENA, 100, START + 3700)).isEmpty());
+    }
+
+    @Test
+    void shouldCountTransactionsDatedBeforeTheEpoch() {
+        VelocityEngine engine = new VelocityEngine(properties(rule("card-burst", VelocityField.CARD,
+                VelocityProperties.Aggregate.COUNT, null, Duration.ofMinutes(1), 2, TransactionType.PROHIBITED)));
+
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, -90));
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, -80));
+
+        assertEquals(List.of("card-burst"), names(engine.evaluate(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, -70))));
+        assertTrue(engine.evaluate(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, -20)).isEmpty());
+    }
+
+    @Test
+    void shouldEvictKeysIdleForTheLongestWindow() {
+        VelocityEngine engine = new VelocityEngine(properties(rule("card-burst", VelocityField.CARD,
+                VelocityProperties.Aggregate.COUNT, null, Duration.ofMinutes(1), 2, TransactionType.PROHIBITED)),
+                clockAt(START + Duration.ofHours(25).toSeconds()));
+
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START));
+        engine.apply(transaction(CARD + 1, "10.0.0.1", RegionNames.EAP, 100, START + Duration.ofHours(25).toSeconds()));
+        engine.evictIdleKeys();
+
+        assertEquals(1, engine.keyCount());
+    }
+
+    @Test
+    void shouldNotEvictCurrentKeysAfterFutureDatedTransaction() {
+        VelocityEngine engine = new VelocityEngine(properties(rule("card-burst", VelocityField.CARD,
+                VelocityProperties.Aggregate.COUNT, null, Duration.ofMinutes(1), 2, TransactionType.PROHIBITED)),
+                clockAt(START + 30));
+
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START));
+        engine.apply(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START + 10));
+        engine.apply(transaction(CARD + 1, "10.0.0.2", RegionNames.EAP, 100,
+                LocalDateTime.of(2099, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC)));
+        engine.evictIdleKeys();
+
+        assertEquals(2, engine.keyCount());
+        assertEquals(List.of("card-burst"), names(engine.evaluate(transaction(CARD, "10.0.0.1", RegionNames.EAP, 100, START + 20))));
+    }
+
+    @Test
+    void shouldRejectRulesOnUnconfiguredWindows() {
+        VelocityProperties properties = properties(rule("odd", VelocityField.CARD,
+                VelocityProperties.Aggregate.COUNT, null, Duration.ofMinutes(5), 2, TransactionType.PROHIBITED));
+
+        assertThrows(IllegalStateException.class, () -> new VelocityEngine(properties));
+    }
+
+    private static Clock clockAt(long epochSecond) {
+        return Clock.fixed(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+
+    private static VelocityProperties properties(VelocityProperties.Rule rule) {
+        VelocityProperties properties = new VelocityProperties();
+        properties.getRules().add(rule);
+        return properties;
+    }
+
+    private static VelocityProperties.Rule rule(String name, VelocityField key, VelocityProperties.Aggregate aggregate,
+                                                VelocityField field, Duration window, long threshold, TransactionType action) {
+        VelocityProperties.Rule rule = new VelocityProperties.Rule();
+        rule.setName(name);
+        rule.setKey(key);
+        rule.setAggregate(aggregate);
+        rule.setField(field);
+        rule.setWindow(window);
+        rule.setThreshold(threshold);
+        rule.setAction(action);
+        return rule;
+    }
+
+    private static ParsedTransaction transaction(long card, String ip, RegionNames region, long amount, long epochSecond) {
+        return new ParsedTransaction(amount, card, IpAddressParser.parse(ip), region, epochSecond);
+    }
+
+    private static List<String> names(List<VelocityRule> rules) {
+        return rules.stream().map(VelocityRule::name).toList();
+    }
+}
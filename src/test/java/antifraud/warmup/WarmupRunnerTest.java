@@ -0,0 +1,102 @@
+package antifraud.warmup;
+
+import antifraud.dto.request.TransactionRequestDTO;
+import antifraud.model.AppUser;
+import antifraud.model.Role;
+import antifraud.repo.AppUserRepo;
+import antifraud.service.AntiFraudService;
+import antifraud.service.TransactionService;
+import antifraud.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+
+    @Mock
+    private AntiFraudService antiFraudService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private AppUserRepo appUserRepo;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private WarmupHealthIndicator healthIndicator;
+    private WarmupRunner warmupRunner;
+
+    @BeforeEach
+    void setUp() {
+        healthIndicator = new WarmupHealthIndicator();
+        warmupRunner = new WarmupRunner(antiFraudService, userService, transactionService, appUserRepo,
+                userDetailsService, healthIndicator, Runnable::run);
+        ReflectionTestUtils.setField(warmupRunner, "enabled", true);
+        ReflectionTestUtils.setField(warmupRunner, "syntheticTransactions", 20);
+        ReflectionTestUtils.setField(warmupRunner, "maxPrincipals", 10);
+        ReflectionTestUtils.setField(warmupRunner, "timeout", Duration.ofSeconds(5));
+    }
+
+    private AppUser user(String username, String role, boolean locked) {
+        AppUser user = new AppUser(username, username, "password");
+        user.getRoles().add(new Role(role));
+        user.setLocked(locked);
+        return user;
+    }
+
+    @Test
+    void shouldBeOutOfServiceUntilWarmupFinishes() {
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void shouldWarmCachesPrincipalsAndReviewLogic() {
+        when(appUserRepo.findAllByOrderByIdAsc()).thenReturn(List.of(
+                user("merchant", "ROLE_MERCHANT", false),
+                user("locked", "ROLE_MERCHANT", true),
+                user("admin", "ROLE_ADMINISTRATOR", false)));
+
+        warmupRunner.run(null);
+
+        verify(antiFraudService).getStolenCards();
+        verify(antiFraudService).getSuspiciousIps();
+        verify(userService).getAllUsers();
+        verify(userDetailsService).loadUserByUsername("merchant");
+        verifyNoMoreInteractions(userDetailsService);
+        verify(transactionService, times(20)).reviewWithoutSaving(any(TransactionRequestDTO.class));
+        verify(transactionService, never()).addTransaction(any(), any());
+
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        assertEquals("20/20", healthIndicator.health().getDetails().get("syntheticReviews"));
+    }
+
+    @Test
+    void shouldReportUpWithErrorWhenWarmupFails() {
+        when(antiFraudService.getStolenCards()).thenThrow(new IllegalStateException("database unavailable"));
+
+        warmupRunner.run(null);
+
+        assertTrue(healthIndicator.isFinished());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        assertNotNull(healthIndicator.health().getDetails().get("error"));
+        verifyNoInteractions(transactionService);
+    }
+}